@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.apiv4.dashboard;
+
+import com.thoughtworks.go.api.base.JsonOutputWriter;
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardDeltaRepresenter;
+import com.thoughtworks.go.server.dashboard.DashboardDelta;
+import com.thoughtworks.go.server.dashboard.DashboardDeltaRenderer;
+import com.thoughtworks.go.server.domain.Username;
+import org.springframework.stereotype.Component;
+
+import java.io.StringWriter;
+
+/* Renders what the dashboard websocket sends in the same shape as the dashboard API. There is no request to build links from, so links are left out. */
+@Component
+public class DashboardDeltaJsonRenderer implements DashboardDeltaRenderer {
+    @Override
+    public String render(DashboardDelta delta, Username username) {
+        StringWriter writer = new StringWriter(1024);
+        new JsonOutputWriter(writer, null).forTopLevelObject(outputWriter -> DashboardDeltaRepresenter.toJSON(outputWriter, delta, username));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.apiv4.dashboard.representers;
+
+import com.thoughtworks.go.api.base.OutputWriter;
+import com.thoughtworks.go.server.dashboard.DashboardDelta;
+import com.thoughtworks.go.server.domain.Username;
+
+public class DashboardDeltaRepresenter {
+
+    public static void toJSON(OutputWriter jsonOutputWriter, DashboardDelta delta, Username username) {
+        jsonOutputWriter
+                .add("type", delta.isSnapshot() ? "snapshot" : "delta")
+                .add("sequence", delta.getSequenceNumber())
+                .add("_personalization", delta.getPersonalizationEtag())
+                .addChildList("pipeline_groups", listWriter -> {
+                    delta.getPipelineGroups().forEach(group -> {
+                        listWriter.addChild(childItemWriter -> DashboardGroupRepresenter.toJSON(childItemWriter, group, username));
+                    });
+                })
+                .addChildList("environments", listWriter -> {
+                    delta.getEnvironments().forEach(environment -> {
+                        listWriter.addChild(childItemWriter -> DashboardGroupRepresenter.toJSON(childItemWriter, environment, username));
+                    });
+                })
+                .addChildList("pipelines", listWriter -> {
+                    delta.getChangedPipelines().forEach(pipeline -> {
+                        listWriter.addChild(childItemWriter -> PipelineRepresenter.toJSON(childItemWriter, pipeline, username));
+                    });
+                })
+                .addChildList("removed_pipelines", delta.getRemovedPipelines());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.apiv4.dashboard.representers
+
+import com.thoughtworks.go.apiv4.dashboard.GoDashboardPipelineMother
+import com.thoughtworks.go.config.CaseInsensitiveString
+import com.thoughtworks.go.config.security.Permissions
+import com.thoughtworks.go.config.security.permissions.EveryonePermission
+import com.thoughtworks.go.config.security.users.Everyone
+import com.thoughtworks.go.server.dashboard.DashboardDelta
+import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup
+import com.thoughtworks.go.server.domain.Username
+import com.thoughtworks.go.spark.util.SecureRandom
+import org.junit.jupiter.api.Test
+
+import static com.thoughtworks.go.api.base.JsonUtils.toObject
+import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson
+import static org.assertj.core.api.Assertions.assertThat
+
+class DashboardDeltaRepresenterTest {
+
+  @Test
+  void 'renders only the changed pipelines of a delta, along with the removed ones'() {
+    def user = new Username(new CaseInsensitiveString(SecureRandom.hex()))
+    def permissions = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE)
+
+    def pipeline1 = GoDashboardPipelineMother.dashboardPipeline('pipeline1')
+    def pipeline2 = GoDashboardPipelineMother.dashboardPipeline('pipeline2')
+    def group = new GoDashboardPipelineGroup('group1', permissions, true)
+    group.addPipeline(pipeline1)
+    group.addPipeline(pipeline2)
+
+    def actualJson = toObject({
+      DashboardDeltaRepresenter.toJSON(it, DashboardDelta.changes(42L, "sha256hash", [group], [], [pipeline2], ['pipeline3']), user)
+    })
+
+    assertThat(actualJson.type).isEqualTo('delta')
+    assertThat(actualJson.sequence as long).isEqualTo(42L)
+    assertThat(actualJson._personalization).isEqualTo('sha256hash')
+    assertThatJson(actualJson.pipeline_groups).isEqualTo([toObject({ DashboardGroupRepresenter.toJSON(it, group, user) })])
+    assertThatJson(actualJson.environments).isEqualTo([])
+    assertThatJson(actualJson.pipelines).isEqualTo([toObject({ PipelineRepresenter.toJSON(it, pipeline2, user) })])
+    assertThatJson(actualJson.removed_pipelines).isEqualTo(['pipeline3'])
+  }
+
+  @Test
+  void 'renders a snapshot'() {
+    def user = new Username(new CaseInsensitiveString(SecureRandom.hex()))
+    def pipeline1 = GoDashboardPipelineMother.dashboardPipeline('pipeline1')
+
+    def actualJson = toObject({
+      DashboardDeltaRepresenter.toJSON(it, DashboardDelta.snapshot(7L, "sha256hash", [], [], [pipeline1]), user)
+    })
+
+    assertThat(actualJson.type).isEqualTo('snapshot')
+    assertThatJson(actualJson.pipelines).isEqualTo([toObject({ PipelineRepresenter.toJSON(it, pipeline1, user) })])
+    assertThatJson(actualJson.removed_pipelines).isEqualTo([])
+  }
+}
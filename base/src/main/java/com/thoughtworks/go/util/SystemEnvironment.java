@@ -100,6 +100,10 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final String TFS_SOCKET_TIMEOUT_PROPERTY = "tfs.socket.block.timeout";
 
     public static GoSystemProperty<Integer> RESOLVE_FANIN_MAX_BACK_TRACK_LIMIT = new CachedProperty<>(new GoIntSystemProperty("resolve.fanin.max.backtrack.limit", 100));
+    public static GoSystemProperty<Integer> PIPELINE_SEARCH_INDEX_MAX_SIZE_IN_MB = new GoIntSystemProperty("pipeline.search.index.max.size.mb", 64);
+    public static GoSystemProperty<Integer> MATERIAL_SEARCH_INDEX_MAX_SIZE_IN_MB = new GoIntSystemProperty("material.search.index.max.size.mb", 64);
+    public static GoSystemProperty<Integer> PIPELINE_TIMELINE_INSTANCES_WITH_ALL_REVISIONS = new GoIntSystemProperty("pipeline.timeline.instances.with.all.revisions", 100);
+    public static GoSystemProperty<Long> DASHBOARD_WEBSOCKET_SEND_TIMEOUT = new GoLongSystemProperty("dashboard.websocket.send.timeout.millis", 30 * 1000L);
     public static GoSystemProperty<Integer> MATERIAL_UPDATE_INACTIVE_TIMEOUT = new CachedProperty<>(new GoIntSystemProperty("material.update.inactive.timeout", 15));
 
     public static final String MATERIAL_UPDATE_IDLE_INTERVAL_PROPERTY = "material.update.idle.interval";
@@ -135,6 +139,13 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<Integer> JMS_LISTENER_BACKOFF_TIME = new GoIntSystemProperty("go.jms.listener.backoff.time.in.milliseconds", 5000);
 
     public static final GoSystemProperty<Integer> GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_CACHE_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.authorization.extension.calls.cache.timeout.in.secs", 60 * 30);
+    public static final GoSystemProperty<Integer> GO_SERVER_ACCESS_TOKEN_CACHE_SIZE = new GoIntSystemProperty("go.server.access.token.cache.size", 1000);
+    public static final GoSystemProperty<Integer> GO_SERVER_ACCESS_TOKEN_CACHE_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.access.token.cache.timeout.in.secs", 60 * 5);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_LOOKUP_THREADS_PER_PLUGIN = new GoIntSystemProperty("go.server.secrets.lookup.threads.per.plugin", 4);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_LOOKUP_MAX_PENDING_PER_PLUGIN = new GoIntSystemProperty("go.server.secrets.lookup.max.pending.per.plugin", 100);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_LOOKUP_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.secrets.lookup.timeout.in.secs", 60);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_CACHE_SIZE = new GoIntSystemProperty("go.server.secrets.cache.size", 1000);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_CACHE_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.secrets.cache.timeout.in.secs", 0);
 
     public static GoSystemProperty<String> JETTY_XML_FILE_NAME = new GoStringSystemProperty("jetty.xml.file.name", JETTY_XML);
 
@@ -157,6 +168,11 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
 
     public static GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_CREATE_AGENT_THREADS = new GoIntSystemProperty("go.elasticplugin.createagent.threads", 5);
     public static GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_SERVER_PING_THREADS = new GoIntSystemProperty("go.elasticplugin.serverping.threads", 1);
+    public static GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_CREATE_AGENT_MAX_PENDING_PER_PROFILE = new GoIntSystemProperty("go.elasticplugin.createagent.max.pending.per.profile", 100);
+    public static GoSystemProperty<Integer> PLUGIN_QUEUE_MAX_PENDING_MESSAGES = new GoIntSystemProperty("plugin.queue.max.pending.messages", 10000);
+    public static GoSystemProperty<Long> PLUGIN_QUEUE_CALL_TIMEOUT = new GoLongSystemProperty("plugin.queue.call.timeout.millis", 5 * 60 * 1000L);
+    public static GoSystemProperty<Integer> PLUGIN_QUEUE_CIRCUIT_BREAKER_FAILURE_THRESHOLD = new GoIntSystemProperty("plugin.queue.circuit.breaker.failure.threshold", 10);
+    public static GoSystemProperty<Long> PLUGIN_QUEUE_CIRCUIT_BREAKER_OPEN_INTERVAL = new GoLongSystemProperty("plugin.queue.circuit.breaker.open.millis", 60 * 1000L);
     public static GoSystemProperty<Integer> GO_ENCRYPTION_API_MAX_REQUESTS = new GoIntSystemProperty("go.encryption.api.max.requests", 30);
 
     public static GoSystemProperty<String> GO_ANALYTICS_PLUGIN_EXTERNAL_ASSETS = new GoStringSystemProperty("go.analytics.plugin.external.assets", "./analytics-assets");
@@ -175,6 +191,12 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static GoIntSystemProperty DEPENDENCY_MATERIAL_UPDATE_LISTENERS = new GoIntSystemProperty("dependency.material.check.threads", 3);
 
     public static GoIntSystemProperty CONFIG_MATERIAL_POST_UPDATE_LISTENERS = new GoIntSystemProperty("config.material.post.update.threads", 2);
+    public static GoIntSystemProperty CONFIG_REPO_PARSE_THREADS = new GoIntSystemProperty("config.repo.parse.threads", 4);
+    public static GoIntSystemProperty CONFIG_REPO_PARSE_THREADS_PER_PLUGIN = new GoIntSystemProperty("config.repo.parse.threads.per.plugin", 2);
+    public static GoSystemProperty<Boolean> CONFIG_REPO_PARSE_CACHE_ENABLED = new GoBooleanSystemProperty("config.repo.parse.cache.enabled", true);
+    public static GoSystemProperty<String> CONFIG_REPO_PARSE_CACHE_DIR = new GoStringSystemProperty("config.repo.parse.cache.dir", DB_BASE_DIR + "config-repo-parse-cache");
+    public static GoIntSystemProperty CONFIG_LISTENER_NOTIFICATION_THREADS = new GoIntSystemProperty("config.listener.notification.threads", 4);
+    public static GoBooleanSystemProperty CONFIG_FILE_WATCH_ENABLED = new GoBooleanSystemProperty("cruise.config.file.watch.enabled", true);
 
     public static GoSystemProperty<String> GO_SERVER_MODE = new GoStringSystemProperty("go.server.mode", "production");
     public static GoBooleanSystemProperty REAUTHENTICATION_ENABLED = new GoBooleanSystemProperty("go.security.reauthentication.enabled", true);
@@ -195,6 +217,8 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     private static GoSystemProperty<Boolean> GO_PLUGIN_CLASSLOADER_OLD = new GoBooleanSystemProperty("gocd.plugins.classloader.old", false);
     public static final GoSystemProperty<String> LOADING_PAGE = new GoStringSystemProperty("loading.page.resource.path", "/loading_pages/new.loading.page.html");
     public static GoSystemProperty<Long> NOTIFICATION_PLUGIN_MESSAGES_TTL = new GoLongSystemProperty("plugins.notification.message.ttl.millis", 2 * 60 * 1000L);
+    public static GoSystemProperty<Integer> NOTIFICATION_PLUGIN_BATCH_SIZE = new GoIntSystemProperty("plugins.notification.batch.size", 100);
+    public static GoSystemProperty<Long> NOTIFICATION_PLUGIN_BATCH_INTERVAL = new GoLongSystemProperty("plugins.notification.batch.interval.millis", 1000L);
     public static final GoSystemProperty<Boolean> ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP = new GoBooleanSystemProperty("allow.everyone.to.view.operate.groups.with.no.authorization.setup", false);
 
     public static GoSystemProperty<Boolean> ENABLE_HSTS_HEADER = new GoBooleanSystemProperty("gocd.enable.hsts.header", false);
@@ -405,6 +429,30 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return CONFIG_MATERIAL_POST_UPDATE_LISTENERS.getValue();
     }
 
+    public int getNumberOfConfigRepoParseThreads() {
+        return CONFIG_REPO_PARSE_THREADS.getValue();
+    }
+
+    public int getMaxConcurrentConfigRepoParsesPerPlugin() {
+        return CONFIG_REPO_PARSE_THREADS_PER_PLUGIN.getValue();
+    }
+
+    public boolean isConfigRepoParseCacheEnabled() {
+        return CONFIG_REPO_PARSE_CACHE_ENABLED.getValue();
+    }
+
+    public File getConfigRepoParseCacheDir() {
+        return new File(CONFIG_REPO_PARSE_CACHE_DIR.getValue());
+    }
+
+    public int getNumberOfConfigListenerNotificationThreads() {
+        return CONFIG_LISTENER_NOTIFICATION_THREADS.getValue();
+    }
+
+    public boolean isConfigFileWatchEnabled() {
+        return CONFIG_FILE_WATCH_ENABLED.getValue();
+    }
+
     public String getAgentMd5() {
         return getPropertyImpl(GoConstants.AGENT_JAR_MD5, BLANK_STRING);
     }
@@ -613,6 +661,34 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_CACHE_TIMEOUT_IN_SECONDS.getValue();
     }
 
+    public int getAccessTokenCacheSize() {
+        return GO_SERVER_ACCESS_TOKEN_CACHE_SIZE.getValue();
+    }
+
+    public int getAccessTokenCacheTimeoutInSeconds() {
+        return GO_SERVER_ACCESS_TOKEN_CACHE_TIMEOUT_IN_SECONDS.getValue();
+    }
+
+    public int getNumberOfSecretsLookupThreadsPerPlugin() {
+        return GO_SERVER_SECRETS_LOOKUP_THREADS_PER_PLUGIN.getValue();
+    }
+
+    public int getMaxPendingSecretsLookupsPerPlugin() {
+        return GO_SERVER_SECRETS_LOOKUP_MAX_PENDING_PER_PLUGIN.getValue();
+    }
+
+    public int getSecretsLookupTimeoutInSeconds() {
+        return GO_SERVER_SECRETS_LOOKUP_TIMEOUT_IN_SECONDS.getValue();
+    }
+
+    public int getSecretsCacheSize() {
+        return GO_SERVER_SECRETS_CACHE_SIZE.getValue();
+    }
+
+    public int getSecretsCacheTimeoutInSeconds() {
+        return GO_SERVER_SECRETS_CACHE_TIMEOUT_IN_SECONDS.getValue();
+    }
+
     public String getBundledPluginAbsolutePath() {
         return new File(get(PLUGIN_GO_PROVIDED_PATH)).getAbsolutePath();
     }
@@ -753,6 +829,34 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return Integer.parseInt(getPropertyImpl("plugin." + pluginId + ".notifications.listener.count", "1"));
     }
 
+    public int getNotificationPluginBatchSize() {
+        return NOTIFICATION_PLUGIN_BATCH_SIZE.getValue();
+    }
+
+    public long getNotificationPluginBatchIntervalInMillis() {
+        return NOTIFICATION_PLUGIN_BATCH_INTERVAL.getValue();
+    }
+
+    public int getListenerCountForPluginQueue(String pluginId, String queue, int defaultCount) {
+        return Integer.parseInt(getPropertyImpl("plugin." + pluginId + "." + queue + ".listener.count", String.valueOf(defaultCount)));
+    }
+
+    public int getPluginQueueMaxPendingMessages(String pluginId) {
+        return Integer.parseInt(getPropertyImpl("plugin." + pluginId + ".queue.max.pending.messages", String.valueOf(PLUGIN_QUEUE_MAX_PENDING_MESSAGES.getValue())));
+    }
+
+    public long getPluginQueueCallTimeoutInMillis(String pluginId) {
+        return Long.parseLong(getPropertyImpl("plugin." + pluginId + ".queue.call.timeout.millis", String.valueOf(PLUGIN_QUEUE_CALL_TIMEOUT.getValue())));
+    }
+
+    public int getPluginQueueCircuitBreakerFailureThreshold(String pluginId) {
+        return Integer.parseInt(getPropertyImpl("plugin." + pluginId + ".queue.circuit.breaker.failure.threshold", String.valueOf(PLUGIN_QUEUE_CIRCUIT_BREAKER_FAILURE_THRESHOLD.getValue())));
+    }
+
+    public long getPluginQueueCircuitBreakerOpenIntervalInMillis(String pluginId) {
+        return Long.parseLong(getPropertyImpl("plugin." + pluginId + ".queue.circuit.breaker.open.millis", String.valueOf(PLUGIN_QUEUE_CIRCUIT_BREAKER_OPEN_INTERVAL.getValue())));
+    }
+
     public boolean enableAnalyticsOnlyForAdmins() {
         return ENABLE_ANALYTICS_ONLY_FOR_ADMINS.getValue();
     }
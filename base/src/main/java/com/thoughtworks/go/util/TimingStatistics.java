@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @understands how many times something was done, how many of those times it failed, and how long it took: the last
+ * time, on average and at most
+ */
+public class TimingStatistics {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong totalTimeInMillis = new AtomicLong();
+    private final AtomicLong maxTimeInMillis = new AtomicLong();
+    private volatile long lastTimeInMillis;
+
+    public void record(long timeInMillis) {
+        record(timeInMillis, false);
+    }
+
+    public void record(long timeInMillis, boolean failed) {
+        count.incrementAndGet();
+        if (failed) {
+            failureCount.incrementAndGet();
+        }
+        totalTimeInMillis.addAndGet(timeInMillis);
+        maxTimeInMillis.accumulateAndGet(timeInMillis, Math::max);
+        lastTimeInMillis = timeInMillis;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getLastTimeInMillis() {
+        return lastTimeInMillis;
+    }
+
+    public long getAverageTimeInMillis() {
+        long count = this.count.get();
+        return count == 0 ? 0 : totalTimeInMillis.get() / count;
+    }
+
+    public long getMaxTimeInMillis() {
+        return maxTimeInMillis.get();
+    }
+}
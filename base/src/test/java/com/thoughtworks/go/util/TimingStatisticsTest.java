@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingStatisticsTest {
+    @Test
+    void shouldBeZeroUntilSomethingIsRecorded() {
+        TimingStatistics statistics = new TimingStatistics();
+
+        assertThat(statistics.getCount()).isZero();
+        assertThat(statistics.getFailureCount()).isZero();
+        assertThat(statistics.getLastTimeInMillis()).isZero();
+        assertThat(statistics.getAverageTimeInMillis()).isZero();
+        assertThat(statistics.getMaxTimeInMillis()).isZero();
+    }
+
+    @Test
+    void shouldCountFailuresAndTrackTheLastAverageAndMaximumTime() {
+        TimingStatistics statistics = new TimingStatistics();
+
+        statistics.record(100);
+        statistics.record(500, true);
+        statistics.record(300);
+
+        assertThat(statistics.getCount()).isEqualTo(3);
+        assertThat(statistics.getFailureCount()).isEqualTo(1);
+        assertThat(statistics.getLastTimeInMillis()).isEqualTo(300);
+        assertThat(statistics.getAverageTimeInMillis()).isEqualTo(300);
+        assertThat(statistics.getMaxTimeInMillis()).isEqualTo(500);
+    }
+}
@@ -15,11 +15,10 @@
  */
 package com.thoughtworks.go.domain;
 
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 
@@ -61,7 +60,11 @@ public class PipelineTimelineEntry implements Comparable {
         }
 
         PipelineTimelineEntry that = (PipelineTimelineEntry) o;
-        Map<Date, TreeSet<Integer>> earlierMods = new HashMap<>();
+        // the earliest modification date at which the two differ, and which of the two was earlier at that date.
+        // Kept in locals as this is called for every comparison while building the timeline.
+        Date earliestMod = null;
+        boolean thisEarlierAtEarliestMod = false;
+        boolean thatEarlierAtEarliestMod = false;
 
         for (String materialFlyweight : revisions.keySet()) {
             List<Revision> thisRevs = this.revisions.get(materialFlyweight);
@@ -79,35 +82,27 @@ public class PipelineTimelineEntry implements Comparable {
             if (thisDate.equals(thatDate)) {
                 continue;
             }
-            populateEarlierModification(earlierMods, thisDate, thatDate);
-        }
-        if (earlierMods.isEmpty()) {
-            return counter < that.counter ? -1 : 1;
+            boolean thisIsEarlier = thisDate.before(thatDate);
+            Date earlier = thisIsEarlier ? thisDate : thatDate;
+            if (earliestMod == null || earlier.before(earliestMod)) {
+                earliestMod = earlier;
+                thisEarlierAtEarliestMod = thisIsEarlier;
+                thatEarlierAtEarliestMod = !thisIsEarlier;
+            } else if (earlier.equals(earliestMod)) {
+                thisEarlierAtEarliestMod |= thisIsEarlier;
+                thatEarlierAtEarliestMod |= !thisIsEarlier;
+            }
         }
-        TreeSet<Date> sortedModDate = new TreeSet<>(earlierMods.keySet());
-        if (hasContentionOnEarliestMod(earlierMods, sortedModDate.first())) {
+        if (earliestMod == null || (thisEarlierAtEarliestMod && thatEarlierAtEarliestMod)) {
             return counter < that.counter ? -1 : 1;
         }
-        return earlierMods.get(sortedModDate.first()).first();
+        return thisEarlierAtEarliestMod ? -1 : 1;
     }
 
     public int getCounter() {
         return counter;
     }
 
-    private void populateEarlierModification(Map<Date, TreeSet<Integer>> earlierMods, Date thisDate, Date thatDate) {
-        int value = thisDate.before(thatDate) ? -1 : 1;
-        Date actual = thisDate.before(thatDate) ? thisDate : thatDate;
-        if (!earlierMods.containsKey(actual)) {
-            earlierMods.put(actual, new TreeSet<>());
-        }
-        earlierMods.get(actual).add(value);
-    }
-
-    private boolean hasContentionOnEarliestMod(Map<Date, TreeSet<Integer>> earlierMods, Date earliestModDate) {
-        return earlierMods.get(earliestModDate).size() > 1;
-    }
-
     public PipelineTimelineEntry insertedBefore() {
         return insertedBefore;
     }
@@ -209,6 +204,17 @@ public class PipelineTimelineEntry implements Comparable {
         return revisions;
     }
 
+    /**
+     * Keeps only the first revision of each material, which is the one ordering and fan-in resolution look at.
+     */
+    public void trimRevisionsToFirst() {
+        for (Map.Entry<String, List<Revision>> revisionsOfMaterial : revisions.entrySet()) {
+            if (revisionsOfMaterial.getValue().size() > 1) {
+                revisionsOfMaterial.setValue(Collections.singletonList(revisionsOfMaterial.getValue().get(0)));
+            }
+        }
+    }
+
     public static class Revision {
         public final Date date;
         public final String revision;
@@ -22,4 +22,13 @@ import com.thoughtworks.go.config.CruiseConfig;
 // This should be replaced by smaller listeners like AgentConfigChangedListener, EnvironmentsConfigChangedListener
 public interface ConfigChangedListener {
     void onConfigChange(CruiseConfig newCruiseConfig);
+
+    /**
+     * Listeners are notified one after the other, in the order they were registered. A listener which neither relies on
+     * other listeners having seen a change, nor is relied upon by them, and which does not itself save config, may
+     * return true to be notified concurrently with other listeners.
+     */
+    default boolean canBeNotifiedConcurrently() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package com.thoughtworks.go.server.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import java.util.LinkedHashMap;
@@ -25,6 +26,8 @@ public class Pagination {
     private Integer pageSize;
     private Integer offset;
     private Integer total;
+    private Long boundaryId;
+    private Map<Integer, Long> pageBoundaries = Collections.emptyMap();
 
     private static final int DEFAULT_PER_PAGE = 10;
     private static final int MAXIMUM_LIMIT = 300;
@@ -32,10 +35,11 @@ public class Pagination {
 
     private static final int NUMBER_OF_NEIGHBOURS = 2;
 
-    private Pagination(Integer offset, Integer total, Integer pageSize) {
+    private Pagination(Integer offset, Integer total, Integer pageSize, Long boundaryId) {
         setPageSize(pageSize);
         setOffset(offset);
         setTotal(total);
+        this.boundaryId = boundaryId;
     }
 
     private void setPageSize(Integer pageSize) {
@@ -66,6 +70,31 @@ public class Pagination {
         return total;
     }
 
+    /**
+     * @return id of the entry just newer than the page, so that the page can be loaded by seeking to the entries with
+     * smaller ids instead of skipping offset entries, or null if it is not known
+     */
+    public Long getBoundaryId() {
+        return boundaryId;
+    }
+
+    /**
+     * @return the boundary id of the given page, if it was worked out while loading this one
+     */
+    public Long getBoundaryIdOf(int pageNumber) {
+        return pageBoundaries.get(pageNumber);
+    }
+
+    /**
+     * @param pageBoundaries boundary ids of other pages, by page number, which are handed to the pages linked from
+     *                       this one
+     */
+    public Pagination withPageBoundaries(Map<Integer, Long> pageBoundaries) {
+        Pagination pagination = new Pagination(offset, total, pageSize, boundaryId);
+        pagination.pageBoundaries = pageBoundaries;
+        return pagination;
+    }
+
     public Map toJsonMap() {
         Map<String, Object> json = new LinkedHashMap<>();
         json.put("count", total);
@@ -94,6 +123,9 @@ public class Pagination {
         if (total != null ? !total.equals(that.total) : that.total != null) {
             return false;
         }
+        if (boundaryId != null ? !boundaryId.equals(that.boundaryId) : that.boundaryId != null) {
+            return false;
+        }
 
         return true;
     }
@@ -103,6 +135,7 @@ public class Pagination {
         int result = pageSize != null ? pageSize.hashCode() : 0;
         result = 31 * result + (offset != null ? offset.hashCode() : 0);
         result = 31 * result + (total != null ? total.hashCode() : 0);
+        result = 31 * result + (boundaryId != null ? boundaryId.hashCode() : 0);
         return result;
     }
 
@@ -143,6 +176,7 @@ public class Pagination {
                 "pageSize=" + pageSize +
                 ", offset=" + offset +
                 ", total=" + total +
+                ", boundaryId=" + boundaryId +
                 '}';
     }
 
@@ -151,11 +185,19 @@ public class Pagination {
     }
 
     public static Pagination pageStartingAt(Integer offset, Integer total, Integer pageSize) {
-        return new Pagination(offset, total, pageSize);
+        return pageStartingAt(offset, total, pageSize, null);
+    }
+
+    public static Pagination pageStartingAt(Integer offset, Integer total, Integer pageSize, Long boundaryId) {
+        return new Pagination(offset, total, pageSize, boundaryId);
     }
 
     public static Pagination pageByNumber(int pageNumber, int total, int pageSize) {
-        return pageStartingAt((pageNumber - 1) * pageSize, total, pageSize);
+        return pageByNumber(pageNumber, total, pageSize, null);
+    }
+
+    public static Pagination pageByNumber(int pageNumber, int total, int pageSize, Long boundaryId) {
+        return pageStartingAt((pageNumber - 1) * pageSize, total, pageSize, boundaryId);
     }
 
     public int getFirstPage() {
@@ -169,7 +211,7 @@ public class Pagination {
     public List<PageNumber> getPages() {
         ArrayList<PageNumber> pages = new ArrayList<>();
         if (getCurrentPage() > getFirstPage()) {
-            pages.add(new PageNumber(getCurrentPage() - 1, "prev"));
+            pages.add(new PageNumber(getCurrentPage() - 1, "prev", getBoundaryIdOf(getCurrentPage() - 1)));
         }
         if (getLastPage() < showAllPagesThreshold()) {
             for (int i = 1; i <= getLastPage(); i++) {
@@ -199,14 +241,16 @@ public class Pagination {
             }
         }
         if (getLastPage() > getCurrentPage()) {
-            pages.add(new PageNumber(getCurrentPage() + 1, "next"));
+            pages.add(new PageNumber(getCurrentPage() + 1, "next", getBoundaryIdOf(getCurrentPage() + 1)));
         }
 
         return pages;
     }
 
     private void addPage(ArrayList<PageNumber> pages, int i) {
-        pages.add(new PageNumber(i, i == getCurrentPage()));
+        PageNumber page = new PageNumber(i, i == getCurrentPage());
+        page.boundaryId = getBoundaryIdOf(i);
+        pages.add(page);
     }
 
     private int showAllPagesThreshold() {
@@ -243,6 +287,7 @@ public class Pagination {
         private int page;
         private String label;
         private boolean current;
+        private Long boundaryId;
 
         public PageNumber(int page) {
             this(page, String.valueOf(page));
@@ -258,6 +303,11 @@ public class Pagination {
             this.current = current;
         }
 
+        public PageNumber(int page, String label, Long boundaryId) {
+            this(page, label);
+            this.boundaryId = boundaryId;
+        }
+
         public boolean isDots() {
             return false;
         }
@@ -274,6 +324,13 @@ public class Pagination {
             return current;
         }
 
+        /**
+         * @return id to seek from when loading the page, or null if the page has to be loaded by its number
+         */
+        public Long getBoundaryId() {
+            return boundaryId;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -294,6 +351,9 @@ public class Pagination {
             if (label != null ? !label.equals(that.label) : that.label != null) {
                 return false;
             }
+            if (boundaryId != null ? !boundaryId.equals(that.boundaryId) : that.boundaryId != null) {
+                return false;
+            }
 
             return true;
         }
@@ -303,6 +363,7 @@ public class Pagination {
             int result = page;
             result = 31 * result + (label != null ? label.hashCode() : 0);
             result = 31 * result + (current ? 1 : 0);
+            result = 31 * result + (boundaryId != null ? boundaryId.hashCode() : 0);
             return result;
         }
 
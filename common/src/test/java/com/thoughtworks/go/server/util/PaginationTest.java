@@ -16,6 +16,8 @@
 package com.thoughtworks.go.server.util;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -187,4 +189,28 @@ public class PaginationTest {
         assertThat(Pagination.page(5).isCurrent(), is(false));
     }
 
+    @Test
+    public void shouldHandTheBoundaryIdsOfLinkedPagesToTheirPageNumbers() {
+        Map<Integer, Long> boundaries = new HashMap<>();
+        boundaries.put(2, 91L);
+        boundaries.put(3, 81L);
+        boundaries.put(100, 11L);
+
+        Pagination pagination = Pagination.pageByNumber(1, 1000, 10).withPageBoundaries(boundaries);
+
+        assertThat(pagination.getPages(), is(Arrays.asList(Pagination.currentPage(1), new Pagination.PageNumber(2, "2", 91L), new Pagination.PageNumber(3, "3", 81L),
+                Pagination.PageNumber.DOTS, new Pagination.PageNumber(100, "100", 11L), new Pagination.PageNumber(2, "next", 91L))));
+        assertThat(pagination.getBoundaryIdOf(100), is(11L));
+        assertThat(pagination.getBoundaryIdOf(50), is((Long) null));
+    }
+
+    @Test
+    public void shouldKeepTheBoundaryIdOfThePage() {
+        Pagination pagination = Pagination.pageByNumber(3, 1000, 10, 81L);
+
+        assertThat(pagination.getOffset(), is(20));
+        assertThat(pagination.getBoundaryId(), is(81L));
+        assertThat(pagination.withPageBoundaries(new HashMap<>()), is(pagination));
+        assertThat(pagination.equals(Pagination.pageByNumber(3, 1000, 10)), is(false));
+    }
 }
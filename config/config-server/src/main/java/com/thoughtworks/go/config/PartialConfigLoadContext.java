@@ -21,4 +21,11 @@ import com.thoughtworks.go.domain.materials.MaterialConfig;
 public interface PartialConfigLoadContext {
     Configuration configuration();
     MaterialConfig configMaterial();
+
+    /**
+     * @return the revision of the config repository being loaded, if known
+     */
+    default String revision() {
+        return null;
+    }
 }
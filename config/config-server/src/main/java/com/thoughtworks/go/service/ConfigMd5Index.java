@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.service;
+
+import com.thoughtworks.go.domain.GoConfigRevision;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * @understands finding the commit of a config md5 in the config repository without walking its whole history
+ * <p>
+ * The index is an append-only file in the git directory with one line per commit on master, oldest first, of the form
+ * {@code <escaped md5> <commit sha>} ({@code -} for commits without an md5). The last line is the last commit indexed;
+ * commits made after it are indexed when the index is next used.
+ */
+class ConfigMd5Index {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigMd5Index.class);
+    static final String INDEX_FILE_NAME = "gocd-config-md5-index";
+    private static final String NO_MD5 = "-";
+    private static final String MD5_PREFIX = GoConfigRevision.Fragment.md5.represent("");
+
+    private final Repository gitRepo;
+    private final File indexFile;
+    private final Map<String, ObjectId> commitsByMd5 = new HashMap<>();
+    private ObjectId lastIndexedCommit;
+    private boolean loaded;
+
+    ConfigMd5Index(Repository gitRepo) {
+        this.gitRepo = gitRepo;
+        this.indexFile = new File(gitRepo.getDirectory(), INDEX_FILE_NAME);
+    }
+
+    /**
+     * @return the latest commit on master whose message carries the given (escaped) md5, or null if there is none
+     */
+    synchronized ObjectId find(String escapedMd5) throws IOException {
+        catchUp();
+        return commitsByMd5.get(escapedMd5);
+    }
+
+    /**
+     * Indexes a commit just made on master, so that the next lookup does not need to walk the history for it.
+     */
+    synchronized void record(RevCommit commit) {
+        try {
+            load();
+            boolean followsLastIndexed = lastIndexedCommit == null ? commit.getParentCount() == 0
+                    : commit.getParentCount() == 1 && commit.getParent(0).equals(lastIndexedCommit);
+            if (followsLastIndexed) {
+                append(Collections.singletonList(commit), true);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("[CONFIG REPOSITORY] Could not index commit {}, it will be indexed on the next lookup", commit.getName(), e);
+        }
+    }
+
+    synchronized void rebuild() throws IOException {
+        LOGGER.info("[CONFIG REPOSITORY] Rebuilding config md5 index");
+        reset();
+        loaded = true;
+        catchUp();
+        LOGGER.info("[CONFIG REPOSITORY] Indexed {} config versions", commitsByMd5.size());
+    }
+
+    /**
+     * Indexes the commits made on master since the index was last used.
+     */
+    synchronized void update() throws IOException {
+        catchUp();
+    }
+
+    private void catchUp() throws IOException {
+        load();
+        ObjectId master = gitRepo.resolve(Constants.R_HEADS + Constants.MASTER);
+        if (master == null || master.equals(lastIndexedCommit)) {
+            return;
+        }
+
+        List<RevCommit> newCommits = new ArrayList<>();
+        boolean reachedLastIndexed = lastIndexedCommit == null;
+        try (RevWalk walk = new RevWalk(gitRepo)) {
+            walk.markStart(walk.parseCommit(master));
+            for (RevCommit commit : walk) {
+                if (commit.equals(lastIndexedCommit)) {
+                    reachedLastIndexed = true;
+                    break;
+                }
+                newCommits.add(commit);
+            }
+        }
+
+        if (!reachedLastIndexed) {
+            LOGGER.warn("[CONFIG REPOSITORY] Config md5 index refers to a commit which is no longer on master, re-indexing the whole history");
+            reset();
+        }
+        Collections.reverse(newCommits);
+        append(newCommits, reachedLastIndexed);
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!indexFile.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.lastIndexOf(' ');
+                if (separator <= 0 || !ObjectId.isId(line.substring(separator + 1))) {
+                    LOGGER.warn("[CONFIG REPOSITORY] Ignoring corrupt config md5 index {}", indexFile);
+                    reset();
+                    return;
+                }
+                index(line.substring(0, separator), ObjectId.fromString(line.substring(separator + 1)));
+            }
+        }
+    }
+
+    private void append(List<RevCommit> commits, boolean appendToExisting) throws IOException {
+        if (commits.isEmpty()) {
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, appendToExisting), UTF_8))) {
+            for (RevCommit commit : commits) {
+                String md5 = md5Of(commit);
+                index(md5, commit.copy());
+                writer.write(md5 + " " + commit.getName() + "\n");
+            }
+        }
+    }
+
+    private void index(String md5, ObjectId commit) {
+        if (!NO_MD5.equals(md5)) {
+            commitsByMd5.put(md5, commit);
+        }
+        lastIndexedCommit = commit;
+    }
+
+    private void reset() {
+        commitsByMd5.clear();
+        lastIndexedCommit = null;
+        FileUtils.deleteQuietly(indexFile);
+    }
+
+    private static String md5Of(RevCommit commit) {
+        String message = commit.getFullMessage();
+        int index = message.lastIndexOf(MD5_PREFIX);
+        if (index < 0) {
+            return NO_MD5;
+        }
+        String md5 = message.substring(index + MD5_PREFIX.length());
+        return md5.isEmpty() || md5.contains("\n") ? NO_MD5 : md5;
+    }
+}
@@ -34,6 +34,7 @@ import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.slf4j.Logger;
@@ -69,6 +70,7 @@ public class ConfigRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigRepository.class.getName());
     private Git git;
     private Repository gitRepo;
+    private final ConfigMd5Index md5Index;
 
     @Autowired
     public ConfigRepository(SystemEnvironment systemEnvironment) throws IOException {
@@ -78,6 +80,7 @@ public class ConfigRepository {
         gitRepo = new FileRepositoryBuilder().setGitDir(configRepoDir).build();
         gitRepo.getConfig().setInt("gc", null, "auto", 0);
         git = new Git(gitRepo);
+        md5Index = new ConfigMd5Index(gitRepo);
     }
 
 
@@ -90,9 +93,23 @@ public class ConfigRepository {
             gitRepo.create();
         } else {
             cleanAndResetToMaster();
+            md5Index.update();
         }
     }
 
+    /**
+     * Re-indexes the md5 of every config version in the repository, for use when the index has been lost or is
+     * suspected to be out of date
+     */
+    public void rebuildMd5Index() throws IOException {
+        doLocked(new VoidThrowingFn<IOException>() {
+            @Override
+            public void run() throws IOException {
+                md5Index.rebuild();
+            }
+        });
+    }
+
     @Deprecated
         // used in test only
     Git git() {
@@ -121,7 +138,10 @@ public class ConfigRepository {
                 @Override
                 public void run() throws Exception {
                     addCommand.addFilepattern(CRUISE_CONFIG_XML).call();
-                    git.commit().setAuthor(rev.getUsername(), STUDIOS_PRODUCT).setMessage(rev.getComment()).call();
+                    RevCommit commit = git.commit().setAuthor(rev.getUsername(), STUDIOS_PRODUCT).setMessage(rev.getComment()).call();
+                    if (Constants.MASTER.equals(gitRepo.getBranch())) {
+                        md5Index.record(commit);
+                    }
                 }
             });
         } catch (Exception e) {
@@ -153,13 +173,52 @@ public class ConfigRepository {
         Assert.notNull(md5, "md5 is required");
 
         final String expectedPart = GoConfigRevision.Fragment.md5.represent(GoConfigRevision.esc(md5));
+        return doLocked(() -> {
+            RevCommit revision;
+            try {
+                revision = indexedRevCommit(md5, expectedPart);
+            } catch (IOException e) {
+                LOGGER.warn("[CONFIG REPOSITORY] Could not use config md5 index, searching the config history instead", e);
+                revision = searchRevCommitForMd5(expectedPart);
+            }
+            if (revision == null) {
+                throw new IllegalArgumentException(String.format("There is no config version corresponding to md5: '%s'", md5));
+            }
+            return revision;
+        });
+    }
+
+    private RevCommit indexedRevCommit(String md5, String expectedPart) throws IOException {
+        ObjectId commitId = md5Index.find(GoConfigRevision.esc(md5));
+        if (commitId == null) {
+            return null;
+        }
+        RevCommit revision = parseCommitWithMessage(commitId, expectedPart);
+        if (revision == null) {
+            LOGGER.warn("[CONFIG REPOSITORY] Config md5 index is out of date, rebuilding it");
+            md5Index.rebuild();
+            commitId = md5Index.find(GoConfigRevision.esc(md5));
+            revision = commitId == null ? null : parseCommitWithMessage(commitId, expectedPart);
+        }
+        return revision;
+    }
+
+    private RevCommit parseCommitWithMessage(ObjectId commitId, String expectedPart) throws IOException {
+        try (RevWalk walk = new RevWalk(gitRepo)) {
+            RevCommit revision = walk.parseCommit(commitId);
+            return revision.getFullMessage().endsWith(expectedPart) ? revision : null;
+        } catch (MissingObjectException e) {
+            return null;
+        }
+    }
+
+    private RevCommit searchRevCommitForMd5(String expectedPart) throws GitAPIException {
         for (RevCommit revision : revisions()) {
-            String message = revision.getFullMessage();
-            if (message.endsWith(expectedPart)) {
+            if (revision.getFullMessage().endsWith(expectedPart)) {
                 return revision;
             }
         }
-        throw new IllegalArgumentException(String.format("There is no config version corresponding to md5: '%s'", md5));
+        return null;
     }
 
     RevCommit getRevCommitForCommitSHA(String commitSHA) throws GitAPIException {
@@ -22,8 +22,10 @@ import com.thoughtworks.go.domain.GoConfigRevision;
 import com.thoughtworks.go.helper.ConfigFileFixture;
 import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
+import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.ListBranchCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.After;
@@ -37,6 +39,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.is;
@@ -110,6 +113,47 @@ public class ConfigRepositoryTest {
         }
     }
 
+    @Test
+    public void shouldFindRevisionsCheckedInBeforeTheMd5IndexExisted() throws Exception {
+        configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
+        configRepo.checkin(new GoConfigRevision("v1 v2", "md5-v2", "user-name", "100.9.8", new TimeProvider()));
+        File indexFile = new File(configRepo.getGitRepo().getDirectory(), ConfigMd5Index.INDEX_FILE_NAME);
+        FileUtils.deleteQuietly(indexFile);
+
+        ConfigRepository reopened = new ConfigRepository(systemEnvironment);
+        reopened.initialize();
+
+        assertThat(indexFile.exists(), is(true));
+        assertThat(reopened.getRevision("md5-v1").getContent(), is("v1"));
+        assertThat(reopened.getRevision("md5-v2").getContent(), is("v1 v2"));
+        reopened.getGitRepo().close();
+    }
+
+    @Test
+    public void shouldFindRevisionsCommittedWithoutCheckin() throws Exception {
+        configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
+        GoConfigRevision revision = new GoConfigRevision("v1 v2", "md5-v2", "user-name", "100.9.8", new TimeProvider());
+        FileUtils.writeStringToFile(new File(configRepo.getGitRepo().getWorkTree(), "cruise-config.xml"), revision.getContent(), UTF_8);
+        configRepo.git().add().addFilepattern("cruise-config.xml").call();
+        configRepo.git().commit().setMessage(revision.getComment()).call();
+
+        assertThat(configRepo.getRevision("md5-v2").getContent(), is("v1 v2"));
+    }
+
+    @Test
+    public void shouldRebuildMd5IndexWhichRefersToCommitsNotInTheConfigHistory() throws Exception {
+        configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
+        File indexFile = new File(configRepo.getGitRepo().getDirectory(), ConfigMd5Index.INDEX_FILE_NAME);
+        FileUtils.writeStringToFile(indexFile, "md5-v1 " + ObjectId.zeroId().getName() + "\n", UTF_8);
+
+        ConfigRepository reopened = new ConfigRepository(systemEnvironment);
+        reopened.initialize();
+
+        assertThat(reopened.getRevision("md5-v1").getContent(), is("v1"));
+        assertThat(FileUtils.readFileToString(indexFile, UTF_8), not(containsString(ObjectId.zeroId().getName())));
+        reopened.getGitRepo().close();
+    }
+
     @Test
     public void shouldUnderstandRevision_current_asLatestRevision() throws Exception {
         configRepo.checkin(new GoConfigRevision("v1", "md5-v1", "user-name", "100.3.9", new TimeProvider()));
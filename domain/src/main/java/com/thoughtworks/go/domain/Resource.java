@@ -56,6 +56,10 @@ public class Resource extends PersistentObject implements Comparable<Resource> {
         return getName();
     }
 
+    public long getBuildId() {
+        return buildId;
+    }
+
     public void setBuildId(long id) {
         this.buildId = id;
     }
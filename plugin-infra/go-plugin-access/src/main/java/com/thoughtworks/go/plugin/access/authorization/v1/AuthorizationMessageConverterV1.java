@@ -192,7 +192,7 @@ public class AuthorizationMessageConverterV1 implements AuthorizationMessageConv
 
     @Override
     public String getAuthorizationServerUrl(String responseBody) {
-        return (String) new Gson().fromJson(responseBody, Map.class).get("authorization_server_url");
+        return (String) GSON.fromJson(responseBody, Map.class).get("authorization_server_url");
     }
 
     @Override
@@ -210,7 +210,7 @@ public class AuthorizationMessageConverterV1 implements AuthorizationMessageConv
     }
 
     private String getTemplateFromResponse(String responseBody, String message) {
-        String template = (String) new Gson().fromJson(responseBody, Map.class).get("template");
+        String template = (String) GSON.fromJson(responseBody, Map.class).get("template");
         if (StringUtils.isBlank(template)) {
             throw new RuntimeException(message);
         }
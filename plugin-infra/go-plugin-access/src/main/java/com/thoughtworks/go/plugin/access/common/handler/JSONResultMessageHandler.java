@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.plugin.access.common.handler;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.thoughtworks.go.plugin.api.config.Configuration;
 import com.thoughtworks.go.plugin.api.config.Property;
 import com.thoughtworks.go.plugin.api.response.Result;
@@ -32,6 +32,8 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 
 public class JSONResultMessageHandler {
+    private static final Gson GSON = new Gson();
+
     public Map configurationToMap(Configuration configuration) {
         Map configuredValuesForRepo = new LinkedHashMap();
         for (Property property : configuration.list()) {
@@ -50,7 +52,7 @@ public class JSONResultMessageHandler {
 
             List errors;
             try {
-                errors = (List<Map>) new GsonBuilder().create().fromJson(responseBody, Object.class);
+                errors = (List<Map>) GSON.fromJson(responseBody, Object.class);
             } catch (Exception e) {
                 throw new RuntimeException("Validation errors should be returned as list or errors, with each error represented as a map");
             }
@@ -94,7 +96,7 @@ public class JSONResultMessageHandler {
 
             Map map;
             try {
-                map = (Map) new GsonBuilder().create().fromJson(responseBody, Object.class);
+                map = (Map) GSON.fromJson(responseBody, Object.class);
             } catch (Exception e) {
                 throw new RuntimeException("Check connection result should be returned as map, with key represented as string and messages represented as list");
             }
@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.plugin.access.common.settings;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.thoughtworks.go.plugin.access.common.handler.JSONResultMessageHandler;
 import com.thoughtworks.go.plugin.api.config.Property;
 import com.thoughtworks.go.plugin.api.response.validation.ValidationResult;
@@ -30,6 +30,8 @@ import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public abstract class PluginSettingsJsonMessageHandlerBase implements PluginSettingsJsonMessageHandler {
+    private static final Gson GSON = new Gson();
+
     private final JSONResultMessageHandler jsonResultMessageHandler;
 
     public PluginSettingsJsonMessageHandlerBase() {
@@ -94,12 +96,12 @@ public abstract class PluginSettingsJsonMessageHandlerBase implements PluginSett
     public String requestMessageForPluginSettingsValidation(PluginSettingsConfiguration configuration) {
         Map configuredValues = new LinkedHashMap();
         configuredValues.put("plugin-settings", jsonResultMessageHandler.configurationToMap(configuration));
-        return new GsonBuilder().create().toJson(configuredValues);
+        return GSON.toJson(configuredValues);
     }
 
     @Override
     public String requestMessageForNotifyPluginSettingsChange(Map<String, String> pluginSettings) {
-        return new GsonBuilder().create().toJson(pluginSettings);
+        return GSON.toJson(pluginSettings);
     }
 
     @Override
@@ -108,7 +110,7 @@ public abstract class PluginSettingsJsonMessageHandlerBase implements PluginSett
     }
 
     private Map parseResponseToMap(String responseBody) {
-        return (Map) new GsonBuilder().create().fromJson(responseBody, Object.class);
+        return (Map) GSON.fromJson(responseBody, Object.class);
     }
 
     private PluginSettingsProperty toPluginSettingsProperty(String key, Map configuration) {
@@ -26,6 +26,7 @@ import com.thoughtworks.go.plugin.access.notification.v1.JsonMessageHandler1_0;
 import com.thoughtworks.go.plugin.access.notification.v2.JsonMessageHandler2_0;
 import com.thoughtworks.go.plugin.access.notification.v3.JsonMessageHandler3_0;
 import com.thoughtworks.go.plugin.access.notification.v4.JsonMessageHandler4_0;
+import com.thoughtworks.go.plugin.access.notification.v5.JsonMessageHandler5_0;
 import com.thoughtworks.go.plugin.api.response.Result;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,7 +41,8 @@ import static java.util.Arrays.asList;
 
 @Component
 public class NotificationExtension extends AbstractExtension {
-    static final List<String> goSupportedVersions = asList("1.0", "2.0", "3.0", "4.0");
+    static final List<String> goSupportedVersions = asList("1.0", "2.0", "3.0", "4.0", "5.0");
+    static final String BATCH_NOTIFICATIONS_VERSION = "5.0";
 
     static final String REQUEST_NOTIFICATIONS_INTERESTED_IN = "notifications-interested-in";
     public static final String STAGE_STATUS_CHANGE_NOTIFICATION = "stage-status";
@@ -61,6 +63,8 @@ public class NotificationExtension extends AbstractExtension {
         registerHandlers("3.0", new PluginSettingsJsonMessageHandler2_0(), new JsonMessageHandler3_0());
 
         registerHandlers("4.0", new PluginSettingsJsonMessageHandler2_0(), new JsonMessageHandler4_0());
+
+        registerHandlers("5.0", new PluginSettingsJsonMessageHandler2_0(), new JsonMessageHandler5_0());
     }
 
     private void registerHandlers(String version, PluginSettingsJsonMessageHandler pluginSettingsJsonMessageHandler, JsonMessageHandler jsonMessageHandler) {
@@ -79,6 +83,13 @@ public class NotificationExtension extends AbstractExtension {
         });
     }
 
+    /**
+     * @return true if the plugin expects a list of notifications with each notify request, rather than one at a time
+     */
+    public boolean supportsBatchNotifications(String pluginId) {
+        return BATCH_NOTIFICATIONS_VERSION.equals(pluginManager.resolveExtensionVersion(pluginId, NOTIFICATION_EXTENSION, goSupportedVersions));
+    }
+
     public <T> Result notify(String pluginId, final String requestName, final T data) {
         return pluginRequestHelper.submitRequest(pluginId, requestName, new DefaultPluginInteractionCallback<Result>() {
             @Override
@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.plugin.access.notification.v1;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.thoughtworks.go.domain.notificationdata.StageNotificationData;
 import com.thoughtworks.go.plugin.access.notification.DataConverter;
 import com.thoughtworks.go.plugin.access.notification.JsonMessageHandler;
@@ -28,6 +28,8 @@ import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public class JsonMessageHandler1_0 implements JsonMessageHandler {
+    private static final Gson GSON = new Gson();
+
     @Override
     public List<String> responseMessageForNotificationsInterestedIn(String responseBody) {
         try {
@@ -82,7 +84,7 @@ public class JsonMessageHandler1_0 implements JsonMessageHandler {
     }
 
     private Map parseResponseToMap(String responseBody) {
-        return (Map) new GsonBuilder().create().fromJson(responseBody, Object.class);
+        return (Map) GSON.fromJson(responseBody, Object.class);
     }
 
     Result toResult(String responseBody) {
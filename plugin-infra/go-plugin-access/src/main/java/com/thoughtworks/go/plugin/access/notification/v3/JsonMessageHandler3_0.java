@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.plugin.access.notification.v3;
 
-import com.google.gson.GsonBuilder;
+import com.google.gson.Gson;
 import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
 import com.thoughtworks.go.domain.notificationdata.StageNotificationData;
 import com.thoughtworks.go.plugin.access.notification.DataConverter;
@@ -31,6 +31,8 @@ import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public class JsonMessageHandler3_0 implements JsonMessageHandler {
+    private static final Gson GSON = new Gson();
+
     @Override
     public List<String> responseMessageForNotificationsInterestedIn(String responseBody) {
         try {
@@ -88,7 +90,7 @@ public class JsonMessageHandler3_0 implements JsonMessageHandler {
     }
 
     private Map parseResponseToMap(String responseBody) {
-        return (Map) new GsonBuilder().create().fromJson(responseBody, Object.class);
+        return (Map) GSON.fromJson(responseBody, Object.class);
     }
 
     Result toResult(String responseBody) {
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.access.notification.v5;
+
+import com.thoughtworks.go.plugin.access.notification.JsonMessageHandler;
+import com.thoughtworks.go.plugin.access.notification.v4.JsonMessageHandler4_0;
+import com.thoughtworks.go.plugin.api.response.Result;
+
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Same messages as 4.0, except that notifications are sent in batches: the request body holds a list of 4.0
+ * notifications under "notifications", and the response is about the whole batch.
+ */
+public class JsonMessageHandler5_0 implements JsonMessageHandler {
+    private final JsonMessageHandler4_0 notificationHandler = new JsonMessageHandler4_0();
+
+    @Override
+    public List<String> responseMessageForNotificationsInterestedIn(String responseBody) {
+        return notificationHandler.responseMessageForNotificationsInterestedIn(responseBody);
+    }
+
+    @Override
+    public <T> String requestMessageForNotify(T data) {
+        Collection<?> notifications = data instanceof Collection ? (Collection<?>) data : singletonList(data);
+        return notifications.stream()
+                .map(notificationHandler::requestMessageForNotify)
+                .collect(joining(",", "{\"notifications\":[", "]}"));
+    }
+
+    @Override
+    public Result responseMessageForNotify(String responseBody) {
+        return notificationHandler.responseMessageForNotify(responseBody);
+    }
+}
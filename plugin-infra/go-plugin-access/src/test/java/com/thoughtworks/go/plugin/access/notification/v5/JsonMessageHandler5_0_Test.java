@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.access.notification.v5;
+
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
+import com.thoughtworks.go.plugin.access.notification.v4.JsonMessageHandler4_0;
+import com.thoughtworks.go.plugin.api.response.Result;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JsonMessageHandler5_0_Test {
+    private JsonMessageHandler5_0 messageHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        messageHandler = new JsonMessageHandler5_0();
+    }
+
+    @Test
+    public void shouldBuildNotificationsInterestedInFromResponseBody() throws Exception {
+        String responseBody = "{notifications=[\"agent-status\",\"stage-status\"]}";
+        List<String> notificationsInterestedIn = messageHandler.responseMessageForNotificationsInterestedIn(responseBody);
+
+        assertThat(notificationsInterestedIn, is(Arrays.asList("agent-status", "stage-status")));
+    }
+
+    @Test
+    public void shouldBuildResultFromNotify() throws Exception {
+        Result result = messageHandler.responseMessageForNotify("{\"status\":\"failure\",messages=[\"message-one\"]}");
+
+        assertThat(result.isSuccessful(), is(false));
+        assertThat(result.getMessages(), is(asList("message-one")));
+    }
+
+    @Test
+    public void shouldConstructBatchedNotificationRequestMessageFromEachNotification() throws Exception {
+        AgentNotificationData first = agent("uuid-1", "building");
+        AgentNotificationData second = agent("uuid-2", "idle");
+        JsonMessageHandler4_0 singleNotificationHandler = new JsonMessageHandler4_0();
+
+        String message = messageHandler.requestMessageForNotify(asList(first, second));
+
+        assertThatJson("{\"notifications\":[" + singleNotificationHandler.requestMessageForNotify(first) + "," + singleNotificationHandler.requestMessageForNotify(second) + "]}")
+                .isEqualTo(message);
+    }
+
+    @Test
+    public void shouldConstructBatchOfOneForASingleNotification() throws Exception {
+        AgentNotificationData notification = agent("uuid-1", "building");
+
+        String message = messageHandler.requestMessageForNotify(notification);
+
+        assertThatJson("{\"notifications\":[" + new JsonMessageHandler4_0().requestMessageForNotify(notification) + "]}").isEqualTo(message);
+    }
+
+    private AgentNotificationData agent(String uuid, String agentState) {
+        return new AgentNotificationData(uuid, "agent_hostname", false, "127.0.0.1", "rh", "100",
+                "enabled", agentState, agentState, new Date());
+    }
+}
@@ -19,6 +19,7 @@ import com.thoughtworks.go.plugin.api.GoPlugin;
 import com.thoughtworks.go.plugin.api.exceptions.UnhandledRequestTypeException;
 import com.thoughtworks.go.plugin.api.info.PluginDescriptor;
 import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
+import com.thoughtworks.go.plugin.api.response.DefaultGoApiResponse;
 import com.thoughtworks.go.plugin.api.response.GoPluginApiResponse;
 import com.thoughtworks.go.plugin.infra.listeners.DefaultPluginJarChangeListener;
 import com.thoughtworks.go.plugin.infra.monitor.DefaultPluginJarLocationMonitor;
@@ -35,6 +36,8 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_WORK_DIR;
 import static java.lang.Double.parseDouble;
@@ -51,6 +54,8 @@ public class DefaultPluginManager implements PluginManager {
     private GoPluginOSGiFramework goPluginOSGiFramework;
     private final Map<PluginDescriptor, Set<String>> initializedPluginsWithTheirExtensionTypes = new HashMap<>();
     private PluginRequestProcessorRegistry requestProcessRegistry;
+    private final ConcurrentMap<String, ConcurrentMap<String, List<String>>> extensionVersionsSupportedByPlugins = new ConcurrentHashMap<>();
+    private final PluginRequestStatistics requestStatistics = new PluginRequestStatistics();
 
     @Autowired
     public DefaultPluginManager(DefaultPluginJarLocationMonitor monitor, DefaultPluginRegistry registry, GoPluginOSGiFramework goPluginOSGiFramework,
@@ -90,7 +95,7 @@ public class DefaultPluginManager implements PluginManager {
         addPluginChangeListener(new PluginChangeListener() {
             @Override
             public void pluginLoaded(GoPluginDescriptor pluginDescriptor) {
-
+                extensionVersionsSupportedByPlugins.remove(pluginDescriptor.id());
             }
 
             @Override
@@ -98,6 +103,8 @@ public class DefaultPluginManager implements PluginManager {
                 synchronized (initializedPluginsWithTheirExtensionTypes) {
                     initializedPluginsWithTheirExtensionTypes.remove(pluginDescriptor);
                 }
+                extensionVersionsSupportedByPlugins.remove(pluginDescriptor.id());
+                requestStatistics.forget(pluginDescriptor.id());
             }
         });
 
@@ -114,6 +121,7 @@ public class DefaultPluginManager implements PluginManager {
         goPluginOSGiFramework.stop();
         monitor.stop();
         initializedPluginsWithTheirExtensionTypes.clear();
+        extensionVersionsSupportedByPlugins.clear();
     }
 
     @Override
@@ -130,12 +138,18 @@ public class DefaultPluginManager implements PluginManager {
     public GoPluginApiResponse submitTo(final String pluginId, String extensionType, final GoPluginApiRequest apiRequest) {
         return goPluginOSGiFramework.doOn(GoPlugin.class, pluginId, extensionType, (plugin, pluginDescriptor) -> {
             ensureInitializerInvoked(pluginDescriptor, plugin, extensionType);
+            long startTime = System.currentTimeMillis();
+            boolean failed = true;
             try {
-                return plugin.handle(apiRequest);
+                GoPluginApiResponse response = plugin.handle(apiRequest);
+                failed = response == null || response.responseCode() != DefaultGoApiResponse.SUCCESS_RESPONSE_CODE;
+                return response;
             } catch (UnhandledRequestTypeException e) {
                 LOGGER.error(e.getMessage());
                 LOGGER.debug(e.getMessage(), e);
                 throw new RuntimeException(e);
+            } finally {
+                requestStatistics.record(pluginId, extensionType, apiRequest.requestName(), System.currentTimeMillis() - startTime, failed);
             }
         });
     }
@@ -179,9 +193,26 @@ public class DefaultPluginManager implements PluginManager {
         return resolvedExtensionVersion;
     }
 
+    /**
+     * Remembered until the plugin is loaded again, as a plugin cannot change the versions it supports while it is loaded.
+     */
     @Override
     public List<String> getRequiredExtensionVersionsByPlugin(String pluginId, String extensionType) {
-        return goPluginOSGiFramework.doOn(GoPlugin.class, pluginId, extensionType, (goPlugin, pluginDescriptor) -> goPlugin.pluginIdentifier().getSupportedExtensionVersions());
+        ConcurrentMap<String, List<String>> versionsByExtension = extensionVersionsSupportedByPlugins.computeIfAbsent(pluginId, id -> new ConcurrentHashMap<>());
+        List<String> versions = versionsByExtension.get(extensionType);
+        if (versions == null) {
+            versions = goPluginOSGiFramework.doOn(GoPlugin.class, pluginId, extensionType, (goPlugin, pluginDescriptor) -> goPlugin.pluginIdentifier().getSupportedExtensionVersions());
+            if (versions != null) {
+                versions = Collections.unmodifiableList(new ArrayList<>(versions));
+                versionsByExtension.put(extensionType, versions);
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    public PluginRequestStatistics requestStatistics() {
+        return requestStatistics;
     }
 
     private void removeBundleDirectory() {
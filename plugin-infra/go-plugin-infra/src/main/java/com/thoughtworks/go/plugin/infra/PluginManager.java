@@ -44,4 +44,6 @@ public interface PluginManager {
 
     List<String> getRequiredExtensionVersionsByPlugin(String pluginId, String extensionType);
 
+    PluginRequestStatistics requestStatistics();
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.infra;
+
+import com.thoughtworks.go.util.TimingStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * @understands how many requests were sent to each plugin, of which kind, and how long the plugin took to answer them
+ */
+public class PluginRequestStatistics {
+    static final long[] BUCKET_UPPER_BOUNDS_IN_MILLIS = {10, 50, 100, 500, 1000, 5000, 10000};
+
+    private final ConcurrentMap<Key, RequestStatistics> statistics = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public PluginRequestStatistics() {
+        this(System::currentTimeMillis);
+    }
+
+    PluginRequestStatistics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void record(String pluginId, String extensionType, String requestName, long timeInMillis, boolean failed) {
+        statistics.computeIfAbsent(new Key(pluginId, extensionType, requestName), key -> new RequestStatistics(clock.getAsLong()))
+                .record(timeInMillis, failed);
+    }
+
+    public void forget(String pluginId) {
+        statistics.keySet().removeIf(key -> Objects.equals(key.pluginId, pluginId));
+    }
+
+    /**
+     * @return statistics of each plugin, by extension type and request name
+     */
+    public Map<String, Map<String, RequestStatistics>> statistics() {
+        Map<String, Map<String, RequestStatistics>> result = new TreeMap<>();
+        statistics.forEach((key, requestStatistics) -> result.computeIfAbsent(key.pluginId, pluginId -> new TreeMap<>())
+                .put(key.extensionType + " " + key.requestName, requestStatistics));
+        return result;
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    public class RequestStatistics extends TimingStatistics {
+        private final long startedAt;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_UPPER_BOUNDS_IN_MILLIS.length + 1);
+
+        RequestStatistics(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void record(long timeInMillis, boolean failed) {
+            super.record(timeInMillis, failed);
+            buckets.incrementAndGet(bucketFor(timeInMillis));
+        }
+
+        private int bucketFor(long timeInMillis) {
+            for (int i = 0; i < BUCKET_UPPER_BOUNDS_IN_MILLIS.length; i++) {
+                if (timeInMillis < BUCKET_UPPER_BOUNDS_IN_MILLIS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_UPPER_BOUNDS_IN_MILLIS.length;
+        }
+
+        public double getRequestsPerMinute() {
+            long elapsedMillis = Math.max(now() - startedAt, TimeUnit.MINUTES.toMillis(1));
+            return getCount() * (double) TimeUnit.MINUTES.toMillis(1) / elapsedMillis;
+        }
+
+        /**
+         * @return the number of requests answered within each range of time, in order of the ranges
+         */
+        public Map<String, Long> getHistogram() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKET_UPPER_BOUNDS_IN_MILLIS.length; i++) {
+                histogram.put("< " + BUCKET_UPPER_BOUNDS_IN_MILLIS[i] + "ms", buckets.get(i));
+            }
+            histogram.put(">= " + BUCKET_UPPER_BOUNDS_IN_MILLIS[BUCKET_UPPER_BOUNDS_IN_MILLIS.length - 1] + "ms", buckets.get(BUCKET_UPPER_BOUNDS_IN_MILLIS.length));
+            return histogram;
+        }
+    }
+
+    private static class Key {
+        private final String pluginId;
+        private final String extensionType;
+        private final String requestName;
+
+        Key(String pluginId, String extensionType, String requestName) {
+            this.pluginId = pluginId;
+            this.extensionType = extensionType;
+            this.requestName = requestName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(pluginId, key.pluginId) &&
+                    Objects.equals(extensionType, key.extensionType) &&
+                    Objects.equals(requestName, key.requestName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pluginId, extensionType, requestName);
+        }
+    }
+}
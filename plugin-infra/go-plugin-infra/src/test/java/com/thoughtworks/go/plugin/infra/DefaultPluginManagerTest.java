@@ -19,6 +19,7 @@ import com.thoughtworks.go.plugin.FileHelper;
 import com.thoughtworks.go.plugin.api.GoPlugin;
 import com.thoughtworks.go.plugin.api.GoPluginIdentifier;
 import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
+import com.thoughtworks.go.plugin.api.response.DefaultGoPluginApiResponse;
 import com.thoughtworks.go.plugin.api.response.GoPluginApiResponse;
 import com.thoughtworks.go.plugin.infra.listeners.DefaultPluginJarChangeListener;
 import com.thoughtworks.go.plugin.infra.monitor.DefaultPluginJarLocationMonitor;
@@ -206,6 +207,43 @@ class DefaultPluginManagerTest {
         assertThat(pluginManager.resolveExtensionVersion(pluginId, extensionType, asList("1.0", "2.0", "3.0"))).isEqualTo("2.0");
     }
 
+    @Test
+    void shouldRememberExtensionVersionsSupportedByAPluginUntilItIsLoadedAgain() {
+        String pluginId = "plugin-id";
+        String extensionType = "sample-extension";
+        GoPlugin goPlugin = mock(GoPlugin.class);
+        GoPlugginOSGiFrameworkStub osGiFrameworkStub = new GoPlugginOSGiFrameworkStub(goPlugin);
+        when(goPlugin.pluginIdentifier()).thenReturn(new GoPluginIdentifier(extensionType, asList("1.0", "2.0")));
+
+        DefaultPluginManager pluginManager = new DefaultPluginManager(monitor, registry, osGiFrameworkStub, jarChangeListener, pluginRequestProcessorRegistry, systemEnvironment, pluginLoader);
+        pluginManager.startInfrastructure(true);
+        ArgumentCaptor<PluginChangeListener> listener = ArgumentCaptor.forClass(PluginChangeListener.class);
+        verify(pluginLoader).addPluginChangeListener(listener.capture());
+
+        assertThat(pluginManager.resolveExtensionVersion(pluginId, extensionType, asList("1.0", "2.0", "3.0"))).isEqualTo("2.0");
+        assertThat(pluginManager.resolveExtensionVersion(pluginId, extensionType, asList("1.0"))).isEqualTo("1.0");
+        verify(goPlugin, times(1)).pluginIdentifier();
+
+        listener.getValue().pluginUnLoaded(GoPluginDescriptor.builder().id(pluginId).build());
+        when(goPlugin.pluginIdentifier()).thenReturn(new GoPluginIdentifier(extensionType, asList("1.0", "2.0", "3.0")));
+
+        assertThat(pluginManager.resolveExtensionVersion(pluginId, extensionType, asList("1.0", "2.0", "3.0"))).isEqualTo("3.0");
+    }
+
+    @Test
+    void shouldKeepStatisticsOfRequestsSubmittedToPlugins() throws Exception {
+        GoPlugin goPlugin = mock(GoPlugin.class);
+        GoPluginApiRequest request = mock(GoPluginApiRequest.class);
+        when(request.requestName()).thenReturn("stage-status");
+        when(goPlugin.handle(request)).thenReturn(DefaultGoPluginApiResponse.success("{}"));
+
+        DefaultPluginManager pluginManager = new DefaultPluginManager(monitor, registry, new GoPlugginOSGiFrameworkStub(goPlugin), jarChangeListener, pluginRequestProcessorRegistry, systemEnvironment, pluginLoader);
+        pluginManager.submitTo("plugin-id", "notification", request);
+
+        assertThat(pluginManager.requestStatistics().statistics().get("plugin-id").get("notification stage-status").getCount()).isEqualTo(1);
+        assertThat(pluginManager.requestStatistics().statistics().get("plugin-id").get("notification stage-status").getFailureCount()).isZero();
+    }
+
     @Test
     void shouldThrowExceptionIfMatchingExtensionVersionNotFound() {
         String pluginId = "plugin-id";
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.infra;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PluginRequestStatisticsTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final PluginRequestStatistics requestStatistics = new PluginRequestStatistics(clock::get);
+
+    @Test
+    void shouldKeepStatisticsOfEachPluginByExtensionAndRequest() {
+        requestStatistics.record("slack", "notification", "stage-status", 5, false);
+        requestStatistics.record("slack", "notification", "stage-status", 700, true);
+        requestStatistics.record("slack", "notification", "notifications-interested-in", 20, false);
+        requestStatistics.record("ldap", "authorization", "authenticate-user", 20000, false);
+
+        assertThat(requestStatistics.statistics()).containsOnlyKeys("ldap", "slack");
+        assertThat(requestStatistics.statistics().get("slack")).containsOnlyKeys("notification notifications-interested-in", "notification stage-status");
+
+        PluginRequestStatistics.RequestStatistics stageStatus = requestStatistics.statistics().get("slack").get("notification stage-status");
+        assertThat(stageStatus.getCount()).isEqualTo(2);
+        assertThat(stageStatus.getFailureCount()).isEqualTo(1);
+        assertThat(stageStatus.getAverageTimeInMillis()).isEqualTo(352);
+        assertThat(stageStatus.getMaxTimeInMillis()).isEqualTo(700);
+        assertThat(stageStatus.getHistogram())
+                .containsEntry("< 10ms", 1L)
+                .containsEntry("< 1000ms", 1L)
+                .containsEntry(">= 10000ms", 0L);
+        assertThat(requestStatistics.statistics().get("ldap").get("authorization authenticate-user").getHistogram()).containsEntry(">= 10000ms", 1L);
+    }
+
+    @Test
+    void shouldWorkOutTheNumberOfRequestsPerMinute() {
+        for (int i = 0; i < 30; i++) {
+            requestStatistics.record("slack", "notification", "stage-status", 5, false);
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(3));
+
+        assertThat(requestStatistics.statistics().get("slack").get("notification stage-status").getRequestsPerMinute()).isEqualTo(10.0);
+    }
+
+    @Test
+    void shouldForgetStatisticsOfAPlugin() {
+        requestStatistics.record("slack", "notification", "stage-status", 5, false);
+        requestStatistics.record("email", "notification", "stage-status", 5, false);
+
+        requestStatistics.forget("slack");
+
+        assertThat(requestStatistics.statistics()).containsOnlyKeys("email");
+    }
+}
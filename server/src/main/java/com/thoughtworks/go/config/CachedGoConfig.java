@@ -48,6 +48,7 @@ public class CachedGoConfig {
     private GoConfigMigrator goConfigMigrator;
     private MaintenanceModeService maintenanceModeService;
     private final ServerHealthService serverHealthService;
+    private final ConfigChangeNotifier configChangeNotifier;
     private List<ConfigChangedListener> listeners = new ArrayList<>();
     private volatile CruiseConfig currentConfig;
     private volatile CruiseConfig currentConfigForEdit;
@@ -58,12 +59,13 @@ public class CachedGoConfig {
     @Autowired
     public CachedGoConfig(ServerHealthService serverHealthService, GoFileConfigDataSource dataSource,
                           CachedGoPartials cachedGoPartials, GoConfigMigrator goConfigMigrator,
-                          MaintenanceModeService maintenanceModeService) {
+                          MaintenanceModeService maintenanceModeService, ConfigChangeNotifier configChangeNotifier) {
         this.serverHealthService = serverHealthService;
         this.dataSource = dataSource;
         this.cachedGoPartials = cachedGoPartials;
         this.goConfigMigrator = goConfigMigrator;
         this.maintenanceModeService = maintenanceModeService;
+        this.configChangeNotifier = configChangeNotifier;
     }
 
     public static List<ConfigErrors> validate(CruiseConfig config) {
@@ -86,6 +88,12 @@ public class CachedGoConfig {
             return;
         }
 
+        // checked without the write lock, so that an unchanged file never holds up config writers
+        if (configHolder != null && !dataSource.mayHaveChangedOnDisk()) {
+            LOGGER.debug("Config file (on disk) has not changed, skipping update check");
+            return;
+        }
+
         this.forceReload();
     }
 
@@ -161,23 +169,36 @@ public class CachedGoConfig {
         return entityConfigSaveResult;
     }
 
+    public synchronized ConfigSaveState writePartialWithLock(UpdateConfigCommand updateConfigCommand) {
+        CruiseConfig previousConfig = currentConfig();
+        GoFileConfigDataSource.GoConfigSaveResult saveResult = dataSource.writeWithLock(updateConfigCommand, this.configHolder);
+        saveValidConfigToCache(saveResult.getConfigHolder());
+        if (saveResult.getConfigHolder() != null) {
+            PartialConfigChanges changes = PartialConfigChanges.between(previousConfig, currentConfig);
+            LOGGER.info("About to notify config listeners of {} entities changed by config repositories", changes.changedEntities().size());
+            for (Object entity : changes.changedEntities()) {
+                notifyEntityListeners(entity);
+            }
+            LOGGER.info("Finished notifying config listeners of entities changed by config repositories");
+        }
+        return saveResult.getConfigSaveState();
+    }
+
     private <T> void saveValidConfigToCacheAndNotifyEntityConfigChangeListeners(EntityConfigSaveResult<T> saveResult) {
         saveValidConfigToCache(saveResult.getConfigHolder());
         LOGGER.info("About to notify {} config listeners", saveResult.getEntityConfig().getClass().getName());
+        notifyEntityListeners(saveResult.getEntityConfig());
+        LOGGER.info("Finished notifying {} config listeners", saveResult.getEntityConfig().getClass().getName());
+    }
 
+    private synchronized <T> void notifyEntityListeners(T entity) {
+        List<ConfigChangedListener> listenersOfEntity = new ArrayList<>();
         for (ConfigChangedListener listener : listeners) {
-            if (listener instanceof EntityConfigChangedListener<?> && ((EntityConfigChangedListener) listener).shouldCareAbout(saveResult.getEntityConfig())) {
-                try {
-                    long startTime = System.currentTimeMillis();
-                EntityConfigChangedListener<T> entityConfigChangedListener = (EntityConfigChangedListener<T>) listener;
-                    entityConfigChangedListener.onEntityConfigChange(saveResult.getEntityConfig());
-                    LOGGER.debug("Notifying {} took (in ms): {}", listener.getClass(), (System.currentTimeMillis() - startTime));
-                } catch (Exception e) {
-                    LOGGER.error("failed to fire config changed event for listener: {}", listener, e);
-                }
+            if (listener instanceof EntityConfigChangedListener<?> && ((EntityConfigChangedListener) listener).shouldCareAbout(entity)) {
+                listenersOfEntity.add(listener);
             }
         }
-        LOGGER.info("Finished notifying {} config listeners", saveResult.getEntityConfig().getClass().getName());
+        configChangeNotifier.notify(listenersOfEntity, listener -> ((EntityConfigChangedListener<T>) listener).onEntityConfigChange(entity));
     }
 
     private synchronized void saveValidConfigToCache(GoConfigHolder configHolder) {
@@ -220,13 +241,7 @@ public class CachedGoConfig {
 
     private synchronized void notifyListeners(CruiseConfig newCruiseConfig) {
         LOGGER.info("About to notify config listeners");
-        for (ConfigChangedListener listener : listeners) {
-            try {
-                listener.onConfigChange(newCruiseConfig);
-            } catch (Exception e) {
-                LOGGER.error("Failed to fire config changed event for listener: {}", listener, e);
-            }
-        }
+        configChangeNotifier.notify(listeners, listener -> listener.onConfigChange(newCruiseConfig));
         LOGGER.info("Finished notifying all listeners");
     }
 
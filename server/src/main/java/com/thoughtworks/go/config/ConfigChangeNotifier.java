@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TimingStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * @understands notifying config listeners of a change, running the ones which can be notified concurrently on a pool of
+ * workers while the others are notified in order, and keeping track of how long each listener takes
+ * <p>
+ * A notification returns only once every listener has been notified.
+ */
+@Component
+public class ConfigChangeNotifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigChangeNotifier.class);
+
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, ListenerStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConfigChangeNotifier(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.getNumberOfConfigListenerNotificationThreads() > 0 ?
+                Executors.newFixedThreadPool(systemEnvironment.getNumberOfConfigListenerNotificationThreads(),
+                        new ThreadFactoryBuilder().setNameFormat("config-listener-notification-%d").setDaemon(true).build()) : null);
+    }
+
+    public ConfigChangeNotifier(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public void notify(List<? extends ConfigChangedListener> listeners, Consumer<ConfigChangedListener> notification) {
+        List<Future<?>> concurrentNotifications = new ArrayList<>();
+        for (ConfigChangedListener listener : listeners) {
+            if (executor != null && listener.canBeNotifiedConcurrently()) {
+                try {
+                    concurrentNotifications.add(executor.submit(() -> notify(listener, notification)));
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    LOGGER.warn("Could not notify config listener {} concurrently, notifying it now", listener, e);
+                }
+            }
+            notify(listener, notification);
+        }
+
+        for (Future<?> concurrentNotification : concurrentNotifications) {
+            try {
+                Uninterruptibles.getUninterruptibly(concurrentNotification);
+            } catch (ExecutionException e) {
+                LOGGER.error("Failed to fire config changed event", e.getCause());
+            }
+        }
+    }
+
+    private void notify(ConfigChangedListener listener, Consumer<ConfigChangedListener> notification) {
+        ListenerStatistics listenerStatistics = statistics.computeIfAbsent(listener.getClass().getName(), name -> new ListenerStatistics());
+        long startTime = System.currentTimeMillis();
+        try {
+            notification.accept(listener);
+            listenerStatistics.record(System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            listenerStatistics.recordFailure(System.currentTimeMillis() - startTime, e);
+            LOGGER.error("Failed to fire config changed event for listener: {}", listener, e);
+        }
+        LOGGER.debug("Notifying {} took (in ms): {}", listener.getClass(), (System.currentTimeMillis() - startTime));
+    }
+
+    public Map<String, ListenerStatistics> listenerStatistics() {
+        return new TreeMap<>(statistics);
+    }
+
+    public static class ListenerStatistics extends TimingStatistics {
+        private volatile String lastFailure;
+
+        void recordFailure(long timeInMillis, Exception e) {
+            record(timeInMillis, true);
+            lastFailure = e.getClass().getName() + ": " + e.getMessage();
+        }
+
+        public String getLastFailure() {
+            return lastFailure;
+        }
+    }
+}
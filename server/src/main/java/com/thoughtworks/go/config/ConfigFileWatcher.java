@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * @understands noticing changes to the config file through filesystem notifications, without blocking and without
+ * reading the file. Catches edits which leave the size and modified time of the file unchanged.
+ * <p>
+ * Events are only collected when asked for. If the filesystem cannot be watched, no changes are ever reported and
+ * callers are expected to rely on the file attributes alone.
+ */
+class ConfigFileWatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigFileWatcher.class);
+
+    private WatchService watchService;
+    private WatchKey watchKey;
+    private Path watchedFile;
+    private boolean unavailable;
+
+    /**
+     * @return true if the file has been created, modified or deleted since this was last asked
+     */
+    synchronized boolean hasChanged(File configFile) {
+        Path file = configFile.getAbsoluteFile().toPath();
+        if (!file.equals(watchedFile)) {
+            watch(file);
+            return false;
+        }
+        if (watchKey == null) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        if (!watchKey.reset()) {
+            LOGGER.warn("Stopped watching {} for changes as its directory is no longer accessible", file);
+            watchedFile = null;
+            return true;
+        }
+        return changed;
+    }
+
+    private void watch(Path file) {
+        stopWatching();
+        watchedFile = file;
+        if (unavailable || file.getParent() == null) {
+            return;
+        }
+
+        try {
+            if (watchService == null) {
+                watchService = file.getFileSystem().newWatchService();
+            }
+            watchKey = file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.warn("Could not watch {} for changes, changes will be detected using its size and modified time only", file, e);
+            unavailable = true;
+        }
+    }
+
+    private void stopWatching() {
+        if (watchKey != null) {
+            watchKey.cancel();
+            watchKey = null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.Expose;
+import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMetadataStore;
+import com.thoughtworks.go.plugin.configrepo.codec.GsonCodec;
+import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
+import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
+import com.thoughtworks.go.plugin.configrepo.contract.ErrorCollection;
+import com.thoughtworks.go.plugin.domain.configrepo.ConfigRepoPluginInfo;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.thoughtworks.go.util.CachedDigestUtils.sha256Hex;
+
+/**
+ * @understands remembering, across server restarts, the last valid result of parsing a config repository, so that the
+ * first load of a config repository after a restart need not parse a revision which has already been parsed by the same
+ * version of a plugin with the same configuration. Every later load asks the plugin, because a parse can depend on more
+ * than the revision (branches the plugin scans, for instance).
+ */
+@Component
+public class ConfigRepoParseCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigRepoParseCache.class);
+    private static final String CACHE_FILE_EXTENSION = ".json.gz";
+
+    private final File cacheDir;
+    private final boolean enabled;
+    private final Gson gson = new GsonCodec().getGson();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Set<String> loadedSinceStart = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ConfigRepoParseCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.getConfigRepoParseCacheDir(), systemEnvironment.isConfigRepoParseCacheEnabled());
+    }
+
+    ConfigRepoParseCache(File cacheDir, boolean enabled) {
+        this.cacheDir = cacheDir;
+        this.enabled = enabled;
+    }
+
+    /**
+     * On the first load of the config repository in the given context since the server started, returns its cached
+     * parse result at the revision in the context if there is one. Otherwise parses it using the given parser and
+     * caches the result. The parser is expected to throw when the result has errors, so only valid results are ever
+     * cached.
+     */
+    public CRParseResult parse(String pluginId, PartialConfigLoadContext context, Collection<CRConfigurationProperty> configurations, Supplier<CRParseResult> parser) {
+        CacheEntry key = keyFor(pluginId, context, configurations);
+        if (key == null) {
+            return parser.get();
+        }
+
+        if (loadedSinceStart.add(key.fingerprint)) {
+            CRParseResult cached = read(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                LOGGER.debug("[Config Repo Parse Cache] Using cached parse result of {} at revision {}", key.fingerprint, key.revision);
+                return cached;
+            }
+            misses.incrementAndGet();
+        }
+
+        CRParseResult result = parser.get();
+        write(key.withParseResult(result));
+        return result;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private CacheEntry keyFor(String pluginId, PartialConfigLoadContext context, Collection<CRConfigurationProperty> configurations) {
+        if (!enabled || context.revision() == null || context.configMaterial() == null) {
+            return null;
+        }
+        String pluginVersion = pluginVersion(pluginId);
+        if (pluginVersion == null) {
+            return null;
+        }
+        return new CacheEntry(context.configMaterial().getFingerprint(), context.revision(), pluginId, pluginVersion,
+                sha256Hex(gson.toJson(configurations)));
+    }
+
+    private String pluginVersion(String pluginId) {
+        ConfigRepoPluginInfo pluginInfo = ConfigRepoMetadataStore.instance().getPluginInfo(pluginId);
+        if (pluginInfo == null || pluginInfo.getDescriptor() == null || pluginInfo.getDescriptor().about() == null) {
+            return null;
+        }
+        return pluginInfo.getDescriptor().about().version();
+    }
+
+    private CRParseResult read(CacheEntry key) {
+        File file = fileFor(key.fingerprint);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+            CacheEntry entry = gson.fromJson(reader, CacheEntry.class);
+            if (entry == null || !entry.hasSameKeyAs(key) || entry.parseResult == null) {
+                return null;
+            }
+            if (entry.parseResult.getErrors() == null) {
+                entry.parseResult.setErrors(new ErrorCollection());
+            }
+            return entry.parseResult;
+        } catch (Exception e) {
+            LOGGER.warn("[Config Repo Parse Cache] Ignoring unreadable cached parse result {}", file, e);
+            FileUtils.deleteQuietly(file);
+            return null;
+        }
+    }
+
+    private void write(CacheEntry entry) {
+        File file = fileFor(entry.fingerprint);
+        File tempFile = new File(cacheDir, file.getName() + ".tmp");
+        try {
+            FileUtils.forceMkdir(cacheDir);
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOGGER.warn("[Config Repo Parse Cache] Could not cache parse result of {} at revision {}", entry.fingerprint, entry.revision, e);
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    private File fileFor(String fingerprint) {
+        return new File(cacheDir, fingerprint + CACHE_FILE_EXTENSION);
+    }
+
+    private static class CacheEntry {
+        @Expose
+        private String fingerprint;
+        @Expose
+        private String revision;
+        @Expose
+        private String pluginId;
+        @Expose
+        private String pluginVersion;
+        @Expose
+        private String configurationDigest;
+        @Expose
+        private CRParseResult parseResult;
+
+        CacheEntry(String fingerprint, String revision, String pluginId, String pluginVersion, String configurationDigest) {
+            this.fingerprint = fingerprint;
+            this.revision = revision;
+            this.pluginId = pluginId;
+            this.pluginVersion = pluginVersion;
+            this.configurationDigest = configurationDigest;
+        }
+
+        CacheEntry withParseResult(CRParseResult parseResult) {
+            CacheEntry entry = new CacheEntry(fingerprint, revision, pluginId, pluginVersion, configurationDigest);
+            entry.parseResult = parseResult;
+            return entry;
+        }
+
+        boolean hasSameKeyAs(CacheEntry other) {
+            return Objects.equals(fingerprint, other.fingerprint) &&
+                    Objects.equals(revision, other.revision) &&
+                    Objects.equals(pluginId, other.pluginId) &&
+                    Objects.equals(pluginVersion, other.pluginVersion) &&
+                    Objects.equals(configurationDigest, other.configurationDigest);
+        }
+    }
+}
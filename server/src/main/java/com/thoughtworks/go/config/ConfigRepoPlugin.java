@@ -35,11 +35,17 @@ public class ConfigRepoPlugin implements PartialConfigProvider {
     private final ConfigConverter configConverter;
     private final ConfigRepoExtension crExtension;
     private final String pluginId;
+    private final ConfigRepoParseCache parseCache;
 
     public ConfigRepoPlugin(ConfigConverter configConverter, ConfigRepoExtension crExtension, String pluginId) {
+        this(configConverter, crExtension, pluginId, null);
+    }
+
+    public ConfigRepoPlugin(ConfigConverter configConverter, ConfigRepoExtension crExtension, String pluginId, ConfigRepoParseCache parseCache) {
         this.configConverter = configConverter;
         this.crExtension = crExtension;
         this.pluginId = pluginId;
+        this.parseCache = parseCache;
     }
 
     public static List<CRConfigurationProperty> getCrConfigurations(Configuration configuration) {
@@ -59,7 +65,9 @@ public class ConfigRepoPlugin implements PartialConfigProvider {
     @Override
     public PartialConfig load(File configRepoCheckoutDirectory, PartialConfigLoadContext context) {
         Collection<CRConfigurationProperty> cRconfigurations = getCrConfigurations(context.configuration());
-        CRParseResult crPartialConfig = parseDirectory(configRepoCheckoutDirectory, cRconfigurations);
+        CRParseResult crPartialConfig = parseCache == null
+                ? parseDirectory(configRepoCheckoutDirectory, cRconfigurations)
+                : parseCache.parse(pluginId, context, cRconfigurations, () -> parseDirectory(configRepoCheckoutDirectory, cRconfigurations));
         return configConverter.toPartialConfig(crPartialConfig, context);
     }
 
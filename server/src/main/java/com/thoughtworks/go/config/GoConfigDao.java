@@ -128,6 +128,25 @@ public class GoConfigDao {
         return configSaveState;
     }
 
+    /**
+     * Applies a change to the partials merged from config repositories. Unlike {@link #updateConfig(UpdateConfigCommand)},
+     * only listeners of the pipelines, groups, environments and SCMs which the change added, modified or removed are notified.
+     */
+    public ConfigSaveState updatePartials(UpdateConfigCommand command) {
+        LOGGER.info("Config update request for partials is in queue - {}", command);
+        synchronized (GoConfigWriteLock.class) {
+            try {
+                LOGGER.info("Config update request for partials {} is being processed", command);
+                return cachedConfigService.writePartialWithLock(command);
+            } catch (Exception e) {
+                LOGGER.error("Config update for partials failed.", e);
+                throw e;
+            } finally {
+                LOGGER.info("Config update request for partials is completed");
+            }
+        }
+    }
+
     public ConfigSaveState updateFullConfig(FullConfigUpdateCommand command) {
         ConfigSaveState configSaveState;
         LOGGER.info("Config update request by {} is in queue - {}", SessionUtils.currentUsername().getUsername(), command);
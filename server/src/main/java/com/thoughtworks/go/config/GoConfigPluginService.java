@@ -34,12 +34,15 @@ public class GoConfigPluginService {
     private final ConfigRepoExtension crExtension;
     private final XmlPartialConfigProvider embeddedXmlPlugin;
     private ConfigConverter configConverter;
+    private final ConfigRepoParseCache parseCache;
 
     @Autowired
     public GoConfigPluginService(ConfigRepoExtension configRepoExtension, ConfigCache configCache,
                                  ConfigElementImplementationRegistry configElementImplementationRegistry,
-                                 CachedGoConfig cachedGoConfig, AgentService agentService) {
+                                 CachedGoConfig cachedGoConfig, AgentService agentService,
+                                 ConfigRepoParseCache parseCache) {
         this.crExtension = configRepoExtension;
+        this.parseCache = parseCache;
         MagicalGoConfigXmlLoader loader = new MagicalGoConfigXmlLoader(configCache, configElementImplementationRegistry);
         embeddedXmlPlugin = new XmlPartialConfigProvider(loader);
         configConverter = new ConfigConverter(new GoCipher(), cachedGoConfig, agentService);
@@ -54,7 +57,7 @@ public class GoConfigPluginService {
         if (pluginId == null || pluginId.equals(XmlPartialConfigProvider.providerName))
             return embeddedXmlPlugin;
 
-        return new ConfigRepoPlugin(configConverter, crExtension, pluginId);
+        return new ConfigRepoPlugin(configConverter, crExtension, pluginId, parseCache);
     }
 
     public boolean isConfigRepoPlugin(String pluginId) {
@@ -108,6 +108,11 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
         return result.lastGoodPartialConfig();
     }
 
+    public String pluginIdFor(MaterialConfig material) {
+        ConfigRepoConfig repoConfig = configWatchList.getConfigRepoForMaterial(material);
+        return repoConfig == null ? null : repoConfig.getPluginId();
+    }
+
     public boolean hasConfigRepoConfigChangedSinceLastUpdate(MaterialConfig material) {
         return modifiedConfigRepoConfigsAwaitingParse.contains(configWatchList.getConfigRepoForMaterial(material));
     }
@@ -158,7 +163,7 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
                 this.modifiedConfigRepoConfigsAwaitingParse.remove(repoConfig);
                 //TODO put modifications and previous partial config in context
                 // the context is just a helper for plugin.
-                PartialConfigLoadContext context = new LoadContext(repoConfig);
+                PartialConfigLoadContext context = new LoadContext(repoConfig, modification.getRevision());
                 PartialConfig newPart = plugin.load(folder, context);
                 if (newPart == null) {
                     LOGGER.warn("Parsed configuration material {} by {} is null", material.getDisplayName(), plugin.displayName());
@@ -223,9 +228,11 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
 
     private class LoadContext implements PartialConfigLoadContext {
         private final ConfigRepoConfig repoConfig;
+        private final String revision;
 
-        public LoadContext(ConfigRepoConfig repoConfig) {
+        public LoadContext(ConfigRepoConfig repoConfig, String revision) {
             this.repoConfig = repoConfig;
+            this.revision = revision;
         }
 
         @Override
@@ -237,5 +244,10 @@ public class GoConfigRepoConfigDataSource implements ChangedRepoConfigWatchListL
         public MaterialConfig configMaterial() {
             return this.repoConfig.getRepo();
         }
+
+        @Override
+        public String revision() {
+            return revision;
+        }
     }
 }
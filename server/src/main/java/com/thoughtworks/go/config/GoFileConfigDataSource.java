@@ -67,7 +67,7 @@ public class GoFileConfigDataSource {
     private final GoConfigFileReader goConfigFileReader;
     private final GoConfigFileWriter goConfigFileWriter;
     private final PartialConfigHelper partials;
-    private ReloadStrategy reloadStrategy = new ReloadIfModified();
+    private ReloadStrategy reloadStrategy;
 
     /* Will only upgrade cruise config file on application startup. */
     @Autowired
@@ -98,6 +98,7 @@ public class GoFileConfigDataSource {
         this.cachedGoPartials = cachedGoPartials;
         this.fullConfigSaveMergeFlow = fullConfigSaveMergeFlow;
         this.fullConfigSaveNormalFlow = fullConfigSaveNormalFlow;
+        this.reloadStrategy = newReloadIfModified();
         this.goConfigFileReader = goConfigFileReader;
         this.goConfigFileWriter = goConfigFileWriter;
         this.partials = partials;
@@ -118,8 +119,12 @@ public class GoFileConfigDataSource {
 
         ReloadTestResult requiresReload(File configFile);
 
+        boolean mayHaveChanged(File configFile);
+
         void latestState(CruiseConfig config);
 
+        void fileWritten(File configFile);
+
         void hasLatest(ReloadTestResult reloadTestResult);
 
         void performingReload(ReloadTestResult reloadTestResult);
@@ -149,10 +154,19 @@ public class GoFileConfigDataSource {
             return new ReloadTestResult(true, 0, 0);
         }
 
+        @Override
+        public boolean mayHaveChanged(File configFile) {
+            return true;
+        }
+
         @Override
         public void latestState(CruiseConfig config) {
         }
 
+        @Override
+        public void fileWritten(File configFile) {
+        }
+
         @Override
         public void hasLatest(ReloadTestResult result) {
         }
@@ -163,10 +177,16 @@ public class GoFileConfigDataSource {
     }
 
     static class ReloadIfModified implements ReloadStrategy {
-        private long lastModified;
-        private long prevSize;
+        private final ConfigFileWatcher watcher;
+        private volatile long lastModified;
+        private volatile long prevSize;
+        private volatile boolean changeNotified;
         private volatile String md5 = "";
 
+        ReloadIfModified(ConfigFileWatcher watcher) {
+            this.watcher = watcher;
+        }
+
         @Override
         public ReloadTestResult requiresReload(File configFile) {
             long lastModified = lastModified(configFile);
@@ -175,11 +195,27 @@ public class GoFileConfigDataSource {
             return new ReloadTestResult(requiresReload, length, lastModified);
         }
 
+        /**
+         * Cheap enough to be called often: only looks at the file attributes and pending filesystem notifications,
+         * never at the content of the file.
+         */
+        @Override
+        public boolean mayHaveChanged(File configFile) {
+            return hasChangeBeenNotified(configFile) || doFileAttributesDiffer(lastModified(configFile), length(configFile));
+        }
+
         @Override
         public void latestState(CruiseConfig config) {
             md5 = config.getMd5();
         }
 
+        // the content of the file matches the latest state, remember what it looks like so that our own write is not hashed again
+        @Override
+        public void fileWritten(File configFile) {
+            hasChangeBeenNotified(configFile);
+            rememberLatestFileAttributes(new ReloadTestResult(false, length(configFile), lastModified(configFile)));
+        }
+
         @Override
         public void hasLatest(ReloadTestResult result) {
             rememberLatestFileAttributes(result);
@@ -208,7 +244,14 @@ public class GoFileConfigDataSource {
         }
 
         private boolean requiresReload(File configFile, long currentLastModified, long currentSize) {
-            return doFileAttributesDiffer(currentLastModified, currentSize) && doesFileContentDiffer(configFile);
+            return (hasChangeBeenNotified(configFile) || doFileAttributesDiffer(currentLastModified, currentSize)) && doesFileContentDiffer(configFile);
+        }
+
+        private boolean hasChangeBeenNotified(File configFile) {
+            if (watcher != null && watcher.hasChanged(configFile)) {
+                changeNotified = true;
+            }
+            return changeNotified;
         }
 
         private String getConfigFileMd5(File configFile) {
@@ -225,6 +268,7 @@ public class GoFileConfigDataSource {
             synchronized (this) {
                 lastModified = result.modifiedTime;
                 prevSize = result.fileSize;
+                changeNotified = false;
             }
         }
     }
@@ -235,10 +279,22 @@ public class GoFileConfigDataSource {
     }
 
     public GoFileConfigDataSource reloadIfModified() {
-        this.reloadStrategy = new ReloadIfModified();
+        this.reloadStrategy = newReloadIfModified();
         return this;
     }
 
+    private ReloadIfModified newReloadIfModified() {
+        return new ReloadIfModified(systemEnvironment.isConfigFileWatchEnabled() ? new ConfigFileWatcher() : null);
+    }
+
+    /**
+     * @return false if the config file has certainly not changed since it was last loaded or written. Does not read
+     * the file, so it is cheap enough to be checked without holding any locks.
+     */
+    public boolean mayHaveChangedOnDisk() {
+        return reloadStrategy.mayHaveChanged(fileLocation());
+    }
+
     public File fileLocation() {
         return new File(systemEnvironment.getCruiseConfigFile());
     }
@@ -431,6 +487,7 @@ public class GoFileConfigDataSource {
                 goConfigHolder = fullConfigSaveNormalFlow.execute(new FullConfigUpdateCommand(cruiseConfig, null), cachedGoPartials.lastValidPartials(), FILESYSTEM);
             }
             reloadStrategy.latestState(goConfigHolder.config);
+            reloadStrategy.fileWritten(configFile);
             return goConfigHolder;
         } catch (Exception e) {
             LOGGER.error("Unable to load config file: {} {}", configFile.getAbsolutePath(), e.getMessage(), e);
@@ -495,6 +552,7 @@ public class GoFileConfigDataSource {
                 MagicalGoConfigXmlLoader.setMd5(preprocessedConfig, md5);
                 writeToConfigXmlFile(configAsXml);
                 checkinConfigToGitRepo(partials, preprocessedConfig, configAsXml, md5, currentUser.getUsername().toString());
+                reloadStrategy.fileWritten(fileLocation());
                 LOGGER.debug("[Config Save] Done writing with lock");
                 CruiseConfig mergedCruiseConfigForEdit = modifiedConfig;
                 if (!partials.isEmpty()) {
@@ -561,6 +619,7 @@ public class GoFileConfigDataSource {
         }
 
         reloadStrategy.latestState(goConfigHolder.config);
+        reloadStrategy.fileWritten(fileLocation());
 
         return goConfigHolder;
     }
@@ -586,6 +645,7 @@ public class GoFileConfigDataSource {
         }
         LOGGER.info("[Configuration Changed] Saving updated configuration.");
         writeToConfigXmlFile(configAsXml);
+        reloadStrategy.fileWritten(fileLocation());
         return validatedConfigHolder;
     }
 
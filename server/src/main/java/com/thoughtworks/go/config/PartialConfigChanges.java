@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.config.remote.PartialConfig;
+import com.thoughtworks.go.domain.scm.SCM;
+
+import java.util.*;
+
+/**
+ * @understands which pipelines, pipeline groups, environments and SCMs contributed by config repositories differ
+ * between two merged configs, so that only listeners interested in those entities need to be notified
+ */
+public class PartialConfigChanges {
+    private final List<Object> changedEntities;
+
+    private PartialConfigChanges(List<Object> changedEntities) {
+        this.changedEntities = changedEntities;
+    }
+
+    public static PartialConfigChanges between(CruiseConfig previous, CruiseConfig current) {
+        List<Object> changed = new ArrayList<>();
+        changed.addAll(changedPipelines(previous, current));
+        changed.addAll(changedGroups(previous, current));
+        changed.addAll(changedEnvironments(previous, current));
+        changed.addAll(changedScms(previous, current));
+        return new PartialConfigChanges(changed);
+    }
+
+    /**
+     * @return the entities that were added or changed (as present in the current config), followed by the entities
+     * that were removed (as present in the previous config)
+     */
+    public List<Object> changedEntities() {
+        return changedEntities;
+    }
+
+    public boolean isEmpty() {
+        return changedEntities.isEmpty();
+    }
+
+    private static List<PipelineConfig> changedPipelines(CruiseConfig previous, CruiseConfig current) {
+        Map<CaseInsensitiveString, PipelineConfig> previousRemote = remotePipelines(previous);
+        Map<CaseInsensitiveString, PipelineConfig> currentRemote = remotePipelines(current);
+        if (previousRemote.isEmpty() && currentRemote.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<CaseInsensitiveString, PipelineConfig> currentPipelines = pipelinesByName(current);
+        Map<CaseInsensitiveString, PipelineConfig> previousPipelines = pipelinesByName(previous);
+
+        List<PipelineConfig> changed = new ArrayList<>();
+        currentRemote.forEach((name, pipeline) -> {
+            if (!pipeline.equals(previousRemote.get(name))) {
+                changed.add(currentPipelines.getOrDefault(name, pipeline));
+            }
+        });
+        previousRemote.forEach((name, pipeline) -> {
+            if (!currentRemote.containsKey(name)) {
+                changed.add(previousPipelines.getOrDefault(name, pipeline));
+            }
+        });
+        return changed;
+    }
+
+    private static List<PipelineConfigs> changedGroups(CruiseConfig previous, CruiseConfig current) {
+        List<PipelineConfigs> changed = new ArrayList<>();
+        for (PipelineConfigs group : current.getGroups()) {
+            if (!previous.getGroups().hasGroup(group.getGroup())) {
+                changed.add(group);
+            }
+        }
+        for (PipelineConfigs group : previous.getGroups()) {
+            if (!current.getGroups().hasGroup(group.getGroup())) {
+                changed.add(group);
+            }
+        }
+        return changed;
+    }
+
+    private static List<EnvironmentConfig> changedEnvironments(CruiseConfig previous, CruiseConfig current) {
+        Map<CaseInsensitiveString, List<EnvironmentConfig>> previousRemote = remoteEnvironments(previous);
+        Map<CaseInsensitiveString, List<EnvironmentConfig>> currentRemote = remoteEnvironments(current);
+
+        Set<CaseInsensitiveString> names = new LinkedHashSet<>(currentRemote.keySet());
+        names.addAll(previousRemote.keySet());
+
+        List<EnvironmentConfig> changed = new ArrayList<>();
+        for (CaseInsensitiveString name : names) {
+            if (Objects.equals(previousRemote.get(name), currentRemote.get(name))) {
+                continue;
+            }
+            EnvironmentConfig environment = current.getEnvironments().find(name);
+            changed.add(environment != null ? environment : previous.getEnvironments().find(name));
+        }
+        return changed;
+    }
+
+    private static List<SCM> changedScms(CruiseConfig previous, CruiseConfig current) {
+        Map<String, SCM> previousRemote = remoteScms(previous);
+        Map<String, SCM> currentRemote = remoteScms(current);
+
+        List<SCM> changed = new ArrayList<>();
+        currentRemote.forEach((id, scm) -> {
+            if (!scm.equals(previousRemote.get(id))) {
+                changed.add(scm);
+            }
+        });
+        previousRemote.forEach((id, scm) -> {
+            if (!currentRemote.containsKey(id)) {
+                changed.add(scm);
+            }
+        });
+        return changed;
+    }
+
+    private static Map<CaseInsensitiveString, PipelineConfig> remotePipelines(CruiseConfig config) {
+        Map<CaseInsensitiveString, PipelineConfig> pipelines = new LinkedHashMap<>();
+        for (PartialConfig partial : config.getMergedPartials()) {
+            for (PipelineConfigs group : partial.getGroups()) {
+                for (PipelineConfig pipeline : group) {
+                    pipelines.put(pipeline.name(), pipeline);
+                }
+            }
+        }
+        return pipelines;
+    }
+
+    private static Map<CaseInsensitiveString, PipelineConfig> pipelinesByName(CruiseConfig config) {
+        Map<CaseInsensitiveString, PipelineConfig> pipelines = new HashMap<>();
+        for (PipelineConfig pipeline : config.getAllPipelineConfigs()) {
+            pipelines.put(pipeline.name(), pipeline);
+        }
+        return pipelines;
+    }
+
+    private static Map<CaseInsensitiveString, List<EnvironmentConfig>> remoteEnvironments(CruiseConfig config) {
+        Map<CaseInsensitiveString, List<EnvironmentConfig>> environments = new LinkedHashMap<>();
+        for (PartialConfig partial : config.getMergedPartials()) {
+            for (EnvironmentConfig environment : partial.getEnvironments()) {
+                environments.computeIfAbsent(environment.name(), name -> new ArrayList<>()).add(environment);
+            }
+        }
+        return environments;
+    }
+
+    private static Map<String, SCM> remoteScms(CruiseConfig config) {
+        Map<String, SCM> scms = new LinkedHashMap<>();
+        for (PartialConfig partial : config.getMergedPartials()) {
+            for (SCM scm : partial.getScms()) {
+                scms.put(scm.getId(), scm);
+            }
+        }
+        return scms;
+    }
+}
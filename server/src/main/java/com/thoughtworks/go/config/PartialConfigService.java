@@ -133,10 +133,10 @@ public class PartialConfigService implements PartialConfigUpdateCompletedListene
         //  remove cached partial without clearing server health message.
         cachedGoPartials.removeValidWithoutClearingServerHealthMessage(fingerprint);
 
-        /*Removing cached partials is not enough, we need to perform a full config save immediately in order to invoke
+        /*Removing cached partials is not enough, we need to perform a config save immediately in order to invoke
         appropriate listeners that removes the pipelines.*/
         //todo: Do we care about error handling while removing the partials?
-        goConfigService.updateConfig(cruiseConfig -> {
+        goConfigService.updatePartials(cruiseConfig -> {
             cruiseConfig.getPartials().remove(cachedGoPartials.findPartialByFingerprint(cruiseConfig, fingerprint));
             return cruiseConfig;
         });
@@ -156,7 +156,7 @@ public class PartialConfigService implements PartialConfigUpdateCompletedListene
 
     private boolean updateConfig(final PartialConfig newPart, final String fingerprint, ConfigRepoConfig repoConfig) {
         try {
-            goConfigService.updateConfig(buildUpdateCommand(newPart, fingerprint));
+            goConfigService.updatePartials(buildUpdateCommand(newPart, fingerprint));
             return true;
         } catch (Exception e) {
             if (repoConfig != null) {
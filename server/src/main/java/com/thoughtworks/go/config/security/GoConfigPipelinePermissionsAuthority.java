@@ -15,9 +15,12 @@
  */
 package com.thoughtworks.go.config.security;
 
+import com.thoughtworks.go.config.Authorization;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.PipelineConfig;
 import com.thoughtworks.go.config.PipelineConfigs;
+import com.thoughtworks.go.config.SecurityConfig;
+import com.thoughtworks.go.config.StageConfig;
 import com.thoughtworks.go.config.security.permissions.EveryonePermission;
 import com.thoughtworks.go.config.security.permissions.PipelinePermission;
 import com.thoughtworks.go.config.security.permissions.StagePermission;
@@ -29,8 +32,10 @@ import com.thoughtworks.go.util.SystemEnvironment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.util.SystemEnvironment.ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP;
@@ -40,6 +45,7 @@ import static com.thoughtworks.go.util.SystemEnvironment.ALLOW_EVERYONE_TO_VIEW_
 public class GoConfigPipelinePermissionsAuthority {
     private GoConfigService goConfigService;
     private SystemEnvironment systemEnvironment;
+    private volatile PermissionsMatrix permissionsMatrix;
 
     @Autowired
     public GoConfigPipelinePermissionsAuthority(GoConfigService goConfigService, SystemEnvironment systemEnvironment) {
@@ -47,8 +53,23 @@ public class GoConfigPipelinePermissionsAuthority {
         this.systemEnvironment = systemEnvironment;
     }
 
+    /**
+     * The matrix is computed once per config: every save replaces the config (and so its pipeline groups and security
+     * config), which is what the matrix is keyed on. The returned map must not be modified.
+     */
     public Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions() {
-        return pipelinesInGroupsAndTheirPermissions(goConfigService.groups());
+        PipelineGroups groups = goConfigService.groups();
+        SecurityConfig securityConfig = goConfigService.security();
+        boolean everyoneIsAllowedToViewGroupsWithNoAuth = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+
+        PermissionsMatrix current = permissionsMatrix;
+        if (current != null && current.isFor(groups, securityConfig, everyoneIsAllowedToViewGroupsWithNoAuth)) {
+            return current.pipelinesAndTheirPermissions;
+        }
+
+        PermissionsMatrix updated = new PermissionsMatrix(groups, securityConfig, everyoneIsAllowedToViewGroupsWithNoAuth, current);
+        permissionsMatrix = updated;
+        return updated.pipelinesAndTheirPermissions;
     }
 
     public Permissions permissionsForPipeline(CaseInsensitiveString pipelineName) {
@@ -76,29 +97,118 @@ public class GoConfigPipelinePermissionsAuthority {
     }
 
     private Permissions groupPermissionsOnPipeline(PipelineGroupsSecurityHelper security, PipelineConfigs group, PipelineConfig pipeline) {
-        if (security.hasNoSuperAdmins()) {
-            return new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+        boolean everyoneIsAllowedToViewGroupsWithNoAuth = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+        return new GroupPermissions(security, group, everyoneIsAllowedToViewGroupsWithNoAuth, new HashMap<>()).onPipeline(pipeline);
+    }
+
+    /* Understands the permissions on all pipelines of one version of the config. */
+    private static class PermissionsMatrix {
+        private final PipelineGroups groups;
+        private final SecurityConfig securityConfig;
+        private final boolean everyoneIsAllowedToViewGroupsWithNoAuth;
+        private final Map<String, GroupPermissions> permissionsOfGroups = new HashMap<>();
+        private final Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions;
+
+        PermissionsMatrix(PipelineGroups groups, SecurityConfig securityConfig, boolean everyoneIsAllowedToViewGroupsWithNoAuth, PermissionsMatrix previous) {
+            this.groups = groups;
+            this.securityConfig = securityConfig;
+            this.everyoneIsAllowedToViewGroupsWithNoAuth = everyoneIsAllowedToViewGroupsWithNoAuth;
+
+            boolean canReuseGroupsOfPrevious = previous != null
+                    && previous.everyoneIsAllowedToViewGroupsWithNoAuth == everyoneIsAllowedToViewGroupsWithNoAuth
+                    && Objects.equals(previous.securityConfig, securityConfig);
+
+            Map<CaseInsensitiveString, Permissions> permissions = new HashMap<>();
+            Map<Users, Users> internedUsers = new HashMap<>();
+            PipelineGroupsSecurityHelper security = null;
+
+            for (PipelineConfigs group : groups) {
+                GroupPermissions groupPermissions = canReuseGroupsOfPrevious ? previous.permissionsOfGroups.get(group.getGroup()) : null;
+                if (groupPermissions == null || !groupPermissions.isFor(group)) {
+                    if (security == null) {
+                        security = new PipelineGroupsSecurityHelper(securityConfig);
+                    }
+                    groupPermissions = new GroupPermissions(security, group, everyoneIsAllowedToViewGroupsWithNoAuth, internedUsers);
+                }
+                permissionsOfGroups.put(group.getGroup(), groupPermissions);
+
+                for (PipelineConfig pipeline : group) {
+                    permissions.put(pipeline.name(), groupPermissions.onPipeline(pipeline));
+                }
+            }
+
+            this.pipelinesAndTheirPermissions = Collections.unmodifiableMap(permissions);
         }
 
-        GroupSecurity policy = security.forGroup(group);
+        boolean isFor(PipelineGroups groups, SecurityConfig securityConfig, boolean everyoneIsAllowedToViewGroupsWithNoAuth) {
+            return this.groups == groups && this.securityConfig == securityConfig && this.everyoneIsAllowedToViewGroupsWithNoAuth == everyoneIsAllowedToViewGroupsWithNoAuth;
+        }
+    }
+
+    /* Understands the viewers, operators and admins of a pipeline group, computed once and shared by its pipelines. */
+    private static class GroupPermissions {
+        private final Authorization authorization;
+        private final GroupSecurity policy;
+        private final Users viewers;
+        private final Users operators;
+        private final Users admins;
+        private final boolean hasAuthorizationDefined;
+        private final boolean everyoneIsAllowed;
+        private final Map<Users, Users> internedUsers;
+
+        GroupPermissions(PipelineGroupsSecurityHelper security, PipelineConfigs group, boolean everyoneIsAllowedToViewGroupsWithNoAuth, Map<Users, Users> internedUsers) {
+            this.authorization = group.getAuthorization();
+            this.hasAuthorizationDefined = group.hasAuthorizationDefined();
+            this.internedUsers = internedUsers;
+            this.everyoneIsAllowed = security.hasNoSuperAdmins();
+
+            if (everyoneIsAllowed) {
+                this.policy = null;
+                this.viewers = this.operators = this.admins = Everyone.INSTANCE;
+                return;
+            }
+
+            this.policy = security.forGroup(group);
+            this.admins = intern(policy.effectiveAdmins());
 
-        if (!group.hasAuthorizationDefined()) {
-            boolean everyoneIsAllowedToViewGroupsWithNoAuth = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
-            Users viewersAndOperators = everyoneIsAllowedToViewGroupsWithNoAuth ? Everyone.INSTANCE : policy.effectiveAdmins();;
-            return new Permissions(viewersAndOperators, viewersAndOperators, policy.effectiveAdmins(), PipelinePermission.from(pipeline, viewersAndOperators));
+            if (!hasAuthorizationDefined) {
+                this.viewers = this.operators = everyoneIsAllowedToViewGroupsWithNoAuth ? Everyone.INSTANCE : admins;
+            } else {
+                this.viewers = intern(policy.effectiveViewers());
+                this.operators = intern(policy.effectiveOperators());
+            }
         }
 
-        PipelinePermission pipelinePermission = EveryonePermission.INSTANCE;
+        boolean isFor(PipelineConfigs group) {
+            return authorization.equals(group.getAuthorization()) && hasAuthorizationDefined == group.hasAuthorizationDefined();
+        }
+
+        Permissions onPipeline(PipelineConfig pipeline) {
+            if (everyoneIsAllowed) {
+                return new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+            }
+
+            if (!hasAuthorizationDefined) {
+                return new Permissions(viewers, operators, admins, PipelinePermission.from(pipeline, operators));
+            }
+
+            PipelinePermission pipelinePermission = EveryonePermission.INSTANCE;
 
-        if(null != pipeline) {
-            pipelinePermission = pipeline.stream().map(stage -> new StagePermission(stage.name().toString(), policy.operatorsForStage(stage))).collect(Collectors.toCollection(PipelinePermission::new));
+            if (null != pipeline) {
+                pipelinePermission = pipeline.stream().map(stage -> new StagePermission(stage.name().toString(), stageOperators(stage))).collect(Collectors.toCollection(PipelinePermission::new));
+            }
+
+            return new Permissions(viewers, operators, admins, pipelinePermission);
+        }
+
+        private Users stageOperators(StageConfig stage) {
+            return stage.hasOperatePermissionDefined() ? intern(policy.operatorsForStage(stage)) : operators;
         }
 
-        return new Permissions(
-                policy.effectiveViewers(),
-                policy.effectiveOperators(),
-                policy.effectiveAdmins(),
-                pipelinePermission
-        );
+        private Users intern(Users users) {
+            synchronized (internedUsers) {
+                return internedUsers.computeIfAbsent(users, u -> u);
+            }
+        }
     }
 }
@@ -33,7 +33,7 @@ import static com.thoughtworks.go.config.security.util.SecurityConfigUtils.plugi
  * Extracted from {@link GoConfigPipelinePermissionsAuthority}
  */
 class GroupSecurity {
-    private final PipelineConfigs group;
+    private final Authorization authorization;
 
     private final SecurityConfig security;
     private final Map<String, Collection<String>> rolesToUsers;
@@ -45,16 +45,16 @@ class GroupSecurity {
     private AllowedUsers admins;
 
     GroupSecurity(PipelineConfigs group, SecurityConfig security, Map<String, Collection<String>> rolesToUsers, Set<String> superAdminUsers, Set<PluginRoleConfig> superAdminPluginRoles) {
-        this.group = group;
+        this.authorization = group.getAuthorization();
         this.security = security;
         this.rolesToUsers = rolesToUsers;
 
         HashSet<String> admins = new HashSet<>(superAdminUsers);
-        admins.addAll(namesOf(group.getAuthorization().getAdminsConfig(), rolesToUsers));
+        admins.addAll(namesOf(authorization.getAdminsConfig(), rolesToUsers));
 
         this.configuredAdmins = Collections.unmodifiableSet(admins);
 
-        Set<PluginRoleConfig> adminRoles = pluginRolesFor(security, group.getAuthorization().getAdminsConfig().getRoles());
+        Set<PluginRoleConfig> adminRoles = pluginRolesFor(security, authorization.getAdminsConfig().getRoles());
         adminRoles.addAll(superAdminPluginRoles);
 
         this.definedAdminRoles = Collections.unmodifiableSet(adminRoles);
@@ -75,9 +75,9 @@ class GroupSecurity {
         if (null == this.operators) {
             Set<String> operators = new HashSet<>();
             operators.addAll(configuredAdmins());
-            operators.addAll(namesOf(group.getAuthorization().getOperationConfig(), rolesToUsers));
+            operators.addAll(namesOf(authorization.getOperationConfig(), rolesToUsers));
 
-            Set<PluginRoleConfig> roles = pluginRolesFor(security, group.getAuthorization().getOperationConfig().getRoles());
+            Set<PluginRoleConfig> roles = pluginRolesFor(security, authorization.getOperationConfig().getRoles());
             roles.addAll(definedAdminRoles);
             this.operators = new AllowedUsers(operators, roles);
         }
@@ -88,9 +88,9 @@ class GroupSecurity {
         if (null == this.viewers) {
             Set<String> viewers = new HashSet<>();
             viewers.addAll(configuredAdmins());
-            viewers.addAll(namesOf(group.getAuthorization().getViewConfig(), rolesToUsers));
+            viewers.addAll(namesOf(authorization.getViewConfig(), rolesToUsers));
 
-            Set<PluginRoleConfig> roles = pluginRolesFor(security, group.getAuthorization().getViewConfig().getRoles());
+            Set<PluginRoleConfig> roles = pluginRolesFor(security, authorization.getViewConfig().getRoles());
             roles.addAll(definedAdminRoles);
             this.viewers = new AllowedUsers(viewers, roles);
         }
@@ -49,6 +49,10 @@ public class JobAgentMetadata extends PersistentObject {
         this.metadataVersion = "2.0";
     }
 
+    public Long getJobId() {
+        return jobId;
+    }
+
     public ElasticProfile elasticProfile() {
         Map map = GSON.fromJson(elasticAgentProfileMetadata, LinkedHashMap.class);
         String clusterProfileId = (String) map.get("clusterProfileId");
@@ -15,12 +15,15 @@
  */
 package com.thoughtworks.go.listener;
 
-import java.util.TreeSet;
+import java.util.List;
 
 import com.thoughtworks.go.domain.PipelineTimelineEntry;
 
 public interface TimelineUpdateListener {
 
-    void added(PipelineTimelineEntry newlyAddedEntry, TreeSet<PipelineTimelineEntry> timeline);
+    /**
+     * @param timeline the instances of the pipeline of the newly added entry, in natural order
+     */
+    void added(PipelineTimelineEntry newlyAddedEntry, List<PipelineTimelineEntry> timeline);
 
 }
\ No newline at end of file
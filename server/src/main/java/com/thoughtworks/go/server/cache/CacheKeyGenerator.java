@@ -19,7 +19,10 @@ import com.thoughtworks.go.config.CaseInsensitiveString;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 public class CacheKeyGenerator {
@@ -50,6 +53,24 @@ public class CacheKeyGenerator {
         return StringUtils.join(allArgs, DELIMITER).intern();
     }
 
+    /**
+     * Runs the action holding the lock of each of the (interned) keys. The keys are always locked in the same order,
+     * so callers locking several keys cannot deadlock each other or callers locking a single key.
+     */
+    public static void synchronizedOn(Collection<String> keys, Runnable action) {
+        synchronizedOn(new TreeSet<>(keys).iterator(), action);
+    }
+
+    private static void synchronizedOn(Iterator<String> keys, Runnable action) {
+        if (!keys.hasNext()) {
+            action.run();
+            return;
+        }
+        synchronized (keys.next()) {
+            synchronizedOn(keys, action);
+        }
+    }
+
     private static boolean isAllowed(Object arg) {
         return arg == null || arg instanceof String || arg instanceof CaseInsensitiveString ||
                 arg instanceof Number || arg instanceof Boolean || arg instanceof Enum;
@@ -17,6 +17,8 @@ package com.thoughtworks.go.server.dao;
 
 import com.thoughtworks.go.domain.AccessToken;
 import com.thoughtworks.go.server.service.AccessTokenFilter;
+import com.thoughtworks.go.server.service.VerifiedAccessTokenCache;
+import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.util.Clock;
 import org.hibernate.Criteria;
@@ -30,6 +32,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import java.sql.Timestamp;
 import java.util.Collection;
@@ -41,13 +44,19 @@ public class AccessTokenSqlMapDao extends HibernateDaoSupport implements AccessT
     private SessionFactory sessionFactory;
     private TransactionTemplate transactionTemplate;
     private Clock clock;
+    private VerifiedAccessTokenCache verifiedAccessTokenCache;
+    private TransactionSynchronizationManager transactionSynchronizationManager;
 
     @Autowired
     public AccessTokenSqlMapDao(SessionFactory sessionFactory,
-                                TransactionTemplate transactionTemplate, Clock clock) {
+                                TransactionTemplate transactionTemplate, Clock clock,
+                                VerifiedAccessTokenCache verifiedAccessTokenCache,
+                                TransactionSynchronizationManager transactionSynchronizationManager) {
         this.sessionFactory = sessionFactory;
         this.transactionTemplate = transactionTemplate;
         this.clock = clock;
+        this.verifiedAccessTokenCache = verifiedAccessTokenCache;
+        this.transactionSynchronizationManager = transactionSynchronizationManager;
         setSessionFactory(sessionFactory);
     }
 
@@ -106,6 +115,12 @@ public class AccessTokenSqlMapDao extends HibernateDaoSupport implements AccessT
     @Override
     public void revokeTokensBecauseOfUserDelete(Collection<String> usernames, String byWhom) {
         transactionTemplate.execute(status -> {
+            transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    verifiedAccessTokenCache.invalidate(usernames);
+                }
+            });
             Session currentSession = sessionFactory.getCurrentSession();
             usernames
                     .stream()
@@ -15,8 +15,11 @@
  */
 package com.thoughtworks.go.server.dao;
 
+import com.thoughtworks.go.domain.JobState;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import java.util.Set;
+
 public class ActiveJob {
     private long id;
     private String pipelineName;
@@ -24,6 +27,8 @@ public class ActiveJob {
     private String stageName;
     private Integer pipelineCounter;
     private String pipelineLabel;
+    private String agentUuid;
+    private JobState state;
 
     public ActiveJob() {
     }
@@ -74,6 +79,26 @@ public class ActiveJob {
         this.pipelineLabel = pipelineLabel;
     }
 
+    public String getAgentUuid() {
+        return agentUuid;
+    }
+
+    public void setAgentUuid(String agentUuid) {
+        this.agentUuid = agentUuid;
+    }
+
+    public JobState getState() {
+        return state;
+    }
+
+    public void setState(JobState state) {
+        this.state = state;
+    }
+
+    public boolean isActiveOnAgentOtherThan(Set<String> agentUuids) {
+        return state != null && state.isActiveOnAgent() && agentUuid != null && !agentUuids.contains(agentUuid);
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
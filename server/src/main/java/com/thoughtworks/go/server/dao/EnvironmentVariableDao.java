@@ -20,12 +20,15 @@ import com.thoughtworks.go.domain.EnvironmentVariableType;
 import com.thoughtworks.go.domain.EnvironmentVariables;
 
 import java.util.Collection;
+import java.util.Map;
 
 public interface EnvironmentVariableDao {
     void save(Long entityId, EnvironmentVariableType type, EnvironmentVariables variables);
 
     EnvironmentVariables load(Long entityId, EnvironmentVariableType type);
 
+    Map<Long, EnvironmentVariables> load(Collection<Long> entityIds, EnvironmentVariableType type);
+
     void deleteAll(Collection<EnvironmentVariable> variables);
 
 }
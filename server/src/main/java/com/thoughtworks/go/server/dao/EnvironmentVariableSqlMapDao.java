@@ -30,7 +30,9 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class EnvironmentVariableSqlMapDao implements EnvironmentVariableDao {
@@ -69,6 +71,24 @@ public class EnvironmentVariableSqlMapDao implements EnvironmentVariableDao {
         return new EnvironmentVariables(result);
     }
 
+    @Override
+    public Map<Long, EnvironmentVariables> load(final Collection<Long> entityIds, final EnvironmentVariableType type) {
+        Map<Long, EnvironmentVariables> variablesByEntityId = new HashMap<>();
+        if (entityIds.isEmpty()) {
+            return variablesByEntityId;
+        }
+        List<EnvironmentVariable> result = (List<EnvironmentVariable>) transactionTemplate.execute((TransactionCallback) transactionStatus -> sessionFactory.getCurrentSession()
+                .createCriteria(EnvironmentVariable.class)
+                .add(Restrictions.in("entityId", entityIds))
+                .add(Restrictions.eq("entityType", type.toString()))
+                .addOrder(Order.asc("id"))
+                .list());
+        for (EnvironmentVariable variable : result) {
+            variablesByEntityId.computeIfAbsent(variable.getEntityId(), entityId -> new EnvironmentVariables()).add(variable);
+        }
+        return variablesByEntityId;
+    }
+
     @Override
     public void deleteAll(final Collection<EnvironmentVariable> variables) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
@@ -17,10 +17,15 @@ package com.thoughtworks.go.server.dao;
 
 import com.thoughtworks.go.domain.JobAgentMetadata;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface JobAgentMetadataDao {
     void save(JobAgentMetadata metadata);
 
     JobAgentMetadata load(Long jobId);
 
+    Map<Long, JobAgentMetadata> load(Collection<Long> jobIds);
+
     void delete(JobAgentMetadata jobAgentMetadata);
 }
@@ -25,6 +25,11 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class JobAgentMetadataSqlMapDao implements JobAgentMetadataDao {
     private SessionFactory sessionFactory;
@@ -54,6 +59,22 @@ public class JobAgentMetadataSqlMapDao implements JobAgentMetadataDao {
                 .setCacheable(true).uniqueResult());
     }
 
+    @Override
+    public Map<Long, JobAgentMetadata> load(final Collection<Long> jobIds) {
+        Map<Long, JobAgentMetadata> metadataByJobId = new HashMap<>();
+        if (jobIds.isEmpty()) {
+            return metadataByJobId;
+        }
+        List<JobAgentMetadata> result = (List<JobAgentMetadata>) transactionTemplate.execute((TransactionCallback) transactionStatus -> sessionFactory.getCurrentSession()
+                .createCriteria(JobAgentMetadata.class)
+                .add(Restrictions.in("jobId", jobIds))
+                .list());
+        for (JobAgentMetadata metadata : result) {
+            metadataByJobId.put(metadata.getJobId(), metadata);
+        }
+        return metadataByJobId;
+    }
+
     @Override
     public void delete(final JobAgentMetadata jobAgentMetadata) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
@@ -20,6 +20,7 @@ import com.thoughtworks.go.server.service.JobInstanceService;
 import com.thoughtworks.go.server.ui.SortOrder;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * @understands how to retrieve and save jobInstances on the db
@@ -34,6 +35,8 @@ public interface JobInstanceDao {
 
     JobInstances findJobHistoryPage(String pipelineName, String stageName, String jobConfigName, int count, int offset);
 
+    JobInstances findJobHistoryPage(String pipelineName, String stageName, String jobConfigName, int count, int offset, Long boundaryId);
+
     JobInstance save(long stageId, JobInstance jobInstance);
 
     JobInstance updateAssignedInfo(JobInstance jobInstance);
@@ -44,7 +47,7 @@ public interface JobInstanceDao {
 
     JobInstance getLatestInProgressBuildByAgentUuid(String uuid);
 
-    JobInstances findHungJobs(List<String> liveAgentIdList);
+    JobInstances findHungJobs(Set<String> liveAgentUuids);
 
     JobInstance buildByIdWithTransitions(long id);
 
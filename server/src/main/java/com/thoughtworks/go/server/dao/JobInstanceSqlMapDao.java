@@ -50,14 +50,17 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 
 @Component
 public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobInstanceDao, JobStatusListener {
     private static final Logger LOG = LoggerFactory.getLogger(JobInstanceSqlMapDao.class);
+    private static final int MAX_JOB_PLANS_PER_QUERY = 500;
     private final LazyCache latestCompletedCache;
     private final CacheKeyGenerator cacheKeyGenerator;
     private Cache cache;
@@ -490,7 +493,19 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
                                            String jobConfigName,
                                            int count,
                                            int offset) {
-        String cacheKey = cacheKeyForFindJobHistoryPage(pipelineName, stageName, jobConfigName, count, offset);
+        return findJobHistoryPage(pipelineName, stageName, jobConfigName, count, offset, null);
+    }
+
+    @Override
+    public JobInstances findJobHistoryPage(String pipelineName,
+                                           String stageName,
+                                           String jobConfigName,
+                                           int count,
+                                           int offset,
+                                           Long boundaryId) {
+        String cacheKey = boundaryId == null ?
+                cacheKeyForFindJobHistoryPage(pipelineName, stageName, jobConfigName, count, offset) :
+                cacheKeyForFindJobHistoryPageBefore(pipelineName, stageName, jobConfigName, count, boundaryId);
         return latestCompletedCache.get(cacheKey, () -> {
             Map params = new HashMap();
             params.put("pipelineName", pipelineName);
@@ -498,6 +513,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
             params.put("jobConfigName", jobConfigName);
             params.put("count", count);
             params.put("offset", offset);
+            params.put("boundaryId", boundaryId);
 
             List<JobInstance> results = (List<JobInstance>) getSqlMapClientTemplate().queryForList("findJobHistoryPage", params);
 
@@ -536,35 +552,86 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
         return cacheKeyGenerator.generate("findJobHistoryPage", pipelineName.toLowerCase(), stageName.toLowerCase(), jobConfigName.toLowerCase(), count, offset);
     }
 
+    String cacheKeyForFindJobHistoryPageBefore(String pipelineName,
+                                               String stageName,
+                                               String jobConfigName,
+                                               int count,
+                                               long boundaryId) {
+        return cacheKeyGenerator.generate("findJobHistoryPageBefore", pipelineName.toLowerCase(), stageName.toLowerCase(), jobConfigName.toLowerCase(), count, boundaryId);
+    }
+
+    /**
+     * @return plans of the scheduled jobs, in the order they were scheduled. The plans are shared with the cache, and must not be modified.
+     */
     @Override
     public List<JobPlan> orderedScheduledBuilds() {
         List<Long> jobIds = (List<Long>) getSqlMapClientTemplate().queryForList("scheduledPlanIds");
 
-        List<JobPlan> plans = new ArrayList<>();
+        Map<Long, JobPlan> plansById = new HashMap<>();
+        List<Long> uncachedJobIds = new ArrayList<>();
         for (Long jobId : jobIds) {
-            String cacheKey = cacheKeyForJobPlan(jobId);
-            synchronized (cacheKey) {
-                JobPlan jobPlan = (JobPlan) goCache.get(cacheKey);
-                if (jobPlan == null) {
-                    jobPlan = _loadJobPlan(jobId);
-                }
-                if (jobPlan != null) {
-                    jobPlan = cloner.deepClone(jobPlan);
-                    goCache.put(cacheKey, jobPlan);
-                    plans.add(jobPlan);
+            JobPlan jobPlan = (JobPlan) goCache.get(cacheKeyForJobPlan(jobId));
+            if (jobPlan == null) {
+                uncachedJobIds.add(jobId);
+            } else {
+                plansById.put(jobId, jobPlan);
+            }
+        }
+
+        for (int from = 0; from < uncachedJobIds.size(); from += MAX_JOB_PLANS_PER_QUERY) {
+            List<Long> batch = uncachedJobIds.subList(from, Math.min(from + MAX_JOB_PLANS_PER_QUERY, uncachedJobIds.size()));
+            for (DefaultJobPlan jobPlan : loadScheduledJobPlans(batch)) {
+                String cacheKey = cacheKeyForJobPlan(jobPlan.getJobId());
+                synchronized (cacheKey) {
+                    JobPlan cachedPlan = (JobPlan) goCache.get(cacheKey);
+                    if (cachedPlan == null) {
+                        goCache.put(cacheKey, jobPlan);
+                        cachedPlan = jobPlan;
+                    }
+                    plansById.put(jobPlan.getJobId(), cachedPlan);
                 }
             }
         }
+
+        List<JobPlan> plans = new ArrayList<>();
+        for (Long jobId : jobIds) {
+            JobPlan jobPlan = plansById.get(jobId);
+            if (jobPlan != null) {
+                plans.add(jobPlan);
+            }
+        }
         return plans;
     }
 
-    private JobPlan _loadJobPlan(Long jobId) {
-        DefaultJobPlan jobPlan = (DefaultJobPlan) getSqlMapClientTemplate().queryForObject("scheduledPlan", arguments("id", jobId).asMap());
-        if (jobPlan == null) {
-            return null;
+    private List<DefaultJobPlan> loadScheduledJobPlans(List<Long> jobIds) {
+        List<DefaultJobPlan> jobPlans = (List<DefaultJobPlan>) getSqlMapClientTemplate().queryForList("scheduledPlans", arguments("ids", jobIds).asMap());
+        if (jobPlans.isEmpty()) {
+            return jobPlans;
         }
-        loadJobPlanAssociatedEntities(jobPlan);
-        return jobPlan;
+        List<Long> loadedJobIds = new ArrayList<>();
+        Set<Long> pipelineIds = new HashSet<>();
+        for (DefaultJobPlan jobPlan : jobPlans) {
+            loadedJobIds.add(jobPlan.getJobId());
+            pipelineIds.add(jobPlan.getPipelineId());
+        }
+
+        Map<Long, List<ArtifactPlan>> artifactPlans = artifactPlanRepository.findByBuildIds(loadedJobIds);
+        Map<Long, Resources> resources = resourceRepository.findByBuildIds(loadedJobIds);
+        Map<Long, EnvironmentVariables> variables = environmentVariableDao.load(loadedJobIds, EnvironmentVariableType.Job);
+        Map<Long, EnvironmentVariables> triggerVariables = environmentVariableDao.load(pipelineIds, EnvironmentVariableType.Trigger);
+        Map<Long, JobAgentMetadata> jobAgentMetadata = jobAgentMetadataDao.load(loadedJobIds);
+        for (DefaultJobPlan jobPlan : jobPlans) {
+            jobPlan.setArtifactPlans(artifactPlans.getOrDefault(jobPlan.getJobId(), new ArrayList<>()));
+            jobPlan.setResources(resources.getOrDefault(jobPlan.getJobId(), new Resources()));
+            jobPlan.setVariables(variables.getOrDefault(jobPlan.getJobId(), new EnvironmentVariables()));
+            jobPlan.setTriggerVariables(triggerVariables.getOrDefault(jobPlan.getPipelineId(), new EnvironmentVariables()));
+            JobAgentMetadata metadata = jobAgentMetadata.get(jobPlan.getJobId());
+            if (metadata != null) {
+                jobPlan.setElasticProfile(metadata.elasticProfile());
+                jobPlan.setClusterProfile(metadata.clusterProfile());
+            }
+        }
+        return jobPlans;
     }
 
     String cacheKeyForJobPlan(Long jobId) {
@@ -585,11 +652,22 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
                 uuid);
     }
 
+    /**
+     * @return jobs active on agents which are not live, found among the cached active jobs so that the cost does not
+     * grow with the number of agents
+     */
     @Override
-    public JobInstances findHungJobs(List<String> liveAgentIdList) {
-        List<JobInstance> list = getSqlMapClientTemplate().queryForList("getHungJobs",
-                arguments("liveAgentIdList", liveAgentIdList).asMap());
-        return new JobInstances(list);
+    public JobInstances findHungJobs(Set<String> liveAgentUuids) {
+        JobInstances hungJobs = new JobInstances();
+        for (ActiveJob activeJob : activeJobs()) {
+            if (activeJob.isActiveOnAgentOtherThan(liveAgentUuids)) {
+                JobInstance job = buildById(activeJob.getId());
+                if (job.getState().isActiveOnAgent() && !liveAgentUuids.contains(job.getAgentUuid())) {
+                    hungJobs.add(job);
+                }
+            }
+        }
+        return hungJobs;
     }
 
     public JobStateTransition oldestBuild() {
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import com.thoughtworks.go.server.util.Pagination;
+
+import java.util.*;
+
+/**
+ * @understands the ids that pages of a history, latest first, are loaded from by seeking instead of skipping an offset
+ * <p>
+ * The boundary id of a page is the id of the entry just newer than the page, so that the page is the entries with
+ * smaller ids. The first page has no boundary.
+ */
+class PageBoundaries {
+    interface IdSeeker {
+        /**
+         * @return ids of up to limit entries nearest to the cursor, older than it for {@link FeedModifier#After} and
+         * newer than it for {@link FeedModifier#Before}, in any order
+         */
+        List<Long> ids(FeedModifier modifier, long cursor, int limit);
+    }
+
+    private PageBoundaries() {
+    }
+
+    /**
+     * @param idsOnPage ids of the entries on the page that the pagination is for
+     * @return boundary ids, by page number, of the pages one and two pages away from the page and of the last page
+     */
+    static Map<Integer, Long> ofPagesAround(Pagination pagination, List<Long> idsOnPage, IdSeeker seeker) {
+        Map<Integer, Long> boundaries = ofPagesWithin(2, pagination, idsOnPage, seeker);
+        int lastPage = pagination.getLastPage();
+        if (!idsOnPage.isEmpty() && lastPage > pagination.getCurrentPage() + 2) {
+            int onLastPage = pagination.getTotal() - (lastPage - 1) * pagination.getPageSize();
+            List<Long> oldest = ascending(seeker.ids(FeedModifier.Before, 0, onLastPage + 1));
+            if (oldest.size() > onLastPage) {
+                boundaries.put(lastPage, oldest.get(onLastPage));
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * @param idsOnPage ids of the entries on the page that the pagination is for
+     * @return boundary ids, by page number, of the pages just before and after the page
+     */
+    static Map<Integer, Long> ofAdjacentPages(Pagination pagination, List<Long> idsOnPage, IdSeeker seeker) {
+        return ofPagesWithin(1, pagination, idsOnPage, seeker);
+    }
+
+    private static Map<Integer, Long> ofPagesWithin(int pagesAway, Pagination pagination, List<Long> idsOnPage, IdSeeker seeker) {
+        Map<Integer, Long> boundaries = new HashMap<>();
+        if (idsOnPage.isEmpty()) {
+            return boundaries;
+        }
+        int pageSize = pagination.getPageSize();
+        int currentPage = pagination.getCurrentPage();
+        long oldestOnPage = Collections.min(idsOnPage);
+        long newestOnPage = Collections.max(idsOnPage);
+
+        int pagesDown = Math.min(pagesAway, pagination.getLastPage() - currentPage);
+        if (pagesDown >= 1) {
+            boundaries.put(currentPage + 1, oldestOnPage);
+        }
+        if (pagesDown >= 2) {
+            List<Long> older = descending(seeker.ids(FeedModifier.After, oldestOnPage, (pagesDown - 1) * pageSize));
+            for (int page = 2; page <= pagesDown && older.size() >= (page - 1) * pageSize; page++) {
+                boundaries.put(currentPage + page, older.get((page - 1) * pageSize - 1));
+            }
+        }
+        // the first page has no boundary
+        int pagesUp = Math.min(pagesAway, currentPage - 2);
+        if (pagesUp >= 1) {
+            List<Long> newer = ascending(seeker.ids(FeedModifier.Before, newestOnPage, pagesUp * pageSize + 1));
+            for (int page = 1; page <= pagesUp && newer.size() > page * pageSize; page++) {
+                boundaries.put(currentPage - page, newer.get(page * pageSize));
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * @param newerOnPage number of entries on the page that are newer than the one with the given id
+     * @return boundary id of the page having the entry with the given id, or null if it is the first page
+     */
+    static Long ofPageHaving(long id, int newerOnPage, IdSeeker seeker) {
+        List<Long> newer = ascending(seeker.ids(FeedModifier.Before, id, newerOnPage + 1));
+        return newer.size() > newerOnPage ? newer.get(newerOnPage) : null;
+    }
+
+    private static List<Long> ascending(List<Long> ids) {
+        List<Long> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static List<Long> descending(List<Long> ids) {
+        List<Long> sorted = new ArrayList<>(ids);
+        sorted.sort(Collections.reverseOrder());
+        return sorted;
+    }
+}
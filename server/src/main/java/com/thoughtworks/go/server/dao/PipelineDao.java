@@ -20,8 +20,12 @@ import com.thoughtworks.go.domain.*;
 import com.thoughtworks.go.domain.buildcause.BuildCause;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModels;
+import com.thoughtworks.go.server.util.Pagination;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public interface PipelineDao {
@@ -85,9 +89,30 @@ public interface PipelineDao {
 
     List<PipelineIdentifier> getPipelineInstancesTriggeredWithDependencyMaterial(String pipelineName, MaterialInstance materialInstance, String revision);
 
+    /**
+     * @return the instances of each of the pipelines triggered off each of the given instances of its upstream pipelines
+     */
+    Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> getPipelineInstancesTriggeredWithDependencyMaterials(Map<String, Set<PipelineIdentifier>> dependencyPipelineIdentifiersOfPipelines);
+
+    /**
+     * @return the instances of each of the pipelines triggered off the revision of the material
+     */
+    Map<String, List<PipelineIdentifier>> getPipelineInstancesTriggeredWithDependencyMaterial(Set<String> pipelineNames, MaterialInstance materialInstance, String revision);
+
+    /**
+     * @return the build causes of the pipeline instances, leaving out the ones which do not exist
+     */
+    Map<PipelineIdentifier, BuildCause> findBuildCausesOfPipelinesByNameAndCounter(Collection<PipelineIdentifier> pipelineIdentifiers);
+
     PipelineInstanceModels loadHistoryForDashboard(List<String> pipelineNames);
 
     PipelineInstanceModels loadHistory(String pipelineName, FeedModifier modifier, long cursor, Integer pageSize);
 
+    /**
+     * @return the page of the history of the pipeline, sought from the instance just newer than the page when that is
+     * known or can be told from the counters, rather than skipping the instances before the page
+     */
+    PipelineInstanceModels loadHistory(String pipelineName, Pagination pagination);
+
     PipelineRunIdInfo getOldestAndLatestPipelineId(String pipelineName);
 }
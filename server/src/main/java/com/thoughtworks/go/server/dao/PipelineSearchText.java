@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @understands the text of one modification of a pipeline instance that pipeline history can be searched by
+ */
+public class PipelineSearchText {
+    private long pipelineId;
+    private String label;
+    private String buildCauseMessage;
+    private String comment;
+    private String userName;
+    private String revision;
+    private String upstreamLabel;
+
+    public PipelineSearchText() {
+    }
+
+    public PipelineSearchText(long pipelineId, String label, String buildCauseMessage, String comment, String userName, String revision, String upstreamLabel) {
+        this.pipelineId = pipelineId;
+        this.label = label;
+        this.buildCauseMessage = buildCauseMessage;
+        this.comment = comment;
+        this.userName = userName;
+        this.revision = revision;
+        this.upstreamLabel = upstreamLabel;
+    }
+
+    /**
+     * @param searchTexts of instances, grouped by the pipeline id
+     * @return an entry for each instance, with its label, build cause message and the comment, committer, revision and
+     * upstream pipeline label of each of its modifications
+     */
+    static List<SearchIndex.Entry> entriesOf(List<PipelineSearchText> searchTexts) {
+        List<SearchIndex.Entry> entries = new ArrayList<>();
+        int start = 0;
+        while (start < searchTexts.size()) {
+            PipelineSearchText first = searchTexts.get(start);
+            List<String> fields = new ArrayList<>();
+            fields.add(first.getBuildCauseMessage());
+            int end = start;
+            while (end < searchTexts.size() && searchTexts.get(end).getPipelineId() == first.getPipelineId()) {
+                PipelineSearchText searchText = searchTexts.get(end);
+                fields.add(searchText.getComment());
+                fields.add(searchText.getUserName());
+                fields.add(searchText.getRevision());
+                fields.add(searchText.getUpstreamLabel());
+                end++;
+            }
+            entries.add(new SearchIndex.Entry(first.getPipelineId(), first.getLabel(), fields));
+            start = end;
+        }
+        return entries;
+    }
+
+    public long getPipelineId() {
+        return pipelineId;
+    }
+
+    public void setPipelineId(long pipelineId) {
+        this.pipelineId = pipelineId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getBuildCauseMessage() {
+        return buildCauseMessage;
+    }
+
+    public void setBuildCauseMessage(String buildCauseMessage) {
+        this.buildCauseMessage = buildCauseMessage;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public void setRevision(String revision) {
+        this.revision = revision;
+    }
+
+    public String getUpstreamLabel() {
+        return upstreamLabel;
+    }
+
+    public void setUpstreamLabel(String upstreamLabel) {
+        this.upstreamLabel = upstreamLabel;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.dao;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.rits.cloning.Cloner;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.GoConfigDao;
@@ -60,6 +61,8 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -72,6 +75,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initializer, PipelineDao, StageStatusListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineSqlMapDao.class);
     private static final Marker FATAL = MarkerFactory.getMarker("FATAL");
+    private static final int MAX_PIPELINE_INSTANCES_PER_QUERY = 100;
     private final LazyCache pipelineByBuildIdCache;
     private final CacheKeyGenerator cacheKeyGenerator;
     private StageDao stageDao;
@@ -85,6 +89,7 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
     private final ReadWriteLock activePipelineRWLock = new ReentrantReadWriteLock();
     private final Lock activePipelineReadLock = activePipelineRWLock.readLock();
     private final Lock activePipelineWriteLock = activePipelineRWLock.writeLock();
+    private SearchIndexes searchIndexes;
 
     @Autowired
     public PipelineSqlMapDao(StageDao stageDao,
@@ -108,6 +113,22 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         this.timeProvider = timeProvider;
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
         this.pipelineByBuildIdCache = new LazyCache(createCacheIfRequired(PipelineSqlMapDao.class.getName()), transactionSynchronizationManager);
+        setSearchIndexExecutor(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("pipeline-search-index-%d").setDaemon(true).build()));
+    }
+
+    void setSearchIndexExecutor(Executor executor) {
+        long maxSizeInBytes = new SystemEnvironment().get(SystemEnvironment.PIPELINE_SEARCH_INDEX_MAX_SIZE_IN_MB) * 1024L * 1024L;
+        this.searchIndexes = new SearchIndexes("pipeline", new SearchIndexes.Loader() {
+            @Override
+            public List<SearchIndex.Entry> entriesOf(String pipelineName) {
+                return PipelineSearchText.entriesOf(getSqlMapClientTemplate().queryForList("getPipelineSearchTexts", arguments("pipelineName", pipelineName).asMap()));
+            }
+
+            @Override
+            public List<SearchIndex.Entry> entriesWithId(long pipelineId) {
+                return PipelineSearchText.entriesOf(getSqlMapClientTemplate().queryForList("getPipelineSearchTextsOfInstance", arguments("pipelineId", pipelineId).asMap()));
+            }
+        }, maxSizeInBytes, executor);
     }
 
     private static Ehcache createCacheIfRequired(String cacheName) {
@@ -155,6 +176,7 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
                     public void afterCommit() {
                         goCache.remove(cacheKeyForLatestPipelineIdByPipelineName(pipeline.getName()));
                         invalidateCacheConditionallyForPipelineInstancesTriggeredWithDependencyMaterial(pipeline);
+                        searchIndexes.entrySaved(pipeline.getName(), pipeline.getId());
                     }
                 });
 
@@ -238,6 +260,65 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return buildCause;
     }
 
+    @Override
+    public Map<PipelineIdentifier, BuildCause> findBuildCausesOfPipelinesByNameAndCounter(Collection<PipelineIdentifier> pipelineIdentifiers) {
+        Map<PipelineIdentifier, BuildCause> result = new HashMap<>();
+        List<PipelineIdentifier> notCached = new ArrayList<>();
+        for (PipelineIdentifier pipelineIdentifier : pipelineIdentifiers) {
+            BuildCause buildCause = (BuildCause) goCache.get(cacheKeyForBuildCauseByNameAndCounter(pipelineIdentifier.getName(), pipelineIdentifier.getCounter()));
+            if (buildCause == null) {
+                notCached.add(pipelineIdentifier);
+            } else {
+                result.put(pipelineIdentifier, buildCause);
+            }
+        }
+
+        for (int from = 0; from < notCached.size(); from += MAX_PIPELINE_INSTANCES_PER_QUERY) {
+            List<PipelineIdentifier> batch = notCached.subList(from, Math.min(from + MAX_PIPELINE_INSTANCES_PER_QUERY, notCached.size()));
+            List<String> cacheKeys = new ArrayList<>();
+            for (PipelineIdentifier pipelineIdentifier : batch) {
+                cacheKeys.add(cacheKeyForBuildCauseByNameAndCounter(pipelineIdentifier.getName(), pipelineIdentifier.getCounter()));
+            }
+            CacheKeyGenerator.synchronizedOn(cacheKeys, () -> loadAndCacheBuildCauses(batch, result));
+        }
+        return result;
+    }
+
+    private void loadAndCacheBuildCauses(List<PipelineIdentifier> pipelineIdentifiers, Map<PipelineIdentifier, BuildCause> result) {
+        List<PipelineIdentifier> notCached = new ArrayList<>();
+        for (PipelineIdentifier pipelineIdentifier : pipelineIdentifiers) {
+            BuildCause buildCause = (BuildCause) goCache.get(cacheKeyForBuildCauseByNameAndCounter(pipelineIdentifier.getName(), pipelineIdentifier.getCounter()));
+            if (buildCause == null) {
+                notCached.add(pipelineIdentifier);
+            } else {
+                result.put(pipelineIdentifier, buildCause);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return;
+        }
+
+        List<Pipeline> pipelines = getSqlMapClientTemplate().queryForList("findPipelinesByNameAndCounters", arguments("pipelineInstances", notCached).asMap());
+        Map<String, Pipeline> pipelinesByCacheKey = new HashMap<>();
+        List<Long> pipelineIds = new ArrayList<>();
+        for (Pipeline pipeline : pipelines) {
+            pipelinesByCacheKey.put(cacheKeyForBuildCauseByNameAndCounter(pipeline.getName(), pipeline.getCounter()), pipeline);
+            pipelineIds.add(pipeline.getId());
+        }
+        Map<Long, MaterialRevisions> materialRevisionsOfPipelines = materialRepository.findMaterialRevisionsForPipelines(pipelineIds);
+
+        for (PipelineIdentifier pipelineIdentifier : notCached) {
+            String cacheKey = cacheKeyForBuildCauseByNameAndCounter(pipelineIdentifier.getName(), pipelineIdentifier.getCounter());
+            Pipeline pipeline = pipelinesByCacheKey.get(cacheKey);
+            if (pipeline == null) {
+                continue;
+            }
+            pipeline.setModificationsOnBuildCause(materialRevisionsOfPipelines.get(pipeline.getId()));
+            goCache.put(cacheKey, pipeline.getBuildCause());
+            result.put(pipelineIdentifier, pipeline.getBuildCause());
+        }
+    }
+
     String cacheKeyForBuildCauseByNameAndCounter(String name, int counter) {
         return cacheKeyGenerator.generate("buildCauseByNameAndCounter", name.toLowerCase(), counter);
     }
@@ -672,6 +753,28 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return loadHistory(pipelineName, ids);
     }
 
+    @Override
+    public PipelineInstanceModels loadHistory(String pipelineName, Pagination pagination) {
+        Long boundaryId = findBoundaryOfPage(pipelineName, pagination);
+        if (boundaryId == null) {
+            return loadHistory(pipelineName, pagination.getPageSize(), pagination.getOffset());
+        }
+        return loadHistory(pipelineName, FeedModifier.After, boundaryId, pagination.getPageSize());
+    }
+
+    // id of the instance just newer than the page. While there are as many instances as the latest counter, counters
+    // have no gaps, and the instance with the counter right above the ones on the page is the one just newer than it.
+    private Long findBoundaryOfPage(String pipelineName, Pagination pagination) {
+        if (pagination.getBoundaryId() != null) {
+            return pagination.getBoundaryId();
+        }
+        if (pagination.getOffset() == 0 || !getCounterForPipeline(pipelineName).equals(pagination.getTotal())) {
+            return null;
+        }
+        Pipeline pipeline = findPipelineByNameAndCounter(pipelineName, pagination.getTotal() - pagination.getOffset() + 1);
+        return pipeline == null ? null : pipeline.getId();
+    }
+
     private List<Long> findPipelineIds(String pipelineName, FeedModifier modifier, long cursor, int pageSize) {
         Map<String, Object> params =
                 arguments("pipelineName", pipelineName)
@@ -686,6 +789,9 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return (PipelineRunIdInfo) getSqlMapClientTemplate().queryForObject("getOldestAndLatestPipelineRun", params);
     }
 
+    /**
+     * While counters have no gaps, the page is the one {@link #loadHistory(String, Pagination)} seeks the instance on.
+     */
     @Override
     public int getPageNumberForCounter(String pipelineName, int pipelineCounter, int limit) {
         Integer maxCounter = getCounterForPipeline(pipelineName);
@@ -700,13 +806,26 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
                 and("rawPattern", pattern.toLowerCase()).
                 and("limit", limit).asMap();
         long begin = System.currentTimeMillis();
-        List<PipelineInstanceModel> matchingPIMs = (List<PipelineInstanceModel>) getSqlMapClientTemplate().queryForList("findMatchingPipelineInstances", args);
         List<PipelineInstanceModel> exactMatchingPims = (List<PipelineInstanceModel>) getSqlMapClientTemplate().queryForList("findExactMatchingPipelineInstances", args);
+        SearchIndex searchIndex = searchIndexes.indexOf(pipelineName);
+        if (searchIndex == null) {
+            exactMatchingPims.addAll((List<PipelineInstanceModel>) getSqlMapClientTemplate().queryForList("findMatchingPipelineInstances", args));
+        } else {
+            for (Long matchingId : searchIndex.idsMatching(withoutLikeEscapes(pattern.toLowerCase()), pattern.toLowerCase(), limit)) {
+                PipelineInstanceModel matchingPIM = loadHistory(matchingId);
+                if (matchingPIM != null) {
+                    exactMatchingPims.add(matchingPIM);
+                }
+            }
+        }
         LOGGER.debug("[Compare Pipelines] Query initiated for pipeline {} with pattern {}. Query execution took {} milliseconds", pipelineName, pattern, System.currentTimeMillis() - begin);
-        exactMatchingPims.addAll(matchingPIMs);
         return PipelineInstanceModels.createPipelineInstanceModels(exactMatchingPims);
     }
 
+    private static String withoutLikeEscapes(String pattern) {
+        return pattern.replaceAll("\\\\(.)", "$1");
+    }
+
 
     List<Long> findPipelineIds(String pipelineName, int limit, int offset) {
         if (wantLatestIdOnly(limit, offset)) {
@@ -919,6 +1038,126 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return pipelineIdentifiers;
     }
 
+    @Override
+    public Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> getPipelineInstancesTriggeredWithDependencyMaterials(Map<String, Set<PipelineIdentifier>> dependencyPipelineIdentifiersOfPipelines) {
+        Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> result = new HashMap<>();
+        List<TriggeredBy> notCached = new ArrayList<>();
+        dependencyPipelineIdentifiersOfPipelines.forEach((pipelineName, dependencyPipelineIdentifiers) -> {
+            Map<PipelineIdentifier, List<PipelineIdentifier>> instancesOfPipeline = result.computeIfAbsent(pipelineName, name -> new HashMap<>());
+            for (PipelineIdentifier dependencyPipelineIdentifier : dependencyPipelineIdentifiers) {
+                TriggeredBy triggeredBy = new TriggeredBy(pipelineName, dependencyPipelineIdentifier);
+                List<PipelineIdentifier> pipelineIdentifiers = (List<PipelineIdentifier>) goCache.get(triggeredBy.cacheKey);
+                if (pipelineIdentifiers == null) {
+                    notCached.add(triggeredBy);
+                } else {
+                    instancesOfPipeline.put(dependencyPipelineIdentifier, pipelineIdentifiers);
+                }
+            }
+        });
+
+        for (int from = 0; from < notCached.size(); from += MAX_PIPELINE_INSTANCES_PER_QUERY) {
+            List<TriggeredBy> batch = notCached.subList(from, Math.min(from + MAX_PIPELINE_INSTANCES_PER_QUERY, notCached.size()));
+            List<String> cacheKeys = new ArrayList<>();
+            for (TriggeredBy triggeredBy : batch) {
+                cacheKeys.add(triggeredBy.cacheKey);
+            }
+            // loaded and cached holding the same locks that are held to clear them from the cache once a new instance is saved
+            CacheKeyGenerator.synchronizedOn(cacheKeys, () -> loadAndCachePipelineInstancesTriggeredBy(batch, result));
+        }
+        return result;
+    }
+
+    private void loadAndCachePipelineInstancesTriggeredBy(List<TriggeredBy> triggeredBys, Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> result) {
+        List<TriggeredBy> notCached = new ArrayList<>();
+        Map<String, List<PipelineIdentifier>> instancesByCacheKey = new HashMap<>();
+        List<Map<String, Object>> dependencies = new ArrayList<>();
+        for (TriggeredBy triggeredBy : triggeredBys) {
+            List<PipelineIdentifier> pipelineIdentifiers = (List<PipelineIdentifier>) goCache.get(triggeredBy.cacheKey);
+            if (pipelineIdentifiers != null) {
+                result.get(triggeredBy.pipelineName).put(triggeredBy.dependencyPipelineIdentifier, pipelineIdentifiers);
+                continue;
+            }
+            notCached.add(triggeredBy);
+            instancesByCacheKey.put(triggeredBy.cacheKey, new ArrayList<>());
+            PipelineIdentifier dependency = triggeredBy.dependencyPipelineIdentifier;
+            dependencies.add(arguments("pipelineName", triggeredBy.pipelineName).and("dependencyPipelineName", dependency.getName())
+                    .and("stageLocator", dependency.getName() + "/" + dependency.getCounter() + "/%/%").asMap());
+        }
+        if (notCached.isEmpty()) {
+            return;
+        }
+
+        List<TriggeredPipelineInstance> instances = getSqlMapClientTemplate().queryForList("pipelineInstancesTriggeredOutOfDependencyMaterials", arguments("dependencies", dependencies).asMap());
+        for (TriggeredPipelineInstance instance : instances) {
+            String[] stageLocator = instance.getMaterialRevision().split("/");
+            List<PipelineIdentifier> pipelineIdentifiers = instancesByCacheKey.get(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(instance.getPipelineName(), stageLocator[0], Integer.valueOf(stageLocator[1])));
+            if (pipelineIdentifiers != null && !pipelineIdentifiers.contains(instance.getPipelineIdentifier())) {
+                pipelineIdentifiers.add(instance.getPipelineIdentifier());
+            }
+        }
+        for (TriggeredBy triggeredBy : notCached) {
+            List<PipelineIdentifier> pipelineIdentifiers = instancesByCacheKey.get(triggeredBy.cacheKey);
+            goCache.put(triggeredBy.cacheKey, pipelineIdentifiers);
+            result.get(triggeredBy.pipelineName).put(triggeredBy.dependencyPipelineIdentifier, pipelineIdentifiers);
+        }
+    }
+
+    @Override
+    public Map<String, List<PipelineIdentifier>> getPipelineInstancesTriggeredWithDependencyMaterial(Set<String> pipelineNames, MaterialInstance materialInstance, String revision) {
+        Map<String, List<PipelineIdentifier>> result = new HashMap<>();
+        List<String> notCached = new ArrayList<>();
+        for (String pipelineName : pipelineNames) {
+            List<PipelineIdentifier> pipelineIdentifiers = (List<PipelineIdentifier>) goCache.get(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipelineName, materialInstance.getFingerprint(), revision));
+            if (pipelineIdentifiers == null) {
+                notCached.add(pipelineName);
+            } else {
+                result.put(pipelineName, pipelineIdentifiers);
+            }
+        }
+
+        for (int from = 0; from < notCached.size(); from += MAX_PIPELINE_INSTANCES_PER_QUERY) {
+            List<String> batch = notCached.subList(from, Math.min(from + MAX_PIPELINE_INSTANCES_PER_QUERY, notCached.size()));
+            List<String> cacheKeys = new ArrayList<>();
+            for (String pipelineName : batch) {
+                cacheKeys.add(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipelineName, materialInstance.getFingerprint(), revision));
+            }
+            CacheKeyGenerator.synchronizedOn(cacheKeys, () -> loadAndCachePipelineInstancesTriggeredBy(batch, materialInstance, revision, result));
+        }
+        return result;
+    }
+
+    private void loadAndCachePipelineInstancesTriggeredBy(List<String> pipelineNames, MaterialInstance materialInstance, String revision, Map<String, List<PipelineIdentifier>> result) {
+        List<String> notCached = new ArrayList<>();
+        Map<String, List<PipelineIdentifier>> instancesByCacheKey = new HashMap<>();
+        for (String pipelineName : pipelineNames) {
+            String cacheKey = cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipelineName, materialInstance.getFingerprint(), revision);
+            List<PipelineIdentifier> pipelineIdentifiers = (List<PipelineIdentifier>) goCache.get(cacheKey);
+            if (pipelineIdentifiers == null) {
+                notCached.add(pipelineName);
+                instancesByCacheKey.put(cacheKey, new ArrayList<>());
+            } else {
+                result.put(pipelineName, pipelineIdentifiers);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return;
+        }
+
+        List<TriggeredPipelineInstance> instances = getSqlMapClientTemplate().queryForList("pipelineInstancesOfPipelinesTriggeredOffOfMaterialRevision",
+                arguments("pipelineNames", notCached).and("materialId", materialInstance.getId()).and("materialRevision", revision).asMap());
+        for (TriggeredPipelineInstance instance : instances) {
+            List<PipelineIdentifier> pipelineIdentifiers = instancesByCacheKey.get(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(instance.getPipelineName(), materialInstance.getFingerprint(), revision));
+            if (pipelineIdentifiers != null) {
+                pipelineIdentifiers.add(instance.getPipelineIdentifier());
+            }
+        }
+        for (String pipelineName : notCached) {
+            String cacheKey = cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipelineName, materialInstance.getFingerprint(), revision);
+            goCache.put(cacheKey, instancesByCacheKey.get(cacheKey));
+            result.put(pipelineName, instancesByCacheKey.get(cacheKey));
+        }
+    }
+
     @Override
     public PipelineInstanceModels loadHistoryForDashboard(List<String> pipelineNames) {
         if (pipelineNames == null || pipelineNames.isEmpty()) {
@@ -963,15 +1202,21 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         for (MaterialRevision materialRevision : buildCause.getMaterialRevisions()) {
             if (DependencyMaterial.TYPE.equals(materialRevision.getMaterial().getType())) {
                 DependencyMaterialRevision dependencyMaterialRevision = (DependencyMaterialRevision) materialRevision.getRevision();
-                goCache.remove(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipeline.getName(),
+                removeFromCache(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipeline.getName(),
                         dependencyMaterialRevision.getPipelineName(), dependencyMaterialRevision.getPipelineCounter()));
             } else {
-                goCache.remove(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipeline.getName(),
+                removeFromCache(cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipeline.getName(),
                         materialRevision.getMaterial().getFingerprint(), materialRevision.getRevision().getRevision()));
             }
         }
     }
 
+    private void removeFromCache(String cacheKey) {
+        synchronized (cacheKey) {
+            goCache.remove(cacheKey);
+        }
+    }
+
     @Override
     public void updateComment(String pipelineName, int pipelineCounter, String comment) {
         Map<String, Object> args = arguments("pipelineName", pipelineName).and("pipelineCounter", pipelineCounter).and("comment", comment).asMap();
@@ -996,4 +1241,16 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         }
         return result;
     }
+
+    private class TriggeredBy {
+        private final String pipelineName;
+        private final PipelineIdentifier dependencyPipelineIdentifier;
+        private final String cacheKey;
+
+        TriggeredBy(String pipelineName, PipelineIdentifier dependencyPipelineIdentifier) {
+            this.pipelineName = pipelineName;
+            this.dependencyPipelineIdentifier = dependencyPipelineIdentifier;
+            this.cacheKey = cacheKeyForPipelineInstancesTriggeredWithDependencyMaterial(pipelineName, dependencyPipelineIdentifier.getName(), dependencyPipelineIdentifier.getCounter());
+        }
+    }
 }
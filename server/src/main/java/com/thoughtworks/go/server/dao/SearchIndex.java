@@ -0,0 +1,257 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import java.util.*;
+
+/**
+ * @understands which entries of a history, such as the instances of a pipeline or the modifications of a material, have
+ * a piece of text in any of their fields
+ * <p>
+ * Entries are kept in order of their ids, whatever order they are added in, and are looked up by the trigrams of their
+ * fields, so that a search only checks the entries having the least common trigram of the pattern, instead of every
+ * row of the history.
+ */
+public class SearchIndex {
+    static final int GRAM_LENGTH = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+    // rough sizes of the objects held for each entry and for each trigram, used to keep all indexes within a bound
+    private static final long ENTRY_OVERHEAD_IN_BYTES = 8 + 2 * (4 + 40);
+    private static final long GRAM_OVERHEAD_IN_BYTES = 48 + 32 + 48;
+
+    private long[] ids = new long[16];
+    private String[] labels = new String[16];
+    private String[] texts = new String[16];
+    private int size;
+    private final Map<String, Postings> postingsByGram = new HashMap<>();
+    private long sizeInBytes;
+
+    /**
+     * @understands the searchable fields of one entry of a history
+     */
+    public static class Entry {
+        private final long id;
+        private final String label;
+        private final Collection<String> fields;
+
+        /**
+         * @param label  of the entry, which searches can leave out, or null
+         * @param fields searched for the text. A null field is skipped.
+         */
+        public Entry(long id, String label, Collection<String> fields) {
+            this.id = id;
+            this.label = label;
+            this.fields = fields;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    synchronized boolean contains(long id) {
+        return positionOf(id) >= 0;
+    }
+
+    /**
+     * Entries which are already indexed are left as they are.
+     */
+    synchronized void add(List<Entry> entries) {
+        for (Entry entry : entries) {
+            int position = positionOf(entry.id);
+            if (position < 0) {
+                add(-(position + 1), entry);
+            }
+        }
+    }
+
+    private void add(int position, Entry entry) {
+        Set<String> fields = new LinkedHashSet<>();
+        addLowerCased(fields, entry.label);
+        for (String field : entry.fields) {
+            addLowerCased(fields, field);
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            labels = Arrays.copyOf(labels, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        if (position < size) {
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(labels, position, labels, position + 1, size - position);
+            System.arraycopy(texts, position, texts, position + 1, size - position);
+            for (Postings postings : postingsByGram.values()) {
+                postings.shiftFrom(position);
+            }
+        }
+        ids[position] = entry.id;
+        labels[position] = entry.label == null ? null : entry.label.toLowerCase();
+        texts[position] = String.join(String.valueOf(FIELD_SEPARATOR), fields);
+        sizeInBytes += ENTRY_OVERHEAD_IN_BYTES + 2L * texts[position].length() + (labels[position] == null ? 0 : 2L * labels[position].length());
+
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                grams.add(field.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        for (String gram : grams) {
+            Postings postings = postingsByGram.get(gram);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByGram.put(gram, postings);
+                sizeInBytes += GRAM_OVERHEAD_IN_BYTES;
+            }
+            postings.add(position);
+            sizeInBytes += 4;
+        }
+        size++;
+    }
+
+    private int positionOf(long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    // position of the first entry with an id equal to or greater than the given one
+    private int positionFrom(long id) {
+        int position = positionOf(id);
+        return position >= 0 ? position : -(position + 1);
+    }
+
+    // position of the first entry with an id greater than the given one
+    private int positionAfter(long id) {
+        int position = positionOf(id);
+        return position >= 0 ? position + 1 : -(position + 1);
+    }
+
+    private static void addLowerCased(Set<String> fields, String field) {
+        if (field != null) {
+            fields.add(field.toLowerCase());
+        }
+    }
+
+    /**
+     * @param text    to look for, already lower cased
+     * @param exclude label of entries to leave out, already lower cased
+     * @return ids of the latest entries having the text in any of their fields, latest first
+     */
+    synchronized List<Long> idsMatching(String text, String exclude, int limit) {
+        return idsMatching(text, exclude, Long.MIN_VALUE, Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * @param text    to look for, already lower cased
+     * @param exclude label of entries to leave out, already lower cased
+     * @return ids of the latest entries with ids between, and not including, the given ones that have the text in any
+     * of their fields, latest first
+     */
+    public synchronized List<Long> idsMatching(String text, String exclude, long afterId, long beforeId, int limit) {
+        List<Long> result = new ArrayList<>();
+        Postings candidates = leastCommonPostingsOf(text);
+        if (candidates == null && text.length() >= GRAM_LENGTH) {
+            return result;
+        }
+        int from = positionAfter(afterId);
+        int to = positionFrom(beforeId);
+        for (int i = candidatesBefore(candidates, to) - 1; i >= 0 && result.size() < limit; i--) {
+            int position = candidates == null ? i : candidates.positions[i];
+            if (position < from) {
+                break;
+            }
+            if (matches(position, text) && !Objects.equals(labels[position], exclude)) {
+                result.add(ids[position]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param text to look for, already lower cased
+     * @return id of the oldest entry having the text in any of its fields, or null if no entry has it
+     */
+    public synchronized Long oldestIdMatching(String text) {
+        Postings candidates = leastCommonPostingsOf(text);
+        if (candidates == null && text.length() >= GRAM_LENGTH) {
+            return null;
+        }
+        int candidateCount = candidates == null ? size : candidates.size;
+        for (int i = 0; i < candidateCount; i++) {
+            int position = candidates == null ? i : candidates.positions[i];
+            if (matches(position, text)) {
+                return ids[position];
+            }
+        }
+        return null;
+    }
+
+    // number of candidates at positions before the given one, all entries being candidates when there are no postings
+    private int candidatesBefore(Postings candidates, int position) {
+        if (candidates == null) {
+            return position;
+        }
+        int index = Arrays.binarySearch(candidates.positions, 0, candidates.size, position);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private Postings leastCommonPostingsOf(String text) {
+        Postings leastCommon = null;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Postings postings = postingsByGram.get(text.substring(i, i + GRAM_LENGTH));
+            if (postings == null) {
+                return null;
+            }
+            if (leastCommon == null || postings.size < leastCommon.size) {
+                leastCommon = postings;
+            }
+        }
+        return leastCommon;
+    }
+
+    private boolean matches(int position, String text) {
+        return text.indexOf(FIELD_SEPARATOR) < 0 && texts[position].contains(text);
+    }
+
+    // positions of the entries having a trigram, in ascending order
+    private static class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            int at = size;
+            while (at > 0 && positions[at - 1] > position) {
+                at--;
+            }
+            System.arraycopy(positions, at, positions, at + 1, size - at);
+            positions[at] = position;
+            size++;
+        }
+
+        // makes room for an entry inserted at the position, by moving the entries at and after it up by one
+        void shiftFrom(int position) {
+            for (int i = size - 1; i >= 0 && positions[i] >= position; i--) {
+                positions[i]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * @understands the search indexes of the histories, such as those of pipelines or materials, which have been searched
+ * <p>
+ * Indexes are built and updated on the given executor, so that a search never waits for a history to load. Until the
+ * index of a history is built, searches of it go to the database. Once built, an index gets each entry of its history
+ * as the entry is saved. The least recently used indexes are dropped once all of them together grow larger than the
+ * given size.
+ */
+public class SearchIndexes {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchIndexes.class);
+
+    public interface Loader {
+        List<SearchIndex.Entry> entriesOf(String history);
+
+        List<SearchIndex.Entry> entriesWithId(long id);
+    }
+
+    private final String historyType;
+    private final Loader loader;
+    private final long maxSizeInBytes;
+    private final Executor executor;
+    // all guarded by indexes, which is in order of access so that the least recently used index is evicted first
+    private final LinkedHashMap<String, SearchIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> building = new HashSet<>();
+    private final Set<String> tooLargeToIndex = new HashSet<>();
+
+    /**
+     * @param historyType such as pipeline or material, to tell which history a log message is about
+     */
+    public SearchIndexes(String historyType, Loader loader, long maxSizeInBytes, Executor executor) {
+        this.historyType = historyType;
+        this.loader = loader;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the index of the history, or null if it is not built yet, in which case it starts being built
+     */
+    public SearchIndex indexOf(String history) {
+        String key = keyFor(history);
+        synchronized (indexes) {
+            SearchIndex index = indexes.get(key);
+            if (index == null && !tooLargeToIndex.contains(key) && building.add(key)) {
+                executor.execute(() -> build(key, history));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Called once the transaction saving an entry of the history is committed. The entry is loaded by its id.
+     */
+    public void entrySaved(String history, long id) {
+        String key = keyFor(history);
+        if (isIndexedOrBeingIndexed(key)) {
+            executor.execute(() -> addEntry(key, id));
+        }
+    }
+
+    /**
+     * Called once the transaction saving entries of the history is committed, when the entries are already at hand.
+     */
+    public void entriesSaved(String history, List<SearchIndex.Entry> entries) {
+        String key = keyFor(history);
+        if (isIndexedOrBeingIndexed(key)) {
+            executor.execute(() -> addEntries(key, entries));
+        }
+    }
+
+    private boolean isIndexedOrBeingIndexed(String key) {
+        synchronized (indexes) {
+            return indexes.containsKey(key) || building.contains(key);
+        }
+    }
+
+    private void build(String key, String history) {
+        try {
+            SearchIndex index = new SearchIndex();
+            index.add(loader.entriesOf(history));
+            synchronized (indexes) {
+                indexes.put(key, index);
+                evictToMaxSize(key);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to build the search index of {} {}", historyType, history, e);
+        } finally {
+            synchronized (indexes) {
+                building.remove(key);
+            }
+        }
+    }
+
+    private void addEntry(String key, long id) {
+        SearchIndex index;
+        synchronized (indexes) {
+            index = indexes.get(key);
+        }
+        if (index == null || index.contains(id)) {
+            return;
+        }
+        try {
+            index.add(loader.entriesWithId(id));
+        } catch (Exception e) {
+            LOGGER.warn("Failed to add {} entry {} to the search index, dropping the index so that it is built again", historyType, id, e);
+            synchronized (indexes) {
+                indexes.remove(key);
+            }
+            return;
+        }
+        synchronized (indexes) {
+            evictToMaxSize(key);
+        }
+    }
+
+    private void addEntries(String key, List<SearchIndex.Entry> entries) {
+        SearchIndex index;
+        synchronized (indexes) {
+            index = indexes.get(key);
+        }
+        if (index == null) {
+            return;
+        }
+        index.add(entries);
+        synchronized (indexes) {
+            evictToMaxSize(key);
+        }
+    }
+
+    private void evictToMaxSize(String updatedKey) {
+        long totalSizeInBytes = 0;
+        for (SearchIndex index : indexes.values()) {
+            totalSizeInBytes += index.sizeInBytes();
+        }
+        Iterator<Map.Entry<String, SearchIndex>> leastRecentlySearchedFirst = indexes.entrySet().iterator();
+        while (totalSizeInBytes > maxSizeInBytes && leastRecentlySearchedFirst.hasNext()) {
+            Map.Entry<String, SearchIndex> evicted = leastRecentlySearchedFirst.next();
+            totalSizeInBytes -= evicted.getValue().sizeInBytes();
+            leastRecentlySearchedFirst.remove();
+            if (evicted.getKey().equals(updatedKey) && evicted.getValue().sizeInBytes() > maxSizeInBytes) {
+                LOGGER.warn("The search index of {} {} is larger than {} bytes, its history will be searched in the database", historyType, updatedKey, maxSizeInBytes);
+                tooLargeToIndex.add(updatedKey);
+            }
+        }
+    }
+
+    private static String keyFor(String history) {
+        return history.toLowerCase();
+    }
+}
@@ -25,6 +25,7 @@ import com.thoughtworks.go.server.domain.StageIdentity;
 import com.thoughtworks.go.server.util.Pagination;
 
 import java.util.List;
+import java.util.Map;
 
 public interface StageDao extends JobDurationStrategy {
 
@@ -86,10 +87,16 @@ public interface StageDao extends JobDurationStrategy {
 
     List<Stage> findStageHistoryForChart(String pipelineName, String stageName, int pageSize, int offset);
 
+    List<Stage> findStageHistoryForChart(String pipelineName, String stageName, int pageSize, int offset, Long boundaryId);
+
+    Map<Integer, Long> findStageHistoryForChartPageBoundaries(String pipelineName, String stageName, Pagination pagination, List<Long> stageIdsOnPage);
+
     StageHistoryPage findStageHistoryPage(Stage stageIdentifier, int pageSize);
 
     StageHistoryPage findStageHistoryPageByNumber(String pipelineName, String stageName, int pageNumber, int pageSize);
 
+    StageHistoryPage findStageHistoryPageByNumber(String pipelineName, String stageName, int pageNumber, int pageSize, Long boundaryId);
+
     StageInstanceModels findDetailedStageHistoryByOffset(String pipelineName, String stageName, Pagination pagination);
 
     StageInstanceModels findDetailedStageHistoryViaCursor(String pipelineName, String stageName, FeedModifier feedModifier, long cursor, Integer pageSize);
@@ -100,6 +107,11 @@ public interface StageDao extends JobDurationStrategy {
 
     Stages findAllStagesFor(String pipelineName, int counter);
 
+    /**
+     * @return the stages of each of the pipeline instances, loading the ones not in the cache together
+     */
+    Map<PipelineIdentifier, Stages> findAllStagesFor(List<PipelineIdentifier> pipelineInstances);
+
     List<Stage> oldestStagesHavingArtifacts();
 
     void markArtifactsDeletedFor(Stage stage);
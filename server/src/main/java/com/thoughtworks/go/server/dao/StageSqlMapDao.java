@@ -56,6 +56,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static java.lang.String.format;
@@ -63,6 +64,7 @@ import static java.lang.String.format;
 @Component
 public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao, StageStatusListener, JobStatusListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(SqlSessionDaoSupport.class);
+    private static final int MAX_PIPELINE_INSTANCES_PER_QUERY = 100;
     private final CacheKeyGenerator cacheKeyGenerator;
     private TransactionTemplate transactionTemplate;
     private JobInstanceSqlMapDao buildInstanceDao;
@@ -381,14 +383,25 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
 
     @Override
     public List<Stage> findStageHistoryForChart(String pipelineName, String stageName, int pageSize, int offset) {
+        return findStageHistoryForChart(pipelineName, stageName, pageSize, offset, null);
+    }
+
+    @Override
+    public List<Stage> findStageHistoryForChart(String pipelineName, String stageName, int pageSize, int offset, Long boundaryId) {
         Map<String, Object> args =
             arguments("pipelineName", pipelineName).
                 and("stageName", stageName).
                 and("offset", offset).
+                and("boundaryId", boundaryId).
                 and("limit", pageSize).asMap();
         return new Stages((List<Stage>) getSqlMapClientTemplate().queryForList("findStageHistoryForChartPerPipeline", args));
     }
 
+    @Override
+    public Map<Integer, Long> findStageHistoryForChartPageBoundaries(String pipelineName, String stageName, Pagination pagination, List<Long> stageIdsOnPage) {
+        return PageBoundaries.ofAdjacentPages(pagination, stageIdsOnPage, stageIdSeeker("getStageIdsForChartViaCursor", pipelineName, stageName));
+    }
+
     @Override
     public int getTotalStageCountForChart(String pipelineName, String stageName) {
         String key = cacheKeyForStageCountForGraph(pipelineName, stageName);
@@ -427,9 +440,18 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
                                                          final String stageName,
                                                          final int pageNumber,
                                                          final int pageSize) {
+        return findStageHistoryPageByNumber(pipelineName, stageName, pageNumber, pageSize, null);
+    }
+
+    @Override
+    public StageHistoryPage findStageHistoryPageByNumber(final String pipelineName,
+                                                         final String stageName,
+                                                         final int pageNumber,
+                                                         final int pageSize,
+                                                         final Long boundaryId) {
         return findStageHistoryPage(pipelineName, stageName, () -> {
             int total = getCount(pipelineName, stageName);
-            return Pagination.pageByNumber(pageNumber, total, pageSize);
+            return Pagination.pageByNumber(pageNumber, total, pageSize, boundaryId);
         });
     }
 
@@ -440,7 +462,7 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         String mutex = mutexForStageHistory(pipelineName, stageName);
         readWriteLock.acquireReadLock(mutex);
         try {
-            String subKey = format("%s-%s", pagination.getOffset(), pagination.getPageSize());
+            String subKey = format("%s-%s-%s", pagination.getOffset(), pagination.getPageSize(), pagination.getBoundaryId());
             String key = cacheKeyForDetailedStageHistories(pipelineName, stageName);
             StageInstanceModels stageInstanceModels = (StageInstanceModels) goCache.get(key, subKey);
             if (stageInstanceModels == null) {
@@ -491,7 +513,11 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         return findStageHistoryPage(id.getPipelineName(), id.getStageName(), () -> {
             int total = getCount(id.getPipelineName(), id.getStageName());
             int offset = findOffsetForStage(stage);
-            return Pagination.pageFor(offset, total, pageSize);
+            Pagination pagination = Pagination.pageFor(offset, total, pageSize);
+            if (pagination.getOffset() == 0) {
+                return pagination;
+            }
+            return Pagination.pageStartingAt(pagination.getOffset(), total, pageSize, findBoundaryForStage(stage, offset - pagination.getOffset(), pageSize));
         });
     }
 
@@ -503,11 +529,13 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         readWriteLock.acquireReadLock(mutex);
         try {
             Pagination pagination = function.get();
-            String subKey = format("%s-%s", pagination.getCurrentPage(), pagination.getPageSize());
+            String subKey = format("%s-%s-%s", pagination.getCurrentPage(), pagination.getPageSize(), pagination.getBoundaryId());
             String key = cacheKeyForStageHistories(pipelineName, stageName);
             StageHistoryPage stageHistoryPage = (StageHistoryPage) goCache.get(key, subKey);
             if (stageHistoryPage == null) {
                 List<StageHistoryEntry> stageHistoryEntries = findStages(pagination, pipelineName, stageName);
+                List<Long> stageIds = stageHistoryEntries.stream().map(StageHistoryEntry::getId).collect(Collectors.toList());
+                pagination = pagination.withPageBoundaries(PageBoundaries.ofPagesAround(pagination, stageIds, stageIdSeeker("getStageIdsViaCursor", pipelineName, stageName)));
                 stageHistoryPage = new StageHistoryPage(stageHistoryEntries, pagination, findImmediateChronologicallyForwardStageHistoryEntry(stageHistoryEntries.get(0)));
                 goCache.put(key, subKey, stageHistoryPage);
             }
@@ -558,7 +586,8 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         Map<String, Object> args = arguments("pipelineName", pipelineName).
             and("stageName", stageName).
             and("limit", pagination.getPageSize()).
-            and("offset", pagination.getOffset()).asMap();
+            and("offset", pagination.getOffset()).
+            and("boundaryId", pagination.getBoundaryId()).asMap();
         return (List<StageHistoryEntry>) getSqlMapClientTemplate().queryForList("findStageHistoryPage", args);
     }
 
@@ -566,7 +595,8 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         Map<String, Object> args = arguments("pipelineName", pipelineName).
             and("stageName", stageName).
             and("limit", pagination.getPageSize()).
-            and("offset", pagination.getOffset()).asMap();
+            and("offset", pagination.getOffset()).
+            and("boundaryId", pagination.getBoundaryId()).asMap();
         List<StageInstanceModel> detailedStageHistory = (List<StageInstanceModel>) getSqlMapClientTemplate().queryForList("getDetailedStageHistory", args);
         StageInstanceModels stageInstanceModels = new StageInstanceModels();
         stageInstanceModels.addAll(detailedStageHistory);
@@ -589,6 +619,32 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         return offset;
     }
 
+    // the boundary of the page having the stage changes along with its offset, so it is cached and cleared with it
+    private Long findBoundaryForStage(Stage stage, int newerOnPage, int pageSize) {
+        String key = cacheKeyForStageOffset(stage);
+        String subKey = format("boundary-%s-%s", stage.getId(), pageSize);
+        Long boundaryId = (Long) goCache.get(key, subKey);
+        if (boundaryId == null) {
+            StageIdentifier identifier = stage.getIdentifier();
+            boundaryId = PageBoundaries.ofPageHaving(stage.getId(), newerOnPage, stageIdSeeker("getStageIdsViaCursor", identifier.getPipelineName(), identifier.getStageName()));
+            if (boundaryId != null) {
+                goCache.put(key, subKey, boundaryId);
+            }
+        }
+        return boundaryId;
+    }
+
+    private PageBoundaries.IdSeeker stageIdSeeker(String query, String pipelineName, String stageName) {
+        return (modifier, cursor, limit) -> {
+            Map<String, Object> args = arguments("pipelineName", pipelineName).
+                and("stageName", stageName).
+                and("suffix", modifier.suffix()).
+                and("cursor", cursor).
+                and("limit", limit).asMap();
+            return (List<Long>) getSqlMapClientTemplate().queryForList(query, args);
+        };
+    }
+
     String cacheKeyForStageOffset(Stage stage) {
         return cacheKeyGenerator.generate("stageOffsetMap", stage.getIdentifier().getPipelineName(), stage.getIdentifier().getStageName()).intern();
     }
@@ -768,6 +824,66 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         return new Stages(stages);
     }
 
+    @Override
+    public Map<PipelineIdentifier, Stages> findAllStagesFor(List<PipelineIdentifier> pipelineInstances) {
+        Map<PipelineIdentifier, Stages> result = new HashMap<>();
+        List<PipelineIdentifier> notCached = new ArrayList<>();
+        for (PipelineIdentifier pipelineInstance : pipelineInstances) {
+            List<Stage> stages = (List<Stage>) goCache.get(cacheKeyForPipelineAndCounter(pipelineInstance.getName(), pipelineInstance.getCounter()));
+            if (stages == null) {
+                notCached.add(pipelineInstance);
+            } else {
+                result.put(pipelineInstance, new Stages(stages));
+            }
+        }
+
+        for (int from = 0; from < notCached.size(); from += MAX_PIPELINE_INSTANCES_PER_QUERY) {
+            List<PipelineIdentifier> batch = notCached.subList(from, Math.min(from + MAX_PIPELINE_INSTANCES_PER_QUERY, notCached.size()));
+            List<String> keys = new ArrayList<>();
+            for (PipelineIdentifier pipelineInstance : batch) {
+                keys.add(cacheKeyForPipelineAndCounter(pipelineInstance.getName(), pipelineInstance.getCounter()));
+            }
+            // the instances are loaded and cached holding the same locks that are held to clear them from the cache,
+            // so that stages which change while they are being loaded do not get cached
+            CacheKeyGenerator.synchronizedOn(keys, () -> loadAndCacheStages(batch, result));
+        }
+        return result;
+    }
+
+    private void loadAndCacheStages(List<PipelineIdentifier> pipelineInstances, Map<PipelineIdentifier, Stages> result) {
+        Map<String, List<Stage>> stagesOfInstances = new HashMap<>();
+        List<PipelineIdentifier> notCached = new ArrayList<>();
+        for (PipelineIdentifier pipelineInstance : pipelineInstances) {
+            List<Stage> stages = (List<Stage>) goCache.get(cacheKeyForPipelineAndCounter(pipelineInstance.getName(), pipelineInstance.getCounter()));
+            if (stages == null) {
+                notCached.add(pipelineInstance);
+                stagesOfInstances.put(instanceKey(pipelineInstance.getName(), pipelineInstance.getCounter()), new ArrayList<>());
+            } else {
+                result.put(pipelineInstance, new Stages(stages));
+            }
+        }
+        if (notCached.isEmpty()) {
+            return;
+        }
+
+        List<Stage> stages = getSqlMapClientTemplate().queryForList("getStagesByPipelineInstances", arguments("pipelineInstances", notCached).asMap());
+        for (Stage stage : stages) {
+            List<Stage> stagesOfInstance = stagesOfInstances.get(instanceKey(stage.getIdentifier().getPipelineName(), stage.getIdentifier().getPipelineCounter()));
+            if (stagesOfInstance != null) {
+                stagesOfInstance.add(stage);
+            }
+        }
+        for (PipelineIdentifier pipelineInstance : notCached) {
+            List<Stage> stagesOfInstance = stagesOfInstances.get(instanceKey(pipelineInstance.getName(), pipelineInstance.getCounter()));
+            goCache.put(cacheKeyForPipelineAndCounter(pipelineInstance.getName(), pipelineInstance.getCounter()), stagesOfInstance);
+            result.put(pipelineInstance, new Stages(stagesOfInstance));
+        }
+    }
+
+    private String instanceKey(String pipelineName, int counter) {
+        return pipelineName.toLowerCase() + "/" + counter;
+    }
+
     @Override
     public List<Stage> oldestStagesHavingArtifacts() {
         return getSqlMapClientTemplate().queryForList("oldestStagesHavingArtifacts");
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import com.thoughtworks.go.domain.PipelineIdentifier;
+
+/**
+ * @understands an instance of a pipeline and the revision of one of its materials it was triggered with
+ */
+public class TriggeredPipelineInstance {
+    private String pipelineName;
+    private String label;
+    private Integer pipelineCounter;
+    private String materialRevision;
+
+    public TriggeredPipelineInstance() {
+    }
+
+    public TriggeredPipelineInstance(String pipelineName, Integer pipelineCounter, String label, String materialRevision) {
+        this.pipelineName = pipelineName;
+        this.pipelineCounter = pipelineCounter;
+        this.label = label;
+        this.materialRevision = materialRevision;
+    }
+
+    public PipelineIdentifier getPipelineIdentifier() {
+        return new PipelineIdentifier(pipelineName, pipelineCounter, label);
+    }
+
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
+    public void setPipelineName(String pipelineName) {
+        this.pipelineName = pipelineName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Integer getPipelineCounter() {
+        return pipelineCounter;
+    }
+
+    public void setPipelineCounter(Integer pipelineCounter) {
+        this.pipelineCounter = pipelineCounter;
+    }
+
+    public String getMaterialRevision() {
+        return materialRevision;
+    }
+
+    public void setMaterialRevision(String materialRevision) {
+        this.materialRevision = materialRevision;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dashboard;
+
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/* Represents what one user needs to bring a dashboard up to date: either everything (a snapshot) or only what changed. */
+public class DashboardDelta {
+    private final boolean snapshot;
+    private final long sequenceNumber;
+    private final String personalizationEtag;
+    private final List<GoDashboardPipelineGroup> pipelineGroups;
+    private final List<GoDashboardEnvironment> environments;
+    private final Collection<GoDashboardPipeline> changedPipelines;
+    private final Collection<String> removedPipelines;
+
+    private DashboardDelta(boolean snapshot, long sequenceNumber, String personalizationEtag, List<GoDashboardPipelineGroup> pipelineGroups,
+                           List<GoDashboardEnvironment> environments, Collection<GoDashboardPipeline> changedPipelines, Collection<String> removedPipelines) {
+        this.snapshot = snapshot;
+        this.sequenceNumber = sequenceNumber;
+        this.personalizationEtag = personalizationEtag;
+        this.pipelineGroups = pipelineGroups;
+        this.environments = environments;
+        this.changedPipelines = changedPipelines;
+        this.removedPipelines = removedPipelines;
+    }
+
+    public static DashboardDelta snapshot(long sequenceNumber, String personalizationEtag, List<GoDashboardPipelineGroup> pipelineGroups,
+                                          List<GoDashboardEnvironment> environments, Collection<GoDashboardPipeline> pipelines) {
+        return new DashboardDelta(true, sequenceNumber, personalizationEtag, pipelineGroups, environments, pipelines, emptyList());
+    }
+
+    public static DashboardDelta changes(long sequenceNumber, String personalizationEtag, List<GoDashboardPipelineGroup> pipelineGroups,
+                                         List<GoDashboardEnvironment> environments, Collection<GoDashboardPipeline> changedPipelines,
+                                         Collection<String> removedPipelines) {
+        return new DashboardDelta(false, sequenceNumber, personalizationEtag, pipelineGroups, environments, changedPipelines, removedPipelines);
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the value of the dashboard's {@link TimeStampBasedCounter} when this delta was computed
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public String getPersonalizationEtag() {
+        return personalizationEtag;
+    }
+
+    public List<GoDashboardPipelineGroup> getPipelineGroups() {
+        return pipelineGroups;
+    }
+
+    public List<GoDashboardEnvironment> getEnvironments() {
+        return environments;
+    }
+
+    public Collection<GoDashboardPipeline> getChangedPipelines() {
+        return changedPipelines;
+    }
+
+    public Collection<String> getRemovedPipelines() {
+        return removedPipelines;
+    }
+}
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /* Understands how to cache dashboard statuses, for every pipeline. */
 @Component
@@ -36,6 +38,8 @@ public class GoDashboardCache {
      */
     private LinkedHashMap<CaseInsensitiveString, GoDashboardPipeline> cache;
     private volatile GoDashboardPipelines dashboardPipelines;
+    private volatile long layoutVersion;
+    private final List<GoDashboardCacheListener> listeners = new CopyOnWriteArrayList<>();
 
     @Autowired
     public GoDashboardCache(TimeStampBasedCounter timeStampBasedCounter) {
@@ -45,26 +49,50 @@ public class GoDashboardCache {
     }
 
     public void put(GoDashboardPipeline pipeline) {
-        cache.put(pipeline.name(), pipeline);
-        cacheHasChanged();
+        GoDashboardPipeline previous = cache.put(pipeline.name(), pipeline);
+        cacheHasChanged(previous == null || !sameLayout(previous, pipeline));
     }
 
     public void remove(CaseInsensitiveString pipelineName) {
-        cache.remove(pipelineName);
+        if (cache.remove(pipelineName) != null) {
+            cacheHasChanged(true);
+        }
     }
 
     public void replaceAllEntriesInCacheWith(List<GoDashboardPipeline> newPipelinesToCache) {
         cache.clear();
         cache.putAll(createMapFor(newPipelinesToCache));
-        cacheHasChanged();
+        cacheHasChanged(true);
     }
 
     public GoDashboardPipelines allEntries() {
         return dashboardPipelines;
     }
 
-    private void cacheHasChanged() {
+    /**
+     * @return a number which changes whenever a pipeline is added to or removed from the cache, or changes its group or
+     * permissions; but not when only the status of a pipeline changes. It changes after {@link #allEntries()} does.
+     */
+    public long layoutVersion() {
+        return layoutVersion;
+    }
+
+    public void addListener(GoDashboardCacheListener listener) {
+        listeners.add(listener);
+    }
+
+    private boolean sameLayout(GoDashboardPipeline previous, GoDashboardPipeline pipeline) {
+        return Objects.equals(previous.groupName(), pipeline.groupName()) && Objects.equals(previous.permissions(), pipeline.permissions());
+    }
+
+    private void cacheHasChanged(boolean layoutChanged) {
         dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter);
+        if (layoutChanged) {
+            layoutVersion++;
+        }
+        for (GoDashboardCacheListener listener : listeners) {
+            listener.cacheUpdated(dashboardPipelines);
+        }
     }
 
     private Map<CaseInsensitiveString, GoDashboardPipeline> createMapFor(List<GoDashboardPipeline> pipelines) {
@@ -17,9 +17,11 @@ package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.security.Permissions;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
 
 public class GoDashboardPipelineGroup extends AbstractDashboardGroup {
     private Permissions permissions;
+    private volatile String etag;
 
     public GoDashboardPipelineGroup(String name, Permissions permissions, boolean hasDefinedPipelines) {
         super(name, hasDefinedPipelines);
@@ -33,7 +35,35 @@ public class GoDashboardPipelineGroup extends AbstractDashboardGroup {
 
     @Override
     public String etag() {
-        return digest(Integer.toString(permissions.hashCode()));
+        String etag = this.etag;
+        if (etag == null) {
+            etag = digest(Integer.toString(permissions.hashCode()));
+            this.etag = etag;
+        }
+        return etag;
+    }
+
+    @Override
+    public void addPipeline(GoDashboardPipeline pipeline) {
+        super.addPipeline(pipeline);
+        etag = null;
+    }
+
+    /**
+     * @return this group when the filter shows all of its pipelines, so that it can be shared; otherwise a copy
+     * of this group with only the pipelines the filter shows
+     */
+    public GoDashboardPipelineGroup filteredBy(DashboardFilter filter) {
+        if (allPipelines().stream().allMatch(pipeline -> filter.isPipelineVisible(pipeline.name()))) {
+            return this;
+        }
+        GoDashboardPipelineGroup filtered = new GoDashboardPipelineGroup(name(), permissions, hasDefinedPipelines());
+        for (GoDashboardPipeline pipeline : allPipelines()) {
+            if (filter.isPipelineVisible(pipeline.name())) {
+                filtered.addPipeline(pipeline);
+            }
+        }
+        return filtered;
     }
 
     public boolean canBeViewedBy(Username userName) {
@@ -22,6 +22,7 @@ import com.thoughtworks.go.listener.TimelineUpdateListener;
 import com.thoughtworks.go.server.persistence.PipelineRepository;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,25 +31,34 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @understands a sorted collection of PipelineMaterialModification
+ * <p>
+ * Each pipeline has its own lock, so that adding instances of one pipeline never blocks readers of another. Updates
+ * are done one at a time, and keep the pipelines they add to locked until the transaction completes.
+ * <p>
+ * Instances older than the most recent few of a pipeline keep only the first revision of each material, which is all
+ * that ordering and fan-in resolution look at.
  */
 @Component
 public class PipelineTimeline {
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineTimeline.class);
 
-    private final Map<CaseInsensitiveString, TreeSet<PipelineTimelineEntry>> naturalOrderPmm;
-    private final Map<CaseInsensitiveString, ArrayList<PipelineTimelineEntry>> scheduleOrderPmm;
+    private final ConcurrentMap<CaseInsensitiveString, PipelineInstances> instancesOfPipelines;
     private volatile long maximumId;
     private final PipelineRepository pipelineRepository;
     private TransactionTemplate transactionTemplate;
     private TransactionSynchronizationManager transactionSynchronizationManager;
     private TimelineUpdateListener[] listeners;
-    private final ReadWriteLock naturalOrderLock = new ReentrantReadWriteLock();
-    private final ReadWriteLock scheduleOrderLock = new ReentrantReadWriteLock();
+    private final int instancesWithAllRevisions;
+    private final ConcurrentMap<CaseInsensitiveString, ReentrantReadWriteLock> pipelineLocks = new ConcurrentHashMap<>();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final List<ReentrantReadWriteLock> writeLocksHeldByUpdate = new ArrayList<>();
     private final Cloner cloner = new Cloner();
 
     @Autowired
@@ -58,8 +68,8 @@ public class PipelineTimeline {
         this.transactionTemplate = transactionTemplate;
         this.transactionSynchronizationManager = transactionSynchronizationManager;
         this.listeners = listeners;
-        naturalOrderPmm = new HashMap<>();
-        scheduleOrderPmm = new HashMap<>();
+        this.instancesWithAllRevisions = new SystemEnvironment().get(SystemEnvironment.PIPELINE_TIMELINE_INSTANCES_WITH_ALL_REVISIONS);
+        instancesOfPipelines = new ConcurrentHashMap<>();
         maximumId = -1;
     }
 
@@ -68,16 +78,7 @@ public class PipelineTimeline {
      */
     @Deprecated
     public Collection<PipelineTimelineEntry> getEntriesFor(String pipelineName) {
-        naturalOrderLock.readLock().lock();
-        try {
-            TreeSet<PipelineTimelineEntry> tree = naturalOrderPmm.get(new CaseInsensitiveString(pipelineName));
-            if (tree == null) {
-                tree = new TreeSet<>();
-            }
-            return Collections.unmodifiableCollection(cloner.deepClone(tree));
-        } finally {
-            naturalOrderLock.readLock().unlock();
-        }
+        return Collections.unmodifiableCollection(cloner.deepClone(inNaturalOrder(new CaseInsensitiveString(pipelineName))));
     }
 
     public long maximumId() {
@@ -86,16 +87,28 @@ public class PipelineTimeline {
 
     public void add(PipelineTimelineEntry pipelineTimelineEntry) {
         CaseInsensitiveString pipelineName = new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName());
-        initializedNaturalOrderCollection(pipelineName).add(pipelineTimelineEntry);
-        initializedScheduleOrderCollection(pipelineName).add(pipelineTimelineEntry);
-        pipelineTimelineEntry.setInsertedBefore(naturalOrderAfter(pipelineTimelineEntry));
-        pipelineTimelineEntry.setInsertedAfter(naturalOrderBefore(pipelineTimelineEntry));
-        pipelineTimelineEntry.updateNaturalOrder();
-        updateMaximumId(pipelineTimelineEntry.getId());
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        boolean locked = false;
+        if (!lock.isWriteLockedByCurrentThread()) {
+            lock.writeLock().lock();
+            locked = true;
+        }
+        try {
+            PipelineInstances instances = initializedInstances(pipelineName);
+            int position = instances.add(pipelineTimelineEntry);
+            pipelineTimelineEntry.setInsertedBefore(instances.inNaturalOrderAt(position + 1));
+            pipelineTimelineEntry.setInsertedAfter(instances.inNaturalOrderAt(position - 1));
+            pipelineTimelineEntry.updateNaturalOrder();
+            updateMaximumId(pipelineTimelineEntry.getId());
+        } finally {
+            if (locked) {
+                releaseUnlessHeldByUpdate(lock);
+            }
+        }
     }
 
     public void update() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
             final long maximumIdBeforeUpdate = maximumId;
             transactionTemplate.execute((TransactionCallback) transactionStatus -> {
@@ -119,8 +132,7 @@ public class PipelineTimeline {
 
                     private void rollbackNewEntryFor(PipelineTimelineEntry entry) {
                         CaseInsensitiveString pipelineName = new CaseInsensitiveString(entry.getPipelineName());
-                        initializedNaturalOrderCollection(pipelineName).remove(entry);
-                        initializedScheduleOrderCollection(pipelineName).remove(entry);
+                        initializedInstances(pipelineName).remove(entry);
                     }
 
 
@@ -129,24 +141,30 @@ public class PipelineTimeline {
                 return null;
             });
         } finally {
-            releaseAllWriteLocks();
+            releaseWriteLocksHeldByUpdate();
+            updateLock.unlock();
         }
     }
 
+    private ReentrantReadWriteLock lockFor(CaseInsensitiveString pipelineName) {
+        return pipelineLocks.computeIfAbsent(pipelineName, name -> new ReentrantReadWriteLock());
+    }
 
-    // --------------------------------------------------------
-    // These methods should acquire and release lock in corresponding order.
-    private void acquireAllWriteLocks() {
-        naturalOrderLock.writeLock().lock();
-        scheduleOrderLock.writeLock().lock();
+    // an update keeps the pipelines it added to locked till it completes, so readers never see entries which may be rolled back
+    private void releaseUnlessHeldByUpdate(ReentrantReadWriteLock lock) {
+        if (updateLock.isHeldByCurrentThread()) {
+            writeLocksHeldByUpdate.add(lock);
+        } else {
+            lock.writeLock().unlock();
+        }
     }
 
-    //Release in the reverse of the acquired order.
-    private void releaseAllWriteLocks() {
-        scheduleOrderLock.writeLock().unlock();
-        naturalOrderLock.writeLock().unlock();
+    private void releaseWriteLocksHeldByUpdate() {
+        for (ReentrantReadWriteLock lock : writeLocksHeldByUpdate) {
+            lock.writeLock().unlock();
+        }
+        writeLocksHeldByUpdate.clear();
     }
-    // --------------------------------------------------------
 
     private void notifyListeners(List<PipelineTimelineEntry> newEntries) {
         Map<CaseInsensitiveString, PipelineTimelineEntry> pipelineToOldestEntry = new HashMap<>();
@@ -158,10 +176,11 @@ public class PipelineTimeline {
             }
         }
 
-        for (TimelineUpdateListener listener : listeners) {
-            for (Map.Entry<CaseInsensitiveString, PipelineTimelineEntry> entry : pipelineToOldestEntry.entrySet()) {
+        for (Map.Entry<CaseInsensitiveString, PipelineTimelineEntry> entry : pipelineToOldestEntry.entrySet()) {
+            List<PipelineTimelineEntry> timeline = inNaturalOrder(entry.getKey());
+            for (TimelineUpdateListener listener : listeners) {
                 try {
-                    listener.added(entry.getValue(), naturalOrderPmm.get(entry.getKey()));
+                    listener.added(entry.getValue(), timeline);
                 } catch (Exception e) {
                     LOGGER.warn("Ignoring exception when notifying listener: {}", listener, e);
                 }
@@ -173,11 +192,15 @@ public class PipelineTimeline {
      * This is called on system init and is called by Spring. Hence, this is not done in a transaction. At any other time, the method update should be used
      */
     public void updateTimelineOnInit() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
             pipelineRepository.updatePipelineTimeline(this, new ArrayList<>());
+            for (PipelineInstances instances : instancesOfPipelines.values()) {
+                instances.trimToSize();
+            }
         } finally {
-            releaseAllWriteLocks();
+            releaseWriteLocksHeldByUpdate();
+            updateLock.unlock();
         }
     }
 
@@ -187,20 +210,13 @@ public class PipelineTimeline {
      * @return PMM which was before the pipeline with this id at the time of insertion of the PTE with the id or null if there was nothing before this pipeline during insertion
      */
     public PipelineTimelineEntry runBefore(long id, final CaseInsensitiveString pipelineName) {
-        naturalOrderLock.readLock().lock();
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            TreeSet<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
-                return null;
-            }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedAfter();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
+            PipelineTimelineEntry entry = entryWithId(id, pipelineName);
+            return entry == null ? null : entry.insertedAfter();
         } finally {
-            naturalOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
@@ -210,56 +226,58 @@ public class PipelineTimeline {
      * @return PMM which was after the pipeline with this id at the time of insertion of the PTE with the id or null if there was nothing after this pipeline during insertion
      */
     public PipelineTimelineEntry runAfter(long id, final CaseInsensitiveString pipelineName) {
-        naturalOrderLock.readLock().lock();
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            TreeSet<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
-                return null;
-            }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedBefore();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
+            PipelineTimelineEntry entry = entryWithId(id, pipelineName);
+            return entry == null ? null : entry.insertedBefore();
         } finally {
-            naturalOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
-    private void updateMaximumId(long id) {
-        maximumId = Math.max(id, maximumId);
+    // callers hold the lock of the pipeline
+    private PipelineTimelineEntry entryWithId(long id, CaseInsensitiveString pipelineName) {
+        PipelineInstances instances = instancesOfPipelines.get(pipelineName);
+        if (instances == null) {
+            return null;
+        }
+        int index = instances.indexOfId(id);
+        if (index < 0) {
+            throw new RuntimeException("Cannot find pipeline with id: " + id);
+        }
+        return instances.get(index);
     }
 
-    private TreeSet<PipelineTimelineEntry> initializedNaturalOrderCollection(final CaseInsensitiveString pipelineName) {
-        if (!naturalOrderPmm.containsKey(pipelineName)) {
-            naturalOrderPmm.put(pipelineName, new TreeSet<>());
-        }
-        return naturalOrderPmm.get(pipelineName);
+    private void updateMaximumId(long id) {
+        maximumId = Math.max(id, maximumId);
     }
 
-    private ArrayList<PipelineTimelineEntry> initializedScheduleOrderCollection(final CaseInsensitiveString pipelineName) {
-        if (!scheduleOrderPmm.containsKey(pipelineName)) {
-            scheduleOrderPmm.put(pipelineName, new ArrayList<>());
-        }
-        return scheduleOrderPmm.get(pipelineName);
+    private PipelineInstances initializedInstances(final CaseInsensitiveString pipelineName) {
+        return instancesOfPipelines.computeIfAbsent(pipelineName, name -> new PipelineInstances(instancesWithAllRevisions));
     }
 
-    private PipelineTimelineEntry naturalOrderAfter(PipelineTimelineEntry pipelineTimelineEntry) {
-        naturalOrderLock.readLock().lock();
+    private List<PipelineTimelineEntry> inNaturalOrder(CaseInsensitiveString pipelineName) {
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            return naturalOrderPmm.get(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName())).higher(pipelineTimelineEntry);
+            PipelineInstances instances = instancesOfPipelines.get(pipelineName);
+            return instances == null ? new ArrayList<>() : instances.inNaturalOrder();
         } finally {
-            naturalOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
     PipelineTimelineEntry naturalOrderBefore(PipelineTimelineEntry pipelineTimelineEntry) {
-        naturalOrderLock.readLock().lock();
+        CaseInsensitiveString pipelineName = new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName());
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            return naturalOrderPmm.get(new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName())).lower(pipelineTimelineEntry);
+            PipelineInstances instances = instancesOfPipelines.get(pipelineName);
+            int position = instances.naturalOrderPositionOf(pipelineTimelineEntry);
+            return instances.inNaturalOrderAt(position < 0 ? -(position + 1) - 1 : position - 1);
         } finally {
-            naturalOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
@@ -268,50 +286,206 @@ public class PipelineTimeline {
      */
     @Deprecated
     public void clearWhichIsEvilAndShouldNotBeUsedInRealWorld() {
-        acquireAllWriteLocks();
+        updateLock.lock();
         try {
-            naturalOrderPmm.clear();
-            scheduleOrderPmm.clear();
+            instancesOfPipelines.clear();
         } finally {
-            releaseAllWriteLocks();
+            updateLock.unlock();
         }
     }
 
     public int instanceCount(CaseInsensitiveString pipelineName) {
-        scheduleOrderLock.readLock().lock();
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            ArrayList<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
+            PipelineInstances instances = instancesOfPipelines.get(pipelineName);
             return instances == null ? 0 : instances.size();
         } finally {
-            scheduleOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
     public PipelineTimelineEntry instanceFor(CaseInsensitiveString pipelineName, int index) {
-        scheduleOrderLock.readLock().lock();
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            ArrayList<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
+            PipelineInstances instances = instancesOfPipelines.get(pipelineName);
             return instances == null ? null : instances.get(index);
         } finally {
-            scheduleOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
 
     public PipelineTimelineEntry getEntryFor(CaseInsensitiveString pipelineName, Integer pipelineCounter) {
-        scheduleOrderLock.readLock().lock();
+        ReentrantReadWriteLock lock = lockFor(pipelineName);
+        lock.readLock().lock();
         try {
-            ArrayList<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
-            for (int i = instances.size() - 1; i >= 0; i--) {
-                PipelineTimelineEntry instance = instances.get(i);
-                if (instance.getCounter() == pipelineCounter) {
-                    return instance;
-                }
+            PipelineInstances instances = instancesOfPipelines.get(pipelineName);
+            if (instances == null) {
+                return null;
             }
-            return null;
+            int index = instances.lastIndexOfCounter(pipelineCounter);
+            return index < 0 ? null : instances.get(index);
         } finally {
-            scheduleOrderLock.readLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
+    /**
+     * @understands the instances of one pipeline in schedule order (the order they were added in, which is the order of
+     * id) and in natural order. Every entry is held once; ids and counters are kept alongside in primitive arrays so
+     * that lookups do not have to visit the entries, and the natural order is an array of schedule order positions.
+     * Callers hold the lock of the pipeline.
+     */
+    private static class PipelineInstances {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int instancesWithAllRevisions;
+        private PipelineTimelineEntry[] entries = new PipelineTimelineEntry[INITIAL_CAPACITY];
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] counters = new int[INITIAL_CAPACITY];
+        private int[] naturalOrder = new int[INITIAL_CAPACITY];
+        private int size;
+
+        PipelineInstances(int instancesWithAllRevisions) {
+            this.instancesWithAllRevisions = instancesWithAllRevisions;
+        }
+
+        int size() {
+            return size;
+        }
+
+        PipelineTimelineEntry get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return entries[index];
+        }
+
+        /**
+         * @return the position of the entry in natural order. An entry which is already present is not added again.
+         */
+        int add(PipelineTimelineEntry entry) {
+            int position = naturalOrderPositionOf(entry);
+            if (position >= 0) {
+                return position;
+            }
+            position = -(position + 1);
+            ensureCapacity(size + 1);
+            entries[size] = entry;
+            ids[size] = entry.getId();
+            counters[size] = entry.getCounter();
+            System.arraycopy(naturalOrder, position, naturalOrder, position + 1, size - position);
+            naturalOrder[position] = size;
+            size++;
+            if (instancesWithAllRevisions >= 0 && size > instancesWithAllRevisions) {
+                entries[size - instancesWithAllRevisions - 1].trimRevisionsToFirst();
+            }
+            return position;
+        }
+
+        void remove(PipelineTimelineEntry entry) {
+            int index = indexOfId(entry.getId());
+            if (index < 0) {
+                return;
+            }
+            int remaining = size - index - 1;
+            System.arraycopy(entries, index + 1, entries, index, remaining);
+            System.arraycopy(ids, index + 1, ids, index, remaining);
+            System.arraycopy(counters, index + 1, counters, index, remaining);
+            int position = -1;
+            for (int i = 0; i < size; i++) {
+                if (naturalOrder[i] == index) {
+                    position = i;
+                } else if (naturalOrder[i] > index) {
+                    naturalOrder[i]--;
+                }
+            }
+            System.arraycopy(naturalOrder, position + 1, naturalOrder, position, size - position - 1);
+            size--;
+            entries[size] = null;
+        }
+
+        /**
+         * @return the position of the entry in natural order, or (-(insertion point) - 1) if it is not present
+         */
+        int naturalOrderPositionOf(PipelineTimelineEntry entry) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int comparison = entry.compareTo(entries[naturalOrder[mid]]);
+                if (comparison > 0) {
+                    low = mid + 1;
+                } else if (comparison < 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        PipelineTimelineEntry inNaturalOrderAt(int position) {
+            return position < 0 || position >= size ? null : entries[naturalOrder[position]];
+        }
+
+        int indexOfId(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] < id) {
+                    low = mid + 1;
+                } else if (ids[mid] > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            // entries are added in order of id, so this should only happen for entries added out of order
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int lastIndexOfCounter(int counter) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (counters[i] == counter) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        List<PipelineTimelineEntry> inNaturalOrder() {
+            List<PipelineTimelineEntry> inNaturalOrder = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                inNaturalOrder.add(entries[naturalOrder[i]]);
+            }
+            return inNaturalOrder;
+        }
+
+        void trimToSize() {
+            entries = Arrays.copyOf(entries, size);
+            ids = Arrays.copyOf(ids, size);
+            counters = Arrays.copyOf(counters, size);
+            naturalOrder = Arrays.copyOf(naturalOrder, size);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= entries.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, entries.length + (entries.length >> 1));
+            entries = Arrays.copyOf(entries, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            counters = Arrays.copyOf(counters, newCapacity);
+            naturalOrder = Arrays.copyOf(naturalOrder, newCapacity);
+        }
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TimingStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @understands running checkouts and parses of config repositories on a bounded pool of workers, allowing only a limited
+ * number of parses per config repo plugin at a time. Parses beyond that limit wait in a queue of their plugin, not on a
+ * worker, so that they never hold up parses for other plugins.
+ */
+@Component
+public class ConfigMaterialParseExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigMaterialParseExecutor.class);
+
+    private final Executor executor;
+    private final int maxParsesPerPlugin;
+    private final ConcurrentMap<String, PluginQueue> pluginQueues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ParseRequest, CompletableFuture<Void>> pendingParses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ParseStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConfigMaterialParseExecutor(SystemEnvironment systemEnvironment) {
+        this(new ThreadPoolExecutor(systemEnvironment.getNumberOfConfigRepoParseThreads(), systemEnvironment.getNumberOfConfigRepoParseThreads(),
+                        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                        new ThreadFactoryBuilder().setNameFormat("config-repo-parse-%d").setDaemon(true).build()),
+                systemEnvironment.getMaxConcurrentConfigRepoParsesPerPlugin());
+    }
+
+    ConfigMaterialParseExecutor(Executor executor, int maxParsesPerPlugin) {
+        this.executor = executor;
+        this.maxParsesPerPlugin = maxParsesPerPlugin;
+    }
+
+    /**
+     * Schedules a parse of a config repository at a revision. A request for a fingerprint and revision which is already
+     * waiting or running is not scheduled again; the returned future completes when that earlier parse does.
+     */
+    public CompletableFuture<Void> submit(String fingerprint, String revision, String pluginId, Runnable parse) {
+        ParseRequest request = new ParseRequest(fingerprint, revision);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = pendingParses.putIfAbsent(request, future);
+        if (existing != null) {
+            LOGGER.debug("[Config Material Parse] Parse of {} at revision {} is already scheduled, not scheduling it again", fingerprint, revision);
+            return existing;
+        }
+
+        String plugin = String.valueOf(pluginId);
+        pluginQueues.computeIfAbsent(plugin, PluginQueue::new).offer(new ParseTask(request, plugin, parse, future));
+        return future;
+    }
+
+    private void run(ParseTask task) {
+        long startTime = System.currentTimeMillis();
+        Exception failure = null;
+        try {
+            task.parse.run();
+        } catch (Exception e) {
+            failure = e;
+        }
+        statistics.computeIfAbsent(task.request.fingerprint, fingerprint -> new ParseStatistics(task.pluginId))
+                .record(task.request.revision, System.currentTimeMillis() - startTime, failure != null);
+        complete(task, failure);
+    }
+
+    private void complete(ParseTask task, Exception failure) {
+        pendingParses.remove(task.request, task.future);
+        if (failure == null) {
+            task.future.complete(null);
+        } else {
+            task.future.completeExceptionally(failure);
+        }
+    }
+
+    public int pendingParseCount() {
+        return pendingParses.size();
+    }
+
+    public Map<String, ParseStatistics> parseStatistics() {
+        return new TreeMap<>(statistics);
+    }
+
+    public static class ParseStatistics extends TimingStatistics {
+        private final String pluginId;
+        private volatile String lastRevision;
+
+        ParseStatistics(String pluginId) {
+            this.pluginId = pluginId;
+        }
+
+        void record(String revision, long timeInMillis, boolean failed) {
+            record(timeInMillis, failed);
+            lastRevision = revision;
+        }
+
+        public String getPluginId() {
+            return pluginId;
+        }
+
+        public String getLastRevision() {
+            return lastRevision;
+        }
+    }
+
+    /* Hands parses of one plugin to the workers, no more than maxParsesPerPlugin at a time, in the order they came in. */
+    private class PluginQueue {
+        private final String pluginId;
+        private final Deque<ParseTask> waiting = new ArrayDeque<>();
+        private int running;
+
+        PluginQueue(String pluginId) {
+            this.pluginId = pluginId;
+        }
+
+        void offer(ParseTask task) {
+            synchronized (this) {
+                if (running >= maxParsesPerPlugin) {
+                    waiting.add(task);
+                    return;
+                }
+                running++;
+            }
+            execute(task);
+        }
+
+        private void execute(ParseTask task) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(task);
+                    } finally {
+                        next();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("[Config Material Parse] Could not schedule parse of {} for plugin {}", task.request.fingerprint, pluginId, e);
+                complete(task, e);
+                next();
+            }
+        }
+
+        private void next() {
+            ParseTask next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                    return;
+                }
+            }
+            execute(next);
+        }
+    }
+
+    private static class ParseTask {
+        private final ParseRequest request;
+        private final String pluginId;
+        private final Runnable parse;
+        private final CompletableFuture<Void> future;
+
+        ParseTask(ParseRequest request, String pluginId, Runnable parse, CompletableFuture<Void> future) {
+            this.request = request;
+            this.pluginId = pluginId;
+            this.parse = parse;
+            this.future = future;
+        }
+    }
+
+    private static class ParseRequest {
+        private final String fingerprint;
+        private final String revision;
+
+        ParseRequest(String fingerprint, String revision) {
+            this.fingerprint = fingerprint;
+            this.revision = revision;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ParseRequest that = (ParseRequest) o;
+            return Objects.equals(fingerprint, that.fingerprint) &&
+                    Objects.equals(revision, that.revision);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fingerprint, revision);
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class ConfigMaterialUpdateListenerFactory {
     private final MaterialService materialService;
     private final SubprocessExecutionContext subprocessExecutionContext;
     private final SystemEnvironment systemEnvironment;
+    private final ConfigMaterialParseExecutor parseExecutor;
 
     @Autowired
     public ConfigMaterialUpdateListenerFactory(SystemEnvironment systemEnvironment,
@@ -42,7 +43,8 @@ public class ConfigMaterialUpdateListenerFactory {
                                                MaterialRepository materialRepository,
                                                MaterialUpdateCompletedTopic materialUpdateCompletedTopic,
                                                MaterialService materialService,
-                                               SubprocessExecutionContext subprocessExecutionContext) {
+                                               SubprocessExecutionContext subprocessExecutionContext,
+                                               ConfigMaterialParseExecutor parseExecutor) {
         this.systemEnvironment = systemEnvironment;
         this.configMaterialPostUpdateQueue = configMaterialPostUpdateQueue;
         this.repoConfigDataSource = repoConfigDataSource;
@@ -50,6 +52,7 @@ public class ConfigMaterialUpdateListenerFactory {
         this.materialUpdateCompletedTopic = materialUpdateCompletedTopic;
         this.materialService = materialService;
         this.subprocessExecutionContext = subprocessExecutionContext;
+        this.parseExecutor = parseExecutor;
     }
 
     public void init() {
@@ -57,7 +60,7 @@ public class ConfigMaterialUpdateListenerFactory {
 
         range(0, numberOfConfigMaterialPostUpdateListeners).forEach(i ->
                 this.configMaterialPostUpdateQueue.addListener(new ConfigMaterialUpdateListener(repoConfigDataSource, materialRepository,
-                        materialUpdateCompletedTopic, materialService, subprocessExecutionContext))
+                        materialUpdateCompletedTopic, materialService, subprocessExecutionContext, parseExecutor))
         );
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.thoughtworks.go.domain.materials.Material;
+
+import java.util.Date;
+
+/**
+ * @understands a material update which has been posted to an update queue and has not completed yet
+ */
+public class InProgressMaterialUpdate {
+    private final Material material;
+    private final String queueName;
+    private final Date inProgressSince;
+    private final long sequence;
+    private final int queuePosition;
+    private final boolean beingUpdated;
+
+    InProgressMaterialUpdate(Material material, String queueName, Date inProgressSince, long sequence) {
+        this(material, queueName, inProgressSince, sequence, 0, false);
+    }
+
+    private InProgressMaterialUpdate(Material material, String queueName, Date inProgressSince, long sequence, int queuePosition, boolean beingUpdated) {
+        this.material = material;
+        this.queueName = queueName;
+        this.inProgressSince = inProgressSince;
+        this.sequence = sequence;
+        this.queuePosition = queuePosition;
+        this.beingUpdated = beingUpdated;
+    }
+
+    InProgressMaterialUpdate withQueuePosition(int queuePosition) {
+        return new InProgressMaterialUpdate(material, queueName, inProgressSince, sequence, queuePosition, false);
+    }
+
+    InProgressMaterialUpdate beingUpdated() {
+        return new InProgressMaterialUpdate(material, queueName, inProgressSince, sequence, 0, true);
+    }
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public Date getInProgressSince() {
+        return inProgressSince;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the position among the updates still waiting in the queue, 0 once a worker has picked the update up
+     */
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    public boolean isBeingUpdated() {
+        return beingUpdated;
+    }
+
+    public long ageInMillis(Date now) {
+        return now.getTime() - inProgressSince.getTime();
+    }
+
+    @Override
+    public String toString() {
+        return "InProgressMaterialUpdate{" +
+                "material=" + material +
+                ", queueName='" + queueName + '\'' +
+                ", inProgressSince=" + inProgressSince +
+                '}';
+    }
+}
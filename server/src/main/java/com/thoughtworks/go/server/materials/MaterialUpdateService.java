@@ -50,6 +50,7 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -73,7 +74,8 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
     private final SystemEnvironment systemEnvironment;
     private ServerHealthService serverHealthService;
 
-    private ConcurrentMap<Material, Date> inProgress = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, InProgressMaterialUpdate> inProgress = new ConcurrentHashMap<>();
+    private final AtomicLong inProgressSequence = new AtomicLong();
 
     private final PostCommitHookMaterialTypeResolver postCommitHookMaterialType;
     private final MDUPerformanceLogger mduPerformanceLogger;
@@ -172,20 +174,25 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
     }
 
     public boolean updateMaterial(Material material) {
-        Date inProgressSince = inProgress.putIfAbsent(material, new Date());
-        if (inProgressSince == null || !material.isAutoUpdate()) {
+        GoMessageQueue<MaterialUpdateMessage> queue = queueFor(material);
+        InProgressMaterialUpdate update = new InProgressMaterialUpdate(material, queueName(queue), new Date(), inProgressSequence.incrementAndGet());
+        String fingerprint = material.getFingerprint();
+        InProgressMaterialUpdate existing = fingerprint == null ? null : inProgress.putIfAbsent(fingerprint, update);
+        if (existing == null || !material.isAutoUpdate()) {
             LOGGER.debug("[Material Update] Starting update of material {}", material);
             try {
                 long trackingId = mduPerformanceLogger.materialSentToUpdateQueue(material);
-                queueFor(material).post(new MaterialUpdateMessage(material, trackingId));
+                queue.post(new MaterialUpdateMessage(material, trackingId));
 
                 return true;
             } catch (RuntimeException e) {
-                inProgress.remove(material);
+                if (fingerprint != null) {
+                    inProgress.remove(fingerprint, update);
+                }
                 throw e;
             }
         } else {
-            LOGGER.warn("[Material Update] Skipping update of material {} which has been in-progress since {}", material, inProgressSince);
+            LOGGER.warn("[Material Update] Skipping update of material {} which has been in-progress since {}", material, existing.getInProgressSince());
             long idleTime = getProcessManager().getIdleTimeFor(new MaterialFingerprintTag(material.getFingerprint()));
             if (idleTime > getMaterialUpdateInActiveTimeoutInMillis()) {
                 HealthStateScope scope = HealthStateScope.forMaterialUpdate(material);
@@ -213,16 +220,16 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
     @Override
     public void onMessage(MaterialUpdateCompletedMessage message) {
         if (message instanceof MaterialUpdateSkippedMessage) {
-            inProgress.remove(message.getMaterial());
+            removeFromInProgress(message.getMaterial());
             return;
         }
 
         try {
             LOGGER.debug("[Material Update] Material update completed for material {}", message.getMaterial());
 
-            Date addedOn = inProgress.remove(message.getMaterial());
+            InProgressMaterialUpdate removed = removeFromInProgress(message.getMaterial());
             serverHealthService.removeByScope(HealthStateScope.forMaterialUpdate(message.getMaterial()));
-            if (addedOn == null) {
+            if (removed == null) {
                 LOGGER.warn("[Material Update] Material {} was not removed from those inProgress. This might result in it's pipelines not getting scheduled. in-progress: {}", message.getMaterial(), inProgress);
             }
 
@@ -279,16 +286,49 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
         return (material instanceof DependencyMaterial) ? dependencyMaterialUpdateQueue : updateQueue;
     }
 
+    private String queueName(GoMessageQueue<MaterialUpdateMessage> queue) {
+        if (queue == configUpdateQueue) {
+            return "config";
+        }
+
+        return queue == dependencyMaterialUpdateQueue ? "dependency" : "material";
+    }
+
+    private InProgressMaterialUpdate removeFromInProgress(Material material) {
+        String fingerprint = material.getFingerprint();
+        return fingerprint == null ? null : inProgress.remove(fingerprint);
+    }
+
     ProcessManager getProcessManager() {
         return ProcessManager.getInstance();
     }
 
     public boolean isInProgress(Material material) {
-        for (Material m : this.inProgress.keySet()) {
-            if (m.isSameFlyweight(material))
-                return true;
+        String fingerprint = material.getFingerprint();
+        return fingerprint != null && inProgress.containsKey(fingerprint);
+    }
+
+    /**
+     * @return the material updates currently in progress, oldest first. Those still waiting in their queue come with
+     * their position among the other waiting updates of that queue.
+     */
+    public List<InProgressMaterialUpdate> inProgressMaterialUpdates() {
+        List<InProgressMaterialUpdate> updates = new ArrayList<>(inProgress.values());
+        updates.sort(Comparator.comparingLong(InProgressMaterialUpdate::getSequence));
+        Set<String> beingUpdated = maintenanceModeService.getRunningMDUs().stream()
+                .map(mdu -> mdu.getMaterial().getFingerprint())
+                .collect(Collectors.toSet());
+
+        Map<String, Integer> positionInQueue = new HashMap<>();
+        List<InProgressMaterialUpdate> result = new ArrayList<>();
+        for (InProgressMaterialUpdate update : updates) {
+            if (beingUpdated.contains(update.getMaterial().getFingerprint())) {
+                result.add(update.beingUpdated());
+            } else {
+                result.add(update.withQueuePosition(positionInQueue.merge(update.getQueueName(), 1, Integer::sum)));
+            }
         }
-        return false;
+        return result;
     }
 
     public void registerMaterialUpdateCompleteListener(MaterialUpdateCompleteListener materialUpdateCompleteListener) {
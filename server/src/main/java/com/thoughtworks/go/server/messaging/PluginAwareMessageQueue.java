@@ -27,14 +27,21 @@ import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 public class PluginAwareMessageQueue extends GoMessageQueue {
     protected final HashMap<String, ArrayList<JMSMessageListenerAdapter>> listeners = new HashMap<>();
     private final String pluginId;
+    private final PluginQueueBulkhead bulkhead;
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(PluginAwareMessageQueue.class.getName());
 
 
     public PluginAwareMessageQueue(MessagingService messaging, String pluginId, String queueName, Integer numberOfListeners, ListenerFactory listenerFactory) {
+        this(messaging, pluginId, queueName, numberOfListeners, listenerFactory, PluginQueueBulkhead.unbounded(queueName));
+    }
+
+    public PluginAwareMessageQueue(MessagingService messaging, String pluginId, String queueName, Integer numberOfListeners, ListenerFactory listenerFactory,
+                                   PluginQueueBulkhead bulkhead) {
         super(messaging, queueName);
         this.pluginId = pluginId;
+        this.bulkhead = bulkhead;
         for (int i = 0; i < numberOfListeners; i++) {
-            JMSMessageListenerAdapter listenerAdapter = this.addListener(listenerFactory.create());
+            JMSMessageListenerAdapter listenerAdapter = this.addListener(bulkhead.guard(listenerFactory.create()));
             if (!listeners.containsKey(pluginId)) {
                 this.listeners.put(pluginId, new ArrayList<>());
             }
@@ -42,6 +49,32 @@ public class PluginAwareMessageQueue extends GoMessageQueue {
         }
     }
 
+    @Override
+    public void post(GoMessage message) {
+        post(message, 0);
+    }
+
+    @Override
+    public void post(GoMessage message, long timeToLive) {
+        if (!bulkhead.tryEnqueue(timeToLive)) {
+            return;
+        }
+        try {
+            if (timeToLive > 0) {
+                super.post(message, timeToLive);
+            } else {
+                super.post(message);
+            }
+        } catch (RuntimeException e) {
+            bulkhead.notEnqueued();
+            throw e;
+        }
+    }
+
+    public PluginQueueBulkhead bulkhead() {
+        return bulkhead;
+    }
+
     @Override
     public void stop() {
         super.stop();
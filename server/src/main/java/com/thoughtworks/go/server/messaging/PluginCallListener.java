@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging;
+
+/**
+ * @understands listening on a plugin's queue while dealing with failed plugin calls itself, yet telling its caller
+ * whether the call to the plugin succeeded, so that a {@link PluginQueueBulkhead} can count the failures
+ */
+public interface PluginCallListener<T extends GoMessage> extends GoMessageListener<T> {
+    /**
+     * @return true if the plugin handled the message successfully
+     */
+    boolean callPlugin(T message);
+
+    @Override
+    default void onMessage(T message) {
+        callPlugin(message);
+    }
+}
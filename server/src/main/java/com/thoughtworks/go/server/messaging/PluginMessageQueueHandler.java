@@ -22,6 +22,7 @@ import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
@@ -63,6 +64,15 @@ public abstract class PluginMessageQueueHandler<T extends PluginAwareMessage> im
         }
     }
 
+    /**
+     * @return the bulkhead of each plugin's queue, by plugin id
+     */
+    public Map<String, PluginQueueBulkhead> bulkheads() {
+        Map<String, PluginQueueBulkhead> bulkheads = new TreeMap<>();
+        queues.forEach((pluginId, queue) -> bulkheads.put(pluginId, queue.bulkhead()));
+        return bulkheads;
+    }
+
     public void post(T message, long timeToLive) {
         String pluginId = message.pluginId();
         try {
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TimingStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @understands keeping a slow or failing plugin from piling up work in its queue: bounds how many messages may wait
+ * in the queue, and stops sending messages to the plugin for a while once too many calls to it in a row fail or take
+ * longer than the call timeout.
+ * <p>
+ * Calls into a plugin cannot be safely interrupted, so a call that takes longer than the timeout is allowed to finish
+ * and is counted as a failure. A call fails when the listener throws or, for a {@link PluginCallListener}, when it
+ * reports the failure. Once the open interval is over, one trial call goes to the plugin while the other listeners
+ * wait for its outcome. A limit or threshold of zero turns that check off.
+ */
+public class PluginQueueBulkhead {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PluginQueueBulkhead.class);
+
+    private final String queueName;
+    private final int maxPendingMessages;
+    private final long callTimeoutInMillis;
+    private final int failureThreshold;
+    private final long openIntervalInMillis;
+    private final LongSupplier clock;
+
+    private final Deque<Long> pendingExpiries = new ArrayDeque<>();
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialCallInProgress;
+
+    private final TimingStatistics calls = new TimingStatistics();
+    private final AtomicLong slowCallCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong circuitOpenedCount = new AtomicLong();
+
+    public PluginQueueBulkhead(String queueName, int maxPendingMessages, long callTimeoutInMillis, int failureThreshold, long openIntervalInMillis) {
+        this(queueName, maxPendingMessages, callTimeoutInMillis, failureThreshold, openIntervalInMillis, System::currentTimeMillis);
+    }
+
+    PluginQueueBulkhead(String queueName, int maxPendingMessages, long callTimeoutInMillis, int failureThreshold, long openIntervalInMillis, LongSupplier clock) {
+        this.queueName = queueName;
+        this.maxPendingMessages = maxPendingMessages;
+        this.callTimeoutInMillis = callTimeoutInMillis;
+        this.failureThreshold = failureThreshold;
+        this.openIntervalInMillis = openIntervalInMillis;
+        this.clock = clock;
+    }
+
+    public static PluginQueueBulkhead forPlugin(SystemEnvironment systemEnvironment, String pluginId, String queueName) {
+        return new PluginQueueBulkhead(queueName,
+                systemEnvironment.getPluginQueueMaxPendingMessages(pluginId),
+                systemEnvironment.getPluginQueueCallTimeoutInMillis(pluginId),
+                systemEnvironment.getPluginQueueCircuitBreakerFailureThreshold(pluginId),
+                systemEnvironment.getPluginQueueCircuitBreakerOpenIntervalInMillis(pluginId));
+    }
+
+    public static PluginQueueBulkhead unbounded(String queueName) {
+        return new PluginQueueBulkhead(queueName, 0, 0, 0, 0);
+    }
+
+    /**
+     * Called before a message is put on the queue.
+     *
+     * @return false if the message should be dropped, as the queue is full or the plugin is not being called
+     */
+    synchronized boolean tryEnqueue(long timeToLive) {
+        long now = clock.getAsLong();
+        if (isOpen(now)) {
+            rejectedCount.incrementAndGet();
+            LOGGER.debug("Not queueing message on {} as calls to the plugin have been failing", queueName);
+            return false;
+        }
+        discardExpired(now);
+        if (maxPendingMessages > 0 && pendingExpiries.size() >= maxPendingMessages) {
+            rejectedCount.incrementAndGet();
+            LOGGER.warn("Not queueing message on {} as it already has {} messages waiting", queueName, pendingExpiries.size());
+            return false;
+        }
+        pendingExpiries.addLast(timeToLive > 0 ? now + timeToLive : Long.MAX_VALUE);
+        return true;
+    }
+
+    synchronized void notEnqueued() {
+        pendingExpiries.pollLast();
+    }
+
+    <T extends GoMessage> GoMessageListener<T> guard(GoMessageListener<T> listener) {
+        return new BulkheadListener<>(listener);
+    }
+
+    private synchronized boolean dequeued() {
+        pendingExpiries.pollFirst();
+        while (true) {
+            if (isOpen(clock.getAsLong())) {
+                return false;
+            }
+            if (openUntil == 0) {
+                return true;
+            }
+            if (!trialCallInProgress) {
+                trialCallInProgress = true;
+                return true;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private synchronized void called(long timeInMillis, boolean failed) {
+        calls.record(timeInMillis, failed);
+        boolean slow = callTimeoutInMillis > 0 && timeInMillis > callTimeoutInMillis;
+        if (slow) {
+            slowCallCount.incrementAndGet();
+        }
+
+        if (!failed && !slow) {
+            if (openUntil != 0) {
+                LOGGER.info("Calls to the plugin on {} have recovered, resuming", queueName);
+            }
+            consecutiveFailures = 0;
+            openUntil = 0;
+        } else {
+            consecutiveFailures++;
+            if (failureThreshold > 0 && (trialCallInProgress || consecutiveFailures >= failureThreshold)) {
+                openUntil = clock.getAsLong() + openIntervalInMillis;
+                circuitOpenedCount.incrementAndGet();
+                LOGGER.warn("{} calls in a row to the plugin on {} have failed or taken longer than {}ms. Not calling it for the next {}ms",
+                        consecutiveFailures, queueName, callTimeoutInMillis, openIntervalInMillis);
+            }
+        }
+        trialCallInProgress = false;
+        notifyAll();
+    }
+
+    private boolean isOpen(long now) {
+        return openUntil != 0 && now < openUntil;
+    }
+
+    private void discardExpired(long now) {
+        while (!pendingExpiries.isEmpty() && pendingExpiries.peekFirst() <= now) {
+            pendingExpiries.pollFirst();
+        }
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public synchronized int getPendingMessages() {
+        discardExpired(clock.getAsLong());
+        return pendingExpiries.size();
+    }
+
+    public synchronized boolean isCircuitOpen() {
+        return isOpen(clock.getAsLong());
+    }
+
+    public TimingStatistics getCalls() {
+        return calls;
+    }
+
+    public long getSlowCallCount() {
+        return slowCallCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getCircuitOpenedCount() {
+        return circuitOpenedCount.get();
+    }
+
+    private class BulkheadListener<T extends GoMessage> implements GoMessageListener<T> {
+        private final GoMessageListener<T> listener;
+
+        BulkheadListener(GoMessageListener<T> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onMessage(T message) {
+            if (!dequeued()) {
+                skippedCount.incrementAndGet();
+                LOGGER.debug("Skipping message {} on {} as calls to the plugin have been failing", message, queueName);
+                return;
+            }
+
+            long start = clock.getAsLong();
+            boolean failed = true;
+            try {
+                if (listener instanceof PluginCallListener) {
+                    failed = !((PluginCallListener<T>) listener).callPlugin(message);
+                } else {
+                    listener.onMessage(message);
+                    failed = false;
+                }
+            } finally {
+                called(clock.getAsLong() - start, failed);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return listener.toString();
+        }
+    }
+}
@@ -21,13 +21,23 @@ import com.thoughtworks.go.server.messaging.GoMessageListener;
 public class CreateAgentListener implements GoMessageListener<CreateAgentMessage> {
 
     private final ElasticAgentPluginRegistry elasticAgentPluginRegistry;
+    private final PendingAgentCreations pendingAgentCreations;
 
-    public CreateAgentListener(ElasticAgentPluginRegistry elasticAgentPluginRegistry) {
+    public CreateAgentListener(ElasticAgentPluginRegistry elasticAgentPluginRegistry, PendingAgentCreations pendingAgentCreations) {
         this.elasticAgentPluginRegistry = elasticAgentPluginRegistry;
+        this.pendingAgentCreations = pendingAgentCreations;
     }
 
     @Override
     public void onMessage(CreateAgentMessage message) {
-        elasticAgentPluginRegistry.createAgent(message.pluginId(), message.autoregisterKey(), message.environment(), message.configuration(), message.getClusterProfileConfiguration(), message.jobIdentifier());
+        pendingAgentCreations.creating(message.jobIdentifier() == null ? null : message.jobIdentifier().getBuildId());
+        long start = System.currentTimeMillis();
+        boolean failed = true;
+        try {
+            elasticAgentPluginRegistry.createAgent(message.pluginId(), message.autoregisterKey(), message.environment(), message.configuration(), message.getClusterProfileConfiguration(), message.jobIdentifier());
+            failed = false;
+        } finally {
+            pendingAgentCreations.created(System.currentTimeMillis() - start, failed);
+        }
     }
 }
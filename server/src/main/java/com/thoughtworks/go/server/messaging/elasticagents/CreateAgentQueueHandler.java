@@ -29,15 +29,19 @@ public class CreateAgentQueueHandler extends PluginMessageQueueHandler<CreateAge
     final static String QUEUE_NAME_PREFIX = CreateAgentQueueHandler.class.getSimpleName() + ".";
 
     @Autowired
-    public CreateAgentQueueHandler(final MessagingService messaging, final ElasticAgentPluginRegistry elasticAgentPluginRegistry, ElasticAgentExtension elasticAgentExtension, PluginManager pluginManager, final SystemEnvironment systemEnvironment) {
+    public CreateAgentQueueHandler(final MessagingService messaging, final ElasticAgentPluginRegistry elasticAgentPluginRegistry, ElasticAgentExtension elasticAgentExtension, PluginManager pluginManager, final SystemEnvironment systemEnvironment,
+                                   final PendingAgentCreations pendingAgentCreations) {
         super(elasticAgentExtension, messaging, pluginManager, new QueueFactory() {
             @Override
             public PluginAwareMessageQueue create(GoPluginDescriptor pluginDescriptor) {
-                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(), QUEUE_NAME_PREFIX + pluginDescriptor.id(), systemEnvironment.get(SystemEnvironment.GO_ELASTIC_PLUGIN_CREATE_AGENT_THREADS), listener());
+                String queueName = QUEUE_NAME_PREFIX + pluginDescriptor.id();
+                int listenerCount = systemEnvironment.getListenerCountForPluginQueue(pluginDescriptor.id(), "createagent", systemEnvironment.get(SystemEnvironment.GO_ELASTIC_PLUGIN_CREATE_AGENT_THREADS));
+                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(), queueName, listenerCount, listener(),
+                        PluginQueueBulkhead.forPlugin(systemEnvironment, pluginDescriptor.id(), queueName));
             }
 
             public ListenerFactory listener() {
-                return () -> new CreateAgentListener(elasticAgentPluginRegistry);
+                return () -> new CreateAgentListener(elasticAgentPluginRegistry, pendingAgentCreations);
             }
         });
     }
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.elasticagents;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TimingStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @understands which jobs have asked an elastic agent plugin for an agent which the plugin has not yet been called
+ * for, and holds back further requests for a kind of agent once too many of that kind are outstanding.
+ * <p>
+ * A kind of agent is a combination of cluster profile, elastic profile and environment. Held back jobs are asked for
+ * again as soon as earlier requests of their kind have reached the plugin, or have expired from the queue unread.
+ */
+@Component
+public class PendingAgentCreations {
+    private final int maxOutstandingPerKind;
+    private final LongSupplier clock;
+
+    private final Map<Long, Request> outstanding = new HashMap<>();
+    private final Map<AgentKind, Integer> outstandingByKind = new HashMap<>();
+    private final Map<Long, AgentKind> deferred = new LinkedHashMap<>();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final TimingStatistics waits = new TimingStatistics();
+    private final TimingStatistics creates = new TimingStatistics();
+
+    @Autowired
+    public PendingAgentCreations(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.get(SystemEnvironment.GO_ELASTIC_PLUGIN_CREATE_AGENT_MAX_PENDING_PER_PROFILE), System::currentTimeMillis);
+    }
+
+    public PendingAgentCreations(int maxOutstandingPerKind, LongSupplier clock) {
+        this.maxOutstandingPerKind = maxOutstandingPerKind;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if a request for an agent for this job should be posted now. If not, the request is either a
+     * duplicate of one which is still outstanding, or has been held back until there is room for it.
+     */
+    public synchronized boolean tryRequest(long jobId, String clusterProfileId, String elasticProfileId, String environment, long timeToLive) {
+        long now = clock.getAsLong();
+        discardExpired(now);
+        if (outstanding.containsKey(jobId)) {
+            collapsedCount.incrementAndGet();
+            return false;
+        }
+
+        AgentKind kind = new AgentKind(clusterProfileId, elasticProfileId, environment);
+        if (maxOutstandingPerKind > 0 && outstandingByKind.getOrDefault(kind, 0) >= maxOutstandingPerKind) {
+            if (deferred.put(jobId, kind) == null) {
+                deferredCount.incrementAndGet();
+            }
+            return false;
+        }
+
+        deferred.remove(jobId);
+        outstanding.put(jobId, new Request(kind, now, timeToLive > 0 ? now + timeToLive : now));
+        outstandingByKind.merge(kind, 1, Integer::sum);
+        requestCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return the jobs which were held back and are still waiting for an agent, in the order they were held back
+     */
+    public synchronized Set<Long> deferredJobs() {
+        return new LinkedHashSet<>(deferred.keySet());
+    }
+
+    /**
+     * Forgets held back jobs which no longer need an agent, such as those which have been assigned or cancelled.
+     */
+    public synchronized void retainDeferredJobs(Collection<Long> jobIdsStillScheduled) {
+        deferred.keySet().retainAll(new HashSet<>(jobIdsStillScheduled));
+    }
+
+    void creating(Long jobId) {
+        if (jobId == null) {
+            return;
+        }
+        Request request;
+        synchronized (this) {
+            request = outstanding.remove(jobId);
+            if (request != null) {
+                outstandingByKind.computeIfPresent(request.kind, (kind, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+        if (request != null) {
+            waits.record(clock.getAsLong() - request.requestedAt);
+        }
+    }
+
+    void created(long timeInMillis, boolean failed) {
+        creates.record(timeInMillis, failed);
+    }
+
+    private void discardExpired(long now) {
+        Iterator<Request> requests = outstanding.values().iterator();
+        while (requests.hasNext()) {
+            Request request = requests.next();
+            if (request.expiresAt <= now) {
+                requests.remove();
+                outstandingByKind.computeIfPresent(request.kind, (kind, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * @return for each kind of agent, how many requests are outstanding and held back, and how long the oldest
+     * outstanding request has waited
+     */
+    public synchronized Map<String, Map<String, Object>> pendingByKind() {
+        long now = clock.getAsLong();
+        discardExpired(now);
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        outstanding.values().forEach(request -> {
+            Map<String, Object> json = kindJson(result, request.kind);
+            json.merge("Outstanding", 1, (a, b) -> (Integer) a + (Integer) b);
+            json.merge("Oldest Outstanding in milliseconds", now - request.requestedAt, (a, b) -> Math.max((Long) a, (Long) b));
+        });
+        deferred.values().forEach(kind -> kindJson(result, kind).merge("Held Back", 1, (a, b) -> (Integer) a + (Integer) b));
+        return result;
+    }
+
+    private Map<String, Object> kindJson(Map<String, Map<String, Object>> result, AgentKind kind) {
+        return result.computeIfAbsent(kind.toString(), k -> {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("Outstanding", 0);
+            json.put("Held Back", 0);
+            json.put("Oldest Outstanding in milliseconds", 0L);
+            return json;
+        });
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    /**
+     * @return how long requests waited in the queue before the plugin was called for them
+     */
+    public TimingStatistics getWaits() {
+        return waits;
+    }
+
+    public TimingStatistics getCreates() {
+        return creates;
+    }
+
+    private static class Request {
+        private final AgentKind kind;
+        private final long requestedAt;
+        private final long expiresAt;
+
+        Request(AgentKind kind, long requestedAt, long expiresAt) {
+            this.kind = kind;
+            this.requestedAt = requestedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class AgentKind {
+        private final String clusterProfileId;
+        private final String elasticProfileId;
+        private final String environment;
+
+        AgentKind(String clusterProfileId, String elasticProfileId, String environment) {
+            this.clusterProfileId = clusterProfileId;
+            this.elasticProfileId = elasticProfileId;
+            this.environment = environment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AgentKind that = (AgentKind) o;
+            return Objects.equals(clusterProfileId, that.clusterProfileId) &&
+                    Objects.equals(elasticProfileId, that.elasticProfileId) &&
+                    Objects.equals(environment, that.environment);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clusterProfileId, elasticProfileId, environment);
+        }
+
+        @Override
+        public String toString() {
+            return clusterProfileId + "/" + elasticProfileId + (environment == null ? "" : " in " + environment);
+        }
+    }
+}
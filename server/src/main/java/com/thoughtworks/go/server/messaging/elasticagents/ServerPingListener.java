@@ -21,14 +21,24 @@ import com.thoughtworks.go.server.messaging.GoMessageListener;
 public class ServerPingListener implements GoMessageListener<ServerPingMessage> {
 
     private final ElasticAgentPluginRegistry elasticAgentPluginRegistry;
+    private final ServerPingStatistics serverPingStatistics;
 
-    public ServerPingListener(ElasticAgentPluginRegistry elasticAgentPluginRegistry) {
+    public ServerPingListener(ElasticAgentPluginRegistry elasticAgentPluginRegistry, ServerPingStatistics serverPingStatistics) {
         this.elasticAgentPluginRegistry = elasticAgentPluginRegistry;
+        this.serverPingStatistics = serverPingStatistics;
     }
 
     @Override
     public void onMessage(final ServerPingMessage message) {
-        elasticAgentPluginRegistry.serverPing(message.pluginId(), message.getClusterProfilesAsConfigList());
+        serverPingStatistics.pinging(message.pluginId());
+        long start = System.currentTimeMillis();
+        boolean failed = true;
+        try {
+            elasticAgentPluginRegistry.serverPing(message.pluginId(), message.getClusterProfilesAsConfigList());
+            failed = false;
+        } finally {
+            serverPingStatistics.pinged(message.pluginId(), System.currentTimeMillis() - start, failed);
+        }
     }
 
 }
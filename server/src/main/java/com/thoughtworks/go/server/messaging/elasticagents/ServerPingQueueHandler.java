@@ -21,24 +21,45 @@ import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.messaging.*;
 import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ServerPingQueueHandler extends PluginMessageQueueHandler<ServerPingMessage> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerPingQueueHandler.class);
     final static String QUEUE_NAME_PREFIX = ServerPingQueueHandler.class.getSimpleName() + ".";
+    private final ServerPingStatistics serverPingStatistics;
 
     @Autowired
-    public ServerPingQueueHandler(final MessagingService messaging, final ElasticAgentPluginRegistry elasticAgentPluginRegistry, ElasticAgentExtension elasticAgentExtension, PluginManager pluginManager, final SystemEnvironment systemEnvironment) {
+    public ServerPingQueueHandler(final MessagingService messaging, final ElasticAgentPluginRegistry elasticAgentPluginRegistry, ElasticAgentExtension elasticAgentExtension, PluginManager pluginManager, final SystemEnvironment systemEnvironment,
+                                  final ServerPingStatistics serverPingStatistics) {
         super(elasticAgentExtension, messaging, pluginManager, new QueueFactory() {
             @Override
             public PluginAwareMessageQueue create(GoPluginDescriptor pluginDescriptor) {
-                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(), QUEUE_NAME_PREFIX + pluginDescriptor.id(), systemEnvironment.get(SystemEnvironment.GO_ELASTIC_PLUGIN_SERVER_PING_THREADS), listener());
+                String queueName = QUEUE_NAME_PREFIX + pluginDescriptor.id();
+                int listenerCount = systemEnvironment.getListenerCountForPluginQueue(pluginDescriptor.id(), "serverping", systemEnvironment.get(SystemEnvironment.GO_ELASTIC_PLUGIN_SERVER_PING_THREADS));
+                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(), queueName, listenerCount, listener(),
+                        PluginQueueBulkhead.forPlugin(systemEnvironment, pluginDescriptor.id(), queueName));
             }
 
             public ListenerFactory listener() {
-                return () -> new ServerPingListener(elasticAgentPluginRegistry);
+                return () -> new ServerPingListener(elasticAgentPluginRegistry, serverPingStatistics);
             }
         });
+        this.serverPingStatistics = serverPingStatistics;
+    }
+
+    @Override
+    public void post(ServerPingMessage message, long timeToLive) {
+        if (!serverPingStatistics.tryPost(message.pluginId(), timeToLive)) {
+            LOGGER.debug("Not pinging plugin {} as it has not finished handling the previous ping", message.pluginId());
+            return;
+        }
+        if (!queues.containsKey(message.pluginId())) {
+            serverPingStatistics.notPosted(message.pluginId());
+        }
+        super.post(message, timeToLive);
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.elasticagents;
+
+import com.thoughtworks.go.util.TimingStatistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @understands how long each elastic agent plugin takes to handle a server ping, and whether a ping to a plugin is
+ * still waiting in the queue or being handled, so that pings do not pile up behind a slow plugin
+ */
+@Component
+public class ServerPingStatistics {
+    private final ConcurrentMap<String, PluginPings> pings = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public ServerPingStatistics() {
+        this(System::currentTimeMillis);
+    }
+
+    ServerPingStatistics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return false if the previous ping to the plugin has neither been handled nor expired from the queue yet
+     */
+    boolean tryPost(String pluginId, long timeToLive) {
+        return pings(pluginId).tryPost(clock.getAsLong(), timeToLive);
+    }
+
+    void pinging(String pluginId) {
+        pings(pluginId).pinging();
+    }
+
+    void pinged(String pluginId, long timeInMillis, boolean failed) {
+        pings(pluginId).pinged(clock.getAsLong(), timeInMillis, failed);
+    }
+
+    void notPosted(String pluginId) {
+        pings(pluginId).done();
+    }
+
+    public Map<String, PluginPings> statistics() {
+        return new TreeMap<>(pings);
+    }
+
+    private PluginPings pings(String pluginId) {
+        return pings.computeIfAbsent(pluginId, id -> new PluginPings());
+    }
+
+    public static class PluginPings extends TimingStatistics {
+        private final AtomicLong skippedCount = new AtomicLong();
+        private volatile long lastSuccessAt;
+        private long pendingUntil;
+        private boolean inProgress;
+
+        synchronized boolean tryPost(long now, long timeToLive) {
+            if (inProgress || now < pendingUntil) {
+                skippedCount.incrementAndGet();
+                return false;
+            }
+            pendingUntil = now + Math.max(timeToLive, 0);
+            return true;
+        }
+
+        synchronized void pinging() {
+            inProgress = true;
+            pendingUntil = 0;
+        }
+
+        synchronized void done() {
+            inProgress = false;
+            pendingUntil = 0;
+        }
+
+        void pinged(long now, long timeInMillis, boolean failed) {
+            done();
+            record(timeInMillis, failed);
+            if (!failed) {
+                lastSuccessAt = now;
+            }
+        }
+
+        public long getSkippedCount() {
+            return skippedCount.get();
+        }
+
+        public long getLastSuccessAt() {
+            return lastSuccessAt;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * @understands collecting notifications for a plugin into one message, which is posted once it has enough
+ * notifications in it or once its oldest notification has waited long enough, whichever comes first
+ */
+class PluginNotificationBatches {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PluginNotificationBatches.class);
+
+    private final int batchSize;
+    private final long intervalInMillis;
+    private final ScheduledExecutorService scheduler;
+    private final BiConsumer<PluginNotificationMessage, Long> poster;
+    private final PluginNotificationQueueStatistics statistics;
+    private final Map<BatchKey, Batch> batches = new HashMap<>();
+
+    PluginNotificationBatches(int batchSize, long intervalInMillis, ScheduledExecutorService scheduler,
+                              BiConsumer<PluginNotificationMessage, Long> poster, PluginNotificationQueueStatistics statistics) {
+        this.batchSize = batchSize;
+        this.intervalInMillis = intervalInMillis;
+        this.scheduler = scheduler;
+        this.poster = poster;
+        this.statistics = statistics;
+    }
+
+    void add(PluginNotificationMessage<?> message, long timeToLive) {
+        BatchKey key = new BatchKey(message.pluginId(), message.getRequestName());
+        Batch full = null;
+        synchronized (batches) {
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                batch = new Batch(key, message.getCreatedAt(), timeToLive);
+                batches.put(key, batch);
+                Batch scheduled = batch;
+                scheduler.schedule(() -> flush(scheduled), intervalInMillis, MILLISECONDS);
+            }
+            batch.notifications.add(message.getData());
+            if (batch.notifications.size() >= batchSize) {
+                batches.remove(key);
+                full = batch;
+            }
+        }
+        statistics.batched(key.pluginId, 1);
+        if (full != null) {
+            post(full);
+        }
+    }
+
+    void flushAll() {
+        List<Batch> pending;
+        synchronized (batches) {
+            pending = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+        pending.forEach(this::post);
+    }
+
+    void flush(String pluginId) {
+        List<Batch> pending = new ArrayList<>();
+        synchronized (batches) {
+            batches.values().removeIf(batch -> {
+                if (batch.key.pluginId.equals(pluginId)) {
+                    pending.add(batch);
+                    return true;
+                }
+                return false;
+            });
+        }
+        pending.forEach(this::post);
+    }
+
+    private void flush(Batch batch) {
+        synchronized (batches) {
+            if (batches.get(batch.key) != batch) {
+                return;
+            }
+            batches.remove(batch.key);
+        }
+        post(batch);
+    }
+
+    private void post(Batch batch) {
+        statistics.batchPosted(batch.key.pluginId, batch.notifications.size());
+        try {
+            poster.accept(new PluginNotificationMessage<>(batch.key.pluginId, batch.key.requestName, batch.notifications, batch.createdAt), batch.timeToLive);
+        } catch (Exception e) {
+            LOGGER.error("Failed while posting {} {} notifications for plugin {}", batch.notifications.size(), batch.key.requestName, batch.key.pluginId, e);
+        }
+    }
+
+    private static class Batch {
+        private final BatchKey key;
+        private final long createdAt;
+        private final long timeToLive;
+        private final ArrayList<Serializable> notifications = new ArrayList<>();
+
+        Batch(BatchKey key, long createdAt, long timeToLive) {
+            this.key = key;
+            this.createdAt = createdAt;
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    private static class BatchKey {
+        private final String pluginId;
+        private final String requestName;
+
+        BatchKey(String pluginId, String requestName) {
+            this.pluginId = pluginId;
+            this.requestName = requestName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BatchKey that = (BatchKey) o;
+            return Objects.equals(pluginId, that.pluginId) &&
+                    Objects.equals(requestName, that.requestName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pluginId, requestName);
+        }
+    }
+}
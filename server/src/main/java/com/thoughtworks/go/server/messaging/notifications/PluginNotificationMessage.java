@@ -24,11 +24,17 @@ public class PluginNotificationMessage<T extends Serializable> implements Plugin
     private String pluginId;
     private final String requestName;
     private final T data;
+    private final long createdAt;
 
     public PluginNotificationMessage(String pluginId, String requestName, T data) {
+        this(pluginId, requestName, data, System.currentTimeMillis());
+    }
+
+    public PluginNotificationMessage(String pluginId, String requestName, T data, long createdAt) {
         this.pluginId = pluginId;
         this.requestName = requestName;
         this.data = data;
+        this.createdAt = createdAt;
     }
 
     public String getRequestName() {
@@ -39,6 +45,13 @@ public class PluginNotificationMessage<T extends Serializable> implements Plugin
         return data;
     }
 
+    /**
+     * @return when the (oldest) notification in this message was raised, not part of the identity of the message
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
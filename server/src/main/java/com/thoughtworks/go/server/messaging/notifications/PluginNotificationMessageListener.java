@@ -17,7 +17,7 @@ package com.thoughtworks.go.server.messaging.notifications;
 
 import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
 import com.thoughtworks.go.plugin.api.response.Result;
-import com.thoughtworks.go.server.messaging.GoMessageListener;
+import com.thoughtworks.go.server.messaging.PluginCallListener;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.HealthStateType;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
@@ -26,24 +26,36 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PluginNotificationMessageListener implements GoMessageListener<PluginNotificationMessage> {
+import java.util.Collection;
+
+public class PluginNotificationMessageListener implements PluginCallListener<PluginNotificationMessage> {
     private NotificationExtension notificationExtension;
     private ServerHealthService serverHealthService;
+    private final PluginNotificationQueueStatistics statistics;
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginNotificationMessageListener.class);
 
     public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService) {
+        this(notificationExtension, serverHealthService, new PluginNotificationQueueStatistics());
+    }
+
+    public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService,
+                                             PluginNotificationQueueStatistics statistics) {
         this.notificationExtension = notificationExtension;
         this.serverHealthService = serverHealthService;
+        this.statistics = statistics;
     }
 
     @Override
-    public void onMessage(PluginNotificationMessage message) {
+    public boolean callPlugin(PluginNotificationMessage message) {
         HealthStateScope scope = HealthStateScope.aboutPlugin(message.pluginId());
+        long lag = System.currentTimeMillis() - message.getCreatedAt();
+        boolean failed = true;
         try {
             LOGGER.debug("Sending {} notification message {} for plugin {}", message.getRequestName(), message, message.pluginId());
             Result result = notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData());
 
             if (result.isSuccessful()) {
+                failed = false;
                 serverHealthService.removeByScope(scope);
                 LOGGER.debug("Successfully sent {} notification message {} for plugin {}", message.getRequestName(), message, message.pluginId());
             } else {
@@ -53,7 +65,14 @@ public class PluginNotificationMessageListener implements GoMessageListener<Plug
         } catch (Exception e) {
             String errorDescription = e.getMessage() == null ? "Unknown error" : e.getMessage();
             handlePluginNotifyError(message.pluginId(), scope, errorDescription, e);
+        } finally {
+            statistics.delivered(message.pluginId(), notificationCount(message), lag, failed);
         }
+        return !failed;
+    }
+
+    private int notificationCount(PluginNotificationMessage message) {
+        return message.getData() instanceof Collection ? ((Collection<?>) message.getData()).size() : 1;
     }
 
     private void handlePluginNotifyError(String pluginId, HealthStateScope scope, String errorDescription, Exception e) {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import com.thoughtworks.go.util.TimingStatistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @understands how far behind the notification plugins are: how long notifications waited before being delivered to
+ * each plugin, and how many were delivered
+ */
+public class PluginNotificationQueueStatistics {
+    private final ConcurrentMap<String, QueueStatistics> statistics = new ConcurrentHashMap<>();
+
+    void delivered(String pluginId, int notificationCount, long lagInMillis, boolean failed) {
+        statistics.computeIfAbsent(pluginId, id -> new QueueStatistics()).record(notificationCount, Math.max(lagInMillis, 0), failed);
+    }
+
+    void batched(String pluginId, int notificationCount) {
+        statistics.computeIfAbsent(pluginId, id -> new QueueStatistics()).pendingInBatches.addAndGet(notificationCount);
+    }
+
+    void batchPosted(String pluginId, int notificationCount) {
+        statistics.computeIfAbsent(pluginId, id -> new QueueStatistics()).pendingInBatches.addAndGet(-notificationCount);
+    }
+
+    public Map<String, QueueStatistics> statistics() {
+        return new TreeMap<>(statistics);
+    }
+
+    /**
+     * Times are how long messages waited before being delivered.
+     */
+    public static class QueueStatistics extends TimingStatistics {
+        private final AtomicLong notificationCount = new AtomicLong();
+        private final AtomicLong pendingInBatches = new AtomicLong();
+
+        void record(int notifications, long lagInMillis, boolean failed) {
+            record(lagInMillis, failed);
+            notificationCount.addAndGet(notifications);
+        }
+
+        public long getNotificationCount() {
+            return notificationCount.get();
+        }
+
+        public long getPendingInBatches() {
+            return pendingInBatches.get();
+        }
+    }
+}
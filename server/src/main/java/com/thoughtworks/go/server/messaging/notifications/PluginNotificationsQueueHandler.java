@@ -15,36 +15,99 @@
  */
 package com.thoughtworks.go.server.messaging.notifications;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.messaging.*;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 @Component
 public class PluginNotificationsQueueHandler extends PluginMessageQueueHandler<PluginNotificationMessage> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PluginNotificationsQueueHandler.class);
     private final static String QUEUE_NAME_PREFIX = PluginNotificationsQueueHandler.class.getSimpleName() + ".";
+    private final NotificationExtension notificationExtension;
+    private final PluginNotificationQueueStatistics statistics;
+    private final PluginNotificationBatches batches;
 
     @Autowired
     public PluginNotificationsQueueHandler(final MessagingService messaging, NotificationExtension notificationExtension,
         PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
+        this(messaging, notificationExtension, pluginManager, systemEnvironment, serverHealthService, new PluginNotificationQueueStatistics());
+    }
+
+    private PluginNotificationsQueueHandler(final MessagingService messaging, NotificationExtension notificationExtension,
+        PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService,
+        final PluginNotificationQueueStatistics statistics) {
         super(notificationExtension, messaging, pluginManager, new QueueFactory() {
             @Override
             public PluginAwareMessageQueue create(GoPluginDescriptor pluginDescriptor) {
-                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(),
-                QUEUE_NAME_PREFIX + pluginDescriptor.id(),
-                 systemEnvironment.getNotificationListenerCountForPlugin(pluginDescriptor.id()), listener());
+                String queueName = QUEUE_NAME_PREFIX + pluginDescriptor.id();
+                return new PluginAwareMessageQueue(messaging, pluginDescriptor.id(), queueName,
+                        systemEnvironment.getNotificationListenerCountForPlugin(pluginDescriptor.id()), listener(),
+                        PluginQueueBulkhead.forPlugin(systemEnvironment, pluginDescriptor.id(), queueName));
             }
 
             public ListenerFactory listener() {
-                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService, statistics);
             }
         });
+        this.notificationExtension = notificationExtension;
+        this.statistics = statistics;
+        this.batches = systemEnvironment.getNotificationPluginBatchSize() > 1 ? batches(systemEnvironment) : null;
+    }
+
+    private PluginNotificationBatches batches(SystemEnvironment systemEnvironment) {
+        return new PluginNotificationBatches(systemEnvironment.getNotificationPluginBatchSize(),
+                systemEnvironment.getNotificationPluginBatchIntervalInMillis(),
+                Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("plugin-notification-batches-%d").setDaemon(true).build()),
+                super::post, statistics);
+    }
+
+    @Override
+    public void post(PluginNotificationMessage message, long timeToLive) {
+        if (batches != null && supportsBatchNotifications(message.pluginId())) {
+            batches.add(message, timeToLive);
+        } else {
+            super.post(message, timeToLive);
+        }
+    }
+
+    @Override
+    public void pluginUnLoaded(GoPluginDescriptor pluginDescriptor) {
+        if (batches != null) {
+            batches.flush(pluginDescriptor.id());
+        }
+        super.pluginUnLoaded(pluginDescriptor);
+    }
+
+    @PreDestroy
+    public void flushPendingBatches() {
+        if (batches != null) {
+            batches.flushAll();
+        }
+    }
+
+    private boolean supportsBatchNotifications(String pluginId) {
+        try {
+            return queues.containsKey(pluginId) && notificationExtension.supportsBatchNotifications(pluginId);
+        } catch (Exception e) {
+            LOGGER.warn("Could not determine whether plugin {} accepts batched notifications, sending them one at a time", pluginId, e);
+            return false;
+        }
+    }
+
+    public PluginNotificationQueueStatistics statistics() {
+        return statistics;
     }
 
     Map<String, PluginAwareMessageQueue> getQueues() {
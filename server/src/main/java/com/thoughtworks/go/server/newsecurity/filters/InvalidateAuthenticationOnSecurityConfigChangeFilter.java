@@ -25,6 +25,7 @@ import com.thoughtworks.go.server.newsecurity.utils.SessionUtils;
 import com.thoughtworks.go.server.service.AuthorizationExtensionCacheService;
 import com.thoughtworks.go.server.service.GoConfigService;
 import com.thoughtworks.go.server.service.PluginRoleService;
+import com.thoughtworks.go.server.service.VerifiedAccessTokenCache;
 import com.thoughtworks.go.util.Clock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,17 +50,20 @@ public class InvalidateAuthenticationOnSecurityConfigChangeFilter extends OncePe
     private Clock clock;
     private AuthorizationExtensionCacheService authorizationExtensionCacheService;
     private PluginRoleService pluginRoleService;
+    private VerifiedAccessTokenCache verifiedAccessTokenCache;
     private volatile long lastChangedTime;
 
     @Autowired
     public InvalidateAuthenticationOnSecurityConfigChangeFilter(GoConfigService goConfigService,
                                                                 Clock clock,
                                                                 AuthorizationExtensionCacheService authorizationExtensionCacheService,
-                                                                PluginRoleService pluginRoleService) {
+                                                                PluginRoleService pluginRoleService,
+                                                                VerifiedAccessTokenCache verifiedAccessTokenCache) {
         this.goConfigService = goConfigService;
         this.clock = clock;
         this.authorizationExtensionCacheService = authorizationExtensionCacheService;
         this.pluginRoleService = pluginRoleService;
+        this.verifiedAccessTokenCache = verifiedAccessTokenCache;
     }
 
     public void initialize() {
@@ -70,6 +74,7 @@ public class InvalidateAuthenticationOnSecurityConfigChangeFilter extends OncePe
             public void onEntityConfigChange(Object entity) {
                 updateLastChangedTime();
                 authorizationExtensionCacheService.invalidateCache();
+                verifiedAccessTokenCache.invalidateAll();
             }
         });
     }
@@ -111,6 +116,7 @@ public class InvalidateAuthenticationOnSecurityConfigChangeFilter extends OncePe
         if (!Objects.equals(this.securityConfig, newSecurityConfig)) {
             updateLastChangedTime();
             authorizationExtensionCacheService.invalidateCache();
+            verifiedAccessTokenCache.invalidateAll();
         }
         this.securityConfig = newSecurityConfig;
     }
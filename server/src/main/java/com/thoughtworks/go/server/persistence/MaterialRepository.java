@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.persistence;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.materials.AbstractMaterial;
 import com.thoughtworks.go.config.materials.MaterialConfigs;
@@ -25,6 +26,8 @@ import com.thoughtworks.go.domain.materials.dependency.DependencyMaterialInstanc
 import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.dao.FeedModifier;
+import com.thoughtworks.go.server.dao.SearchIndex;
+import com.thoughtworks.go.server.dao.SearchIndexes;
 import com.thoughtworks.go.server.database.Database;
 import com.thoughtworks.go.server.database.QueryExtensions;
 import com.thoughtworks.go.server.service.MaterialConfigConverter;
@@ -52,10 +55,13 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 import java.io.File;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.server.persistence.MaterialQueries.loadModificationQuery;
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
+import static org.apache.commons.lang3.StringUtils.containsAny;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.hibernate.criterion.Restrictions.eq;
 import static org.hibernate.criterion.Restrictions.isNull;
@@ -74,6 +80,7 @@ public class MaterialRepository extends HibernateDaoSupport {
     private final CacheKeyGenerator cacheKeyGenerator;
     private int latestModificationsCacheLimit;
     private MaterialExpansionService materialExpansionService;
+    private SearchIndexes searchIndexes;
 
     @Autowired
     public MaterialRepository(SessionFactory sessionFactory,
@@ -91,6 +98,39 @@ public class MaterialRepository extends HibernateDaoSupport {
         this.queryExtensions = databaseStrategy.getQueryExtensions();
         setSessionFactory(sessionFactory);
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
+        setSearchIndexExecutor(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("material-search-index-%d").setDaemon(true).build()));
+    }
+
+    void setSearchIndexExecutor(Executor executor) {
+        long maxSizeInBytes = new SystemEnvironment().get(SystemEnvironment.MATERIAL_SEARCH_INDEX_MAX_SIZE_IN_MB) * 1024L * 1024L;
+        this.searchIndexes = new SearchIndexes("material", new SearchIndexes.Loader() {
+            @Override
+            public List<SearchIndex.Entry> entriesOf(String materialId) {
+                return searchEntriesOf("WHERE materialId = :id ORDER BY id", Long.parseLong(materialId));
+            }
+
+            @Override
+            public List<SearchIndex.Entry> entriesWithId(long modificationId) {
+                return searchEntriesOf("WHERE id = :id", modificationId);
+            }
+        }, maxSizeInBytes, executor);
+    }
+
+    private List<SearchIndex.Entry> searchEntriesOf(String condition, long id) {
+        List<Object[]> rows = (List<Object[]>) getHibernateTemplate().execute((HibernateCallback) session -> {
+            SQLQuery query = session.createSQLQuery("SELECT id, comment, userName, revision FROM modifications " + condition);
+            query.setLong("id", id);
+            return query.addScalar("id", new LongType())
+                    .addScalar("comment", new StringType())
+                    .addScalar("userName", new StringType())
+                    .addScalar("revision", new StringType())
+                    .list();
+        });
+        List<SearchIndex.Entry> entries = new ArrayList<>();
+        for (Object[] row : rows) {
+            entries.add(new SearchIndex.Entry((Long) row[0], null, Arrays.asList((String) row[1], (String) row[2], (String) row[3])));
+        }
+        return entries;
     }
 
     public List<Modification> getModificationsForPipelineRange(final String pipelineName,
@@ -216,6 +256,39 @@ public class MaterialRepository extends HibernateDaoSupport {
 
     public MaterialRevisions findMaterialRevisionsForPipeline(long pipelineId) {
         List<PipelineMaterialRevision> revisions = findPipelineMaterialRevisions(pipelineId);
+        return materialRevisionsFor(revisions);
+    }
+
+    /**
+     * Same as {@link #findMaterialRevisionsForPipeline(long)} for many pipelines, loading what is not cached yet
+     * with a query for the material revisions of all the pipelines and one for the modifications of every 100 of them.
+     */
+    public Map<Long, MaterialRevisions> findMaterialRevisionsForPipelines(Collection<Long> pipelineIds) {
+        List<Long> notCached = new ArrayList<>();
+        for (Long pipelineId : pipelineIds) {
+            if (goCache.get(pipelinePmrsKey(pipelineId)) == null) {
+                notCached.add(pipelineId);
+            }
+        }
+        if (!notCached.isEmpty()) {
+            cachePipelineMaterialRevisions(notCached);
+        }
+
+        Map<Long, List<PipelineMaterialRevision>> revisionsOfPipelines = new HashMap<>();
+        List<PipelineMaterialRevision> allRevisions = new ArrayList<>();
+        for (Long pipelineId : pipelineIds) {
+            List<PipelineMaterialRevision> revisions = findPipelineMaterialRevisions(pipelineId);
+            revisionsOfPipelines.put(pipelineId, revisions);
+            allRevisions.addAll(revisions);
+        }
+        cacheModificationsFor(allRevisions);
+
+        Map<Long, MaterialRevisions> materialRevisionsOfPipelines = new HashMap<>();
+        revisionsOfPipelines.forEach((pipelineId, revisions) -> materialRevisionsOfPipelines.put(pipelineId, materialRevisionsFor(revisions)));
+        return materialRevisionsOfPipelines;
+    }
+
+    private MaterialRevisions materialRevisionsFor(List<PipelineMaterialRevision> revisions) {
         MaterialRevisions materialRevisions = new MaterialRevisions();
         for (PipelineMaterialRevision revision : revisions) {
             List<Modification> modifications = findModificationsFor(revision);
@@ -224,6 +297,61 @@ public class MaterialRepository extends HibernateDaoSupport {
         return materialRevisions;
     }
 
+    private void cachePipelineMaterialRevisions(List<Long> pipelineIds) {
+        List<PipelineMaterialRevision> pmrs = (List<PipelineMaterialRevision>) getHibernateTemplate().findByCriteria(buildPMRDetachedQuery(pipelineIds));
+        sortPersistentObjectsById(pmrs, true);
+        Map<Long, List<PipelineMaterialRevision>> pmrsOfPipelines = new HashMap<>();
+        for (Long pipelineId : pipelineIds) {
+            pmrsOfPipelines.put(pipelineId, new ArrayList<>());
+        }
+        for (PipelineMaterialRevision pmr : pmrs) {
+            pmrsOfPipelines.get(pmr.getPipelineId()).add(pmr);
+            putMaterialInstanceIntoCache(pmr.getToModification().getMaterialInstance());
+        }
+        pmrsOfPipelines.forEach((pipelineId, pmrsOfPipeline) -> {
+            String cacheKey = pipelinePmrsKey(pipelineId);
+            synchronized (cacheKey) {
+                if (goCache.get(cacheKey) == null) {
+                    goCache.put(cacheKey, pmrsOfPipeline);
+                }
+            }
+        });
+    }
+
+    private void cacheModificationsFor(List<PipelineMaterialRevision> pmrs) {
+        List<PipelineMaterialRevision> notCached = new ArrayList<>();
+        for (PipelineMaterialRevision pmr : pmrs) {
+            if (goCache.get(pmrModificationsKey(pmr)) == null) {
+                notCached.add(pmr);
+            }
+        }
+
+        for (int from = 0; from < notCached.size(); from += 100) {
+            List<PipelineMaterialRevision> batch = notCached.subList(from, Math.min(from + 100, notCached.size()));
+            List<Criterion> criterions = new ArrayList<>();
+            Map<String, List<Modification>> modificationsOfPmrs = new HashMap<>();
+            for (PipelineMaterialRevision pmr : batch) {
+                criterions.add(Restrictions.and(Restrictions.eq("materialInstance", pmr.getMaterialInstance()),
+                        Restrictions.between("id", pmr.getFromModification().getId(), pmr.getToModification().getId())));
+                modificationsOfPmrs.put(pmrModificationsKey(pmr), new ArrayList<>());
+            }
+            List<Modification> modifications = (List<Modification>) getHibernateTemplate().findByCriteria(buildModificationDetachedQuery(criterions));
+            sortPersistentObjectsById(modifications, false);
+            for (Modification modification : modifications) {
+                for (String cacheKey : pmrModificationsKey(modification, batch)) {
+                    modificationsOfPmrs.get(cacheKey).add(modification);
+                }
+            }
+            modificationsOfPmrs.forEach((cacheKey, modificationsOfPmr) -> {
+                synchronized (cacheKey) {
+                    if (goCache.get(cacheKey) == null) {
+                        goCache.put(cacheKey, modificationsOfPmr);
+                    }
+                }
+            });
+        }
+    }
+
     public void cacheMaterialRevisionsForPipelines(Set<Long> pipelineIds) {
         List<Long> ids = new ArrayList<>(pipelineIds);
 
@@ -445,6 +573,7 @@ public class MaterialRepository extends HibernateDaoSupport {
             removeLatestCachedModification(materialInstance, modification);
             removeCachedModificationCountFor(materialInstance);
             removeCachedModificationsFor(materialInstance);
+            addToSearchIndexOnCommit(materialInstance, Collections.singletonList(modification));
         } catch (Exception e) {
             String message = "Cannot save modification " + modification;
             LOGGER.error(message, e);
@@ -778,6 +907,20 @@ public class MaterialRepository extends HibernateDaoSupport {
         }
         removeCachedModificationCountFor(materialInstance);
         removeCachedModificationsFor(materialInstance);
+        addToSearchIndexOnCommit(materialInstance, list);
+    }
+
+    private void addToSearchIndexOnCommit(final MaterialInstance materialInstance, List<Modification> modifications) {
+        List<SearchIndex.Entry> entries = new ArrayList<>();
+        for (Modification modification : modifications) {
+            entries.add(new SearchIndex.Entry(modification.getId(), null, Arrays.asList(modification.getComment(), modification.getUserName(), modification.getRevision())));
+        }
+        transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                searchIndexes.entriesSaved(String.valueOf(materialInstance.getId()), entries);
+            }
+        });
     }
 
     private void checkAndRemoveDuplicates(MaterialInstance materialInstance,
@@ -1062,6 +1205,11 @@ public class MaterialRepository extends HibernateDaoSupport {
     }
 
     public PipelineRunIdInfo getOldestAndLatestModificationId(long materialId, String pattern) {
+        SearchIndex searchIndex = isNotBlank(pattern) ? searchIndexOf(materialId, pattern) : null;
+        if (searchIndex != null) {
+            List<Long> latest = searchIndex.idsMatching(pattern.toLowerCase(), null, Long.MIN_VALUE, Long.MAX_VALUE, 1);
+            return latest.isEmpty() ? null : new PipelineRunIdInfo(latest.get(0), searchIndex.oldestIdMatching(pattern.toLowerCase()));
+        }
         String queryString = "SELECT MAX(modifications.id) as latestRunId, MIN(modifications.id) as oldestRunId " +
                 "FROM modifications " +
                 "WHERE modifications.materialid = :materialId ";
@@ -1090,6 +1238,12 @@ public class MaterialRepository extends HibernateDaoSupport {
     }
 
     public List<Modification> findMatchingModifications(long materialId, String pattern, FeedModifier modifier, long cursor, Integer pageSize) {
+        SearchIndex searchIndex = searchIndexOf(materialId, pattern);
+        if (searchIndex != null) {
+            long afterId = modifier == FeedModifier.Before ? cursor : Long.MIN_VALUE;
+            long beforeId = modifier == FeedModifier.After ? cursor : Long.MAX_VALUE;
+            return modificationsWithIds(searchIndex.idsMatching(pattern.toLowerCase(), null, afterId, beforeId, pageSize));
+        }
         Map<String, Object> params = Map.of(
                 "materialId", materialId,
                 "pattern", "%" + pattern.toLowerCase() + "%",
@@ -1106,4 +1260,26 @@ public class MaterialRepository extends HibernateDaoSupport {
                     .list();
         });
     }
+
+    /**
+     * @return the search index of the modifications of the material, or null if it is not built yet or if the pattern
+     * has characters which LIKE treats as wildcards or escapes, in which case the database is searched instead
+     */
+    private SearchIndex searchIndexOf(long materialId, String pattern) {
+        if (containsAny(pattern, '%', '_', '\\')) {
+            return null;
+        }
+        return searchIndexes.indexOf(String.valueOf(materialId));
+    }
+
+    private List<Modification> modificationsWithIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return (List<Modification>) getHibernateTemplate().execute((HibernateCallback) session -> {
+            Query query = session.createQuery("FROM Modification WHERE id IN (:ids) ORDER BY id DESC");
+            query.setParameterList("ids", ids);
+            return query.list();
+        });
+    }
 }
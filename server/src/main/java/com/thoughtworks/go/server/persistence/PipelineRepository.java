@@ -34,6 +34,7 @@ import org.springframework.orm.hibernate3.support.HibernateDaoSupport;
 import org.springframework.stereotype.Component;
 
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
 import java.util.*;
 
 /**
@@ -42,6 +43,8 @@ import java.util.*;
 @Component
 public class PipelineRepository extends HibernateDaoSupport {
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineRepository.class);
+    private static final String UPDATE_NATURAL_ORDER_SQL = "UPDATE pipelines SET naturalOrder = ? WHERE id = ?";
+    private static final int NATURAL_ORDER_UPDATE_BATCH_SIZE = 500;
     private final QueryExtensions queryExtensions;
     private GoCache goCache;
 
@@ -86,11 +89,29 @@ public void updatePipelineTimeline(final PipelineTimeline pipelineTimeline, fina
             }
 
             private void updateNaturalOrdering(Session session, List<PipelineTimelineEntry> pipelines) {
+                List<PipelineTimelineEntry> updated = new ArrayList<>();
                 for (PipelineTimelineEntry pipeline : pipelines) {
                     if (pipeline.hasBeenUpdated()) {
-                        updateNaturalOrderForPipeline(session, pipeline.getId(), pipeline.naturalOrder());
+                        updated.add(pipeline);
                     }
                 }
+                if (updated.isEmpty()) {
+                    return;
+                }
+                session.flush();
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(UPDATE_NATURAL_ORDER_SQL)) {
+                        for (int i = 0; i < updated.size(); i++) {
+                            statement.setDouble(1, updated.get(i).naturalOrder());
+                            statement.setLong(2, updated.get(i).getId());
+                            statement.addBatch();
+                            if ((i + 1) % NATURAL_ORDER_UPDATE_BATCH_SIZE == 0) {
+                                statement.executeBatch();
+                            }
+                        }
+                        statement.executeBatch();
+                    }
+                });
             }
 
             private List<Object[]> loadTimeline(SQLQuery query) {
@@ -146,16 +167,14 @@ public void updatePipelineTimeline(final PipelineTimeline pipelineTimeline, fina
                         name = pipelineName(row);
                         curId = id;
                         counter = counter(row);
-                        revisions = new HashMap<>();
+                        revisions = new HashMap<>(4);
                         naturalOrder = naturalOrder(row);
                     }
 
                     String fingerprint = fingerprint(row);
 
-                    if (!revisions.containsKey(fingerprint)) {
-                        revisions.put(fingerprint, new ArrayList<>());
-                    }
-                    revisions.get(fingerprint).add(rev(row));
+                    // most pipelines have a handful of materials with one revision each, so keep these small
+                    revisions.computeIfAbsent(fingerprint, f -> new ArrayList<>(1)).add(rev(row));
 
                     int nextI = i + 1;
                     if (((nextI < matches.size() && id(matches.get(nextI)) != curId) ||//new pipeline instance starts in next record, so capture this one
@@ -168,7 +187,8 @@ public void updatePipelineTimeline(final PipelineTimeline pipelineTimeline, fina
             }
 
             private String folder(Object[] row) {
-                return (String) row[FOLDER];
+                String folder = (String) row[FOLDER];
+                return folder == null ? null : folder.intern();
             }
 
             private PipelineTimelineEntry.Revision rev(Object[] row) {
@@ -196,11 +216,12 @@ public void updatePipelineTimeline(final PipelineTimeline pipelineTimeline, fina
             }
 
             private String fingerprint(Object[] row) {
-                return String.valueOf(row[FINGERPRINT]);
+                return String.valueOf(row[FINGERPRINT]).intern();
             }
 
             private String pipelineName(Object[] row) {
-                return (String) row[PIPELINE_NAME];
+                // shared by every instance of the pipeline held in the timeline
+                return ((String) row[PIPELINE_NAME]).intern();
             }
 
             private int counter(Object[] row) {
@@ -23,7 +23,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.orm.hibernate3.support.HibernateDaoSupport;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @understands persisting and retrieving resource
@@ -31,6 +34,7 @@ import java.util.List;
 @Service
 public class ResourceRepository extends HibernateDaoSupport {
     private static final String GET_RESOURCES_BY_BUILD_ID = "SELECT r FROM Resource r WHERE r.buildId = ? ORDER BY r.id";
+    private static final String GET_RESOURCES_BY_BUILD_IDS = "SELECT r FROM Resource r WHERE r.buildId IN (:buildIds) ORDER BY r.id";
 
     @Autowired
     public ResourceRepository(SessionFactory sessionFactory) {
@@ -54,6 +58,17 @@ public class ResourceRepository extends HibernateDaoSupport {
         return new Resources((List<Resource>) getHibernateTemplate().find(GET_RESOURCES_BY_BUILD_ID, buildId));
     }
 
+    public Map<Long, Resources> findByBuildIds(Collection<Long> buildIds) {
+        Map<Long, Resources> resourcesByBuildId = new HashMap<>();
+        if (buildIds.isEmpty()) {
+            return resourcesByBuildId;
+        }
+        for (Resource resource : (List<Resource>) getHibernateTemplate().findByNamedParam(GET_RESOURCES_BY_BUILD_IDS, "buildIds", buildIds)) {
+            resourcesByBuildId.computeIfAbsent(resource.getBuildId(), buildId -> new Resources()).add(resource);
+        }
+        return resourcesByBuildId;
+    }
+
     public void deleteAll(List<Resource> resources) {
         getHibernateTemplate().deleteAll(resources);
     }
@@ -45,13 +45,15 @@ public class AccessTokenService {
 
     private final AccessTokenDao accessTokenDao;
     private final SecurityService securityService;
+    private final VerifiedAccessTokenCache verifiedAccessTokenCache;
     private final ConcurrentMap<Long, Timestamp> accessTokenIdToLastUsedTimestampCache = new ConcurrentHashMap<>();
 
     @Autowired
-    public AccessTokenService(AccessTokenDao accessTokenDao, Clock clock, SecurityService securityService) {
+    public AccessTokenService(AccessTokenDao accessTokenDao, Clock clock, SecurityService securityService, VerifiedAccessTokenCache verifiedAccessTokenCache) {
         this.accessTokenDao = accessTokenDao;
         this.timeProvider = clock;
         this.securityService = securityService;
+        this.verifiedAccessTokenCache = verifiedAccessTokenCache;
     }
 
     public AccessToken.AccessTokenWithDisplayValue create(String description, String username, String authConfigId) {
@@ -95,6 +97,12 @@ public class AccessTokenService {
             throw new InvalidAccessTokenException();
         }
 
+        AccessToken verifiedToken = verifiedAccessTokenCache.get(actualToken);
+        if (verifiedToken != null) {
+            return verifiedToken;
+        }
+
+        long revocationVersion = verifiedAccessTokenCache.revocationVersion();
         String saltId = StringUtils.substring(actualToken, 0, 8);
 
         AccessToken token = accessTokenDao.findAccessTokenBySaltId(saltId);
@@ -112,6 +120,7 @@ public class AccessTokenService {
             throw new RevokedAccessTokenException(token.getRevokedAt());
         }
 
+        verifiedAccessTokenCache.put(actualToken, token, revocationVersion);
         return token;
     }
 
@@ -135,6 +144,7 @@ public class AccessTokenService {
         ACCESS_TOKEN_LOGGER.debug("[Access Token] Revoking access token with id: '{}' for user '{}' with revoked cause '{}'.", fetchedAccessToken.getId(), username, revokeCause);
         fetchedAccessToken.revoke(username, revokeCause, timeProvider.currentTimestamp());
         accessTokenDao.saveOrUpdate(fetchedAccessToken);
+        verifiedAccessTokenCache.invalidate(fetchedAccessToken.getId());
 
         ACCESS_TOKEN_LOGGER.debug("[Access Token] Done revoking access token with id: '{}' for user '{}' with revoked cause '{}'.", fetchedAccessToken.getId(), username, revokeCause);
 
@@ -70,6 +70,11 @@ public class BackupScheduler extends EntityConfigChangedListener<BackupConfig> i
         onEntityConfigChange(newCruiseConfig.server().getBackupConfig());
     }
 
+    @Override
+    public boolean canBeNotifiedConcurrently() {
+        return true;
+    }
+
     @Override
     public void onEntityConfigChange(BackupConfig newBackupConfig) {
         try {
@@ -128,6 +128,11 @@ public class BuildAssignmentService implements ConfigChangedListener {
                     IterableUtils.forEach(jobsToRemove, o -> removeJob(o));
                 }
             }
+
+            @Override
+            public boolean canBeNotifiedConcurrently() {
+                return true;
+            }
         };
     }
 
@@ -170,6 +175,8 @@ public class BuildAssignmentService implements ConfigChangedListener {
             return new DeniedAgentWork(agent.getUuid());
         }
 
+        final JobPlan job;
+        final JobAssignment jobAssignment;
         synchronized (this) {
 //          check to ensure agent is not disabled after entering the synchronized block
             if (agent.isDisabled()) {
@@ -177,18 +184,21 @@ public class BuildAssignmentService implements ConfigChangedListener {
             }
             //check if agent already has assigned build, if so, reschedule it
             scheduleService.rescheduleAbandonedBuildIfNecessary(agent.getAgentIdentifier());
-            final JobPlan job = findMatchingJob(agent);
-            if (job != null) {
-                Work buildWork = createWork(agent, job);
-                AgentBuildingInfo buildingInfo = new AgentBuildingInfo(job.getIdentifier().buildLocatorForDisplay(),
-                        job.getIdentifier().buildLocator());
-                agentService.building(agent.getUuid(), buildingInfo);
-                LOGGER.info("[Agent Assignment] Assigned job [{}] to agent [{}]", job.getIdentifier(), agent.getAgent().getAgentIdentifier());
-
-                return buildWork;
+            job = findMatchingJob(agent);
+            if (job == null) {
+                return NO_WORK;
             }
+            jobAssignment = assignJob(agent, job);
         }
-        return NO_WORK;
+
+        // secrets are resolved once the job is assigned to the agent, so that a slow secrets plugin does not hold up assigning work to other agents
+        Work buildWork = jobAssignment == null ? NO_WORK : createWork(agent, job, jobAssignment);
+        AgentBuildingInfo buildingInfo = new AgentBuildingInfo(job.getIdentifier().buildLocatorForDisplay(),
+                job.getIdentifier().buildLocator());
+        agentService.building(agent.getUuid(), buildingInfo);
+        LOGGER.info("[Agent Assignment] Assigned job [{}] to agent [{}]", job.getIdentifier(), agent.getAgent().getAgentIdentifier());
+
+        return buildWork;
     }
 
     JobPlan findMatchingJob(AgentInstance agent) {
@@ -247,6 +257,11 @@ public class BuildAssignmentService implements ConfigChangedListener {
         }
     }
 
+    @Override
+    public boolean canBeNotifiedConcurrently() {
+        return true;
+    }
+
     private void removeJobIfNotPresentInCruiseConfig(CruiseConfig newCruiseConfig, JobPlan jobPlan) {
         if (!newCruiseConfig.hasBuildPlan(new CaseInsensitiveString(jobPlan.getPipelineName()), new CaseInsensitiveString(jobPlan.getStageName()), jobPlan.getName(), true)) {
             removeJob(jobPlan);
@@ -268,9 +283,9 @@ public class BuildAssignmentService implements ConfigChangedListener {
         }
     }
 
-    private Work createWork(final AgentInstance agent, final JobPlan job) {
+    private JobAssignment assignJob(final AgentInstance agent, final JobPlan job) {
         try {
-            return (Work) transactionTemplate.transactionSurrounding(() -> {
+            return (JobAssignment) transactionTemplate.transactionSurrounding(() -> {
                 final String agentUuid = agent.getUuid();
 
                 //TODO: Use fullPipeline and get the Stage from it?
@@ -280,7 +295,7 @@ public class BuildAssignmentService implements ConfigChangedListener {
                 } catch (StaleMaterialsOnBuildCause e) {
                     // Detailed error msg is part of the exception object and it would be logged. Hence not adding msg while logging.
                     LOGGER.error("", e);
-                    return NO_WORK;
+                    return null;
                 }
 
                 List<Task> tasks = goConfigService.tasksForJob(pipeline.getName(), job.getIdentifier().getStageName(), job.getName());
@@ -288,28 +303,35 @@ public class BuildAssignmentService implements ConfigChangedListener {
 
                 return transactionTemplate.execute(status -> {
                     if (scheduleService.updateAssignedInfo(agentUuid, job)) {
-                        return NO_WORK;
-                    }
-
-                    final EnvironmentVariableContext environmentVariableContext = buildEnvVarContext(job.getIdentifier().getPipelineName());
-
-                    // Agent may have a NULL "resources"
-                    if (CollectionUtils.isNotEmpty(agent.getResourceConfigs())) {
-                        // Users relying on this env. var. can test for its existence rather than checking for an empty string
-                        environmentVariableContext.setProperty(GO_AGENT_RESOURCES, agent.getResourceConfigs().getCommaSeparatedResourceNames(), false);
+                        return null;
                     }
 
                     final ArtifactStores requiredArtifactStores = goConfigService.artifactStores().getArtifactStores(getArtifactStoreIdsRequiredByArtifactPlans(job.getArtifactPlans()));
-                    BuildAssignment buildAssignment = BuildAssignment.create(job, pipeline.getBuildCause(), builders, pipeline.defaultWorkingFolder(), environmentVariableContext, requiredArtifactStores);
-
-                    secretParamResolver.resolve(buildAssignment);
-
-                    return new BuildWork(buildAssignment, systemEnvironment.consoleLogCharset());
+                    return new JobAssignment(pipeline, builders, requiredArtifactStores);
                 });
             });
         } catch (RecordNotFoundException e) {
             removeJobIfNotPresentInCruiseConfig(goConfigService.getCurrentConfig(), job);
             throw e;
+        }
+    }
+
+    private Work createWork(final AgentInstance agent, final JobPlan job, final JobAssignment jobAssignment) {
+        try {
+            final EnvironmentVariableContext environmentVariableContext = buildEnvVarContext(job.getIdentifier().getPipelineName());
+
+            // Agent may have a NULL "resources"
+            if (CollectionUtils.isNotEmpty(agent.getResourceConfigs())) {
+                // Users relying on this env. var. can test for its existence rather than checking for an empty string
+                environmentVariableContext.setProperty(GO_AGENT_RESOURCES, agent.getResourceConfigs().getCommaSeparatedResourceNames(), false);
+            }
+
+            final Pipeline pipeline = jobAssignment.pipeline;
+            BuildAssignment buildAssignment = BuildAssignment.create(job, pipeline.getBuildCause(), jobAssignment.builders, pipeline.defaultWorkingFolder(), environmentVariableContext, jobAssignment.requiredArtifactStores);
+
+            secretParamResolver.resolve(buildAssignment);
+
+            return new BuildWork(buildAssignment, systemEnvironment.consoleLogCharset());
         } catch (SecretResolutionFailureException e) {
             JobInstance instance = jobInstanceService.buildById(job.getJobId());
             logSecretsResolutionFailure(job.getIdentifier(), e);
@@ -375,4 +397,16 @@ public class BuildAssignmentService implements ConfigChangedListener {
     List<JobPlan> jobPlans() {
         return jobPlans;
     }
+
+    private static class JobAssignment {
+        private final Pipeline pipeline;
+        private final List<Builder> builders;
+        private final ArtifactStores requiredArtifactStores;
+
+        JobAssignment(Pipeline pipeline, List<Builder> builders, ArtifactStores requiredArtifactStores) {
+            this.pipeline = pipeline;
+            this.builders = builders;
+            this.requiredArtifactStores = requiredArtifactStores;
+        }
+    }
 }
@@ -77,6 +77,11 @@ public class ClusterProfilesChangedPluginNotifier extends EntityConfigChangedLis
         this.existingClusterProfiles = newCruiseConfig.getElasticConfig().getClusterProfiles();
     }
 
+    @Override
+    public boolean canBeNotifiedConcurrently() {
+        return true;
+    }
+
     @Deprecated
         //used only for tests
     ClusterProfiles getExistingClusterProfiles() {
@@ -35,6 +35,7 @@ import com.thoughtworks.go.server.dao.JobInstanceSqlMapDao;
 import com.thoughtworks.go.server.domain.ElasticAgentMetadata;
 import com.thoughtworks.go.server.messaging.elasticagents.CreateAgentMessage;
 import com.thoughtworks.go.server.messaging.elasticagents.CreateAgentQueueHandler;
+import com.thoughtworks.go.server.messaging.elasticagents.PendingAgentCreations;
 import com.thoughtworks.go.server.messaging.elasticagents.ServerPingMessage;
 import com.thoughtworks.go.server.messaging.elasticagents.ServerPingQueueHandler;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
@@ -76,6 +77,7 @@ public class ElasticAgentPluginService {
     private ConsoleService consoleService;
     private EphemeralAutoRegisterKeyService ephemeralAutoRegisterKeyService;
     private JobInstanceSqlMapDao jobInstanceSqlMapDao = null;
+    private final PendingAgentCreations pendingAgentCreations;
 
     @Value("${go.elasticplugin.heartbeat.interval}")
     private long elasticPluginHeartBeatInterval;
@@ -95,11 +97,13 @@ public class ElasticAgentPluginService {
             CreateAgentQueueHandler createAgentQueue, ServerPingQueueHandler serverPingQueue,
             GoConfigService goConfigService, TimeProvider timeProvider, ClusterProfilesService clusterProfilesService,
             ServerHealthService serverHealthService, JobInstanceSqlMapDao jobInstanceSqlMapDao, ScheduleService scheduleService,
-            ConsoleService consoleService, EphemeralAutoRegisterKeyService ephemeralAutoRegisterKeyService) {
+            ConsoleService consoleService, EphemeralAutoRegisterKeyService ephemeralAutoRegisterKeyService,
+            PendingAgentCreations pendingAgentCreations) {
 
         this(pluginManager, elasticAgentPluginRegistry, agentService, environmentConfigService, createAgentQueue,
                 serverPingQueue, goConfigService, timeProvider, serverHealthService, ElasticAgentMetadataStore.instance(),
-                clusterProfilesService, jobInstanceSqlMapDao, scheduleService, consoleService, ephemeralAutoRegisterKeyService);
+                clusterProfilesService, jobInstanceSqlMapDao, scheduleService, consoleService, ephemeralAutoRegisterKeyService,
+                pendingAgentCreations);
     }
 
     ElasticAgentPluginService(
@@ -109,7 +113,7 @@ public class ElasticAgentPluginService {
             GoConfigService goConfigService, TimeProvider timeProvider, ServerHealthService serverHealthService,
             ElasticAgentMetadataStore elasticAgentMetadataStore, ClusterProfilesService clusterProfilesService,
             JobInstanceSqlMapDao jobInstanceSqlMapDao, ScheduleService scheduleService, ConsoleService consoleService,
-            EphemeralAutoRegisterKeyService ephemeralAutoRegisterKeyService) {
+            EphemeralAutoRegisterKeyService ephemeralAutoRegisterKeyService, PendingAgentCreations pendingAgentCreations) {
         this.pluginManager = pluginManager;
         this.elasticAgentPluginRegistry = elasticAgentPluginRegistry;
         this.agentService = agentService;
@@ -125,6 +129,7 @@ public class ElasticAgentPluginService {
         this.scheduleService = scheduleService;
         this.consoleService = consoleService;
         this.ephemeralAutoRegisterKeyService = ephemeralAutoRegisterKeyService;
+        this.pendingAgentCreations = pendingAgentCreations;
     }
 
     public void heartbeat() {
@@ -192,6 +197,7 @@ public class ElasticAgentPluginService {
         ArrayList<JobPlan> jobsThatRequireAgent = new ArrayList<>();
         jobsThatRequireAgent.addAll(Sets.difference(new HashSet<>(newPlan), new HashSet<>(old)));
         jobsThatRequireAgent.addAll(starvingJobs);
+        jobsThatRequireAgent.addAll(heldBackJobs(newPlan));
 
         List<JobPlan> plansThatRequireElasticAgent = jobsThatRequireAgent.stream().filter(isElasticAgent()).collect(Collectors.toList());
 //      messageTimeToLive is lesser than the starvation threshold to ensure there are no duplicate create agent message
@@ -210,6 +216,10 @@ public class ElasticAgentPluginService {
                 scheduleService.cancelJob(plan.getIdentifier());
             } else if (elasticAgentPluginRegistry.has(clusterProfile.getPluginId())) {
                 String environment = environmentConfigService.envForPipeline(plan.getPipelineName());
+                if (!pendingAgentCreations.tryRequest(plan.getJobId(), clusterProfile.getId(), elasticProfile.getId(), environment, messageTimeToLive)) {
+                    LOGGER.debug("Not asking for an agent for {} yet, as enough agents like it have been asked for already", plan.getIdentifier());
+                    continue;
+                }
                 createAgentQueue.post(new CreateAgentMessage(ephemeralAutoRegisterKeyService.autoRegisterKey(), environment, elasticProfile, clusterProfile, plan.getIdentifier()), messageTimeToLive);
                 serverHealthService.removeByScope(HealthStateScope.forJob(plan.getIdentifier().getPipelineName(), plan.getIdentifier().getStageName(), plan.getIdentifier().getBuildName()));
             } else {
@@ -224,6 +234,15 @@ public class ElasticAgentPluginService {
         }
     }
 
+    private List<JobPlan> heldBackJobs(List<JobPlan> scheduledJobs) {
+        pendingAgentCreations.retainDeferredJobs(scheduledJobs.stream().map(JobPlan::getJobId).collect(Collectors.toList()));
+        Set<Long> heldBack = pendingAgentCreations.deferredJobs();
+        if (heldBack.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return scheduledJobs.stream().filter(plan -> heldBack.contains(plan.getJobId())).collect(Collectors.toList());
+    }
+
     private void logToJobConsole(JobIdentifier identifier, String message) {
         try {
             consoleService.appendToConsoleLog(identifier, message);
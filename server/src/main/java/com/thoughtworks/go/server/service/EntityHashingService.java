@@ -90,6 +90,16 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
         }
     }
 
+    /* Merged environments are digested part by part, so each part's cached digest has to go. */
+    class MergeEnvironmentConfigListener extends EntityConfigChangedListener<MergeEnvironmentConfig> {
+        @Override
+        public void onEntityConfigChange(MergeEnvironmentConfig config) {
+            for (EnvironmentConfig part : config) {
+                removeFromCache(part, part.name());
+            }
+        }
+    }
+
     private class PackageRepositoryChangeListener extends EntityConfigChangedListener<PackageRepository> {
         @Override
         public void onEntityConfigChange(PackageRepository repo) {
@@ -197,6 +207,7 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
         goConfigService.register(new SCMConfigChangedListener());
         goConfigService.register(new TemplateConfigChangedListner());
         goConfigService.register(new EnvironmentConfigListener());
+        goConfigService.register(new MergeEnvironmentConfigListener());
         goConfigService.register(new PackageRepositoryChangeListener());
         goConfigService.register(new ElasticAgentProfileConfigListener());
         goConfigService.register(new SecretConfigListener());
@@ -283,6 +283,10 @@ public class GoConfigService implements Initializer, CruiseConfigProvider {
         return goConfigDao.updateConfig(command);
     }
 
+    public ConfigSaveState updatePartials(UpdateConfigCommand command) {
+        return goConfigDao.updatePartials(command);
+    }
+
     public void updateConfig(EntityConfigUpdateCommand command, Username currentUser) {
         goConfigDao.updateConfig(command, currentUser);
     }
@@ -28,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.thoughtworks.go.config.security.util.SecurityConfigUtils.*;
 
@@ -38,6 +39,7 @@ public class GoDashboardService {
     private final GoDashboardCurrentStateLoader dashboardCurrentStateLoader;
     private final GoConfigService goConfigService;
     private GoConfigPipelinePermissionsAuthority permissionsAuthority;
+    private volatile GroupViews groupViews;
 
     @Autowired
     public GoDashboardService(GoDashboardCache cache, GoDashboardCurrentStateLoader dashboardCurrentStateLoader, GoConfigPipelinePermissionsAuthority permissionsAuthority, GoConfigService goConfigService) {
@@ -69,15 +71,16 @@ public class GoDashboardService {
     }
 
     public List<GoDashboardPipelineGroup> allPipelineGroupsForDashboard(DashboardFilter filter, Username user, final boolean allowEmpty) {
+        GroupViews views = currentGroupViews();
         GoDashboardPipelines allPipelines = cache.allEntries();
         List<GoDashboardPipelineGroup> pipelineGroups = new ArrayList<>();
 
-        goConfigService.groups().accept(group -> {
-            GoDashboardPipelineGroup dashboardPipelineGroup = dashboardPipelineGroupFor(group, filter, user, allPipelines);
+        for (GoDashboardPipelineGroup group : views.viewFor(user, allPipelines)) {
+            GoDashboardPipelineGroup dashboardPipelineGroup = group.filteredBy(filter);
             if (forceIncludeEmptyGroup(allowEmpty, dashboardPipelineGroup, user) || dashboardPipelineGroup.hasPipelines()) {
                 pipelineGroups.add(dashboardPipelineGroup);
             }
-        });
+        }
 
         return pipelineGroups;
     }
@@ -120,20 +123,21 @@ public class GoDashboardService {
         return env;
     }
 
-    private GoDashboardPipelineGroup dashboardPipelineGroupFor(PipelineConfigs pipelineGroup, DashboardFilter filter, Username user, GoDashboardPipelines allPipelines) {
-        Permissions groupPermissions = resolvePermissionsForPipelineGroup(pipelineGroup, allPipelines);
-        GoDashboardPipelineGroup goDashboardPipelineGroup = new GoDashboardPipelineGroup(pipelineGroup.getGroup(), groupPermissions, !pipelineGroup.isEmpty());
-
-        if (goDashboardPipelineGroup.hasPermissions() && goDashboardPipelineGroup.canBeViewedBy(user)) {
-            pipelineGroup.accept(pipelineConfig -> {
-                CaseInsensitiveString pipelineName = pipelineConfig.name();
-                GoDashboardPipeline pipeline = allPipelines.find(pipelineName);
-                if (pipeline != null && filter.isPipelineVisible(pipelineName)) {
-                    goDashboardPipelineGroup.addPipeline(pipeline);
+    /* The views stay valid until the config changes or the cache says that pipelines came, went or changed permissions. */
+    private GroupViews currentGroupViews() {
+        long layoutVersion = cache.layoutVersion();
+        PipelineGroups groups = goConfigService.groups();
+        GroupViews views = groupViews;
+        if (views == null || !views.isFor(groups, layoutVersion)) {
+            synchronized (this) {
+                views = groupViews;
+                if (views == null || !views.isFor(groups, layoutVersion)) {
+                    views = new GroupViews(groups, layoutVersion, cache.allEntries());
+                    groupViews = views;
                 }
-            });
+            }
         }
-        return goDashboardPipelineGroup;
+        return views;
     }
 
     private Users superAdmins() {
@@ -187,4 +191,90 @@ public class GoDashboardService {
         cache.remove(pipelineName);
         dashboardCurrentStateLoader.clearEntryFor(pipelineName);
     }
+
+    /**
+     * Holds, for each distinct set of pipeline groups users may view (their permission profile), the groups as the
+     * dashboard shows them before personalization. Users with the same profile share the same group instances. When
+     * only the status of a pipeline changes, just the groups holding it are rebuilt, the next time they are asked for.
+     */
+    private class GroupViews {
+        private final PipelineGroups groups;
+        private final long layoutVersion;
+        private final List<Permissions> groupPermissions = new ArrayList<>();
+        private final Map<BitSet, List<GoDashboardPipelineGroup>> viewsByProfile = new ConcurrentHashMap<>();
+
+        GroupViews(PipelineGroups groups, long layoutVersion, GoDashboardPipelines allPipelines) {
+            this.groups = groups;
+            this.layoutVersion = layoutVersion;
+            groups.accept(group -> groupPermissions.add(resolvePermissionsForPipelineGroup(group, allPipelines)));
+        }
+
+        boolean isFor(PipelineGroups groups, long layoutVersion) {
+            return this.groups == groups && this.layoutVersion == layoutVersion;
+        }
+
+        List<GoDashboardPipelineGroup> viewFor(Username user, GoDashboardPipelines allPipelines) {
+            BitSet profile = profileOf(user);
+            List<GoDashboardPipelineGroup> view = viewsByProfile.computeIfAbsent(profile, key -> build(key, allPipelines));
+            List<GoDashboardPipelineGroup> upToDateView = refresh(profile, view, allPipelines);
+            if (upToDateView != view) {
+                viewsByProfile.replace(profile, view, upToDateView);
+            }
+            return upToDateView;
+        }
+
+        private BitSet profileOf(Username user) {
+            BitSet profile = new BitSet(groupPermissions.size());
+            for (int i = 0; i < groupPermissions.size(); i++) {
+                Permissions permissions = groupPermissions.get(i);
+                if (permissions != null && permissions.viewers().contains(user.getUsername().toString())) {
+                    profile.set(i);
+                }
+            }
+            return profile;
+        }
+
+        private List<GoDashboardPipelineGroup> build(BitSet profile, GoDashboardPipelines allPipelines) {
+            List<GoDashboardPipelineGroup> view = new ArrayList<>();
+            for (int i = profile.nextSetBit(0); i >= 0; i = profile.nextSetBit(i + 1)) {
+                view.add(groupFor(i, allPipelines));
+            }
+            return view;
+        }
+
+        private List<GoDashboardPipelineGroup> refresh(BitSet profile, List<GoDashboardPipelineGroup> view, GoDashboardPipelines allPipelines) {
+            List<GoDashboardPipelineGroup> upToDateView = view;
+            int index = 0;
+            for (int i = profile.nextSetBit(0); i >= 0; i = profile.nextSetBit(i + 1), index++) {
+                if (!isUpToDate(view.get(index), allPipelines)) {
+                    if (upToDateView == view) {
+                        upToDateView = new ArrayList<>(view);
+                    }
+                    upToDateView.set(index, groupFor(i, allPipelines));
+                }
+            }
+            return upToDateView;
+        }
+
+        private boolean isUpToDate(GoDashboardPipelineGroup group, GoDashboardPipelines allPipelines) {
+            for (GoDashboardPipeline pipeline : group.allPipelines()) {
+                if (allPipelines.find(pipeline.name()) != pipeline) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private GoDashboardPipelineGroup groupFor(int index, GoDashboardPipelines allPipelines) {
+            PipelineConfigs pipelineGroup = groups.get(index);
+            GoDashboardPipelineGroup goDashboardPipelineGroup = new GoDashboardPipelineGroup(pipelineGroup.getGroup(), groupPermissions.get(index), !pipelineGroup.isEmpty());
+            pipelineGroup.accept(pipelineConfig -> {
+                GoDashboardPipeline pipeline = allPipelines.find(pipelineConfig.name());
+                if (pipeline != null) {
+                    goDashboardPipelineGroup.addPipeline(pipeline);
+                }
+            });
+            return goDashboardPipelineGroup;
+        }
+    }
 }
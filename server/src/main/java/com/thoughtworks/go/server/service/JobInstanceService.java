@@ -50,6 +50,7 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static com.thoughtworks.go.server.service.ServiceConstants.History.validateCursor;
 
@@ -109,7 +110,7 @@ public class JobInstanceService implements JobPlanLoader, ConfigChangedListener
             return null;
         }
 
-        return jobInstanceDao.findJobHistoryPage(pipelineName, stageName, jobConfigName, pagination.getPageSize(), pagination.getOffset());
+        return jobInstanceDao.findJobHistoryPage(pipelineName, stageName, jobConfigName, pagination.getPageSize(), pagination.getOffset(), pagination.getBoundaryId());
     }
 
     public JobInstance findJobInstance(String pipelineName, String stageName, String jobName, Integer pipelineCounter, Integer stageCounter, Username username) {
@@ -199,8 +200,8 @@ public class JobInstanceService implements JobPlanLoader, ConfigChangedListener
     }
 
     //TODO: Performance fix - we should be using CurrentActivity here
-    public JobInstances findHungJobs(List<String> liveAgentIdList) {
-        return jobInstanceDao.findHungJobs(liveAgentIdList);
+    public JobInstances findHungJobs(Set<String> liveAgentUuids) {
+        return jobInstanceDao.findHungJobs(liveAgentUuids);
     }
 
     public void cancelJob(final JobInstance job) {
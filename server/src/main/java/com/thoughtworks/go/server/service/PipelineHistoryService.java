@@ -124,7 +124,7 @@ public class PipelineHistoryService {
     }
 
     public PipelineInstanceModels load(String pipelineName, Pagination pagination, String username, boolean populateCanRun) {
-        PipelineInstanceModels history = pipelineDao.loadHistory(pipelineName, pagination.getPageSize(), pagination.getOffset());
+        PipelineInstanceModels history = pipelineDao.loadHistory(pipelineName, pagination);
 
         PipelineConfig pipelineConfig = goConfigService.pipelineConfigNamed(new CaseInsensitiveString(pipelineName));
 
@@ -150,7 +150,7 @@ public class PipelineHistoryService {
             return null;
         }
 
-        PipelineInstanceModels history = pipelineDao.loadHistory(pipelineName, pagination.getPageSize(), pagination.getOffset());
+        PipelineInstanceModels history = pipelineDao.loadHistory(pipelineName, pagination);
 
         return populatePipelineInstanceModels(username, history);
     }
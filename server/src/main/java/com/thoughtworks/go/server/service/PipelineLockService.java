@@ -68,6 +68,11 @@ public class PipelineLockService implements ConfigChangedListener {
                     }
                 }
             }
+
+            @Override
+            public boolean canBeNotifiedConcurrently() {
+                return true;
+            }
         };
     }
 
@@ -120,6 +125,11 @@ public class PipelineLockService implements ConfigChangedListener {
         }
     }
 
+    @Override
+    public boolean canBeNotifiedConcurrently() {
+        return true;
+    }
+
     public void registerListener(PipelineLockStatusChangeListener lockStatusChangeListener) {
         listeners.add(lockStatusChangeListener);
     }
@@ -33,6 +33,7 @@ import com.thoughtworks.go.server.domain.PipelineConfigDependencyGraph;
 import com.thoughtworks.go.server.domain.PipelineTimeline;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.dd.FanInGraph;
+import com.thoughtworks.go.server.service.dd.FanInGraphTopologies;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.util.SystemEnvironment;
 import org.apache.commons.lang.StringUtils;
@@ -42,6 +43,7 @@ import org.springframework.transaction.support.TransactionCallback;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 
@@ -59,6 +61,7 @@ public class PipelineService implements UpstreamPipelineResolver {
     private final SystemEnvironment systemEnvironment;
     private final GoConfigService goConfigService;
     private MaterialConfigConverter materialConfigConverter;
+    private final FanInGraphTopologies fanInGraphTopologies = new FanInGraphTopologies();
 
     @Autowired
     public PipelineService(PipelineSqlMapDao pipelineDao, StageService stageService, PipelineLockService pipelineLockService, PipelineTimeline pipelineTimeline, MaterialRepository materialRepository,
@@ -216,7 +219,7 @@ public class PipelineService implements UpstreamPipelineResolver {
     /* DIAMOND BEGIN */
 
     public MaterialRevisions getRevisionsBasedOnDependencies(MaterialRevisions actualRevisions, CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
-        FanInGraph fanInGraph = new FanInGraph(cruiseConfig, pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
+        FanInGraph fanInGraph = new FanInGraph(fanInGraphTopologies.topologyOf(cruiseConfig, pipelineName), pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
         final MaterialRevisions computedRevisions = fanInGraph.computeRevisions(actualRevisions, pipelineTimeline);
         fillUpNonOverridableRevisions(actualRevisions, computedRevisions);
         return restoreOriginalMaterialConfigAndMaterialOrderUsingFingerprint(actualRevisions, computedRevisions);
@@ -225,7 +228,7 @@ public class PipelineService implements UpstreamPipelineResolver {
     // This is for debugging purposes
     public String getRevisionsBasedOnDependenciesForDebug(CaseInsensitiveString pipelineName, final Integer targetIterationCount) {
         CruiseConfig cruiseConfig = goConfigService.getCurrentConfig();
-        FanInGraph fanInGraph = new FanInGraph(cruiseConfig, pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
+        FanInGraph fanInGraph = new FanInGraph(fanInGraphTopologies.topologyOf(cruiseConfig, pipelineName), pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
         final String[] iterationData = {null};
         fanInGraph.setFanInEventListener((iterationCount, dependencyFanInNodes) -> {
             if (iterationCount == targetIterationCount) {
@@ -266,7 +269,7 @@ public class PipelineService implements UpstreamPipelineResolver {
     //Srikant & Sachin
     @Deprecated
     public Collection<MaterialRevision> getRevisionsBasedOnDependenciesForReporting(CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
-        FanInGraph fanInGraph = new FanInGraph(cruiseConfig, pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
+        FanInGraph fanInGraph = new FanInGraph(fanInGraphTopologies.topologyOf(cruiseConfig, pipelineName), pipelineName, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
         return fanInGraph.computeRevisionsForReporting(pipelineName, pipelineTimeline);
     }
 
@@ -286,6 +289,10 @@ public class PipelineService implements UpstreamPipelineResolver {
         return pipelineDao.findBuildCauseOfPipelineByNameAndCounter(pipelineName, pipelineCounter);
     }
 
+    public Map<PipelineIdentifier, BuildCause> buildCausesFor(Collection<PipelineIdentifier> pipelineIdentifiers) {
+        return pipelineDao.findBuildCausesOfPipelinesByNameAndCounter(pipelineIdentifiers);
+    }
+
     private MaterialRevisions restoreOriginalMaterialConfigAndMaterialOrderUsingFingerprint(MaterialRevisions actualRevisions, MaterialRevisions computedRevisions) {
         MaterialRevisions orderedComputedRevisions = new MaterialRevisions();
         for (MaterialRevision actualRevision : actualRevisions) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.thoughtworks.go.config.SecretConfig;
+import com.thoughtworks.go.plugin.domain.secrets.Secret;
+import com.thoughtworks.go.security.CryptoException;
+import com.thoughtworks.go.security.GoCipher;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @understands remembering secrets recently looked up from secrets plugins, so that jobs scheduled in quick succession
+ * need not ask the plugin for the same secret again. Values are held encrypted. Entries are keyed by the whole secret
+ * config, so editing a secret config stops its earlier lookups from being used.
+ * <p>
+ * Disabled unless a timeout is configured.
+ */
+@Component
+public class ResolvedSecretsCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResolvedSecretsCache.class);
+
+    private final Cache<CacheKey, String> secrets;
+    private final GoCipher goCipher;
+    private final boolean enabled;
+
+    @Autowired
+    public ResolvedSecretsCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.getSecretsCacheSize(), systemEnvironment.getSecretsCacheTimeoutInSeconds(), Ticker.systemTicker(), new GoCipher());
+    }
+
+    ResolvedSecretsCache(int maximumSize, int timeoutInSeconds, Ticker ticker, GoCipher goCipher) {
+        this.enabled = timeoutInSeconds > 0 && maximumSize > 0;
+        this.goCipher = goCipher;
+        this.secrets = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maximumSize, 0))
+                .expireAfterWrite(Math.max(timeoutInSeconds, 0), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the secret last looked up for the key using the secret config, or null if it is not known
+     */
+    public Secret get(SecretConfig secretConfig, String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        String encryptedValue = secrets.getIfPresent(new CacheKey(secretConfig, key));
+        if (encryptedValue == null) {
+            return null;
+        }
+
+        try {
+            return new Secret(key, goCipher.decrypt(encryptedValue));
+        } catch (CryptoException e) {
+            LOGGER.warn("Could not decrypt cached secret '{}' of secret config '{}', it will be looked up again", key, secretConfig.getId(), e);
+            secrets.invalidate(new CacheKey(secretConfig, key));
+            return null;
+        }
+    }
+
+    public void put(SecretConfig secretConfig, Secret secret) {
+        if (!enabled || secret.getValue() == null) {
+            return;
+        }
+
+        try {
+            secrets.put(new CacheKey(secretConfig, secret.getKey()), goCipher.encrypt(secret.getValue()));
+        } catch (CryptoException e) {
+            LOGGER.warn("Could not encrypt secret '{}' of secret config '{}', it will not be cached", secret.getKey(), secretConfig.getId(), e);
+        }
+    }
+
+    private static class CacheKey {
+        private final SecretConfig secretConfig;
+        private final String key;
+
+        CacheKey(SecretConfig secretConfig, String key) {
+            this.secretConfig = secretConfig;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(secretConfig, cacheKey.secretConfig) &&
+                    Objects.equals(key, cacheKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(secretConfig, key);
+        }
+    }
+}
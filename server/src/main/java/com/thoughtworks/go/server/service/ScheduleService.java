@@ -54,8 +54,10 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.util.GoConstants.DEFAULT_APPROVED_BY;
@@ -604,9 +606,9 @@ public class ScheduleService {
         try {
             //TODO 2779
             AgentInstances knownAgents = agentService.findRegisteredAgents();
-            List<String> liveAgentIdList = getLiveAgentUuids(knownAgents);
-            if (!liveAgentIdList.isEmpty()) {
-                JobInstances jobs = jobInstanceService.findHungJobs(liveAgentIdList);
+            Set<String> liveAgentUuids = getLiveAgentUuids(knownAgents);
+            if (!liveAgentUuids.isEmpty()) {
+                JobInstances jobs = jobInstanceService.findHungJobs(liveAgentUuids);
                 for (JobInstance buildId : jobs) {
                     LOGGER.warn("Found hung job[id={}], rescheduling it", buildId);
                     rescheduleJob(buildId);
@@ -626,8 +628,8 @@ public class ScheduleService {
         }
     }
 
-    private List<String> getLiveAgentUuids(AgentInstances knownAgents) {
-        List<String> agents = new ArrayList<>();
+    private Set<String> getLiveAgentUuids(AgentInstances knownAgents) {
+        Set<String> agents = new HashSet<>();
         for (AgentInstance agent : knownAgents) {
             if (agent.getStatus() != AgentStatus.LostContact) {
                 agents.add(agent.getAgent().getUuid());
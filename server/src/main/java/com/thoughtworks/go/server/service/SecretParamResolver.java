@@ -15,20 +15,23 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.config.materials.ScmMaterial;
+import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
 import com.thoughtworks.go.plugin.access.secrets.SecretsExtension;
 import com.thoughtworks.go.plugin.domain.secrets.Secret;
 import com.thoughtworks.go.remote.work.BuildAssignment;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -40,12 +43,38 @@ public class SecretParamResolver {
     private SecretsExtension secretsExtension;
     private GoConfigService goConfigService;
     private RulesService rulesService;
+    private ResolvedSecretsCache resolvedSecretsCache;
+    private Function<String, ExecutorService> newLookupExecutor;
+    private ConcurrentMap<String, ExecutorService> lookupExecutors = new ConcurrentHashMap<>();
+    private long lookupTimeoutInMillis;
 
     @Autowired
-    public SecretParamResolver(SecretsExtension secretsExtension, GoConfigService goConfigService, RulesService rulesService) {
+    public SecretParamResolver(SecretsExtension secretsExtension, GoConfigService goConfigService, RulesService rulesService,
+                               ResolvedSecretsCache resolvedSecretsCache, SystemEnvironment systemEnvironment) {
+        this(secretsExtension, goConfigService, rulesService, resolvedSecretsCache,
+                pluginId -> lookupExecutor(pluginId, systemEnvironment.getNumberOfSecretsLookupThreadsPerPlugin(), systemEnvironment.getMaxPendingSecretsLookupsPerPlugin()),
+                TimeUnit.SECONDS.toMillis(systemEnvironment.getSecretsLookupTimeoutInSeconds()));
+    }
+
+    SecretParamResolver(SecretsExtension secretsExtension, GoConfigService goConfigService, RulesService rulesService,
+                        ResolvedSecretsCache resolvedSecretsCache, Function<String, ExecutorService> newLookupExecutor, long lookupTimeoutInMillis) {
         this.secretsExtension = secretsExtension;
         this.goConfigService = goConfigService;
         this.rulesService = rulesService;
+        this.resolvedSecretsCache = resolvedSecretsCache;
+        this.newLookupExecutor = newLookupExecutor;
+        this.lookupTimeoutInMillis = lookupTimeoutInMillis;
+    }
+
+    /**
+     * Each plugin gets its own threads, so a plugin which hangs only holds up lookups of its own secrets. Idle threads
+     * go away, so plugins which are no longer used do not keep threads around.
+     */
+    static ExecutorService lookupExecutor(String pluginId, int threads, int maxPendingLookups) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxPendingLookups),
+                new ThreadFactoryBuilder().setNameFormat("secrets-lookup-" + pluginId.replace("%", "%%") + "-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public void resolve(ScmMaterial scmMaterial) {
@@ -70,31 +99,97 @@ public class SecretParamResolver {
         resolve(environmentConfig.getSecretParams());
     }
 
+    /**
+     * Secrets of different secret configs are looked up concurrently, each lookup is given up on once the lookup timeout
+     * has passed since the secrets started being resolved. Calls into a plugin cannot be safely interrupted, so a lookup
+     * which is given up on is left to finish on its plugin's thread, and its result is dropped.
+     */
     protected void resolve(SecretParams secretParams) {
         if (secretParams == null || secretParams.isEmpty()) {
             LOGGER.debug("No secret params to resolve.");
             return;
         }
 
-        secretParams.groupBySecretConfigId().forEach(lookupAndUpdateSecretParamsValue());
-    }
-
-    private BiConsumer<String, SecretParams> lookupAndUpdateSecretParamsValue() {
-        return (secretConfigId, secretParamsToResolve) -> {
+        Map<SecretConfig, Map<String, List<SecretParam>>> secretParamsToLookup = new LinkedHashMap<>();
+        secretParams.groupBySecretConfigId().forEach((secretConfigId, secretParamsToResolve) -> {
             Map<String, List<SecretParam>> secretParamMap = secretParamsToResolve.stream().collect(groupingBy(SecretParam::getKey, Collectors.toList()));
             final SecretConfig secretConfig = goConfigService.cruiseConfig().getSecretConfigs().find(secretConfigId);
 
-            LOGGER.debug("Resolving secret params '{}' using secret config '{}'", secretParamMap.keySet(), secretConfig.getId());
-            List<Secret> resolvedSecrets = secretsExtension.lookupSecrets(secretConfig.getPluginId(), secretConfig, secretParamMap.keySet());
-            LOGGER.debug("Resolved secret size '{}'", resolvedSecrets.size());
+            Map<String, List<SecretParam>> notCached = resolveFromCache(secretConfig, secretParamMap);
+            if (!notCached.isEmpty()) {
+                secretParamsToLookup.put(secretConfig, notCached);
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + lookupTimeoutInMillis;
+        Map<SecretConfig, Future<List<Secret>>> lookups = new LinkedHashMap<>();
+        try {
+            secretParamsToLookup.forEach((secretConfig, secretParamMap) -> lookups.put(secretConfig, submit(secretConfig, secretParamMap.keySet())));
+            lookups.forEach((secretConfig, lookup) -> {
+                List<Secret> resolvedSecrets = await(secretConfig, lookup, deadline);
+                Map<String, List<SecretParam>> secretParamMap = secretParamsToLookup.get(secretConfig);
+
+                LOGGER.debug("Updating secret params '{}' with values.", secretParamMap.keySet());
+                resolvedSecrets.forEach(assignValue(secretParamMap));
+                resolvedSecrets.forEach(secret -> resolvedSecretsCache.put(secretConfig, secret));
+                LOGGER.debug("Secret params '{}' updated with values.", secretParamMap.keySet());
+            });
+        } finally {
+            lookups.values().forEach(lookup -> lookup.cancel(false));
+        }
+    }
+
+    private Future<List<Secret>> submit(SecretConfig secretConfig, Set<String> keys) {
+        ExecutorService executor = lookupExecutors.computeIfAbsent(String.valueOf(secretConfig.getPluginId()), newLookupExecutor);
+        try {
+            return executor.submit(() -> lookup(secretConfig, keys));
+        } catch (RejectedExecutionException e) {
+            throw new SecretResolutionFailureException(format("Too many secret lookups are waiting for plugin `%s`, not looking up secrets using secret config `%s`.", secretConfig.getPluginId(), secretConfig.getId()));
+        }
+    }
 
-            LOGGER.debug("Updating secret params '{}' with values.", secretParamMap.keySet());
-            resolvedSecrets.forEach(assignValue(secretParamMap));
-            LOGGER.debug("Secret params '{}' updated with values.", secretParamMap.keySet());
-        };
+    private Map<String, List<SecretParam>> resolveFromCache(SecretConfig secretConfig, Map<String, List<SecretParam>> secretParamMap) {
+        if (!resolvedSecretsCache.isEnabled()) {
+            return secretParamMap;
+        }
+
+        Map<String, List<SecretParam>> notCached = new HashMap<>();
+        secretParamMap.forEach((key, params) -> {
+            Secret secret = resolvedSecretsCache.get(secretConfig, key);
+            if (secret == null) {
+                notCached.put(key, params);
+            } else {
+                params.forEach(secretParam -> secretParam.setValue(secret.getValue()));
+            }
+        });
+        LOGGER.debug("Resolved {} secret param(s) using secret config '{}' from cache", secretParamMap.size() - notCached.size(), secretConfig.getId());
+        return notCached;
+    }
+
+    private List<Secret> lookup(SecretConfig secretConfig, Set<String> keys) {
+        LOGGER.debug("Resolving secret params '{}' using secret config '{}'", keys, secretConfig.getId());
+        List<Secret> resolvedSecrets = secretsExtension.lookupSecrets(secretConfig.getPluginId(), secretConfig, keys);
+        LOGGER.debug("Resolved secret size '{}'", resolvedSecrets.size());
+        return resolvedSecrets;
+    }
+
+    private List<Secret> await(SecretConfig secretConfig, Future<List<Secret>> lookup, long deadline) {
+        try {
+            return lookup.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SecretResolutionFailureException(format("Timed out after %d seconds looking up secrets using secret config `%s`.", TimeUnit.MILLISECONDS.toSeconds(lookupTimeoutInMillis), secretConfig.getId()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SecretResolutionFailureException(format("Interrupted while looking up secrets using secret config `%s`.", secretConfig.getId()));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     private Consumer<Secret> assignValue(Map<String, List<SecretParam>> secretParamMap) {
         return secret -> secretParamMap.get(secret.getKey()).forEach(secretParam -> secretParam.setValue(secret.getValue()));
     }
-}
\ No newline at end of file
+}
@@ -64,6 +64,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.server.service.ServiceConstants.History.validateCursor;
 
@@ -447,11 +448,22 @@ public class StageService implements StageFinder {
                                                        int pageNumber,
                                                        int pageSize,
                                                        Username username) {
+        return findStageHistoryForChart(pipelineName, stageName, pageNumber, pageSize, null, username);
+    }
+
+    public StageSummaryModels findStageHistoryForChart(String pipelineName,
+                                                       String stageName,
+                                                       int pageNumber,
+                                                       int pageSize,
+                                                       Long boundaryId,
+                                                       Username username) {
         int total = stageDao.getTotalStageCountForChart(pipelineName, stageName);
 
-        Pagination pagination = Pagination.pageByNumber(pageNumber, total, pageSize);
+        Pagination pagination = Pagination.pageByNumber(pageNumber, total, pageSize, boundaryId);
 
-        List<Stage> stages = stageDao.findStageHistoryForChart(pipelineName, stageName, pageSize, pagination.getOffset());
+        List<Stage> stages = stageDao.findStageHistoryForChart(pipelineName, stageName, pageSize, pagination.getOffset(), boundaryId);
+        List<Long> stageIds = stages.stream().map(Stage::getId).collect(Collectors.toList());
+        pagination = pagination.withPageBoundaries(stageDao.findStageHistoryForChartPageBoundaries(pipelineName, stageName, pagination, stageIds));
 
         StageSummaryModels stageSummaryModels = new StageSummaryModels();
         for (Stage forStage : stages) {
@@ -473,7 +485,19 @@ public class StageService implements StageFinder {
                                                          String stageName,
                                                          int pageNumber,
                                                          int pageSize) {
-        return stageDao.findStageHistoryPageByNumber(pipelineName, stageName, pageNumber, pageSize);
+        return findStageHistoryPageByNumber(pipelineName, stageName, pageNumber, pageSize, null);
+    }
+
+    /**
+     * @param boundaryId id of the stage instance just newer than the page, handed out with the links to the page, or
+     *                   null to find the page by its number alone
+     */
+    public StageHistoryPage findStageHistoryPageByNumber(String pipelineName,
+                                                         String stageName,
+                                                         int pageNumber,
+                                                         int pageSize,
+                                                         Long boundaryId) {
+        return stageDao.findStageHistoryPageByNumber(pipelineName, stageName, pageNumber, pageSize, boundaryId);
     }
 
     public StageInstanceModels findDetailedStageHistoryByOffset(String pipelineName,
@@ -95,6 +95,11 @@ public class TimerScheduler implements ConfigChangedListener {
                 unscheduleJob(CaseInsensitiveString.str(pipelineConfig.name()));
                 scheduleJob(quartzScheduler, pipelineConfig);
             }
+
+            @Override
+            public boolean canBeNotifiedConcurrently() {
+                return true;
+            }
         };
     }
 
@@ -156,6 +161,11 @@ public class TimerScheduler implements ConfigChangedListener {
         scheduleAllJobs(newCruiseConfig.getAllPipelineConfigs());
     }
 
+    @Override
+    public boolean canBeNotifiedConcurrently() {
+        return true;
+    }
+
     private void unscheduleAllJobs() {
         try {
             Set<JobKey> jobKeys = quartzScheduler.getJobKeys(groupEquals(PIPELINE_TRIGGGER_TIMER_GROUP));
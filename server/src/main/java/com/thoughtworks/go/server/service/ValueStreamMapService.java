@@ -20,6 +20,7 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.config.materials.dependency.DependencyMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.PipelineIdentifier;
 import com.thoughtworks.go.domain.buildcause.BuildCause;
 import com.thoughtworks.go.domain.materials.Material;
 import com.thoughtworks.go.domain.materials.MaterialConfig;
@@ -42,9 +43,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Service
 public class ValueStreamMapService {
@@ -103,7 +102,7 @@ public class ValueStreamMapService {
         Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap = cruiseConfig.generatePipelineVsDownstreamMap();
 
         traverseDownstream(pipelineName, pipelineToDownstreamMap, valueStreamMap, new ArrayList<>());
-        traverseUpstream(pipelineName, buildCauseForPipeline, valueStreamMap, new ArrayList<>());
+        traverseUpstream(pipelineName, buildCauseForPipeline, loadUpstreamBuildCauses(buildCauseForPipeline), valueStreamMap, new ArrayList<>());
 
         if (valueStreamMap.hasCycle()) {
             result.notImplemented("Value Stream Map of Pipeline '" + pipelineName + "' with counter '" + counter + "' can not be rendered. Changes to the configuration have introduced complex dependencies for this instance which are not supported currently.");
@@ -208,7 +207,37 @@ public class ValueStreamMapService {
         }
     }
 
-    private void traverseUpstream(CaseInsensitiveString pipelineName, BuildCause buildCause, ValueStreamMap graph, List<MaterialRevision> visitedNodes) {
+    // the build causes of each level upstream are loaded together, rather than one upstream pipeline at a time
+    private Map<PipelineIdentifier, BuildCause> loadUpstreamBuildCauses(BuildCause buildCause) {
+        Map<PipelineIdentifier, BuildCause> upstreamBuildCauses = new HashMap<>();
+        Collection<BuildCause> level = Collections.singletonList(buildCause);
+        while (!level.isEmpty()) {
+            Set<PipelineIdentifier> toLoad = new HashSet<>();
+            for (BuildCause buildCauseInLevel : level) {
+                for (MaterialRevision materialRevision : buildCauseInLevel.getMaterialRevisions()) {
+                    if (materialRevision.getMaterial() instanceof DependencyMaterial) {
+                        PipelineIdentifier upstreamInstance = upstreamInstanceOf((DependencyMaterialRevision) materialRevision.getRevision());
+                        if (!upstreamBuildCauses.containsKey(upstreamInstance)) {
+                            toLoad.add(upstreamInstance);
+                        }
+                    }
+                }
+            }
+            if (toLoad.isEmpty()) {
+                break;
+            }
+            Map<PipelineIdentifier, BuildCause> loaded = pipelineService.buildCausesFor(toLoad);
+            upstreamBuildCauses.putAll(loaded);
+            level = loaded.values();
+        }
+        return upstreamBuildCauses;
+    }
+
+    private PipelineIdentifier upstreamInstanceOf(DependencyMaterialRevision revision) {
+        return new PipelineIdentifier(revision.getPipelineName(), revision.getPipelineCounter());
+    }
+
+    private void traverseUpstream(CaseInsensitiveString pipelineName, BuildCause buildCause, Map<PipelineIdentifier, BuildCause> upstreamBuildCauses, ValueStreamMap graph, List<MaterialRevision> visitedNodes) {
         for (MaterialRevision materialRevision : buildCause.getMaterialRevisions()) {
             Material material = materialRevision.getMaterial();
             if (material instanceof DependencyMaterial) {
@@ -223,8 +252,11 @@ public class ValueStreamMapService {
                 }
                 visitedNodes.add(materialRevision);
                 DependencyMaterialRevision dmrOfUpstreamPipeline = buildCause.getMaterialRevisions().findDependencyMaterialRevision(upstreamPipeline.toString());
-                BuildCause buildCauseForUpstreamPipeline = pipelineService.buildCauseFor(dmrOfUpstreamPipeline.getPipelineName(), dmrOfUpstreamPipeline.getPipelineCounter());
-                traverseUpstream(upstreamPipeline, buildCauseForUpstreamPipeline, graph, visitedNodes);
+                BuildCause buildCauseForUpstreamPipeline = upstreamBuildCauses.get(upstreamInstanceOf(dmrOfUpstreamPipeline));
+                if (buildCauseForUpstreamPipeline == null) {
+                    buildCauseForUpstreamPipeline = pipelineService.buildCauseFor(dmrOfUpstreamPipeline.getPipelineName(), dmrOfUpstreamPipeline.getPipelineCounter());
+                }
+                traverseUpstream(upstreamPipeline, buildCauseForUpstreamPipeline, upstreamBuildCauses, graph, visitedNodes);
             } else {
                 graph.addUpstreamMaterialNode(new SCMDependencyNode(material.getFingerprint(), material.getUriForDisplay(), materialRevision.getMaterialType()), material.getName(),
                         pipelineName, materialRevision);
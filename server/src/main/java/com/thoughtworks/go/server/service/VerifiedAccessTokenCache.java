@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.thoughtworks.go.domain.AccessToken;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * @understands remembering access tokens which were recently verified, so that repeated requests with the same token
+ * need neither a database lookup nor a key derivation. Presented tokens are never held in memory; entries are keyed
+ * by an HMAC of the token with a key generated when the server starts.
+ * <p>
+ * Every invalidation bumps a revocation version. A token is only cached if no invalidation happened since its lookup
+ * started, so a lookup which read a token just before it was revoked cannot put it back.
+ */
+@Component
+public class VerifiedAccessTokenCache {
+    private final Cache<String, AccessToken> verifiedTokens;
+    private final HashFunction keyedHash;
+    private long revocationVersion;
+
+    @Autowired
+    public VerifiedAccessTokenCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.getAccessTokenCacheSize(), systemEnvironment.getAccessTokenCacheTimeoutInSeconds(), Ticker.systemTicker());
+    }
+
+    VerifiedAccessTokenCache(int maximumSize, int timeoutInSeconds, Ticker ticker) {
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeoutInSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.keyedHash = Hashing.hmacSha256(key);
+    }
+
+    public AccessToken get(String presentedToken) {
+        return verifiedTokens.getIfPresent(keyFor(presentedToken));
+    }
+
+    /**
+     * @return the revocation version to pass to {@link #put(String, AccessToken, long)}, read before looking up a token
+     */
+    public synchronized long revocationVersion() {
+        return revocationVersion;
+    }
+
+    public synchronized void put(String presentedToken, AccessToken verifiedToken, long revocationVersionBeforeLookup) {
+        if (revocationVersion == revocationVersionBeforeLookup) {
+            verifiedTokens.put(keyFor(presentedToken), verifiedToken);
+        }
+    }
+
+    public synchronized void invalidate(long accessTokenId) {
+        revocationVersion++;
+        verifiedTokens.asMap().values().removeIf(token -> token.getId() == accessTokenId);
+    }
+
+    public synchronized void invalidate(Collection<String> usernames) {
+        revocationVersion++;
+        verifiedTokens.asMap().values().removeIf(token -> usernames.stream().anyMatch(username -> username.equalsIgnoreCase(token.getUsername())));
+    }
+
+    public synchronized void invalidateAll() {
+        revocationVersion++;
+        verifiedTokens.invalidateAll();
+    }
+
+    public long size() {
+        return verifiedTokens.size();
+    }
+
+    public CacheStats stats() {
+        return verifiedTokens.stats();
+    }
+
+    private String keyFor(String presentedToken) {
+        return keyedHash.hashString(presentedToken, UTF_8).toString();
+    }
+}
@@ -132,28 +132,42 @@ public class DependencyFanInNode extends FanInNode {
     }
 
     private Pair<StageIdentifier, List<FaninScmMaterial>> getRevisionNthFor(int n, FanInGraphContext context) {
-        List<FaninScmMaterial> scmMaterials = new ArrayList<>();
-        PipelineTimeline pipelineTimeline = context.pipelineTimeline;
-        Queue<PipelineTimelineEntry.Revision> revisionQueue = new ConcurrentLinkedQueue<>();
         DependencyMaterialConfig dependencyMaterial = (DependencyMaterialConfig) materialConfig;
-        PipelineTimelineEntry entry = pipelineTimeline.instanceFor(dependencyMaterial.getPipelineName(), totalInstanceCount - n);
-
-        Set<CaseInsensitiveString> visitedNodes = new HashSet<>();
+        PipelineTimelineEntry entry = context.pipelineTimeline.instanceFor(dependencyMaterial.getPipelineName(), totalInstanceCount - n);
 
         StageIdentifier dependentStageIdentifier = dependentStageIdentifier(context, entry, CaseInsensitiveString.str(dependencyMaterial.getStageName()));
-        if (!StageIdentifier.NULL.equals(dependentStageIdentifier)) {
-            addToRevisionQueue(entry, revisionQueue, scmMaterials, context, visitedNodes);
-        } else {
+        if (StageIdentifier.NULL.equals(dependentStageIdentifier)) {
             return null;
         }
+        return new Pair<>(dependentStageIdentifier, upstreamScmMaterialsOf(entry, context));
+    }
+
+    private List<FaninScmMaterial> upstreamScmMaterialsOf(PipelineTimelineEntry entry, FanInGraphContext context) {
+        if (context.upstreamScmMaterialsOfInstances == null) {
+            return findUpstreamScmMaterialsOf(entry, context);
+        }
+        List<FaninScmMaterial> scmMaterials = context.upstreamScmMaterialsOfInstances.get(entry.getId());
+        if (scmMaterials == null) {
+            scmMaterials = Collections.unmodifiableList(findUpstreamScmMaterialsOf(entry, context));
+            context.upstreamScmMaterialsOfInstances.put(entry.getId(), scmMaterials);
+        }
+        return scmMaterials;
+    }
+
+    private List<FaninScmMaterial> findUpstreamScmMaterialsOf(PipelineTimelineEntry entry, FanInGraphContext context) {
+        List<FaninScmMaterial> scmMaterials = new ArrayList<>();
+        PipelineTimeline pipelineTimeline = context.pipelineTimeline;
+        Queue<PipelineTimelineEntry.Revision> revisionQueue = new ConcurrentLinkedQueue<>();
+        Set<CaseInsensitiveString> visitedNodes = new HashSet<>();
+
+        addToRevisionQueue(entry, revisionQueue, scmMaterials, context, visitedNodes);
         while (!revisionQueue.isEmpty()) {
             PipelineTimelineEntry.Revision revision = revisionQueue.poll();
             DependencyMaterialRevision dmr = DependencyMaterialRevision.create(revision.revision, null);
             PipelineTimelineEntry pte = pipelineTimeline.getEntryFor(new CaseInsensitiveString(dmr.getPipelineName()), dmr.getPipelineCounter());
             addToRevisionQueue(pte, revisionQueue, scmMaterials, context, visitedNodes);
         }
-
-        return new Pair<>(dependentStageIdentifier, scmMaterials);
+        return scmMaterials;
     }
 
     private boolean validateAllScmRevisionsAreSameWithinAFingerprint(Pair<StageIdentifier, List<FaninScmMaterial>> pIdScmPair) {
@@ -17,7 +17,6 @@ package com.thoughtworks.go.server.service.dd;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.CruiseConfig;
-import com.thoughtworks.go.config.PipelineConfig;
 import com.thoughtworks.go.config.materials.MaterialConfigs;
 import com.thoughtworks.go.config.materials.ScmMaterialConfig;
 import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
@@ -46,14 +45,11 @@ public class FanInGraph {
     private static final int REVISION_BUFFER_SIZE = 5;
 
     private final PipelineDao pipelineDao;
-    private final CruiseConfig cruiseConfig;
     private final MaterialRepository materialRepository;
     private MaterialConfigConverter materialConfigConverter;
 
+    private final FanInGraphTopology topology;
     private final Map<String, FanInNode> nodes = new HashMap<>();
-    private final Map<String, MaterialConfig> fingerprintScmMaterialMap = new HashMap<>();
-    private final Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap = new HashMap<>();
-    private final Map<DependencyMaterialConfig, Set<String>> dependencyMaterialFingerprintMap = new HashMap<>();
 
     private final DependencyFanInNode root;
     private final CaseInsensitiveString pipelineName;
@@ -62,60 +58,42 @@ public class FanInGraph {
 
     public FanInGraph(CruiseConfig cruiseConfig, CaseInsensitiveString root, MaterialRepository materialRepository, PipelineDao pipelineDao, SystemEnvironment systemEnvironment,
                       MaterialConfigConverter materialConfigConverter) {
-        this.cruiseConfig = cruiseConfig;
+        this(new FanInGraphTopology(cruiseConfig, root), root, materialRepository, pipelineDao, systemEnvironment, materialConfigConverter);
+    }
+
+    public FanInGraph(FanInGraphTopology topology, CaseInsensitiveString root, MaterialRepository materialRepository, PipelineDao pipelineDao, SystemEnvironment systemEnvironment,
+                      MaterialConfigConverter materialConfigConverter) {
+        this.topology = topology;
         this.materialRepository = materialRepository;
         this.pipelineDao = pipelineDao;
         this.pipelineName = root;
         this.systemEnvironment = systemEnvironment;
         this.materialConfigConverter = materialConfigConverter;
 
-        PipelineConfig target = cruiseConfig.pipelineConfigByName(root);
-        this.root = (DependencyFanInNode) FanInNodeFactory.create(new DependencyMaterialConfig(target.name(), target.get(0).name()));
+        this.root = (DependencyFanInNode) FanInNodeFactory.create(topology.root());
 
-        buildGraph(target);
+        buildGraph();
     }
 
-    private void buildGraph(PipelineConfig target) {
+    private void buildGraph() {
         nodes.put(this.root.materialConfig.getFingerprint(), this.root);
-        final Set<String> scmMaterials = new HashSet<>();
-        buildRestOfTheGraph(this.root, target, scmMaterials, new HashSet<>());
-        dependencyMaterialFingerprintMap.put((DependencyMaterialConfig) this.root.materialConfig, scmMaterials);
+        buildRestOfTheGraph(this.root, topology.materialsOf(pipelineName), new HashSet<>());
     }
 
-    private void buildRestOfTheGraph(DependencyFanInNode root, PipelineConfig target, Set<String> scmMaterialSet, Set<DependencyMaterialConfig> visitedNodes) {
-        for (MaterialConfig material : target.materialConfigs()) {
+    private void buildRestOfTheGraph(DependencyFanInNode root, MaterialConfigs materialConfigs, Set<DependencyMaterialConfig> visitedNodes) {
+        for (MaterialConfig material : materialConfigs) {
             FanInNode node = createNode(material);
             root.children.add(node);
             node.parents.add(root);
             if (node instanceof DependencyFanInNode) {
                 DependencyMaterialConfig dependencyMaterial = (DependencyMaterialConfig) material;
-                fingerprintDepMaterialMap.put(dependencyMaterial.getFingerprint(), dependencyMaterial);
-                handleDependencyMaterial(scmMaterialSet, dependencyMaterial, (DependencyFanInNode) node, visitedNodes);
-            } else {
-                handleScmMaterial(scmMaterialSet, material);
+                if (visitedNodes.add(dependencyMaterial)) {
+                    buildRestOfTheGraph((DependencyFanInNode) node, topology.materialsOf(dependencyMaterial.getPipelineName()), visitedNodes);
+                }
             }
         }
     }
 
-    private void handleScmMaterial(Set<String> scmMaterialSet, MaterialConfig material) {
-        final String fingerprint = material.getFingerprint();
-        scmMaterialSet.add(fingerprint);
-        fingerprintScmMaterialMap.put(fingerprint, material);
-    }
-
-    private void handleDependencyMaterial(Set<String> scmMaterialSet, DependencyMaterialConfig depMaterial, DependencyFanInNode node, Set<DependencyMaterialConfig> visitedNodes) {
-        if (visitedNodes.contains(depMaterial)) {
-            scmMaterialSet.addAll(dependencyMaterialFingerprintMap.get(depMaterial));
-            return;
-        }
-        visitedNodes.add(depMaterial);
-
-        final Set<String> scmMaterialFingerprintSet = new HashSet<>();
-        buildRestOfTheGraph(node, cruiseConfig.pipelineConfigByName(depMaterial.getPipelineName()), scmMaterialFingerprintSet, visitedNodes);
-        dependencyMaterialFingerprintMap.put(depMaterial, scmMaterialFingerprintSet);
-        scmMaterialSet.addAll(scmMaterialFingerprintSet);
-    }
-
     private FanInNode createNode(MaterialConfig material) {
         FanInNode node = nodes.get(material.getFingerprint());
         if (node == null) {
@@ -142,17 +120,7 @@ public class FanInGraph {
     }
 
     public Map<DependencyMaterialConfig, Set<MaterialConfig>> getPipelineScmDepMap() {
-        Map<DependencyMaterialConfig, Set<MaterialConfig>> dependencyMaterialListMap = new HashMap<>();
-
-        for (Map.Entry<DependencyMaterialConfig, Set<String>> materialSetEntry : dependencyMaterialFingerprintMap.entrySet()) {
-            Set<MaterialConfig> scmMaterials = new HashSet<>();
-            for (String fingerprint : materialSetEntry.getValue()) {
-                scmMaterials.add(fingerprintScmMaterialMap.get(fingerprint));
-            }
-            dependencyMaterialListMap.put(materialSetEntry.getKey(), scmMaterials);
-        }
-
-        return dependencyMaterialListMap;
+        return topology.pipelineScmDepMap();
     }
 
     public MaterialRevisions computeRevisions(MaterialRevisions actualRevisions, PipelineTimeline pipelineTimeline) {
@@ -382,9 +350,10 @@ public class FanInGraph {
         FanInGraphContext context = new FanInGraphContext();
         context.revBatchCount = REVISION_BUFFER_SIZE;
         context.pipelineTimeline = pipelineTimeline;
-        context.fingerprintScmMaterialMap = fingerprintScmMaterialMap;
-        context.pipelineScmDepMap = getPipelineScmDepMap();
-        context.fingerprintDepMaterialMap = fingerprintDepMaterialMap;
+        context.fingerprintScmMaterialMap = topology.fingerprintScmMaterialMap();
+        context.pipelineScmDepMap = topology.pipelineScmDepMap();
+        context.fingerprintDepMaterialMap = topology.fingerprintDepMaterialMap();
+        context.upstreamScmMaterialsOfInstances = topology.upstreamScmMaterialsOfInstances();
         context.pipelineDao = pipelineDao;
         context.maxBackTrackLimit = systemEnvironment.get(SystemEnvironment.RESOLVE_FANIN_MAX_BACK_TRACK_LIMIT);
         return context;
@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.service.dd;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,4 +32,5 @@ public class FanInGraphContext {
     public Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap;
     public PipelineDao pipelineDao;
     public int maxBackTrackLimit;
+    Map<Long, List<FaninScmMaterial>> upstreamScmMaterialsOfInstances;
 }
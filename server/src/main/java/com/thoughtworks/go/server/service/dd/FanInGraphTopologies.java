@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.dd;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.CruiseConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @understands the fan-in graph topology of each pipeline in the current config
+ * <p>
+ * Topologies are forgotten as soon as a different config is asked for. The config is compared by identity rather than
+ * by its md5, as changes from config repositories give a new config without changing the md5 of the config file.
+ */
+public class FanInGraphTopologies {
+    private volatile TopologiesOfConfig current = new TopologiesOfConfig(null);
+
+    public FanInGraphTopology topologyOf(CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
+        TopologiesOfConfig topologies = current;
+        if (topologies.cruiseConfig != cruiseConfig) {
+            topologies = new TopologiesOfConfig(cruiseConfig);
+            current = topologies;
+        }
+        return topologies.topologies.computeIfAbsent(pipelineName, name -> new FanInGraphTopology(cruiseConfig, name));
+    }
+
+    private static class TopologiesOfConfig {
+        private final CruiseConfig cruiseConfig;
+        private final Map<CaseInsensitiveString, FanInGraphTopology> topologies = new ConcurrentHashMap<>();
+
+        TopologiesOfConfig(CruiseConfig cruiseConfig) {
+            this.cruiseConfig = cruiseConfig;
+        }
+    }
+}
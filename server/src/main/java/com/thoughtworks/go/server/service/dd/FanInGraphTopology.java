@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.dd;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.config.PipelineConfig;
+import com.thoughtworks.go.config.materials.MaterialConfigs;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @understands the upstream materials of a pipeline, as configured in one version of the config
+ * <p>
+ * Does not change once built, and can be shared by any number of fan-in graphs of the pipeline, computing revisions at
+ * the same time. Also remembers the upstream scm revisions found for instances of upstream pipelines, as those depend
+ * only on the instance and on the materials known here.
+ */
+public class FanInGraphTopology {
+    static final int MAX_REMEMBERED_INSTANCES = 1000;
+
+    private final DependencyMaterialConfig root;
+    private final Map<CaseInsensitiveString, MaterialConfigs> materialsOfPipelines = new HashMap<>();
+    private final Map<String, MaterialConfig> fingerprintScmMaterialMap = new HashMap<>();
+    private final Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap = new HashMap<>();
+    private final Map<DependencyMaterialConfig, Set<String>> dependencyMaterialFingerprintMap = new HashMap<>();
+    private final Map<DependencyMaterialConfig, Set<MaterialConfig>> pipelineScmDepMap;
+    private final Map<Long, List<FaninScmMaterial>> upstreamScmMaterialsOfInstances = new ConcurrentHashMap<>();
+
+    public FanInGraphTopology(CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
+        PipelineConfig target = cruiseConfig.pipelineConfigByName(pipelineName);
+        this.root = new DependencyMaterialConfig(target.name(), target.get(0).name());
+        materialsOfPipelines.put(target.name(), target.materialConfigs());
+
+        final Set<String> scmMaterials = new HashSet<>();
+        walkUpstreamOf(cruiseConfig, target, scmMaterials, new HashSet<>());
+        dependencyMaterialFingerprintMap.put(root, scmMaterials);
+        this.pipelineScmDepMap = Collections.unmodifiableMap(buildPipelineScmDepMap());
+    }
+
+    private void walkUpstreamOf(CruiseConfig cruiseConfig, PipelineConfig target, Set<String> scmMaterialSet, Set<DependencyMaterialConfig> visitedNodes) {
+        for (MaterialConfig material : target.materialConfigs()) {
+            if (material instanceof DependencyMaterialConfig) {
+                DependencyMaterialConfig dependencyMaterial = (DependencyMaterialConfig) material;
+                fingerprintDepMaterialMap.put(dependencyMaterial.getFingerprint(), dependencyMaterial);
+                handleDependencyMaterial(cruiseConfig, scmMaterialSet, dependencyMaterial, visitedNodes);
+            } else {
+                scmMaterialSet.add(material.getFingerprint());
+                fingerprintScmMaterialMap.put(material.getFingerprint(), material);
+            }
+        }
+    }
+
+    private void handleDependencyMaterial(CruiseConfig cruiseConfig, Set<String> scmMaterialSet, DependencyMaterialConfig depMaterial, Set<DependencyMaterialConfig> visitedNodes) {
+        if (visitedNodes.contains(depMaterial)) {
+            scmMaterialSet.addAll(dependencyMaterialFingerprintMap.get(depMaterial));
+            return;
+        }
+        visitedNodes.add(depMaterial);
+
+        PipelineConfig upstream = cruiseConfig.pipelineConfigByName(depMaterial.getPipelineName());
+        materialsOfPipelines.put(upstream.name(), upstream.materialConfigs());
+        final Set<String> scmMaterialFingerprintSet = new HashSet<>();
+        walkUpstreamOf(cruiseConfig, upstream, scmMaterialFingerprintSet, visitedNodes);
+        dependencyMaterialFingerprintMap.put(depMaterial, scmMaterialFingerprintSet);
+        scmMaterialSet.addAll(scmMaterialFingerprintSet);
+    }
+
+    private Map<DependencyMaterialConfig, Set<MaterialConfig>> buildPipelineScmDepMap() {
+        Map<DependencyMaterialConfig, Set<MaterialConfig>> dependencyMaterialListMap = new HashMap<>();
+        for (Map.Entry<DependencyMaterialConfig, Set<String>> materialSetEntry : dependencyMaterialFingerprintMap.entrySet()) {
+            Set<MaterialConfig> scmMaterials = new HashSet<>();
+            for (String fingerprint : materialSetEntry.getValue()) {
+                scmMaterials.add(fingerprintScmMaterialMap.get(fingerprint));
+            }
+            dependencyMaterialListMap.put(materialSetEntry.getKey(), Collections.unmodifiableSet(scmMaterials));
+        }
+        return dependencyMaterialListMap;
+    }
+
+    DependencyMaterialConfig root() {
+        return root;
+    }
+
+    MaterialConfigs materialsOf(CaseInsensitiveString pipelineName) {
+        return materialsOfPipelines.get(pipelineName);
+    }
+
+    Map<String, MaterialConfig> fingerprintScmMaterialMap() {
+        return Collections.unmodifiableMap(fingerprintScmMaterialMap);
+    }
+
+    Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap() {
+        return Collections.unmodifiableMap(fingerprintDepMaterialMap);
+    }
+
+    Map<DependencyMaterialConfig, Set<MaterialConfig>> pipelineScmDepMap() {
+        return pipelineScmDepMap;
+    }
+
+    Map<Long, List<FaninScmMaterial>> upstreamScmMaterialsOfInstances() {
+        if (upstreamScmMaterialsOfInstances.size() > MAX_REMEMBERED_INSTANCES) {
+            upstreamScmMaterialsOfInstances.clear();
+        }
+        return upstreamScmMaterialsOfInstances;
+    }
+}
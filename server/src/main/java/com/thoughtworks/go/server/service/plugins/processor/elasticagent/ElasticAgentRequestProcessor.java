@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.service.plugins.processor.elasticagent;
 import com.thoughtworks.go.plugin.api.request.GoApiRequest;
 import com.thoughtworks.go.plugin.api.response.GoApiResponse;
 import com.thoughtworks.go.plugin.infra.GoPluginApiRequestProcessor;
+import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.PluginRequestProcessorRegistry;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.service.AgentService;
@@ -35,10 +36,8 @@ public class ElasticAgentRequestProcessor implements GoPluginApiRequestProcessor
     private Map<String, VersionableElasticAgentProcessor> versionableProcessorMap = new HashMap<>();
 
     @Autowired
-    public ElasticAgentRequestProcessor(PluginRequestProcessorRegistry registry, AgentService agentService) {
-        this(registry, new HashMap<String, VersionableElasticAgentProcessor>() {{
-            put("1.0", new ElasticAgentRequestProcessorV1(agentService));
-        }});
+    public ElasticAgentRequestProcessor(PluginRequestProcessorRegistry registry, PluginManager pluginManager, AgentService agentService) {
+        this(registry, versionableProcessors(pluginManager, agentService));
     }
 
     ElasticAgentRequestProcessor(PluginRequestProcessorRegistry registry, Map<String, VersionableElasticAgentProcessor> versionableElasticAgentProcessors) {
@@ -51,6 +50,15 @@ public class ElasticAgentRequestProcessor implements GoPluginApiRequestProcessor
         registry.registerProcessorFor(REQUEST_SERVER_LIST_AGENTS, this);
     }
 
+    private static Map<String, VersionableElasticAgentProcessor> versionableProcessors(PluginManager pluginManager, AgentService agentService) {
+        ElasticAgentRequestProcessorV1 elasticAgentRequestProcessorV1 = new ElasticAgentRequestProcessorV1(agentService);
+        pluginManager.addPluginChangeListener(elasticAgentRequestProcessorV1);
+
+        Map<String, VersionableElasticAgentProcessor> versionableProcessors = new HashMap<>();
+        versionableProcessors.put(ElasticAgentRequestProcessorV1.VERSION, elasticAgentRequestProcessorV1);
+        return versionableProcessors;
+    }
+
     @Override
     public GoApiResponse process(final GoPluginDescriptor pluginDescriptor, GoApiRequest goPluginApiRequest) {
         return elasticAgentProcessorForVersion(goPluginApiRequest.apiVersion())
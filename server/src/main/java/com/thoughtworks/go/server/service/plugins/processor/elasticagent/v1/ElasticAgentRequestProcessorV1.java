@@ -19,18 +19,22 @@ import com.thoughtworks.go.plugin.access.elastic.models.AgentMetadata;
 import com.thoughtworks.go.plugin.api.request.GoApiRequest;
 import com.thoughtworks.go.plugin.api.response.DefaultGoApiResponse;
 import com.thoughtworks.go.plugin.api.response.GoApiResponse;
+import com.thoughtworks.go.plugin.infra.PluginChangeListener;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.service.AgentService;
 import com.thoughtworks.go.server.service.plugins.processor.elasticagent.AbstractVersionableElasticAgentProcessor;
 import com.thoughtworks.go.server.service.plugins.processor.elasticagent.ElasticAgentProcessorConverter;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.thoughtworks.go.server.service.plugins.processor.elasticagent.v1.ElasticAgentProcessorRequestsV1.*;
 
-public class ElasticAgentRequestProcessorV1 extends AbstractVersionableElasticAgentProcessor {
+public class ElasticAgentRequestProcessorV1 extends AbstractVersionableElasticAgentProcessor implements PluginChangeListener {
     public static final String VERSION = "1.0";
     private ElasticAgentProcessorConverter elasticAgentProcessorConverterV1;
+    private final ConcurrentMap<String, AgentList> lastAgentListByPlugin = new ConcurrentHashMap<>();
 
     public ElasticAgentRequestProcessorV1(AgentService agentService) {
         this(agentService, new ElasticAgentProcessorConverterV1());
@@ -58,7 +62,14 @@ public class ElasticAgentRequestProcessorV1 extends AbstractVersionableElasticAg
     @Override
     public GoApiResponse processListAgents(GoPluginDescriptor pluginDescriptor, GoApiRequest goPluginApiRequest) {
         final Collection<AgentMetadata> metadata = getAgentMetadataForPlugin(pluginDescriptor.id());
+        // plugins list agents on every server ping, and their agents rarely change between two pings
+        AgentList lastAgentList = lastAgentListByPlugin.get(pluginDescriptor.id());
+        if (lastAgentList != null && lastAgentList.metadata.equals(metadata)) {
+            return DefaultGoApiResponse.success(lastAgentList.responseBody);
+        }
+
         String responseBody = elasticAgentProcessorConverterV1.listAgentsResponseBody(metadata);
+        lastAgentListByPlugin.put(pluginDescriptor.id(), new AgentList(metadata, responseBody));
         return DefaultGoApiResponse.success(responseBody);
     }
 
@@ -81,4 +92,23 @@ public class ElasticAgentRequestProcessorV1 extends AbstractVersionableElasticAg
     public String version() {
         return VERSION;
     }
+
+    @Override
+    public void pluginLoaded(GoPluginDescriptor pluginDescriptor) {
+    }
+
+    @Override
+    public void pluginUnLoaded(GoPluginDescriptor pluginDescriptor) {
+        lastAgentListByPlugin.remove(pluginDescriptor.id());
+    }
+
+    private static class AgentList {
+        private final Collection<AgentMetadata> metadata;
+        private final String responseBody;
+
+        AgentList(Collection<AgentMetadata> metadata, String responseBody) {
+            this.metadata = metadata;
+            this.responseBody = responseBody;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.config.ConfigChangeNotifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ConfigChangeNotificationInformationProvider extends StatisticsInformationProvider {
+    private final ConfigChangeNotifier configChangeNotifier;
+
+    @Autowired
+    public ConfigChangeNotificationInformationProvider(ConfigChangeNotifier configChangeNotifier) {
+        this.configChangeNotifier = configChangeNotifier;
+    }
+
+    @Override
+    public double priority() {
+        return 18.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        configChangeNotifier.listenerStatistics().forEach((listener, statistics) -> {
+            LinkedHashMap<String, Object> listenerJson = new LinkedHashMap<>();
+            addTimings(listenerJson, statistics, "Notifications", "Notification Time");
+            listenerJson.put("Last Failure", statistics.getLastFailure());
+            json.put(listener, listenerJson);
+        });
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Config Change Listeners";
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.config.ConfigRepoParseCache;
+import com.thoughtworks.go.server.materials.ConfigMaterialParseExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ConfigRepoParseInformationProvider extends StatisticsInformationProvider {
+    private final ConfigMaterialParseExecutor parseExecutor;
+    private final ConfigRepoParseCache parseCache;
+
+    @Autowired
+    public ConfigRepoParseInformationProvider(ConfigMaterialParseExecutor parseExecutor, ConfigRepoParseCache parseCache) {
+        this.parseExecutor = parseExecutor;
+        this.parseCache = parseCache;
+    }
+
+    @Override
+    public double priority() {
+        return 16.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> repos = new LinkedHashMap<>();
+        parseExecutor.parseStatistics().forEach((fingerprint, statistics) -> {
+            LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+            json.put("Plugin", statistics.getPluginId());
+            json.put("Last Parsed Revision", statistics.getLastRevision());
+            addTimings(json, statistics, "Parses", "Parse Time");
+            repos.put(fingerprint, json);
+        });
+
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("Pending Parses", parseExecutor.pendingParseCount());
+        json.put("Parse Cache Enabled", parseCache.isEnabled());
+        json.put("Parse Cache Hits", parseCache.hitCount());
+        json.put("Parse Cache Misses", parseCache.missCount());
+        json.put("Config Repositories", repos);
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Config Repository Parse Information";
+    }
+}
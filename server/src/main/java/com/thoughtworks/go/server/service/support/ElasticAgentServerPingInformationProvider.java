@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.messaging.elasticagents.ServerPingStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ElasticAgentServerPingInformationProvider extends StatisticsInformationProvider {
+    private final ServerPingStatistics serverPingStatistics;
+
+    @Autowired
+    public ElasticAgentServerPingInformationProvider(ServerPingStatistics serverPingStatistics) {
+        this.serverPingStatistics = serverPingStatistics;
+    }
+
+    @Override
+    public double priority() {
+        return 23.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        serverPingStatistics.statistics().forEach((pluginId, pings) -> {
+            LinkedHashMap<String, Object> pluginJson = new LinkedHashMap<>();
+            addTimings(pluginJson, pings, "Pings", "Ping Time");
+            pluginJson.put("Pings Skipped", pings.getSkippedCount());
+            pluginJson.put("Last Successful Ping", pings.getLastSuccessAt() == 0 ? null : new Date(pings.getLastSuccessAt()).toString());
+            json.put(pluginId, pluginJson);
+        });
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Elastic Agent Server Pings";
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.materials.InProgressMaterialUpdate;
+import com.thoughtworks.go.server.materials.MaterialUpdateService;
+import com.thoughtworks.go.util.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MaterialUpdateInformationProvider implements ServerInfoProvider {
+    private final MaterialUpdateService materialUpdateService;
+
+    @Autowired
+    public MaterialUpdateInformationProvider(MaterialUpdateService materialUpdateService) {
+        this.materialUpdateService = materialUpdateService;
+    }
+
+    @Override
+    public double priority() {
+        return 15.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        List<InProgressMaterialUpdate> updates = materialUpdateService.inProgressMaterialUpdates();
+        Date now = new Date();
+
+        List<Map<String, Object>> inProgress = new ArrayList<>();
+        for (InProgressMaterialUpdate update : updates) {
+            LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+            json.put("Fingerprint", update.getMaterial().getFingerprint());
+            json.put("Material", update.getMaterial().getUriForDisplay());
+            json.put("Type", update.getMaterial().getTypeForDisplay());
+            json.put("Queue", update.getQueueName());
+            json.put("Being Updated", update.isBeingUpdated());
+            json.put("Queue Position", update.isBeingUpdated() ? null : update.getQueuePosition());
+            json.put("In Progress Since", DateUtils.formatISO8601(update.getInProgressSince()));
+            json.put("Age in milliseconds", update.ageInMillis(now));
+            inProgress.add(json);
+        }
+
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        json.put("In Progress Count", updates.size());
+        json.put("In Progress", inProgress);
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Material Update Information";
+    }
+}
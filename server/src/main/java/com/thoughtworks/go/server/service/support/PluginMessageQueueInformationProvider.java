@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.messaging.PluginMessageQueueHandler;
+import com.thoughtworks.go.server.messaging.PluginQueueBulkhead;
+import com.thoughtworks.go.server.messaging.elasticagents.CreateAgentQueueHandler;
+import com.thoughtworks.go.server.messaging.elasticagents.ServerPingQueueHandler;
+import com.thoughtworks.go.server.messaging.notifications.PluginNotificationsQueueHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+@Component
+public class PluginMessageQueueInformationProvider extends StatisticsInformationProvider {
+    private final List<PluginMessageQueueHandler<?>> queueHandlers;
+
+    @Autowired
+    public PluginMessageQueueInformationProvider(CreateAgentQueueHandler createAgentQueueHandler, ServerPingQueueHandler serverPingQueueHandler,
+                                                 PluginNotificationsQueueHandler notificationsQueueHandler) {
+        this.queueHandlers = asList(createAgentQueueHandler, serverPingQueueHandler, notificationsQueueHandler);
+    }
+
+    @Override
+    public double priority() {
+        return 21.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        for (PluginMessageQueueHandler<?> queueHandler : queueHandlers) {
+            for (PluginQueueBulkhead bulkhead : queueHandler.bulkheads().values()) {
+                LinkedHashMap<String, Object> queueJson = new LinkedHashMap<>();
+                queueJson.put("Pending Messages", bulkhead.getPendingMessages());
+                queueJson.put("Circuit Open", bulkhead.isCircuitOpen());
+                queueJson.put("Times Circuit Opened", bulkhead.getCircuitOpenedCount());
+                addTimings(queueJson, bulkhead.getCalls(), "Calls", "Call Time");
+                queueJson.put("Slow Calls", bulkhead.getSlowCallCount());
+                queueJson.put("Messages Rejected", bulkhead.getRejectedCount());
+                queueJson.put("Messages Skipped", bulkhead.getSkippedCount());
+                json.put(bulkhead.getQueueName(), queueJson);
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Plugin Message Queues";
+    }
+}
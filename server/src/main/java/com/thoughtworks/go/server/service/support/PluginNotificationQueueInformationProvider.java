@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.server.messaging.notifications.PluginNotificationsQueueHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class PluginNotificationQueueInformationProvider extends StatisticsInformationProvider {
+    private final PluginNotificationsQueueHandler queueHandler;
+
+    @Autowired
+    public PluginNotificationQueueInformationProvider(PluginNotificationsQueueHandler queueHandler) {
+        this.queueHandler = queueHandler;
+    }
+
+    @Override
+    public double priority() {
+        return 20.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        queueHandler.statistics().statistics().forEach((pluginId, statistics) -> {
+            LinkedHashMap<String, Object> pluginJson = new LinkedHashMap<>();
+            addTimings(pluginJson, statistics, "Messages Delivered", "Lag");
+            pluginJson.put("Notifications Delivered", statistics.getNotificationCount());
+            pluginJson.put("Notifications Waiting in Batches", statistics.getPendingInBatches());
+            json.put(pluginId, pluginJson);
+        });
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Plugin Notification Queues";
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.plugin.infra.PluginManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class PluginRequestInformationProvider extends StatisticsInformationProvider {
+    private final PluginManager pluginManager;
+
+    @Autowired
+    public PluginRequestInformationProvider(PluginManager pluginManager) {
+        this.pluginManager = pluginManager;
+    }
+
+    @Override
+    public double priority() {
+        return 19.0;
+    }
+
+    @Override
+    public Map<String, Object> asJson() {
+        LinkedHashMap<String, Object> json = new LinkedHashMap<>();
+        pluginManager.requestStatistics().statistics().forEach((pluginId, requests) -> {
+            LinkedHashMap<String, Object> pluginJson = new LinkedHashMap<>();
+            requests.forEach((request, statistics) -> {
+                LinkedHashMap<String, Object> requestJson = new LinkedHashMap<>();
+                addTimings(requestJson, statistics, "Requests", "Time");
+                requestJson.put("Requests Per Minute", statistics.getRequestsPerMinute());
+                requestJson.put("Time Histogram", statistics.getHistogram());
+                pluginJson.put(request, requestJson);
+            });
+            json.put(pluginId, pluginJson);
+        });
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "Plugin Requests";
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.support;
+
+import com.thoughtworks.go.util.TimingStatistics;
+
+import java.util.Map;
+
+/**
+ * @understands showing {@link TimingStatistics} the same way in every part of the server information
+ */
+public abstract class StatisticsInformationProvider implements ServerInfoProvider {
+    /**
+     * Adds how many times something was done and failed, e.g. "Pings" and "Failed Pings", and how long it took.
+     */
+    static void addTimings(Map<String, Object> json, TimingStatistics statistics, String counted, String timed) {
+        json.put(counted, statistics.getCount());
+        json.put("Failed " + counted, statistics.getFailureCount());
+        addTimes(json, statistics, timed);
+    }
+
+    /**
+     * Adds how long something took the last time, on average and at most, e.g. "Average Ping Time in milliseconds".
+     */
+    static void addTimes(Map<String, Object> json, TimingStatistics statistics, String timed) {
+        json.put("Last " + timed + " in milliseconds", statistics.getLastTimeInMillis());
+        json.put("Average " + timed + " in milliseconds", statistics.getAverageTimeInMillis());
+        json.put("Maximum " + timed + " in milliseconds", statistics.getMaxTimeInMillis());
+    }
+}
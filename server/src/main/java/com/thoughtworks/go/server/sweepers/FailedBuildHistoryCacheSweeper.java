@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.server.sweepers;
 
-import java.util.TreeSet;
+import java.util.List;
 
 import com.thoughtworks.go.domain.PipelineTimelineEntry;
 import com.thoughtworks.go.listener.TimelineUpdateListener;
@@ -38,8 +38,12 @@ public class FailedBuildHistoryCacheSweeper implements TimelineUpdateListener {
     }
 
     @Override
-    public void added(PipelineTimelineEntry newlyAddedEntry, TreeSet<PipelineTimelineEntry> timeline) {
-        for (PipelineTimelineEntry pipelineTimelineEntry : timeline.tailSet(newlyAddedEntry)) {
+    public void added(PipelineTimelineEntry newlyAddedEntry, List<PipelineTimelineEntry> timeline) {
+        int newlyAddedAt = timeline.indexOf(newlyAddedEntry);
+        if (newlyAddedAt < 0) {
+            return;
+        }
+        for (PipelineTimelineEntry pipelineTimelineEntry : timeline.subList(newlyAddedAt, timeline.size())) {
             goCache.remove(key.forFbhOfStagesUnderPipeline(pipelineTimelineEntry.getPipelineLocator()));
         }
     }
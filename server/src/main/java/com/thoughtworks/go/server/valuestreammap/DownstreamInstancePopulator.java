@@ -25,9 +25,7 @@ import com.thoughtworks.go.server.dao.PipelineDao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 @Component
 public class DownstreamInstancePopulator {
@@ -38,10 +36,17 @@ public class DownstreamInstancePopulator {
         this.pipelineDao = pipelineDao;
     }
 
+    /**
+     * The instances of each level of the graph are loaded together before the graph is walked, as walking it
+     * one instance at a time takes a query for each instance of each node.
+     */
 	public void apply(ValueStreamMap valueStreamMap) {
 		if (valueStreamMap.getCurrentPipeline() != null) {
 			Node currentPipeline = valueStreamMap.getCurrentPipeline();
-			populateRevisionsForAllChildrenOf(currentPipeline, new HashSet<>());
+			Map<Node, Set<PipelineIdentifier>> firstLevel = new HashMap<>();
+			firstLevel.put(currentPipeline, instancesOf(currentPipeline.revisions()));
+			Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> triggeredInstances = loadInstancesTriggeredByEachLevel(firstLevel);
+			populateRevisionsForAllChildrenOf(currentPipeline, new HashSet<>(), triggeredInstances);
 		} else {
 			Node currentMaterial = valueStreamMap.getCurrentMaterial();
 			MaterialInstance currentMaterialInstance = valueStreamMap.getCurrentMaterialInstance();
@@ -52,27 +57,87 @@ public class DownstreamInstancePopulator {
 	private void populateRevisionsFor(Node currentMaterial, MaterialInstance currentMaterialInstance, HashSet<Revision> visitedRevisions) {
 		String revision = currentMaterial.revisions().get(0).getRevisionString();
 		List<Node> downstreamPipelines = currentMaterial.getChildren();
+		Set<String> downstreamPipelineNames = new HashSet<>();
 		for (Node downstreamPipeline : downstreamPipelines) {
-			List<PipelineIdentifier> pipelineIdentifiers = pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterial(downstreamPipeline.getName(), currentMaterialInstance, revision);
+			downstreamPipelineNames.add(downstreamPipeline.getName());
+		}
+		Map<String, List<PipelineIdentifier>> instancesOfDownstreamPipelines = pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterial(downstreamPipelineNames, currentMaterialInstance, revision);
+
+		Map<Node, Set<PipelineIdentifier>> firstLevel = new HashMap<>();
+		for (Node downstreamPipeline : downstreamPipelines) {
+			firstLevel.put(downstreamPipeline, new HashSet<>(instancesOfDownstreamPipelines.getOrDefault(downstreamPipeline.getName(), Collections.emptyList())));
+		}
+		Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> triggeredInstances = loadInstancesTriggeredByEachLevel(firstLevel);
+
+		for (Node downstreamPipeline : downstreamPipelines) {
+			List<PipelineIdentifier> pipelineIdentifiers = instancesOfDownstreamPipelines.get(downstreamPipeline.getName());
+			if (pipelineIdentifiers == null) {
+				pipelineIdentifiers = pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterial(downstreamPipeline.getName(), currentMaterialInstance, revision);
+			}
 			addRevisionsToNode(downstreamPipeline, pipelineIdentifiers);
-			populateRevisionsForAllChildrenOf(downstreamPipeline, visitedRevisions);
+			populateRevisionsForAllChildrenOf(downstreamPipeline, visitedRevisions, triggeredInstances);
 		}
 	}
 
-    private void populateRevisionsForAllChildrenOf(Node node, Set<Revision> visitedRevisions) {
+    private Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> loadInstancesTriggeredByEachLevel(Map<Node, Set<PipelineIdentifier>> firstLevel) {
+        Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> triggeredInstances = new HashMap<>();
+        Map<Node, Set<PipelineIdentifier>> level = firstLevel;
+        while (!level.isEmpty()) {
+            Map<String, Node> children = new HashMap<>();
+            Map<String, Set<PipelineIdentifier>> toLoad = new HashMap<>();
+            level.forEach((node, instances) -> {
+                for (Node child : node.getChildren()) {
+                    children.put(child.getName(), child);
+                    Map<PipelineIdentifier, List<PipelineIdentifier>> loaded = triggeredInstances.computeIfAbsent(child.getName(), name -> new HashMap<>());
+                    for (PipelineIdentifier instance : instances) {
+                        if (!loaded.containsKey(instance)) {
+                            toLoad.computeIfAbsent(child.getName(), name -> new HashSet<>()).add(instance);
+                        }
+                    }
+                }
+            });
+            if (toLoad.isEmpty()) {
+                break;
+            }
+
+            Map<Node, Set<PipelineIdentifier>> nextLevel = new HashMap<>();
+            pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterials(toLoad).forEach((childName, instancesByUpstreamInstance) -> {
+                triggeredInstances.get(childName).putAll(instancesByUpstreamInstance);
+                Set<PipelineIdentifier> instancesOfChild = nextLevel.computeIfAbsent(children.get(childName), child -> new HashSet<>());
+                instancesByUpstreamInstance.values().forEach(instancesOfChild::addAll);
+            });
+            level = nextLevel;
+        }
+        return triggeredInstances;
+    }
+
+    private void populateRevisionsForAllChildrenOf(Node node, Set<Revision> visitedRevisions, Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> triggeredInstances) {
         for (Revision revision : node.revisions()) {
             if (visitedRevisions.contains(revision)) {
                 continue;
             }
             visitedRevisions.add(revision);
             for (Node child : node.getChildren()) {
-                List<PipelineIdentifier> pipelineIdentifiers = pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterial(child.getName(), ((PipelineRevision) revision).getPipelineIdentifier());
+                List<PipelineIdentifier> pipelineIdentifiers = instancesTriggeredBy(child, ((PipelineRevision) revision).getPipelineIdentifier(), triggeredInstances);
 				addRevisionsToNode(child, pipelineIdentifiers);
-                populateRevisionsForAllChildrenOf(child, visitedRevisions);
+                populateRevisionsForAllChildrenOf(child, visitedRevisions, triggeredInstances);
             }
         }
     }
 
+    private List<PipelineIdentifier> instancesTriggeredBy(Node child, PipelineIdentifier upstreamInstance, Map<String, Map<PipelineIdentifier, List<PipelineIdentifier>>> triggeredInstances) {
+        List<PipelineIdentifier> pipelineIdentifiers = triggeredInstances.getOrDefault(child.getName(), Collections.emptyMap()).get(upstreamInstance);
+        return pipelineIdentifiers != null ? pipelineIdentifiers : pipelineDao.getPipelineInstancesTriggeredWithDependencyMaterial(child.getName(), upstreamInstance);
+    }
+
+    private Set<PipelineIdentifier> instancesOf(List<Revision> revisions) {
+        Set<PipelineIdentifier> instances = new HashSet<>();
+        for (Revision revision : revisions) {
+            instances.add(((PipelineRevision) revision).getPipelineIdentifier());
+        }
+        return instances;
+    }
+
 	private void addRevisionsToNode(Node node, List<PipelineIdentifier> pipelineIdentifiers) {
 		for (PipelineIdentifier pipelineIdentifier : pipelineIdentifiers) {
 			node.addRevision(new PipelineRevision(pipelineIdentifier));
@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.valuestreammap;
 
+import com.thoughtworks.go.domain.PipelineIdentifier;
 import com.thoughtworks.go.domain.Stages;
 import com.thoughtworks.go.domain.valuestreammap.Node;
 import com.thoughtworks.go.domain.valuestreammap.ValueStreamMap;
@@ -24,6 +25,10 @@ import com.thoughtworks.go.server.dao.StageDao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class RunStagesPopulator {
     private final StageDao stageDao;
@@ -34,19 +39,22 @@ public class RunStagesPopulator {
     }
 
     public void apply(ValueStreamMap graph) {
+        List<PipelineRevision> pipelineRevisions = new ArrayList<>();
+        List<PipelineIdentifier> pipelineInstances = new ArrayList<>();
         for (Node node : graph.allNodes()) {
             for (Revision revision : node.revisions()) {
                 if (revision instanceof PipelineRevision) {
                     PipelineRevision pipelineRevision = (PipelineRevision) revision;
-                    Stages latestStages = latestRunStagesForRevsion(pipelineRevision);
-                    pipelineRevision.addStages(latestStages);
+                    pipelineRevisions.add(pipelineRevision);
+                    pipelineInstances.add(pipelineRevision.getPipelineIdentifier());
                 }
             }
         }
-    }
 
-    private Stages latestRunStagesForRevsion(PipelineRevision pipelineRevision) {
-        Stages allStages = stageDao.findAllStagesFor(pipelineRevision.getPipelineName(), pipelineRevision.getCounter());
-        return allStages.latestStagesInRunOrder();
+        Map<PipelineIdentifier, Stages> stagesOfInstances = stageDao.findAllStagesFor(pipelineInstances);
+        for (PipelineRevision pipelineRevision : pipelineRevisions) {
+            Stages allStages = stagesOfInstances.getOrDefault(pipelineRevision.getPipelineIdentifier(), new Stages());
+            pipelineRevision.addStages(allStages.latestStagesInRunOrder());
+        }
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.thoughtworks.go.server.dashboard.GoDashboardCache;
+import com.thoughtworks.go.server.dashboard.GoDashboardCacheListener;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipelines;
+import com.thoughtworks.go.server.service.GoDashboardService;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.SystemTimeClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @understands sending dashboard changes to every connected dashboard socket, whenever the dashboard cache changes
+ * <p>
+ * Sends do not wait for clients, so a slow client only holds up itself. A client which has not read its last message
+ * within the send timeout is disconnected.
+ */
+@Component
+public class DashboardDeltaBroadcaster implements GoDashboardCacheListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardDeltaBroadcaster.class);
+
+    private final GoDashboardCache cache;
+    private final GoDashboardService goDashboardService;
+    private final ConcurrentHashMap<String, DashboardSocket> sockets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sendPending = new AtomicBoolean();
+    private final ExecutorService sender;
+    private final Clock clock;
+    private final long sendTimeoutMillis;
+
+    @Autowired
+    public DashboardDeltaBroadcaster(GoDashboardCache cache, GoDashboardService goDashboardService) {
+        this(cache, goDashboardService, Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("dashboard-websocket-%d").setDaemon(true).build()),
+                new SystemTimeClock(), new SystemEnvironment().get(SystemEnvironment.DASHBOARD_WEBSOCKET_SEND_TIMEOUT));
+    }
+
+    DashboardDeltaBroadcaster(GoDashboardCache cache, GoDashboardService goDashboardService, ExecutorService sender, Clock clock, long sendTimeoutMillis) {
+        this.cache = cache;
+        this.goDashboardService = goDashboardService;
+        this.sender = sender;
+        this.clock = clock;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        cache.addListener(this);
+    }
+
+    public void register(DashboardSocket socket) {
+        sockets.put(socket.key(), socket);
+        sendChanges(socket);
+    }
+
+    void sendChanges(DashboardSocket socket) {
+        sender.execute(() -> sendChanges(socket, new DashboardViews(goDashboardService)));
+    }
+
+    public void deregister(DashboardSocket socket) {
+        sockets.remove(socket.key());
+    }
+
+    /* Changes which come in while a send is still queued are picked up by that send, since it always looks at the latest cache. */
+    @Override
+    public void cacheUpdated(GoDashboardPipelines pipelines) {
+        if (sendPending.compareAndSet(false, true)) {
+            sender.execute(this::sendChangesToAll);
+        }
+    }
+
+    private void sendChangesToAll() {
+        sendPending.set(false);
+        DashboardViews views = new DashboardViews(goDashboardService);
+        sockets.values().forEach(socket -> sendChanges(socket, views));
+    }
+
+    private void sendChanges(DashboardSocket socket, DashboardViews views) {
+        if (!goDashboardService.hasEverLoadedCurrentState() || !socket.isOpen()) {
+            return;
+        }
+        try {
+            long now = clock.currentTimeMillis();
+            if (!socket.sendChanges(views, cache.allEntries().lastUpdatedTimeStamp(), now) && hasTimedOut(socket, now)) {
+                LOGGER.warn("Dashboard socket {} has not read its last message in {}ms, closing it", socket.key(), sendTimeoutMillis);
+                deregister(socket);
+                socket.close();
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to send dashboard changes to socket {}, closing it", socket.key(), e);
+            deregister(socket);
+            socket.close();
+        }
+    }
+
+    private boolean hasTimedOut(DashboardSocket socket, long now) {
+        long sendingSince = socket.sendingSince();
+        return sendingSince != 0 && now - sendingSince > sendTimeoutMillis;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.dashboard.DashboardDelta;
+import com.thoughtworks.go.server.dashboard.DashboardDeltaRenderer;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a user's dashboard: a snapshot once the socket connects, and then only the pipelines which changed.
+ */
+@WebSocket
+public class DashboardSocket implements SocketEndpoint {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardSocket.class);
+    private static final AtomicLong SOCKET_IDS = new AtomicLong();
+
+    private final DashboardSubscription subscription;
+    private final DashboardDeltaRenderer renderer;
+    private final DashboardDeltaBroadcaster broadcaster;
+    private final SocketHealthService socketHealthService;
+    private final String key;
+    private final AtomicLong sendingSince = new AtomicLong();
+    private final AtomicBoolean changesPending = new AtomicBoolean();
+    private Session session;
+
+    DashboardSocket(DashboardSubscription subscription, DashboardDeltaRenderer renderer, DashboardDeltaBroadcaster broadcaster, SocketHealthService socketHealthService) {
+        this.subscription = subscription;
+        this.renderer = renderer;
+        this.broadcaster = broadcaster;
+        this.socketHealthService = socketHealthService;
+        this.key = String.format("dashboard:%s:%d", subscription.username().getUsername(), SOCKET_IDS.incrementAndGet());
+    }
+
+    @OnWebSocketConnect
+    public void onConnect(Session session) {
+        this.session = session;
+        socketHealthService.register(this);
+        broadcaster.register(this);
+        LOGGER.debug("{} connected", key);
+    }
+
+    @OnWebSocketError
+    public void onError(Throwable error) {
+        LOGGER.error("{} closing session because an error was thrown", key, error);
+        try {
+            close(StatusCode.SERVER_ERROR, error.getMessage());
+        } finally {
+            deregister();
+        }
+    }
+
+    @OnWebSocketClose
+    public void onClose(int status, String reason) {
+        deregister();
+    }
+
+    /**
+     * Sends the changes without waiting for the client to read them. Only one message is in flight at a time; changes
+     * which come in meanwhile are sent once the client has read it.
+     *
+     * @return false if the previous message is still in flight
+     */
+    boolean sendChanges(DashboardViews views, long sequenceNumber, long now) {
+        changesPending.set(true);
+        if (!sendingSince.compareAndSet(0, now)) {
+            return false;
+        }
+        changesPending.set(false);
+        DashboardDelta delta = subscription.changesSince(views, sequenceNumber);
+        if (delta == null) {
+            sendingSince.set(0);
+            return true;
+        }
+        session.getRemote().sendString(renderer.render(delta, subscription.username()), new WriteCallback() {
+            @Override
+            public void writeFailed(Throwable error) {
+                LOGGER.warn("{} closing session because dashboard changes could not be sent", key, error);
+                try {
+                    close(StatusCode.SERVER_ERROR, error.getMessage());
+                } finally {
+                    deregister();
+                }
+            }
+
+            @Override
+            public void writeSuccess() {
+                sendingSince.set(0);
+                if (changesPending.get()) {
+                    broadcaster.sendChanges(DashboardSocket.this);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return when the message in flight was handed to the client, 0 if there is none
+     */
+    long sendingSince() {
+        return sendingSince.get();
+    }
+
+    @Override
+    public void send(ByteBuffer data) throws IOException {
+        session.getRemote().sendBytes(data);
+    }
+
+    @Override
+    public void ping() throws IOException {
+        session.getRemote().sendString(WebsocketMessages.PING);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session != null && session.isOpen();
+    }
+
+    @Override
+    public void close() {
+        close(StatusCode.NORMAL, null);
+    }
+
+    @Override
+    public void close(int code, String reason) {
+        if (session != null) {
+            session.close(code, reason);
+        }
+    }
+
+    @Override
+    public String key() {
+        return key;
+    }
+
+    private void deregister() {
+        broadcaster.deregister(this);
+        socketHealthService.deregister(this);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.dashboard.DashboardDeltaRenderer;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import com.thoughtworks.go.server.domain.user.PipelineSelections;
+import com.thoughtworks.go.server.newsecurity.utils.SessionUtils;
+import com.thoughtworks.go.server.service.PipelineSelectionsService;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.HttpCookie;
+
+import static com.thoughtworks.go.server.domain.user.DashboardFilter.DEFAULT_NAME;
+
+@Component
+public class DashboardSocketCreator {
+    private static final String COOKIE_NAME = "selected_pipelines";
+    private static final String VIEW_NAME = "viewName";
+
+    private final PipelineSelectionsService pipelineSelectionsService;
+    private final DashboardDeltaBroadcaster broadcaster;
+    private final SocketHealthService socketHealthService;
+
+    @Autowired
+    public DashboardSocketCreator(PipelineSelectionsService pipelineSelectionsService, DashboardDeltaBroadcaster broadcaster, SocketHealthService socketHealthService) {
+        this.pipelineSelectionsService = pipelineSelectionsService;
+        this.broadcaster = broadcaster;
+        this.socketHealthService = socketHealthService;
+    }
+
+    /* Called on the thread of the upgrade request, so the current user is still known. */
+    public DashboardSocket createWebSocket(ServletUpgradeRequest req, DashboardDeltaRenderer renderer) {
+        Username username = SessionUtils.currentUsername();
+        Long userId = SessionUtils.getUserId(req.getHttpServletRequest());
+        PipelineSelections personalization = pipelineSelectionsService.load(personalizationCookie(req), userId);
+        DashboardFilter filter = personalization.namedFilter(viewName(req));
+
+        return new DashboardSocket(new DashboardSubscription(username, filter, personalization.etag()), renderer, broadcaster, socketHealthService);
+    }
+
+    private String personalizationCookie(ServletUpgradeRequest req) {
+        if (req.getCookies() == null) {
+            return null;
+        }
+        return req.getCookies().stream()
+                .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                .map(HttpCookie::getValue)
+                .findFirst().orElse(null);
+    }
+
+    private String viewName(ServletUpgradeRequest req) {
+        String viewName = req.getHttpServletRequest().getParameter(VIEW_NAME);
+        return StringUtils.isBlank(viewName) ? DEFAULT_NAME : viewName;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.dashboard.*;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+
+import java.util.*;
+
+/**
+ * @understands what one user's dashboard has already been sent, and so what it still needs to be sent
+ */
+class DashboardSubscription {
+    private final Username username;
+    private final DashboardFilter filter;
+    private final String personalizationEtag;
+    private final Map<String, Long> sentPipelineTimeStamps = new HashMap<>();
+    private String sentLayout;
+
+    DashboardSubscription(Username username, DashboardFilter filter, String personalizationEtag) {
+        this.username = username;
+        this.filter = filter;
+        this.personalizationEtag = personalizationEtag;
+    }
+
+    Username username() {
+        return username;
+    }
+
+    /**
+     * @return a snapshot the first time around, after that only the pipelines which changed or disappeared
+     * since the last call; null if nothing visible to this user changed
+     */
+    synchronized DashboardDelta changesSince(DashboardViews views, long sequenceNumber) {
+        List<GoDashboardPipelineGroup> pipelineGroups = views.pipelineGroups(filter, username);
+        List<GoDashboardEnvironment> environments = views.environments(filter, username);
+
+        Map<String, GoDashboardPipeline> visiblePipelines = new LinkedHashMap<>();
+        addPipelinesOf(pipelineGroups, visiblePipelines);
+        addPipelinesOf(environments, visiblePipelines);
+        String layout = layoutOf(pipelineGroups) + layoutOf(environments);
+
+        if (sentLayout == null) {
+            remember(visiblePipelines, layout);
+            return DashboardDelta.snapshot(sequenceNumber, personalizationEtag, pipelineGroups, environments, visiblePipelines.values());
+        }
+
+        List<GoDashboardPipeline> changedPipelines = new ArrayList<>();
+        for (Map.Entry<String, GoDashboardPipeline> entry : visiblePipelines.entrySet()) {
+            Long sentTimeStamp = sentPipelineTimeStamps.get(entry.getKey());
+            if (sentTimeStamp == null || sentTimeStamp != entry.getValue().getLastUpdatedTimeStamp()) {
+                changedPipelines.add(entry.getValue());
+            }
+        }
+        List<String> removedPipelines = new ArrayList<>(sentPipelineTimeStamps.keySet());
+        removedPipelines.removeAll(visiblePipelines.keySet());
+
+        if (changedPipelines.isEmpty() && removedPipelines.isEmpty() && layout.equals(sentLayout)) {
+            return null;
+        }
+
+        remember(visiblePipelines, layout);
+        return DashboardDelta.changes(sequenceNumber, personalizationEtag, pipelineGroups, environments, changedPipelines, removedPipelines);
+    }
+
+    private void remember(Map<String, GoDashboardPipeline> visiblePipelines, String layout) {
+        sentPipelineTimeStamps.clear();
+        visiblePipelines.forEach((name, pipeline) -> sentPipelineTimeStamps.put(name, pipeline.getLastUpdatedTimeStamp()));
+        sentLayout = layout;
+    }
+
+    private void addPipelinesOf(List<? extends DashboardGroup> groups, Map<String, GoDashboardPipeline> visiblePipelines) {
+        for (DashboardGroup group : groups) {
+            for (GoDashboardPipeline pipeline : group.allPipelines()) {
+                visiblePipelines.put(pipeline.name().toString(), pipeline);
+            }
+        }
+    }
+
+    private String layoutOf(List<? extends DashboardGroup> groups) {
+        StringBuilder layout = new StringBuilder();
+        for (DashboardGroup group : groups) {
+            layout.append(group.getClass().getSimpleName()).append('$').append(group.name())
+                    .append('/').append(group.canAdminister(username))
+                    .append('/').append(group.hasDefinedPipelines())
+                    .append(group.pipelines()).append(';');
+        }
+        return layout.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import com.thoughtworks.go.server.service.GoDashboardService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * @understands the dashboard as seen by each distinct user and filter, worked out once per send to all sockets
+ * (many sockets usually share a user and a filter, and each view walks the whole dashboard)
+ */
+class DashboardViews {
+    private final GoDashboardService goDashboardService;
+    private final Map<List<Object>, List<GoDashboardPipelineGroup>> pipelineGroups = new HashMap<>();
+    private final Map<List<Object>, List<GoDashboardEnvironment>> environments = new HashMap<>();
+
+    DashboardViews(GoDashboardService goDashboardService) {
+        this.goDashboardService = goDashboardService;
+    }
+
+    List<GoDashboardPipelineGroup> pipelineGroups(DashboardFilter filter, Username username) {
+        return pipelineGroups.computeIfAbsent(keyOf(filter, username), key -> goDashboardService.allPipelineGroupsForDashboard(filter, username));
+    }
+
+    List<GoDashboardEnvironment> environments(DashboardFilter filter, Username username) {
+        return environments.computeIfAbsent(keyOf(filter, username), key -> goDashboardService.allEnvironmentsForDashboard(filter, username));
+    }
+
+    /* filters leave their state out of equals(), but it changes what they show */
+    private List<Object> keyOf(DashboardFilter filter, Username username) {
+        return asList(username, filter, filter.state());
+    }
+}
@@ -40,7 +40,14 @@ function StageDetailAjaxRefresher(url, redirectUrl, after_callback_map) {
             }
         },
         dataFetcher: function () {
-            return $("stage-history-page")? {"stage-history-page": $("stage-history-page").value} : {};
+            if (!$("stage-history-page")) {
+                return {};
+            }
+            var data = {"stage-history-page": $("stage-history-page").value};
+            if ($("stage-history-boundary") && $("stage-history-boundary").value) {
+                data["stage-history-boundary"] = $("stage-history-boundary").value;
+            }
+            return data;
         },
         manipulateReplacement: function (receiver_id, replaceElement, replacementOptions) {
             if (receiver_id === 'jobs_grid') {
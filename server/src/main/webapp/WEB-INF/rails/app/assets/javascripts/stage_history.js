@@ -14,23 +14,26 @@
  * limitations under the License.
  */
 var StageHistory = function() {
-    function _bindHistoryLink(id, url, page_num) {
+    function _bindHistoryLink(id, url, page_num, boundary_id) {
         var elem = jQuery(id).get(0);
         if (!elem) return;        
         var element = $j(elem);
         element.unbind();
         element.click(function() {
-            changePage(url, page_num);
+            changePage(url, page_num, boundary_id);
         });
     }
 
-    function changePage(url, pageNum) {    
+    function changePage(url, pageNum, boundaryId) {    
         new Ajax.Updater($('stage_history'), url, {method: 'get', evalScripts: true});
-        setCurrentPage(pageNum);
+        setCurrentPage(pageNum, boundaryId);
     }
 
-    function setCurrentPage(pageNum) {
+    function setCurrentPage(pageNum, boundaryId) {
         $("stage-history-page").value = pageNum;
+        if ($("stage-history-boundary")) {
+            $("stage-history-boundary").value = boundaryId || "";
+        }
     }
 
     function init() {
@@ -39,11 +42,11 @@ var StageHistory = function() {
 
     init.prototype._changePage = changePage;
 
-    init.prototype.bindHistoryLink = function(id, url, page_num) {
+    init.prototype.bindHistoryLink = function(id, url, page_num, boundary_id) {
         Util.on_load(function() {
-            _bindHistoryLink(id, url, page_num);
+            _bindHistoryLink(id, url, page_num, boundary_id);
             AjaxRefreshers.main().afterRefreshOf('stage_history', function() {
-                _bindHistoryLink(id, url, page_num);
+                _bindHistoryLink(id, url, page_num, boundary_id);
             });
         });
     };
@@ -33,7 +33,7 @@ class StagesController < ApplicationController
   STAGE_HISTORY_PAGE_SIZE = 10
 
   def history
-    load_stage_history_for_page params[:page]
+    load_stage_history_for_page params[:page], params[:boundary]
     render layout: nil
   end
 
@@ -53,7 +53,7 @@ class StagesController < ApplicationController
 
   def stats_iframe
     page_number = params[:page_number].nil? ? 1 : params[:page_number].to_i
-    stage_summary_models = stage_service.findStageHistoryForChart(@stage.getPipelineName(), @stage.getName(), page_number, STAGE_DURATION_RANGE, current_user)
+    stage_summary_models = stage_service.findStageHistoryForChart(@stage.getPipelineName(), @stage.getName(), page_number, STAGE_DURATION_RANGE, boundary_id(params[:boundary]), current_user)
     @no_chart_to_render = false
     if (stage_summary_models.size() > 0)
       @pagination = stage_summary_models.getPagination()
@@ -148,18 +148,23 @@ class StagesController < ApplicationController
   def load_stage_history
     pageNum = params["stage-history-page"]
     if (pageNum)
-      load_stage_history_for_page pageNum
+      load_stage_history_for_page pageNum, params["stage-history-boundary"]
     else
       @stage_history_page = stage_service.findStageHistoryPage(@stage.getStage(), STAGE_HISTORY_PAGE_SIZE)
     end
   end
 
-  def load_stage_history_for_page page
+  def load_stage_history_for_page page, boundary
     pipeline_name = params[:pipeline_name]
-    @stage_history_page = stage_service.findStageHistoryPageByNumber(pipeline_name, params[:stage_name], page.to_i, STAGE_HISTORY_PAGE_SIZE)
+    @stage_history_page = stage_service.findStageHistoryPageByNumber(pipeline_name, params[:stage_name], page.to_i, STAGE_HISTORY_PAGE_SIZE, boundary_id(boundary))
     @pipeline = pipeline_history_service.findPipelineInstance(pipeline_name, params[:pipeline_counter].to_i, current_user, result = HttpOperationResult.new)
   end
 
+  # the id of the stage instance just newer than a page, which links to the page carry so that it is sought rather than skipped to
+  def boundary_id boundary
+    boundary.blank? ? nil : boundary.to_i
+  end
+
   def render_stage(status = 200)
     respond_to do |format|
       format.html { render action: 'stage', status: status }
@@ -71,11 +71,11 @@ module StagesHelper
 
   def stage_history_pagination_handler page, tab
     dom_id = "stage_history_#{page.getLabel()}"
-    url = stage_history_path(:page => page_num=page.getNumber(), :tab => tab)
+    url = stage_history_path(:page => page_num=page.getNumber(), :boundary => page.getBoundaryId(), :tab => tab)
     <<END
     <a href="#" id="#{dom_id}">#{page.getLabel()}</a>
     <script type="text/javascript">
-        StageHistory.bindHistoryLink('##{dom_id}', '#{url}', #{page.getNumber()});
+        StageHistory.bindHistoryLink('##{dom_id}', '#{url}', #{page.getNumber()}, '#{page.getBoundaryId()}');
     </script>
 END
   end
@@ -259,10 +259,17 @@ describe StagesController do
       it "should honour page number" do
         stub_current_config
         stage_identifier = StageIdentifier.new("pipeline", 2, "stage", "3")
-        expect(@stage_service).to receive(:findStageHistoryPageByNumber).with("pipeline", "stage", 5, StagesController::STAGE_HISTORY_PAGE_SIZE).and_return(stage_history = stage_history_page(4))
+        expect(@stage_service).to receive(:findStageHistoryPageByNumber).with("pipeline", "stage", 5, StagesController::STAGE_HISTORY_PAGE_SIZE, nil).and_return(stage_history = stage_history_page(4))
         get :overview, params:{:pipeline_name => "pipeline", :pipeline_counter => "2", :stage_name => "stage", :stage_counter => "3", "stage-history-page" => "5"}
         expect(assigns(:stage_history_page)).to eq stage_history
       end
+
+      it "should seek the page from its boundary" do
+        stub_current_config
+        expect(@stage_service).to receive(:findStageHistoryPageByNumber).with("pipeline", "stage", 5, StagesController::STAGE_HISTORY_PAGE_SIZE, 42).and_return(stage_history = stage_history_page(4))
+        get :overview, params:{:pipeline_name => "pipeline", :pipeline_counter => "2", :stage_name => "stage", :stage_counter => "3", "stage-history-page" => "5", "stage-history-boundary" => "42"}
+        expect(assigns(:stage_history_page)).to eq stage_history
+      end
     end
 
     describe "jobs tab" do
@@ -323,7 +330,7 @@ describe StagesController do
     it "should render without layout" do
       expect(@go_config_service).to receive(:getCurrentConfig).and_return(@cruise_config)
       pim = PipelineHistoryMother.singlePipeline("pipeline", StageInstanceModels.new)
-      expect(@stage_service).to receive(:findStageHistoryPageByNumber).with('pipeline', 'stage', 3, 10).and_return(:stage_history_page)
+      expect(@stage_service).to receive(:findStageHistoryPageByNumber).with('pipeline', 'stage', 3, 10, nil).and_return(:stage_history_page)
       expect(@pipeline_history_service).to receive(:findPipelineInstance).with("pipeline", 10, @user, @status).and_return(pim)
 
       get :history, params:{page: '3', pipeline_name: 'pipeline', stage_name: 'stage', pipeline_counter: 10, stage_counter: 5, tab: 'jobs'}
@@ -334,13 +341,22 @@ describe StagesController do
     it "should load stage history page" do
       expect(@go_config_service).to receive(:getCurrentConfig).and_return(@cruise_config)
       pim = PipelineHistoryMother.singlePipeline("pipeline", StageInstanceModels.new)
-      expect(@stage_service).to receive(:findStageHistoryPageByNumber).with('pipeline', 'stage', 3, 10).and_return(:stage_history_page)
+      expect(@stage_service).to receive(:findStageHistoryPageByNumber).with('pipeline', 'stage', 3, 10, nil).and_return(:stage_history_page)
       expect(@pipeline_history_service).to receive(:findPipelineInstance).with("pipeline", 10, @user, @status).and_return(pim)
       get :history, params:{:page => "3", :pipeline_name => 'pipeline', :stage_name => 'stage', :pipeline_counter => 10, :stage_counter => 5, :tab => 'jobs'}
       expect(assigns(:stage_history_page)).to eq :stage_history_page
       expect(assigns(:pipeline)).to eq pim
     end
 
+    it "should seek stage history page from its boundary" do
+      expect(@go_config_service).to receive(:getCurrentConfig).and_return(@cruise_config)
+      pim = PipelineHistoryMother.singlePipeline("pipeline", StageInstanceModels.new)
+      expect(@stage_service).to receive(:findStageHistoryPageByNumber).with('pipeline', 'stage', 3, 10, 42).and_return(:stage_history_page)
+      expect(@pipeline_history_service).to receive(:findPipelineInstance).with("pipeline", 10, @user, @status).and_return(pim)
+      get :history, params:{:page => "3", :boundary => "42", :pipeline_name => 'pipeline', :stage_name => 'stage', :pipeline_counter => 10, :stage_counter => 5, :tab => 'jobs'}
+      expect(assigns(:stage_history_page)).to eq :stage_history_page
+    end
+
     it "should render stage history in response" do
       expect(@go_config_service).to receive(:getCurrentConfig).and_return(@cruise_config)
       pim = PipelineHistoryMother.singlePipeline("pipeline", StageInstanceModels.new)
@@ -508,7 +524,7 @@ describe StagesController do
       allow(@status).to receive(:canContinue).and_return(true)
       expect(@pipeline_history_service).to receive(:findPipelineInstance).with("pipeline-name", 1, 100, @user, @status).and_return(:pim)
       expect(@pipieline_lock_service).to receive(:lockedPipeline).with("pipeline-name").and_return("")
-      expect(@stage_service).to receive(:findStageHistoryForChart).with("pipeline-name", "stage", 2, StagesController::STAGE_DURATION_RANGE, current_user).and_return(models = StageSummaryModels.new)
+      expect(@stage_service).to receive(:findStageHistoryForChart).with("pipeline-name", "stage", 2, StagesController::STAGE_DURATION_RANGE, nil, current_user).and_return(models = StageSummaryModels.new)
 
       get :stats_iframe, params:{:pipeline_name => "pipeline-name", :pipeline_counter => "1", :stage_name => "stage", :stage_counter => "1", :page_number => "2"}
 
@@ -554,7 +570,7 @@ describe StagesController do
       expect(@pipeline_history_service).to receive(:findPipelineInstance).with("pipeline-name", 1, 100, @user, @status).and_return(:pim)
       allow(@status).to receive(:canContinue).and_return(true)
       allow(controller).to receive(:load_stage_history).with(no_args)
-      expect(@stage_service).to receive(:findStageHistoryForChart).with(stage_iden.getPipelineName(), stage_iden.getStageName(), 2, StagesController::STAGE_DURATION_RANGE, current_user).and_return(models)
+      expect(@stage_service).to receive(:findStageHistoryForChart).with(stage_iden.getPipelineName(), stage_iden.getStageName(), 2, StagesController::STAGE_DURATION_RANGE, nil, current_user).and_return(models)
     end
   end
 
@@ -17,7 +17,8 @@ describe("stage_history", function () {
     beforeEach(function () {
         AjaxRefreshers.clear();
         setFixtures("<a href=\"#\" id=\"stage_history_3\">3</a>\n" +
-            "<input id=\"stage-history-page\" name=\"stage-history-page\">");
+            "<input id=\"stage-history-page\" name=\"stage-history-page\">\n" +
+            "<input id=\"stage-history-boundary\" name=\"stage-history-boundary\">");
     });
 
     var actual_ajax_updater = Ajax.Updater;
@@ -48,6 +49,14 @@ describe("stage_history", function () {
         assertEquals("4", $("stage-history-page").value);
     });
 
+    it("test_page_change_keeps_boundary_of_page", function () {
+        StageHistory._changePage('url', "4", 42);
+        assertEquals("4", $("stage-history-page").value);
+        assertEquals("42", $("stage-history-boundary").value);
+        StageHistory._changePage('url', "1");
+        assertEquals("", $("stage-history-boundary").value);
+    });
+
     function stub_main_refresher() {
         AjaxRefreshers.addRefresher({afterRefreshOf: function (id, fn) {
             assertEquals('stage_history', id);
@@ -17,6 +17,7 @@ package com.thoughtworks.go.config;
 
 import com.thoughtworks.go.config.commands.EntityConfigUpdateCommand;
 import com.thoughtworks.go.config.update.FullConfigUpdateCommand;
+import com.thoughtworks.go.helper.PartialConfigMother;
 import com.thoughtworks.go.listener.ConfigChangedListener;
 import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.server.domain.Username;
@@ -28,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
@@ -50,7 +52,7 @@ public class CachedGoConfigTest {
     public void setUp() throws Exception {
         initMocks(this);
         configHolder = new GoConfigHolder(new BasicCruiseConfig(), new BasicCruiseConfig());
-        cachedGoConfig = new CachedGoConfig(serverHealthService, dataSource, mock(CachedGoPartials.class), goConfigMigrator, maintenanceModeService);
+        cachedGoConfig = new CachedGoConfig(serverHealthService, dataSource, mock(CachedGoPartials.class), goConfigMigrator, maintenanceModeService, new ConfigChangeNotifier(newDirectExecutorService()));
         when(dataSource.load()).thenReturn(configHolder);
     }
 
@@ -62,6 +64,26 @@ public class CachedGoConfigTest {
         verifyZeroInteractions(dataSource);
     }
 
+    @Test
+    public void shouldNotTryToLoadConfigXMLOnTimerWhenItHasNotChangedOnDisk() throws Exception {
+        cachedGoConfig.forceReload();
+        when(dataSource.mayHaveChangedOnDisk()).thenReturn(false);
+
+        cachedGoConfig.onTimer();
+
+        verify(dataSource, times(1)).load();
+    }
+
+    @Test
+    public void shouldLoadConfigXMLOnTimerWhenItMayHaveChangedOnDisk() throws Exception {
+        cachedGoConfig.forceReload();
+        when(dataSource.mayHaveChangedOnDisk()).thenReturn(true);
+
+        cachedGoConfig.onTimer();
+
+        verify(dataSource, times(2)).load();
+    }
+
     @Test
     public void shouldDelegateWriteEntityConfigCallToDataSource() {
         EntityConfigUpdateCommand saveCommand = mock(EntityConfigUpdateCommand.class);
@@ -213,4 +235,29 @@ public class CachedGoConfigTest {
         assertThat(cachedGoConfig.loadMergedForEditing(), is(mergedConfigForEdit));
         verify(serverHealthService).update(any(ServerHealthState.class));
     }
+
+    @Test
+    public void shouldNotifyOnlyListenersOfEntitiesChangedByPartialsOnPartialWrite() throws Exception {
+        cachedGoConfig.forceReload();
+        CruiseConfig merged = new BasicCruiseConfig(new BasicCruiseConfig(), PartialConfigMother.withPipeline("remote-pipeline"));
+        GoConfigHolder savedConfig = new GoConfigHolder(merged, new BasicCruiseConfig());
+        when(dataSource.writeWithLock(any(UpdateConfigCommand.class), any(GoConfigHolder.class))).thenReturn(new GoFileConfigDataSource.GoConfigSaveResult(savedConfig, ConfigSaveState.UPDATED));
+
+        final ConfigChangedListener configListener = mock(ConfigChangedListener.class);
+        final PipelineConfig[] changedPipeline = {null};
+        EntityConfigChangedListener<PipelineConfig> pipelineConfigChangeListener = new EntityConfigChangedListener<PipelineConfig>() {
+            @Override
+            public void onEntityConfigChange(PipelineConfig entity) {
+                changedPipeline[0] = entity;
+            }
+        };
+        cachedGoConfig.registerListener(configListener);
+        cachedGoConfig.registerListener(pipelineConfigChangeListener);
+
+        cachedGoConfig.writePartialWithLock(cruiseConfig -> cruiseConfig);
+
+        assertThat(cachedGoConfig.currentConfig(), is(merged));
+        assertThat(changedPipeline[0].name(), is(new CaseInsensitiveString("remote-pipeline")));
+        verify(configListener, times(1)).onConfigChange(any(BasicCruiseConfig.class));
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigChangeNotifierTest {
+    private ExecutorService executor;
+    private ConfigChangeNotifier notifier;
+    private List<String> notified;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        notifier = new ConfigChangeNotifier(executor);
+        notified = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldNotifyListenersInOrderOfRegistration() {
+        notifier.notify(asList(new RecordingListener("first"), new RecordingListener("second"), new RecordingListener("third")), listener -> listener.onConfigChange(new BasicCruiseConfig()));
+
+        assertThat(notified).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void shouldNotifyListenersWhichCanBeNotifiedConcurrentlyWithoutHoldingUpOthers() {
+        CountDownLatch slowListenerMayFinish = new CountDownLatch(1);
+        ConfigChangedListener slowListener = new RecordingListener("slow", true) {
+            @Override
+            public void onConfigChange(CruiseConfig newCruiseConfig) {
+                try {
+                    slowListenerMayFinish.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onConfigChange(newCruiseConfig);
+            }
+        };
+        ConfigChangedListener lastListener = new RecordingListener("last") {
+            @Override
+            public void onConfigChange(CruiseConfig newCruiseConfig) {
+                super.onConfigChange(newCruiseConfig);
+                slowListenerMayFinish.countDown();
+            }
+        };
+
+        notifier.notify(asList(slowListener, new RecordingListener("ordered"), lastListener), listener -> listener.onConfigChange(new BasicCruiseConfig()));
+
+        assertThat(notified).containsExactly("ordered", "last", "slow");
+    }
+
+    @Test
+    void shouldCarryOnNotifyingWhenAListenerFailsAndRecordTheFailure() {
+        ConfigChangedListener failingListener = newCruiseConfig -> {
+            throw new RuntimeException("boom");
+        };
+
+        notifier.notify(asList(failingListener, new RecordingListener("after-failure")), listener -> listener.onConfigChange(new BasicCruiseConfig()));
+
+        assertThat(notified).containsExactly("after-failure");
+        ConfigChangeNotifier.ListenerStatistics statistics = notifier.listenerStatistics().get(failingListener.getClass().getName());
+        assertThat(statistics.getCount()).isEqualTo(1);
+        assertThat(statistics.getFailureCount()).isEqualTo(1);
+        assertThat(statistics.getLastFailure()).isEqualTo("java.lang.RuntimeException: boom");
+        assertThat(notifier.listenerStatistics().get(RecordingListener.class.getName()).getFailureCount()).isZero();
+    }
+
+    private class RecordingListener implements ConfigChangedListener {
+        private final String name;
+        private final boolean concurrent;
+
+        RecordingListener(String name) {
+            this(name, false);
+        }
+
+        RecordingListener(String name, boolean concurrent) {
+            this.name = name;
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public void onConfigChange(CruiseConfig newCruiseConfig) {
+            notified.add(name);
+        }
+
+        @Override
+        public boolean canBeNotifiedConcurrently() {
+            return concurrent;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.domain.config.Configuration;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
+import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMetadataStore;
+import com.thoughtworks.go.plugin.configrepo.contract.CREnvironment;
+import com.thoughtworks.go.plugin.configrepo.contract.CRConfigurationProperty;
+import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
+import com.thoughtworks.go.plugin.configrepo.contract.ErrorCollection;
+import com.thoughtworks.go.plugin.domain.common.PluggableInstanceSettings;
+import com.thoughtworks.go.plugin.domain.configrepo.Capabilities;
+import com.thoughtworks.go.plugin.domain.configrepo.ConfigRepoPluginInfo;
+import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.thoughtworks.go.helper.MaterialConfigsMother.git;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigRepoParseCacheTest {
+    private static final String PLUGIN_ID = "yaml.config.plugin";
+
+    @TempDir
+    File cacheDir;
+
+    private ConfigRepoParseCache cache;
+    private AtomicInteger parseCount;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConfigRepoParseCache(cacheDir, true);
+        parseCount = new AtomicInteger();
+        registerPlugin("1.0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConfigRepoMetadataStore.instance().clear();
+    }
+
+    @Test
+    void shouldReuseParseResultOfARevisionAlreadyParsedByAnotherInstance() {
+        cache.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+
+        CRParseResult result = new ConfigRepoParseCache(cacheDir, true).parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(1);
+        assertThat(result.hasErrors()).isFalse();
+        assertThat(result.getEnvironments()).extracting(CREnvironment::getName).containsExactly("uat");
+    }
+
+    @Test
+    void shouldAskThePluginOnEveryUpdateAfterTheFirstLoadEvenAtTheSameRevision() {
+        cache.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        ConfigRepoParseCache afterRestart = new ConfigRepoParseCache(cacheDir, true);
+
+        afterRestart.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        afterRestart.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+        assertThat(afterRestart.hitCount()).isEqualTo(1);
+        assertThat(afterRestart.missCount()).isZero();
+    }
+
+    @Test
+    void shouldParseAgainWhenRevisionChanges() {
+        cache.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        new ConfigRepoParseCache(cacheDir, true).parse(PLUGIN_ID, context("r2"), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldParseAgainWhenPluginVersionChanges() {
+        cache.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        registerPlugin("2.0");
+        new ConfigRepoParseCache(cacheDir, true).parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldParseAgainWhenConfigurationChanges() {
+        cache.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        new ConfigRepoParseCache(cacheDir, true).parse(PLUGIN_ID, context("r1"), singletonList(new CRConfigurationProperty("file_pattern", "*.gocd.yaml")), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheWhenRevisionIsUnknown() {
+        cache.parse(PLUGIN_ID, context(null), noConfiguration(), this::parse);
+        cache.parse(PLUGIN_ID, context(null), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+        assertThat(cacheDir.list()).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+        ConfigRepoParseCache disabled = new ConfigRepoParseCache(cacheDir, false);
+
+        disabled.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+        disabled.parse(PLUGIN_ID, context("r1"), noConfiguration(), this::parse);
+
+        assertThat(parseCount.get()).isEqualTo(2);
+    }
+
+    private CRParseResult parse() {
+        parseCount.incrementAndGet();
+        List<CREnvironment> environments = new ArrayList<>(singletonList(new CREnvironment("uat")));
+        return new CRParseResult(environments, new ArrayList<>(), new ErrorCollection());
+    }
+
+    private Collection<CRConfigurationProperty> noConfiguration() {
+        return Collections.emptyList();
+    }
+
+    private void registerPlugin(String version) {
+        GoPluginDescriptor.About about = GoPluginDescriptor.About.builder().name("YAML plugin").version(version).build();
+        GoPluginDescriptor descriptor = GoPluginDescriptor.builder().id(PLUGIN_ID).about(about).build();
+        ConfigRepoMetadataStore.instance().setPluginInfo(new ConfigRepoPluginInfo(descriptor, null, new PluggableInstanceSettings(null), new Capabilities()));
+    }
+
+    private PartialConfigLoadContext context(String revision) {
+        MaterialConfig material = git("https://example.com/config-repo.git");
+        return new PartialConfigLoadContext() {
+            @Override
+            public Configuration configuration() {
+                return new Configuration();
+            }
+
+            @Override
+            public MaterialConfig configMaterial() {
+                return material;
+            }
+
+            @Override
+            public String revision() {
+                return revision;
+            }
+        };
+    }
+}
@@ -50,7 +50,7 @@ public class GoConfigPluginServiceTest {
     {
         extension = mock(ConfigRepoExtension.class);
         service = new GoConfigPluginService(extension,mock(ConfigCache.class), ConfigElementImplementationRegistryMother.withNoPlugins(),
-                mock(CachedGoConfig.class), mock(AgentService.class));
+                mock(CachedGoConfig.class), mock(AgentService.class), mock(ConfigRepoParseCache.class));
         parseResult = new CRParseResult(environments,pipelines,errors);
 
         when(extension.parseDirectory(any(String.class), any(String.class), any(Collection.class)))
@@ -33,13 +33,16 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import java.io.File;
 import java.util.*;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -78,10 +81,15 @@ public class GoFileConfigDataSourceTest {
     private PartialConfigHelper partials;
     @Rule
     public ExpectedException thrown = ExpectedException.none();
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File configFile;
 
     @Before
     public void setup() throws Exception {
         initMocks(this);
+        configFile = temporaryFolder.newFile("cruise-config.xml");
+        when(systemEnvironment.getCruiseConfigFile()).thenReturn(configFile.getAbsolutePath());
         dataSource = new GoFileConfigDataSource(goConfigMigration,
                 configRepository, systemEnvironment, timeProvider, xmlLoader, xmlWriter,
                 cachedGoPartials, fullConfigSaveMergeFlow, fullConfigSaveNormalFlow, goConfigFileReader, goConfigFileWriter, partials);
@@ -128,6 +136,36 @@ public class GoFileConfigDataSourceTest {
         verify(fullConfigSaveNormalFlow).execute(updatingCommand, lastKnownPartials, "loser_boozer");
     }
 
+    @Test
+    public void shouldNotConsiderTheConfigFileChangedOnDiskAfterWritingIt() throws Exception {
+        com.thoughtworks.go.server.newsecurity.SessionUtilsHelper.loginAs("loser_boozer");
+        BasicCruiseConfig configForEdit = new BasicCruiseConfig();
+        MagicalGoConfigXmlLoader.setMd5(configForEdit, "md5");
+        FullConfigUpdateCommand updatingCommand = new FullConfigUpdateCommand(new BasicCruiseConfig(), "md5");
+        when(cachedGoPartials.lastKnownPartials()).thenReturn(new ArrayList<>());
+        when(fullConfigSaveNormalFlow.execute(any(FullConfigUpdateCommand.class), anyList(), any(String.class))).thenAnswer(invocation -> {
+            writeStringToFile(configFile, "<cruise/>", UTF_8);
+            return new GoConfigHolder(new BasicCruiseConfig(), new BasicCruiseConfig());
+        });
+
+        assertThat(dataSource.mayHaveChangedOnDisk(), is(true));
+
+        dataSource.writeFullConfigWithLock(updatingCommand, new GoConfigHolder(new BasicCruiseConfig(), configForEdit));
+
+        assertThat(dataSource.mayHaveChangedOnDisk(), is(false));
+
+        writeStringToFile(configFile, "<cruise></cruise>", UTF_8);
+
+        assertThat(dataSource.mayHaveChangedOnDisk(), is(true));
+    }
+
+    @Test
+    public void shouldAlwaysConsiderTheConfigFileChangedOnDiskWhenReloadingEveryTime() {
+        dataSource.reloadEveryTime();
+
+        assertThat(dataSource.mayHaveChangedOnDisk(), is(true));
+    }
+
     @Test
     public void shouldEnsureMergeFlowWithLastKnownPartialsIfConfigHasChangedBetweenUpdates_OnWriteFullConfigWithLock() throws Exception {
         com.thoughtworks.go.server.newsecurity.SessionUtilsHelper.loginAs("loser_boozer");
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.config.remote.PartialConfig;
+import org.junit.jupiter.api.Test;
+
+import static com.thoughtworks.go.helper.PartialConfigMother.withEnvironment;
+import static com.thoughtworks.go.helper.PartialConfigMother.withPipeline;
+import static com.thoughtworks.go.helper.PartialConfigMother.withPipelineInGroup;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartialConfigChangesTest {
+    @Test
+    void shouldReportNoChangesWhenPartialsAreUnchanged() {
+        CruiseConfig previous = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"));
+        CruiseConfig current = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"));
+
+        assertThat(PartialConfigChanges.between(previous, current).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldReportAddedPipelinesAndGroups() {
+        CruiseConfig previous = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"));
+        CruiseConfig current = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"), withPipelineInGroup("p2", "new-group"));
+
+        PartialConfigChanges changes = PartialConfigChanges.between(previous, current);
+
+        assertThat(changes.changedEntities()).containsExactly(
+                current.getPipelineConfigByName(new CaseInsensitiveString("p2")),
+                current.findGroup("new-group"));
+    }
+
+    @Test
+    void shouldReportRemovedPipelinesFromThePreviousConfig() {
+        CruiseConfig previous = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"), withPipelineInGroup("p2", "group"));
+        CruiseConfig current = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"));
+
+        PartialConfigChanges changes = PartialConfigChanges.between(previous, current);
+
+        assertThat(changes.changedEntities()).containsExactly(previous.getPipelineConfigByName(new CaseInsensitiveString("p2")));
+    }
+
+    @Test
+    void shouldReportModifiedPipelines() {
+        PartialConfig modified = withPipeline("p1");
+        modified.getGroups().first().get(0).setLabelTemplate("${COUNT}-modified");
+        CruiseConfig previous = new BasicCruiseConfig(new BasicCruiseConfig(), withPipeline("p1"));
+        CruiseConfig current = new BasicCruiseConfig(new BasicCruiseConfig(), modified);
+
+        PartialConfigChanges changes = PartialConfigChanges.between(previous, current);
+
+        assertThat(changes.changedEntities()).containsExactly(current.getPipelineConfigByName(new CaseInsensitiveString("p1")));
+    }
+
+    @Test
+    void shouldReportAddedAndRemovedEnvironments() {
+        CruiseConfig previous = new BasicCruiseConfig(new BasicCruiseConfig(), withEnvironment("uat"));
+        CruiseConfig current = new BasicCruiseConfig(new BasicCruiseConfig(), withEnvironment("prod"));
+
+        PartialConfigChanges changes = PartialConfigChanges.between(previous, current);
+
+        assertThat(changes.changedEntities()).containsExactly(
+                current.getEnvironments().find(new CaseInsensitiveString("prod")),
+                previous.getEnvironments().find(new CaseInsensitiveString("uat")));
+    }
+}
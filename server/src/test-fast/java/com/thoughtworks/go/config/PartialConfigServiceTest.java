@@ -110,7 +110,7 @@ public class PartialConfigServiceTest {
 
     @Test
     void mergesRemoteGroupToMain() {
-        when(goConfigService.updateConfig(any(UpdateConfigCommand.class))).thenAnswer(invocationOnMock -> {
+        when(goConfigService.updatePartials(any(UpdateConfigCommand.class))).thenAnswer(invocationOnMock -> {
             UpdateConfigCommand command = (UpdateConfigCommand) invocationOnMock.getArguments()[0];
             command.update(cruiseConfig);
             return cruiseConfig;
@@ -122,7 +122,7 @@ public class PartialConfigServiceTest {
 
     @Test
     void mergesRemoteEnvironmentToMain() {
-        when(goConfigService.updateConfig(any(UpdateConfigCommand.class))).thenAnswer(invocationOnMock -> {
+        when(goConfigService.updatePartials(any(UpdateConfigCommand.class))).thenAnswer(invocationOnMock -> {
             UpdateConfigCommand command = (UpdateConfigCommand) invocationOnMock.getArguments()[0];
             command.update(cruiseConfig);
             return cruiseConfig;
@@ -168,7 +168,7 @@ public class PartialConfigServiceTest {
 
     @Test
     void clearsLastValidPartialOnFailureWhenFailsRuleValidations() {
-        when(goConfigService.updateConfig(any(UpdateConfigCommand.class))).thenThrow(new RuntimeException("Nope")).thenReturn(ConfigSaveState.UPDATED);
+        when(goConfigService.updatePartials(any(UpdateConfigCommand.class))).thenThrow(new RuntimeException("Nope")).thenReturn(ConfigSaveState.UPDATED);
         when(partialConfigHelper.isEquivalent(any(PartialConfig.class), any(PartialConfig.class))).thenReturn(false);
 
         // an empty set guarantees violations
@@ -198,12 +198,12 @@ public class PartialConfigServiceTest {
 
         assertTrue(cachedGoPartials.lastValidPartials().isEmpty());
 
-        verify(goConfigService, times(2)).updateConfig(any(UpdateConfigCommand.class));
+        verify(goConfigService, times(2)).updatePartials(any(UpdateConfigCommand.class));
     }
 
     @Test
     void keepsLastValidPartialOnFailureWhenRulesAllow() {
-        when(goConfigService.updateConfig(any(UpdateConfigCommand.class))).thenThrow(new RuntimeException("Nope"));
+        when(goConfigService.updatePartials(any(UpdateConfigCommand.class))).thenThrow(new RuntimeException("Nope"));
         when(partialConfigHelper.isEquivalent(any(PartialConfig.class), any(PartialConfig.class))).thenReturn(false);
 
         // an empty set guarantees violations
@@ -238,7 +238,7 @@ public class PartialConfigServiceTest {
         assertEquals(1, cachedGoPartials.lastValidPartials().size());
         assertEquals(lastValid, cachedGoPartials.lastValidPartials().get(0));
 
-        verify(goConfigService).updateConfig(any(UpdateConfigCommand.class));
+        verify(goConfigService).updatePartials(any(UpdateConfigCommand.class));
     }
 
     @Nested
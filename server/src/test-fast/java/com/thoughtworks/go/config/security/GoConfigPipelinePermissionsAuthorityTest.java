@@ -878,6 +878,61 @@ public class GoConfigPipelinePermissionsAuthorityTest {
         assertThat(p1Permissions.stageOperators("stage-non-existing-stage-A"), is(new AllowedUsers(s("superadmin1", "operator1", "operator2"), emptySet())));
     }
 
+    @Test
+    public void shouldNotRecomputePermissionsWhenConfigHasNotChanged() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer1", "group1");
+        GoConfigMother.addUserAsSuperAdmin(config, "superadmin1");
+
+        Map<CaseInsensitiveString, Permissions> first = getPipelinesAndTheirPermissions();
+        Map<CaseInsensitiveString, Permissions> second = getPipelinesAndTheirPermissions();
+
+        assertThat(second == first, is(true));
+    }
+
+    @Test
+    public void shouldRecomputePermissionsWhenConfigChanges() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer1", "group1");
+        GoConfigMother.addUserAsSuperAdmin(config, "superadmin1");
+        getPipelinesAndTheirPermissions();
+
+        config = GoConfigMother.defaultCruiseConfig();
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        configMother.addPipelineWithGroup(config, "group1", "pipeline2", "stage2A", "job2A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer2", "group1");
+        GoConfigMother.addUserAsSuperAdmin(config, "superadmin1");
+
+        Map<CaseInsensitiveString, Permissions> permissions = getPipelinesAndTheirPermissions();
+
+        assertPipelinesInMap(permissions, "pipeline1", "pipeline2");
+        assertViewers(permissions, "pipeline1", Collections.emptySet(), "superadmin1", "viewer2");
+        assertViewers(permissions, "pipeline2", Collections.emptySet(), "superadmin1", "viewer2");
+    }
+
+    @Test
+    public void shouldShareUsersOfAGroupAcrossItsPipelinesAndAcrossConfigsWhereTheGroupDidNotChange() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        configMother.addPipelineWithGroup(config, "group1", "pipeline2", "stage2A", "job2A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer1", "group1");
+        GoConfigMother.addUserAsSuperAdmin(config, "superadmin1");
+        Map<CaseInsensitiveString, Permissions> before = getPipelinesAndTheirPermissions();
+
+        config = GoConfigMother.defaultCruiseConfig();
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        configMother.addPipelineWithGroup(config, "group1", "pipeline2", "stage2A", "job2A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer1", "group1");
+        configMother.addPipelineWithGroup(config, "group2", "pipeline3", "stage3A", "job3A1");
+        configMother.addUserAsViewerOfPipelineGroup(config, "viewer3", "group2");
+        GoConfigMother.addUserAsSuperAdmin(config, "superadmin1");
+        Map<CaseInsensitiveString, Permissions> after = getPipelinesAndTheirPermissions();
+
+        Users viewersOfPipeline1 = before.get(new CaseInsensitiveString("pipeline1")).viewers();
+        assertThat(before.get(new CaseInsensitiveString("pipeline2")).viewers() == viewersOfPipeline1, is(true));
+        assertThat(after.get(new CaseInsensitiveString("pipeline1")).viewers() == viewersOfPipeline1, is(true));
+        assertViewers(after, "pipeline3", Collections.emptySet(), "superadmin1", "viewer3");
+    }
+
     private Map<CaseInsensitiveString, Permissions> getPipelinesAndTheirPermissionsWhenDefaultGroupPermissionIsToDeny() {
         return getPipelinesAndTheirPermissions(false);
     }
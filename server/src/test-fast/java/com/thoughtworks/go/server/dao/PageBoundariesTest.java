@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import com.thoughtworks.go.server.util.Pagination;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class PageBoundariesTest {
+    // a history of the ids 1 to 95, of which pages of 10 are 95-86, 85-76, ... and 5-1
+    private final PageBoundaries.IdSeeker seeker = (modifier, cursor, limit) -> {
+        List<Long> ids = new ArrayList<>();
+        if (modifier == FeedModifier.After) {
+            for (long id = cursor - 1; id >= 1 && ids.size() < limit; id--) {
+                ids.add(id);
+            }
+        } else {
+            for (long id = cursor + 1; id <= 95 && ids.size() < limit; id++) {
+                ids.add(id);
+            }
+            Collections.reverse(ids);
+        }
+        return ids;
+    };
+
+    @Test
+    void shouldWorkOutTheBoundariesOfThePagesTwoAwayAndOfTheLastPage() {
+        assertThat(PageBoundaries.ofPagesAround(Pagination.pageByNumber(5, 95, 10), idsOfPage(5), seeker))
+                .containsOnly(entry(3, 76L), entry(4, 66L), entry(6, 46L), entry(7, 36L), entry(10, 6L));
+    }
+
+    @Test
+    void shouldLeaveOutTheFirstPageAndPagesBeyondTheLast() {
+        assertThat(PageBoundaries.ofPagesAround(Pagination.pageByNumber(1, 95, 10), idsOfPage(1), seeker))
+                .containsOnly(entry(2, 86L), entry(3, 76L), entry(10, 6L));
+        assertThat(PageBoundaries.ofPagesAround(Pagination.pageByNumber(3, 95, 10), idsOfPage(3), seeker))
+                .containsOnly(entry(2, 86L), entry(4, 66L), entry(5, 56L), entry(10, 6L));
+        assertThat(PageBoundaries.ofPagesAround(Pagination.pageByNumber(10, 95, 10), idsOfPage(10), seeker))
+                .containsOnly(entry(8, 26L), entry(9, 16L));
+        assertThat(PageBoundaries.ofPagesAround(Pagination.pageByNumber(11, 95, 10), idsOfPage(11), seeker))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldWorkOutTheBoundariesOfTheAdjacentPagesOnly() {
+        assertThat(PageBoundaries.ofAdjacentPages(Pagination.pageByNumber(5, 95, 10), idsOfPage(5), seeker))
+                .containsOnly(entry(4, 66L), entry(6, 46L));
+        assertThat(PageBoundaries.ofAdjacentPages(Pagination.pageByNumber(2, 95, 10), idsOfPage(2), seeker))
+                .containsOnly(entry(3, 76L));
+    }
+
+    @Test
+    void shouldWorkOutTheBoundaryOfThePageHavingAnEntry() {
+        assertThat(PageBoundaries.ofPageHaving(73, 2, seeker)).isEqualTo(76L);
+        assertThat(PageBoundaries.ofPageHaving(85, 0, seeker)).isEqualTo(86L);
+        assertThat(PageBoundaries.ofPageHaving(93, 2, seeker)).isNull();
+    }
+
+    private List<Long> idsOfPage(int page) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 95 - (page - 1) * 10; id > Math.max(0, 95 - page * 10); id--) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -615,6 +615,29 @@ public class PipelineSqlMapDaoCachingTest {
         assertThat(goCache.get(cacheKey), is(result));
     }
 
+    @Test
+    public void findMatchingPipelineInstances_shouldSearchTheDatabaseUntilTheSearchIndexOfThePipelineIsBuilt() {
+        pipelineDao.setSearchIndexExecutor(Runnable::run);
+        when(mockTemplate.queryForList(eq("findExactMatchingPipelineInstances"), any())).thenAnswer(invocation -> new ArrayList<>());
+        when(mockTemplate.queryForList(eq("findMatchingPipelineInstances"), any())).thenAnswer(invocation -> new ArrayList<>(Arrays.asList(model(1, JobState.Completed, JobResult.Passed))));
+        when(mockTemplate.queryForList("getPipelineSearchTexts", arguments("pipelineName", "pipeline").asMap()))
+                .thenReturn((List) Arrays.asList(new PipelineSearchText(1, "1", null, "fix build", "bob", "r1", null),
+                        new PipelineSearchText(2, "2", null, "fix tests", "alice", "r2", null)));
+        when(mockTemplate.queryForObject("getPipelineHistoryById", arguments("id", 1L).asMap())).thenReturn(model(1, JobState.Completed, JobResult.Passed));
+        when(mockTemplate.queryForObject("getPipelineHistoryById", arguments("id", 2L).asMap())).thenReturn(model(2, JobState.Completed, JobResult.Passed));
+
+        PipelineInstanceModels firstSearch = pipelineDao.findMatchingPipelineInstances("pipeline", "FIX", 10);
+        PipelineInstanceModels secondSearch = pipelineDao.findMatchingPipelineInstances("pipeline", "fix", 10);
+
+        assertThat(firstSearch.size(), is(1));
+        assertThat(firstSearch.get(0).getId(), is(1L));
+        assertThat(secondSearch.size(), is(2));
+        assertThat(secondSearch.get(0).getId(), is(2L));
+        assertThat(secondSearch.get(1).getId(), is(1L));
+        verify(mockTemplate).queryForList(eq("findMatchingPipelineInstances"), any());
+        verify(mockTemplate).queryForList("getPipelineSearchTexts", arguments("pipelineName", "pipeline").asMap());
+    }
+
     private PipelineInstanceModel model(long id, JobState jobState, JobResult jobResult) {
         StageInstanceModels models = new StageInstanceModels();
         models.add(new StageInstanceModel("first", "1", JobHistory.withJob("job", jobState, jobResult, new Date())));
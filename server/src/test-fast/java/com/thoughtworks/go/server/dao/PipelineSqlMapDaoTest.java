@@ -29,6 +29,7 @@ import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.transaction.SqlMapClientTemplate;
+import com.thoughtworks.go.server.util.Pagination;
 import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
 import org.assertj.core.api.Assertions;
@@ -145,6 +146,38 @@ class PipelineSqlMapDaoTest {
         verify(mockTemplate, times(1)).queryForList(eq("getPipelineRange"), any());
     }
 
+    @Test
+    void shouldSeekAPageOfHistoryFromTheInstanceWithTheCounterJustAboveThePage() {
+        Pipeline boundary = mock(Pipeline.class);
+        when(boundary.getId()).thenReturn(1076L);
+        when(sqlMapClientTemplate.queryForObject("getCounterForPipeline", "pipelineName")).thenReturn(95);
+        when(sqlMapClientTemplate.queryForObject("findPipelineByNameAndCounter", arguments("name", "pipelineName").and("counter", 76).asMap())).thenReturn(boundary);
+
+        pipelineSqlMapDao.loadHistory("pipelineName", Pagination.pageByNumber(3, 95, 10));
+
+        verify(sqlMapClientTemplate).queryForList("getPipelineIdsAfter", arguments("pipelineName", "pipelineName").and("cursor", 1076L).and("limit", 10).asMap());
+        verify(sqlMapClientTemplate, never()).queryForList(eq("getPipelineRange"), any());
+    }
+
+    @Test
+    void shouldSeekAPageOfHistoryFromItsBoundaryWhenItIsKnown() {
+        pipelineSqlMapDao.loadHistory("pipelineName", Pagination.pageByNumber(3, 95, 10, 1076L));
+
+        verify(sqlMapClientTemplate).queryForList("getPipelineIdsAfter", arguments("pipelineName", "pipelineName").and("cursor", 1076L).and("limit", 10).asMap());
+        verify(sqlMapClientTemplate, never()).queryForObject(eq("getCounterForPipeline"), any());
+        verify(sqlMapClientTemplate, never()).queryForList(eq("getPipelineRange"), any());
+    }
+
+    @Test
+    void shouldSkipToAPageOfHistoryWhenTheCountersHaveGaps() {
+        when(sqlMapClientTemplate.queryForObject("getCounterForPipeline", "pipelineName")).thenReturn(100);
+
+        pipelineSqlMapDao.loadHistory("pipelineName", Pagination.pageByNumber(3, 95, 10));
+
+        verify(sqlMapClientTemplate).queryForList("getPipelineRange", arguments("pipelineName", "pipelineName").and("limit", 10).and("offset", 20).asMap());
+        verify(sqlMapClientTemplate, never()).queryForObject(eq("findPipelineByNameAndCounter"), any());
+    }
+
     @Test
     void shouldGetAnEmptyListOfPIMsWhenActivePipelinesListDoesNotHavePIMsForRequestedPipeline() throws Exception {
         String pipelineName = "pipeline-with-no-active-instances";
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.thoughtworks.go.server.dao.PipelineSearchText.entriesOf;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.add(entriesOf(asList(
+                new PipelineSearchText(1, "1-abc", "modified by Bob", "Fix the Build", "bob", "rev-1", null),
+                new PipelineSearchText(1, "1-abc", "modified by Bob", "add readme", "bob", "rev-2", null),
+                new PipelineSearchText(2, "2-xyz", "triggered by upstream/7", "Upgrade", "alice", "rev-3", "upstream-7"),
+                new PipelineSearchText(5, "5-abc", "modified by Alice", "fix tests", "alice", "rev-4", null)
+        )));
+    }
+
+    @Test
+    void shouldFindInstancesByAnyOfTheirFieldsIgnoringCaseLatestFirst() {
+        assertThat(index.idsMatching("fix", null, 10)).containsExactly(5L, 1L);
+        assertThat(index.idsMatching("readme", null, 10)).containsExactly(1L);
+        assertThat(index.idsMatching("alice", null, 10)).containsExactly(5L, 2L);
+        assertThat(index.idsMatching("rev-3", null, 10)).containsExactly(2L);
+        assertThat(index.idsMatching("upstream-7", null, 10)).containsExactly(2L);
+        assertThat(index.idsMatching("modified by", null, 10)).containsExactly(5L, 1L);
+        assertThat(index.idsMatching("-abc", null, 10)).containsExactly(5L, 1L);
+    }
+
+    @Test
+    void shouldFindInstancesByTextShorterThanATrigram() {
+        assertThat(index.idsMatching("xy", null, 10)).containsExactly(2L);
+        assertThat(index.idsMatching("", null, 10)).containsExactly(5L, 2L, 1L);
+    }
+
+    @Test
+    void shouldNotMatchTextSpanningTwoFields() {
+        assertThat(index.idsMatching("buildbob", null, 10)).isEmpty();
+        assertThat(index.idsMatching("fix the build bob", null, 10)).isEmpty();
+        assertThat(index.idsMatching("something else", null, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldLeaveOutInstancesWithTheExcludedLabelAndStopAtTheLimit() {
+        assertThat(index.idsMatching("abc", "5-abc", 10)).containsExactly(1L);
+        assertThat(index.idsMatching("abc", null, 1)).containsExactly(5L);
+    }
+
+    @Test
+    void shouldNotAddAnInstanceWhichIsAlreadyIndexed() {
+        long sizeInBytes = index.sizeInBytes();
+
+        index.add(entriesOf(asList(
+                new PipelineSearchText(2, "2-xyz", null, "fix again", "alice", "rev-3", null),
+                new PipelineSearchText(7, "7-abc", null, "another fix", "carol", "rev-5", null)
+        )));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.contains(7L)).isTrue();
+        assertThat(index.sizeInBytes()).isGreaterThan(sizeInBytes);
+        assertThat(index.idsMatching("fix", null, 10)).containsExactly(7L, 5L, 1L);
+    }
+
+    @Test
+    void shouldKeepInstancesInOrderOfIdWhenTheyAreAddedOutOfOrder() {
+        index.add(entriesOf(singletonList(new PipelineSearchText(4, "4-abc", null, "fix docs", "carol", "rev-6", null))));
+        index.add(entriesOf(singletonList(new PipelineSearchText(3, "3-abc", null, "fix typo", "dave", "rev-7", null))));
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.idsMatching("fix", null, 10)).containsExactly(5L, 4L, 3L, 1L);
+        assertThat(index.idsMatching("abc", null, 10)).containsExactly(5L, 4L, 3L, 1L);
+        assertThat(index.idsMatching("alice", null, 10)).containsExactly(5L, 2L);
+        assertThat(index.idsMatching("typo", null, 10)).containsExactly(3L);
+        assertThat(index.idsMatching("", null, 10)).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldFindOnlyInstancesWithIdsBetweenTheGivenOnes() {
+        index.add(entriesOf(singletonList(new PipelineSearchText(4, "4-abc", null, "fix docs", "carol", "rev-6", null))));
+
+        assertThat(index.idsMatching("fix", null, 1, 5, 10)).containsExactly(4L);
+        assertThat(index.idsMatching("fix", null, 0, 5, 10)).containsExactly(4L, 1L);
+        assertThat(index.idsMatching("fix", null, 1, 6, 10)).containsExactly(5L, 4L);
+        assertThat(index.idsMatching("fix", null, 3, Long.MAX_VALUE, 1)).containsExactly(5L);
+        assertThat(index.idsMatching("xy", null, 1, 3, 10)).containsExactly(2L);
+        assertThat(index.idsMatching("fix", null, 5, Long.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldFindTheOldestInstanceHavingTheText() {
+        assertThat(index.oldestIdMatching("alice")).isEqualTo(2L);
+        assertThat(index.oldestIdMatching("fix")).isEqualTo(1L);
+        assertThat(index.oldestIdMatching("5-")).isEqualTo(5L);
+        assertThat(index.oldestIdMatching("nothing like it")).isNull();
+    }
+
+    @Test
+    void shouldGrowToHoldManyInstances() {
+        for (long id = 6; id < 106; id++) {
+            List<PipelineSearchText> searchTexts = singletonList(new PipelineSearchText(id, id + "-label", null, "commit " + id, "dave", "r" + id, null));
+            index.add(entriesOf(searchTexts));
+        }
+
+        assertThat(index.size()).isEqualTo(103);
+        assertThat(index.idsMatching("commit 42", null, 10)).containsExactly(42L);
+        assertThat(index.idsMatching("dave", null, 3)).containsExactly(105L, 104L, 103L);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.thoughtworks.go.server.dao.PipelineSearchText.entriesOf;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SearchIndexesTest {
+    private SearchIndexes.Loader loader;
+    private List<Runnable> tasks;
+
+    @BeforeEach
+    void setUp() {
+        loader = mock(SearchIndexes.Loader.class);
+        tasks = new ArrayList<>();
+        when(loader.entriesOf("up42")).thenReturn(entriesOf(asList(
+                new PipelineSearchText(1, "1", null, "fix build", "bob", "r1", null),
+                new PipelineSearchText(2, "2", null, "fix tests", "alice", "r2", null))));
+        when(loader.entriesWithId(3)).thenReturn(entriesOf(singletonList(new PipelineSearchText(3, "3", null, "fix again", "bob", "r3", null))));
+    }
+
+    @Test
+    void shouldBuildTheIndexOfAPipelineInTheBackgroundTheFirstTimeItIsAskedFor() {
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, Long.MAX_VALUE, tasks::add);
+
+        assertThat(indexes.indexOf("up42")).isNull();
+        assertThat(indexes.indexOf("UP42")).isNull();
+        assertThat(tasks).hasSize(1);
+        verifyZeroInteractions(loader);
+
+        runTasks();
+
+        assertThat(indexes.indexOf("up42").idsMatching("fix", null, 10)).containsExactly(2L, 1L);
+        verify(loader).entriesOf("up42");
+    }
+
+    @Test
+    void shouldAddSavedInstancesToTheIndexOfTheirPipeline() {
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, Long.MAX_VALUE, Runnable::run);
+        indexes.indexOf("up42");
+
+        indexes.entrySaved("up42", 3);
+
+        assertThat(indexes.indexOf("up42").idsMatching("fix", null, 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldAddSavedEntriesAtHandToTheIndexWithoutLoadingThem() {
+        SearchIndexes indexes = new SearchIndexes("material", loader, Long.MAX_VALUE, Runnable::run);
+        indexes.indexOf("up42");
+
+        indexes.entriesSaved("up42", singletonList(new SearchIndex.Entry(4, null, asList("fix it", "carol", "r4"))));
+
+        assertThat(indexes.indexOf("up42").idsMatching("fix", null, 10)).containsExactly(4L, 2L, 1L);
+        verify(loader, never()).entriesWithId(anyLong());
+    }
+
+    @Test
+    void shouldIgnoreSavedInstancesOfPipelinesWhichAreNotIndexed() {
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, Long.MAX_VALUE, tasks::add);
+
+        indexes.entrySaved("up42", 3);
+
+        assertThat(tasks).isEmpty();
+        verifyZeroInteractions(loader);
+    }
+
+    @Test
+    void shouldAddAnInstanceSavedWhileTheIndexIsBeingBuiltOnlyOnce() {
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, Long.MAX_VALUE, tasks::add);
+        when(loader.entriesOf("up42")).thenReturn(entriesOf(asList(
+                new PipelineSearchText(1, "1", null, "fix build", "bob", "r1", null),
+                new PipelineSearchText(3, "3", null, "fix again", "bob", "r3", null))));
+        indexes.indexOf("up42");
+        indexes.entrySaved("up42", 3);
+
+        runTasks();
+
+        assertThat(indexes.indexOf("up42").size()).isEqualTo(2);
+        verify(loader, never()).entriesWithId(3);
+    }
+
+    @Test
+    void shouldDropTheLeastRecentlyUsedIndexesOnceAllOfThemGrowBeyondTheMaximumSize() {
+        when(loader.entriesOf("other")).thenReturn(entriesOf(singletonList(new PipelineSearchText(10, "10", null, "fix build", "bob", "r10", null))));
+        when(loader.entriesOf("third")).thenReturn(entriesOf(singletonList(new PipelineSearchText(20, "20", null, "fix build", "bob", "r20", null))));
+        SearchIndexes measure = new SearchIndexes("pipeline", loader, Long.MAX_VALUE, Runnable::run);
+        measure.indexOf("up42");
+        measure.indexOf("other");
+        long sizeOfTwo = measure.indexOf("up42").sizeInBytes() + measure.indexOf("other").sizeInBytes();
+
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, sizeOfTwo, Runnable::run);
+        indexes.indexOf("up42");
+        indexes.indexOf("other");
+        assertThat(indexes.indexOf("up42")).isNotNull();
+
+        indexes.indexOf("third");
+
+        assertThat(indexes.indexOf("up42")).isNotNull();
+        assertThat(indexes.indexOf("third")).isNotNull();
+        assertThat(indexes.indexOf("other")).isNull();
+    }
+
+    @Test
+    void shouldNotIndexAPipelineWhoseIndexAloneIsLargerThanTheMaximumSize() {
+        SearchIndexes indexes = new SearchIndexes("pipeline", loader, 10, Runnable::run);
+
+        assertThat(indexes.indexOf("up42")).isNull();
+        assertThat(indexes.indexOf("up42")).isNull();
+
+        verify(loader, times(1)).entriesOf("up42");
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+}
@@ -22,11 +22,16 @@ import org.junit.Test;
 import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 public class GoDashboardCacheTest {
     private GoDashboardCache cache;
@@ -86,6 +91,45 @@ public class GoDashboardCacheTest {
         assertThat(cache.allEntries().find(cis("pipeline5")), is(sameInstance(pipeline5)));
     }
 
+    @Test
+    public void shouldTellListenersAboutEachChangeToTheCache() {
+        GoDashboardCacheListener listener = mock(GoDashboardCacheListener.class);
+        cache.addListener(listener);
+
+        cache.put(pipeline("pipeline1"));
+        verify(listener).cacheUpdated(cache.allEntries());
+
+        cache.replaceAllEntriesInCacheWith(asList(pipeline("pipeline1"), pipeline("pipeline2")));
+        verify(listener).cacheUpdated(cache.allEntries());
+
+        cache.remove(cis("pipeline2"));
+        verify(listener).cacheUpdated(cache.allEntries());
+        assertThat(cache.allEntries().find(cis("pipeline2")), is(nullValue()));
+
+        cache.remove(cis("pipeline-which-is-not-cached"));
+        verify(listener, times(3)).cacheUpdated(any());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void shouldChangeTheLayoutVersionOnlyWhenPipelinesComeGoOrMoveBetweenGroups() {
+        long initialVersion = cache.layoutVersion();
+
+        cache.put(pipeline("pipeline1"));
+        long versionAfterAdding = cache.layoutVersion();
+        assertThat(versionAfterAdding, is(not(initialVersion)));
+
+        cache.put(pipeline("pipeline1"));
+        assertThat(cache.layoutVersion(), is(versionAfterAdding));
+
+        cache.put(pipeline("pipeline1", "group2"));
+        long versionAfterMoving = cache.layoutVersion();
+        assertThat(versionAfterMoving, is(not(versionAfterAdding)));
+
+        cache.remove(cis("pipeline1"));
+        assertThat(cache.layoutVersion(), is(not(versionAfterMoving)));
+    }
+
     private CaseInsensitiveString cis(String value) {
         return new CaseInsensitiveString(value);
     }
@@ -32,6 +32,7 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionSynchronization;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.Matchers.is;
@@ -160,7 +161,7 @@ public class PipelineTimelineTest {
         entries[0] = new ArrayList<>();
         final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager, new TimelineUpdateListener() {
             @Override
-            public void added(PipelineTimelineEntry newlyAddedEntry, TreeSet<PipelineTimelineEntry> timeline) {
+            public void added(PipelineTimelineEntry newlyAddedEntry, List<PipelineTimelineEntry> timeline) {
                 assertThat(timeline.contains(newlyAddedEntry), is(true));
                 assertThat(timeline.containsAll(entries[0]), is(true));
                 entries[0].add(newlyAddedEntry);
@@ -180,7 +181,7 @@ public class PipelineTimelineTest {
         TimelineUpdateListener anotherListener = mock(TimelineUpdateListener.class);
         final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager, new TimelineUpdateListener() {
             @Override
-            public void added(PipelineTimelineEntry newlyAddedEntry, TreeSet<PipelineTimelineEntry> timeline) {
+            public void added(PipelineTimelineEntry newlyAddedEntry, List<PipelineTimelineEntry> timeline) {
                 throw new RuntimeException();
             }
         }, anotherListener);
@@ -190,7 +191,7 @@ public class PipelineTimelineTest {
         } catch (Exception e) {
             fail("should not have failed because of exception thrown by listener");
         }
-        verify(anotherListener).added(eq(first), any(TreeSet.class));
+        verify(anotherListener).added(eq(first), anyListOf(PipelineTimelineEntry.class));
     }
 
     @Test public void updateOnInitShouldBeDoneOutsideTransaction() throws Exception {
@@ -259,6 +260,39 @@ public class PipelineTimelineTest {
         assertThat(timeline.instanceFor(new CaseInsensitiveString("pipeline"), 1), is(second));
     }
 
+    @Test public void updateShouldNotBlockReadersOfOtherPipelines() throws Exception {
+        stubTransactionSynchronization();
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_COMMITTED, true);
+        final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        PipelineTimelineEntry another = PipelineMaterialModificationMother.modification("another", 5, materials, Arrays.asList(now, now.plusMinutes(1), now.plusMinutes(2), now.plusMinutes(3)), 1, "123");
+        timeline.add(another);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        final Integer[] instancesOfAnotherDuringUpdate = new Integer[1];
+        final Boolean[] pipelineReadDuringUpdate = new Boolean[1];
+        doAnswer(invocation -> {
+            timeline.add(first);
+            instancesOfAnotherDuringUpdate[0] = reader.submit(() -> timeline.instanceCount(new CaseInsensitiveString("another"))).get(10, TimeUnit.SECONDS);
+            Future<Integer> blockedRead = reader.submit(() -> timeline.instanceCount(new CaseInsensitiveString(pipelineName)));
+            try {
+                blockedRead.get(100, TimeUnit.MILLISECONDS);
+                pipelineReadDuringUpdate[0] = true;
+            } catch (TimeoutException e) {
+                pipelineReadDuringUpdate[0] = false;
+            }
+            ((List<PipelineTimelineEntry>) invocation.getArguments()[1]).add(first);
+            return null;
+        }).when(pipelineRepository).updatePipelineTimeline(eq(timeline), anyListOf(PipelineTimelineEntry.class));
+
+        try {
+            timeline.update();
+            assertThat(instancesOfAnotherDuringUpdate[0], is(1));
+            assertThat(pipelineReadDuringUpdate[0], is(false));
+            assertThat(reader.submit(() -> timeline.instanceCount(new CaseInsensitiveString(pipelineName))).get(10, TimeUnit.SECONDS), is(1));
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
     private void stubPipelineRepository(final PipelineTimeline timeline, boolean restub, final PipelineTimelineEntry... entries) {
         repositoryEntries = entries;
         if (restub) {
@@ -310,6 +344,24 @@ public class PipelineTimelineTest {
         assertThat(timeline.runAfter(2, new CaseInsensitiveString("not-present")), is(nullValue()));
     }
 
+    @Test public void shouldFindPipelineBeforeAndAfterByIdWhenInstancesWereAddedInOrderOfId() throws Exception {
+        PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        timeline.add(first);
+        timeline.add(second);
+        timeline.add(third);
+        timeline.add(fourth);
+
+        assertThat(timeline.runBefore(third.getId(), new CaseInsensitiveString(pipelineName)), is(second));
+        assertThat(timeline.runAfter(third.getId(), new CaseInsensitiveString(pipelineName)), is(nullValue()));
+        assertThat(timeline.runBefore(fourth.getId(), new CaseInsensitiveString(pipelineName)), is(third));
+        try {
+            timeline.runBefore(5, new CaseInsensitiveString(pipelineName));
+            fail("should have failed to find pipeline with an unknown id");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), is("Cannot find pipeline with id: 5"));
+        }
+    }
+
     @Test
     public void shouldCreateANaturalOrderingHalfWayBetweenEachPipeline() throws Exception {
         PipelineTimeline mods = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
@@ -345,6 +397,66 @@ public class PipelineTimelineTest {
         assertThat(second.naturalOrder(), is((thirdOrder + 0.5) / 2.0));
     }
 
+    @Test
+    public void shouldKeepOnlyTheFirstRevisionOfEachMaterialForInstancesOlderThanTheMostRecentFew() {
+        System.setProperty("pipeline.timeline.instances.with.all.revisions", "2");
+        try {
+            PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+            PipelineTimelineEntry oldest = entryWithTwoRevisions(1, 1);
+            PipelineTimelineEntry older = entryWithTwoRevisions(2, 2);
+            PipelineTimelineEntry latest = entryWithTwoRevisions(3, 3);
+            timeline.add(oldest);
+            timeline.add(older);
+            assertThat(oldest.revisions().get("git").size(), is(2));
+
+            timeline.add(latest);
+
+            assertThat(oldest.revisions().get("git").size(), is(1));
+            assertThat(oldest.revisions().get("git").get(0).revision, is("rev-1"));
+            assertThat(older.revisions().get("git").size(), is(2));
+            assertThat(latest.revisions().get("git").size(), is(2));
+            assertThat(timeline.runBefore(latest.getId(), new CaseInsensitiveString(pipelineName)), is(older));
+        } finally {
+            System.clearProperty("pipeline.timeline.instances.with.all.revisions");
+        }
+    }
+
+    private PipelineTimelineEntry entryWithTwoRevisions(long id, int counter) {
+        Map<String, List<PipelineTimelineEntry.Revision>> revisions = new HashMap<>();
+        revisions.put("git", new ArrayList<>(Arrays.asList(
+                new PipelineTimelineEntry.Revision(now.plusMinutes(counter).toDate(), "rev-" + counter, "git", counter * 2),
+                new PipelineTimelineEntry.Revision(now.plusMinutes(counter).minusSeconds(1).toDate(), "rev-" + counter + "-previous", "git", counter * 2 + 1))));
+        return new PipelineTimelineEntry(pipelineName, id, counter, revisions);
+    }
+
+    @Test
+    public void shouldKeepNaturalAndScheduleOrderWhenAnInstanceAddedInTheMiddleIsRolledBack() throws Exception {
+        stubTransactionSynchronization();
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_COMMITTED, true);
+        final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        stubPipelineRepository(timeline, true, first, fourth);
+        timeline.update();
+
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_ROLLED_BACK, false);
+        stubPipelineRepository(timeline, false, third);
+        timeline.update();
+
+        assertThat(new ArrayList<>(timeline.getEntriesFor(pipelineName)), is(Arrays.asList(first, fourth)));
+        assertThat(timeline.instanceCount(new CaseInsensitiveString(pipelineName)), is(2));
+        assertThat(timeline.instanceFor(new CaseInsensitiveString(pipelineName), 1), is(fourth));
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString(pipelineName), 3), is(nullValue()));
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString(pipelineName), 4), is(fourth));
+        assertThat(timeline.naturalOrderBefore(fourth), is(first));
+    }
+
+    @Test
+    public void shouldReturnNullForEntryOfAPipelineNotInTheTimeline() {
+        PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString("not-present"), 1), is(nullValue()));
+        assertThat(timeline.instanceFor(new CaseInsensitiveString("not-present"), 0), is(nullValue()));
+    }
+
     @Test
     public void shouldNotAllowResetingOfNaturalOrder() {
         PipelineTimeline mods = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
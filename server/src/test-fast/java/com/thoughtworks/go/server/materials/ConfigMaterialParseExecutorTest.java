@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigMaterialParseExecutorTest {
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void shouldNotScheduleAParseForARevisionWhichIsAlreadyPending() throws Exception {
+        ConfigMaterialParseExecutor parseExecutor = new ConfigMaterialParseExecutor(executorService, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger parses = new AtomicInteger();
+
+        CompletableFuture<Void> first = parseExecutor.submit("fingerprint", "rev1", "plugin", () -> {
+            parses.incrementAndGet();
+            await(release);
+        });
+        CompletableFuture<Void> second = parseExecutor.submit("fingerprint", "rev1", "plugin", parses::incrementAndGet);
+
+        assertThat(second).isSameAs(first);
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThat(parses.get()).isEqualTo(1);
+        assertThat(parseExecutor.pendingParseCount()).isZero();
+        assertThat(parseExecutor.parseStatistics().get("fingerprint").getCount()).isEqualTo(1);
+        assertThat(parseExecutor.parseStatistics().get("fingerprint").getLastRevision()).isEqualTo("rev1");
+    }
+
+    @Test
+    void shouldLimitTheNumberOfConcurrentParsesForAPlugin() throws Exception {
+        ConfigMaterialParseExecutor parseExecutor = new ConfigMaterialParseExecutor(executorService, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable parse = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            await(release);
+            running.decrementAndGet();
+        };
+
+        CompletableFuture<Void> first = parseExecutor.submit("repo1", "rev", "plugin", parse);
+        CompletableFuture<Void> second = parseExecutor.submit("repo2", "rev", "plugin", parse);
+        CompletableFuture<Void> otherPlugin = parseExecutor.submit("repo3", "rev", "other-plugin", () -> {
+        });
+
+        otherPlugin.get(10, TimeUnit.SECONDS);
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotHoldUpParsesForOtherPluginsWhileParsesForAPluginWaitForTheirTurn() throws Exception {
+        ExecutorService twoWorkers = Executors.newFixedThreadPool(2);
+        try {
+            ConfigMaterialParseExecutor parseExecutor = new ConfigMaterialParseExecutor(twoWorkers, 1);
+            CountDownLatch release = new CountDownLatch(1);
+            Runnable parse = () -> await(release);
+
+            CompletableFuture<Void> first = parseExecutor.submit("repo1", "rev", "plugin", parse);
+            CompletableFuture<Void> second = parseExecutor.submit("repo2", "rev", "plugin", parse);
+            CompletableFuture<Void> third = parseExecutor.submit("repo3", "rev", "plugin", parse);
+            CompletableFuture<Void> otherPlugin = parseExecutor.submit("repo4", "rev", "other-plugin", () -> {
+            });
+
+            otherPlugin.get(5, TimeUnit.SECONDS);
+            assertThat(second).isNotDone();
+            assertThat(third).isNotDone();
+
+            release.countDown();
+            CompletableFuture.allOf(first, second, third).get(10, TimeUnit.SECONDS);
+            assertThat(parseExecutor.pendingParseCount()).isZero();
+        } finally {
+            twoWorkers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenParseFails() {
+        ConfigMaterialParseExecutor parseExecutor = new ConfigMaterialParseExecutor(Runnable::run, 1);
+
+        CompletableFuture<Void> future = parseExecutor.submit("fingerprint", "rev1", "plugin", () -> {
+            throw new RuntimeException("boom");
+        });
+
+        assertThat(future).isCompletedExceptionally();
+        assertThat(parseExecutor.pendingParseCount()).isZero();
+        assertThat(parseExecutor.parseStatistics().get("fingerprint").getFailureCount()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
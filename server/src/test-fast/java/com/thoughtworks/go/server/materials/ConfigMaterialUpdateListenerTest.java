@@ -62,7 +62,7 @@ public class ConfigMaterialUpdateListenerTest {
         when(materialRepository.findLatestModification(material)).thenReturn(mods);
 
         configUpdater = new ConfigMaterialUpdateListener(repoConfigDataSource, materialRepository,
-                topic, materialService, new TestSubprocessExecutionContext());
+                topic, materialService, new TestSubprocessExecutionContext(), new ConfigMaterialParseExecutor(Runnable::run, 1));
     }
 
     private MaterialRevisions revisions(Material material, Modification modification) {
@@ -186,6 +186,7 @@ public class MaterialUpdateServiceTest {
         void shouldAllowConcurrentUpdatesForNonAutoUpdateMaterials() throws Exception {
             ScmMaterial material = mock(ScmMaterial.class);
             when(material.isAutoUpdate()).thenReturn(false);
+            when(material.getFingerprint()).thenReturn("fingerprint");
             MaterialUpdateMessage message = new MaterialUpdateMessage(material, 0);
             doNothing().when(queue).post(message);
 
@@ -216,6 +217,7 @@ public class MaterialUpdateServiceTest {
         void shouldNotAllowConcurrentUpdatesForAutoUpdateMaterials() throws Exception {
             ScmMaterial material = mock(ScmMaterial.class);
             when(material.isAutoUpdate()).thenReturn(true);
+            when(material.getFingerprint()).thenReturn("fingerprint");
             MaterialUpdateMessage message = new MaterialUpdateMessage(material, 0);
             doNothing().when(queue).post(message);
 
@@ -230,6 +232,7 @@ public class MaterialUpdateServiceTest {
         void shouldAllowPostCommitNotificationsToPassThroughToTheQueue_WhenTheSameMaterialIsNotCurrentlyInProgressAndMaterialIsAutoUpdateTrue() throws Exception {
             ScmMaterial material = mock(ScmMaterial.class);
             when(material.isAutoUpdate()).thenReturn(true);
+            when(material.getFingerprint()).thenReturn("fingerprint");
             MaterialUpdateMessage message = new MaterialUpdateMessage(material, 0);
             doNothing().when(queue).post(message);
 
@@ -243,6 +246,7 @@ public class MaterialUpdateServiceTest {
         void shouldAllowPostCommitNotificationsToPassThroughToTheQueue_WhenTheSameMaterialIsNotCurrentlyInProgressAndMaterialIsAutoUpdateFalse() throws Exception {
             ScmMaterial material = mock(ScmMaterial.class);
             when(material.isAutoUpdate()).thenReturn(false);
+            when(material.getFingerprint()).thenReturn("fingerprint");
             MaterialUpdateMessage message = new MaterialUpdateMessage(material, 0);
             doNothing().when(queue).post(message);
 
@@ -338,6 +342,7 @@ public class MaterialUpdateServiceTest {
             when(postCommitHookMaterialType.toType("svn")).thenReturn(validMaterialType);
             final PostCommitHookImplementer svnPostCommitHookImplementer = mock(PostCommitHookImplementer.class);
             final Material svnMaterial = mock(Material.class);
+            when(svnMaterial.getFingerprint()).thenReturn("fingerprint");
             when(svnPostCommitHookImplementer.prune(anySet(), eq(params))).thenReturn(new HashSet(Arrays.asList(svnMaterial)));
             when(validMaterialType.getImplementer()).thenReturn(svnPostCommitHookImplementer);
 
@@ -386,9 +391,9 @@ public class MaterialUpdateServiceTest {
         systemEnvironment.set(SystemEnvironment.MATERIAL_UPDATE_INACTIVE_TIMEOUT, 1);
         ProcessManager processManager = mock(ProcessManager.class);
         Material material = mock(Material.class);
+        when(material.getFingerprint()).thenReturn("fingerprint");
         service.updateMaterial(material);
         when(service.getProcessManager()).thenReturn(processManager);
-        when(material.getFingerprint()).thenReturn("fingerprint");
         when(material.getUriForDisplay()).thenReturn("uri");
         when(material.getLongDescription()).thenReturn("details to uniquely identify a material");
         when(material.isAutoUpdate()).thenReturn(true);
@@ -413,9 +418,9 @@ public class MaterialUpdateServiceTest {
         systemEnvironment.set(SystemEnvironment.MATERIAL_UPDATE_INACTIVE_TIMEOUT, 2);
         ProcessManager processManager = mock(ProcessManager.class);
         Material material = mock(Material.class);
+        when(material.getFingerprint()).thenReturn("fingerprint");
         service.updateMaterial(material);
         when(service.getProcessManager()).thenReturn(processManager);
-        when(material.getFingerprint()).thenReturn("fingerprint");
         when(processManager.getIdleTimeFor(new MaterialFingerprintTag("fingerprint"))).thenReturn(60010L);
 
         //when
@@ -487,7 +492,58 @@ public class MaterialUpdateServiceTest {
         } catch (RuntimeException e) {
             // should re-throw exception
         }
-        Map<Material, Date> inProgress = (Map<Material, Date>) ReflectionUtil.getField(service, "inProgress");
-        assertThat(inProgress.containsKey(svnMaterial)).isFalse();
+        Map<String, InProgressMaterialUpdate> inProgress = (Map<String, InProgressMaterialUpdate>) ReflectionUtil.getField(service, "inProgress");
+        assertThat(inProgress.containsKey(svnMaterial.getFingerprint())).isFalse();
+    }
+
+    @Test
+    void shouldConsiderMaterialWithSameFingerprintAsInProgress() {
+        service.updateMaterial(svnMaterial);
+
+        SvnMaterial sameFlyweight = MaterialsMother.svnMaterial();
+        sameFlyweight.setName(new CaseInsensitiveString("some-other-name"));
+
+        assertThat(service.isInProgress(sameFlyweight)).isTrue();
+        assertThat(service.isInProgress(MaterialsMother.gitMaterial("http://example.com/repo.git"))).isFalse();
+    }
+
+    @Test
+    void shouldListInProgressMaterialUpdatesWithTheirPositionInTheQueue() {
+        GitMaterial gitMaterial = MaterialsMother.gitMaterial("http://example.com/repo.git");
+        service.updateMaterial(svnMaterial);
+        service.updateMaterial(dependencyMaterial);
+        service.updateMaterial(gitMaterial);
+
+        List<InProgressMaterialUpdate> updates = service.inProgressMaterialUpdates();
+
+        assertThat(updates).extracting(InProgressMaterialUpdate::getMaterial).containsExactly(svnMaterial, dependencyMaterial, gitMaterial);
+        assertThat(updates).extracting(InProgressMaterialUpdate::getQueueName).containsExactly("material", "dependency", "material");
+        assertThat(updates).extracting(InProgressMaterialUpdate::getQueuePosition).containsExactly(1, 1, 2);
+    }
+
+    @Test
+    void shouldCountOnlyWaitingUpdatesForTheQueuePosition() {
+        GitMaterial gitMaterial = MaterialsMother.gitMaterial("http://example.com/repo.git");
+        service.updateMaterial(svnMaterial);
+        service.updateMaterial(gitMaterial);
+        MaintenanceModeService.MaterialPerformingMDU runningMDU = mock(MaintenanceModeService.MaterialPerformingMDU.class);
+        when(runningMDU.getMaterial()).thenReturn(svnMaterial);
+        when(maintenanceModeService.getRunningMDUs()).thenReturn(Collections.singletonList(runningMDU));
+
+        List<InProgressMaterialUpdate> updates = service.inProgressMaterialUpdates();
+
+        assertThat(updates).extracting(InProgressMaterialUpdate::isBeingUpdated).containsExactly(true, false);
+        assertThat(updates).extracting(InProgressMaterialUpdate::getQueuePosition).containsExactly(0, 1);
+    }
+
+    @Test
+    void shouldPostUpdatesForMaterialsWithoutAFingerprintWithoutTrackingThem() {
+        Material material = mock(Material.class);
+        when(material.isAutoUpdate()).thenReturn(true);
+
+        assertThat(service.updateMaterial(material)).isTrue();
+
+        verify(queue).post(any(MaterialUpdateMessage.class));
+        assertThat(service.inProgressMaterialUpdates()).isEmpty();
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging;
+
+import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
+import com.thoughtworks.go.plugin.api.response.Result;
+import com.thoughtworks.go.server.messaging.notifications.PluginNotificationMessage;
+import com.thoughtworks.go.server.messaging.notifications.PluginNotificationMessageListener;
+import com.thoughtworks.go.serverhealth.ServerHealthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PluginQueueBulkheadTest {
+    private AtomicLong now;
+    private GoMessageListener<GoMessage> listener;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1000);
+        listener = mock(GoMessageListener.class);
+    }
+
+    @Test
+    void shouldRejectMessagesOnceTheQueueIsFull() {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 2, 0, 0, 0, now::get);
+
+        assertThat(bulkhead.tryEnqueue(0)).isTrue();
+        assertThat(bulkhead.tryEnqueue(0)).isTrue();
+        assertThat(bulkhead.tryEnqueue(0)).isFalse();
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+
+        bulkhead.guard(listener).onMessage(mock(GoMessage.class));
+
+        assertThat(bulkhead.getPendingMessages()).isEqualTo(1);
+        assertThat(bulkhead.tryEnqueue(0)).isTrue();
+    }
+
+    @Test
+    void shouldNotCountMessagesWhichHaveExpiredAsPending() {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 1, 0, 0, 0, now::get);
+
+        assertThat(bulkhead.tryEnqueue(100)).isTrue();
+        assertThat(bulkhead.tryEnqueue(100)).isFalse();
+
+        now.addAndGet(100);
+
+        assertThat(bulkhead.getPendingMessages()).isEqualTo(0);
+        assertThat(bulkhead.tryEnqueue(100)).isTrue();
+    }
+
+    @Test
+    void shouldStopCallingThePluginAfterConsecutiveFailuresAndTryAgainAfterTheOpenInterval() {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 0, 0, 2, 5000, now::get);
+        GoMessageListener<GoMessage> guarded = bulkhead.guard(listener);
+        doThrow(new RuntimeException("boom")).when(listener).onMessage(any());
+
+        assertThatThrownBy(() -> guarded.onMessage(mock(GoMessage.class))).hasMessage("boom");
+        assertThat(bulkhead.isCircuitOpen()).isFalse();
+        assertThatThrownBy(() -> guarded.onMessage(mock(GoMessage.class))).hasMessage("boom");
+        assertThat(bulkhead.isCircuitOpen()).isTrue();
+
+        guarded.onMessage(mock(GoMessage.class));
+        assertThat(bulkhead.tryEnqueue(0)).isFalse();
+        assertThat(bulkhead.getSkippedCount()).isEqualTo(1);
+        verify(listener, times(2)).onMessage(any());
+
+        now.addAndGet(5000);
+        doNothing().when(listener).onMessage(any());
+        guarded.onMessage(mock(GoMessage.class));
+
+        assertThat(bulkhead.isCircuitOpen()).isFalse();
+        assertThat(bulkhead.tryEnqueue(0)).isTrue();
+        assertThat(bulkhead.getCircuitOpenedCount()).isEqualTo(1);
+        verify(listener, times(3)).onMessage(any());
+    }
+
+    @Test
+    void shouldCountNotificationsWhichThePluginFailedToHandleAsFailures() {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 0, 0, 2, 5000, now::get);
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        Result failure = new Result();
+        failure.withErrorMessages(singletonList("plugin is down"));
+        when(notificationExtension.notify(anyString(), anyString(), any())).thenReturn(failure);
+        GoMessageListener<PluginNotificationMessage> guarded = bulkhead.guard(new PluginNotificationMessageListener(notificationExtension, mock(ServerHealthService.class)));
+
+        guarded.onMessage(new PluginNotificationMessage<>("plugin", "stage-status", "one"));
+        guarded.onMessage(new PluginNotificationMessage<>("plugin", "stage-status", "two"));
+
+        assertThat(bulkhead.getCalls().getFailureCount()).isEqualTo(2);
+        assertThat(bulkhead.isCircuitOpen()).isTrue();
+    }
+
+    @Test
+    void shouldHoldMessagesBackWhileTheTrialCallIsInProgressInsteadOfSkippingThem() throws Exception {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 0, 0, 1, 5000, now::get);
+        doThrow(new RuntimeException("boom")).when(listener).onMessage(any());
+        assertThatThrownBy(() -> bulkhead.guard(listener).onMessage(mock(GoMessage.class)));
+        now.addAndGet(5000);
+
+        CountDownLatch trialCallStarted = new CountDownLatch(1);
+        CountDownLatch finishTrialCall = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            trialCallStarted.countDown();
+            finishTrialCall.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(listener).onMessage(any());
+
+        ExecutorService listeners = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> trialCall = listeners.submit(() -> bulkhead.guard(listener).onMessage(mock(GoMessage.class)));
+            assertThat(trialCallStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<?> heldBack = listeners.submit(() -> bulkhead.guard(listener).onMessage(mock(GoMessage.class)));
+
+            assertThatThrownBy(() -> heldBack.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            finishTrialCall.countDown();
+            trialCall.get(10, TimeUnit.SECONDS);
+            heldBack.get(10, TimeUnit.SECONDS);
+        } finally {
+            listeners.shutdownNow();
+        }
+
+        assertThat(bulkhead.getSkippedCount()).isZero();
+        verify(listener, times(3)).onMessage(any());
+    }
+
+    @Test
+    void shouldCountCallsWhichTakeLongerThanTheTimeoutAsFailures() {
+        PluginQueueBulkhead bulkhead = new PluginQueueBulkhead("queue", 0, 100, 1, 5000, now::get);
+        doAnswer(invocation -> now.addAndGet(150)).when(listener).onMessage(any());
+
+        bulkhead.guard(listener).onMessage(mock(GoMessage.class));
+
+        assertThat(bulkhead.getSlowCallCount()).isEqualTo(1);
+        assertThat(bulkhead.getCalls().getMaxTimeInMillis()).isEqualTo(150);
+        assertThat(bulkhead.isCircuitOpen()).isTrue();
+    }
+
+    @Test
+    void shouldNeverRejectOrSkipMessagesWhenUnbounded() {
+        PluginQueueBulkhead bulkhead = PluginQueueBulkhead.unbounded("queue");
+        doThrow(new RuntimeException("boom")).when(listener).onMessage(any());
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(bulkhead.tryEnqueue(0)).isTrue();
+            assertThatThrownBy(() -> bulkhead.guard(listener).onMessage(mock(GoMessage.class)));
+        }
+
+        assertThat(bulkhead.getRejectedCount()).isZero();
+        assertThat(bulkhead.getSkippedCount()).isZero();
+        assertThat(bulkhead.getCalls().getFailureCount()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.elasticagents;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingAgentCreationsTest {
+    private AtomicLong now;
+    private PendingAgentCreations pendingAgentCreations;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1000);
+        pendingAgentCreations = new PendingAgentCreations(2, now::get);
+    }
+
+    @Test
+    void shouldCollapseRequestsForAJobWhichAlreadyHasAnOutstandingRequest() {
+        assertThat(pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000)).isTrue();
+        assertThat(pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000)).isFalse();
+
+        assertThat(pendingAgentCreations.getRequestCount()).isEqualTo(1);
+        assertThat(pendingAgentCreations.getCollapsedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHoldBackRequestsOnceEnoughOfTheSameKindAreOutstanding() {
+        assertThat(pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000)).isTrue();
+        assertThat(pendingAgentCreations.tryRequest(2, "cluster", "profile", "env", 5000)).isTrue();
+        assertThat(pendingAgentCreations.tryRequest(3, "cluster", "profile", "env", 5000)).isFalse();
+        assertThat(pendingAgentCreations.tryRequest(4, "cluster", "other-profile", "env", 5000)).isTrue();
+
+        assertThat(pendingAgentCreations.deferredJobs()).containsExactly(3L);
+        assertThat(pendingAgentCreations.pendingByKind().get("cluster/profile in env"))
+                .containsEntry("Outstanding", 2)
+                .containsEntry("Held Back", 1);
+
+        now.addAndGet(100);
+        pendingAgentCreations.creating(1L);
+
+        assertThat(pendingAgentCreations.tryRequest(3, "cluster", "profile", "env", 5000)).isTrue();
+        assertThat(pendingAgentCreations.deferredJobs()).isEmpty();
+        assertThat(pendingAgentCreations.getWaits().getMaxTimeInMillis()).isEqualTo(100);
+        assertThat(pendingAgentCreations.getWaits().getAverageTimeInMillis()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldTimeCreateCallsSeparatelyFromWaitsInTheQueue() {
+        pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000);
+        now.addAndGet(300);
+        pendingAgentCreations.creating(1L);
+        pendingAgentCreations.created(50, false);
+        pendingAgentCreations.created(150, true);
+
+        assertThat(pendingAgentCreations.getWaits().getCount()).isEqualTo(1);
+        assertThat(pendingAgentCreations.getWaits().getAverageTimeInMillis()).isEqualTo(300);
+        assertThat(pendingAgentCreations.getCreates().getCount()).isEqualTo(2);
+        assertThat(pendingAgentCreations.getCreates().getFailureCount()).isEqualTo(1);
+        assertThat(pendingAgentCreations.getCreates().getAverageTimeInMillis()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldStopCountingRequestsWhichHaveExpiredFromTheQueue() {
+        pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000);
+        pendingAgentCreations.tryRequest(2, "cluster", "profile", "env", 5000);
+
+        now.addAndGet(5000);
+
+        assertThat(pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000)).isTrue();
+        assertThat(pendingAgentCreations.tryRequest(3, "cluster", "profile", "env", 5000)).isTrue();
+    }
+
+    @Test
+    void shouldForgetHeldBackJobsWhichAreNoLongerScheduled() {
+        pendingAgentCreations.tryRequest(1, "cluster", "profile", "env", 5000);
+        pendingAgentCreations.tryRequest(2, "cluster", "profile", "env", 5000);
+        pendingAgentCreations.tryRequest(3, "cluster", "profile", "env", 5000);
+        pendingAgentCreations.tryRequest(4, "cluster", "profile", "env", 5000);
+
+        pendingAgentCreations.retainDeferredJobs(asList(1L, 2L, 4L));
+
+        assertThat(pendingAgentCreations.deferredJobs()).containsExactly(4L);
+    }
+}
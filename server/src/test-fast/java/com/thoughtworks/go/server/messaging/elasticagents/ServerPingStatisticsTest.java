@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.elasticagents;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerPingStatisticsTest {
+    private AtomicLong now;
+    private ServerPingStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1000);
+        statistics = new ServerPingStatistics(now::get);
+    }
+
+    @Test
+    void shouldNotPostAnotherPingWhileThePreviousOneIsWaitingInTheQueue() {
+        assertThat(statistics.tryPost("plugin", 5000)).isTrue();
+        assertThat(statistics.tryPost("plugin", 5000)).isFalse();
+        assertThat(statistics.tryPost("other-plugin", 5000)).isTrue();
+
+        now.addAndGet(5000);
+
+        assertThat(statistics.tryPost("plugin", 5000)).isTrue();
+        assertThat(statistics.statistics().get("plugin").getSkippedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotPostAnotherPingWhileThePreviousOneIsBeingHandled() {
+        statistics.tryPost("plugin", 5000);
+        statistics.pinging("plugin");
+        now.addAndGet(10000);
+
+        assertThat(statistics.tryPost("plugin", 5000)).isFalse();
+
+        statistics.pinged("plugin", 10000, false);
+
+        assertThat(statistics.tryPost("plugin", 5000)).isTrue();
+    }
+
+    @Test
+    void shouldRecordHowLongEachPluginTookToHandlePings() {
+        statistics.pinged("plugin", 100, false);
+        statistics.pinged("plugin", 300, true);
+
+        ServerPingStatistics.PluginPings pings = statistics.statistics().get("plugin");
+        assertThat(pings.getCount()).isEqualTo(2);
+        assertThat(pings.getFailureCount()).isEqualTo(1);
+        assertThat(pings.getAverageTimeInMillis()).isEqualTo(200);
+        assertThat(pings.getMaxTimeInMillis()).isEqualTo(300);
+        assertThat(pings.getLastTimeInMillis()).isEqualTo(300);
+        assertThat(pings.getLastSuccessAt()).isEqualTo(1000);
+    }
+}
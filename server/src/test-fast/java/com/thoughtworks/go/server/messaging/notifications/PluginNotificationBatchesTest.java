@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PluginNotificationBatchesTest {
+    private ScheduledExecutorService scheduler;
+    private List<PluginNotificationMessage> posted;
+    private PluginNotificationQueueStatistics statistics;
+    private PluginNotificationBatches batches;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        posted = new ArrayList<>();
+        statistics = new PluginNotificationQueueStatistics();
+        batches = new PluginNotificationBatches(3, 500, scheduler, (message, timeToLive) -> posted.add(message), statistics);
+    }
+
+    @Test
+    void shouldPostABatchOnceItIsFull() {
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "one", 10), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "two", 20), 1000);
+        assertThat(posted).isEmpty();
+
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "three", 30), 1000);
+
+        assertThat(posted).containsExactly(new PluginNotificationMessage<>("plugin", "stage-status", new ArrayList<>(asList("one", "two", "three"))));
+        assertThat(posted.get(0).getCreatedAt()).isEqualTo(10);
+        assertThat(statistics.statistics().get("plugin").getPendingInBatches()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldPostAPartialBatchOnceItsIntervalHasPassed() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "one"), 1000);
+        verify(scheduler).schedule(flush.capture(), eq(500L), eq(MILLISECONDS));
+        assertThat(statistics.statistics().get("plugin").getPendingInBatches()).isEqualTo(1);
+
+        flush.getValue().run();
+
+        assertThat(posted).containsExactly(new PluginNotificationMessage<>("plugin", "stage-status", new ArrayList<>(asList("one"))));
+    }
+
+    @Test
+    void shouldNotPostABatchAgainWhenItsIntervalPassesAfterItWasPostedForBeingFull() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "one"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "two"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "three"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin", "stage-status", "four"), 1000);
+        verify(scheduler, times(2)).schedule(flush.capture(), eq(500L), eq(MILLISECONDS));
+
+        flush.getAllValues().get(0).run();
+        assertThat(posted).hasSize(1);
+
+        flush.getAllValues().get(1).run();
+        assertThat(posted).hasSize(2);
+        assertThat(posted.get(1).getData()).isEqualTo(asList("four"));
+    }
+
+    @Test
+    void shouldPostOnlyTheBatchesOfAPluginWhenFlushingThem() {
+        batches.add(new PluginNotificationMessage<>("plugin-1", "stage-status", "one"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin-2", "stage-status", "two"), 1000);
+
+        batches.flush("plugin-1");
+
+        assertThat(posted).containsExactly(new PluginNotificationMessage<>("plugin-1", "stage-status", new ArrayList<>(asList("one"))));
+        batches.flushAll();
+        assertThat(posted).hasSize(2);
+    }
+
+    @Test
+    void shouldKeepSeparateBatchesForEachPluginAndRequest() {
+        batches.add(new PluginNotificationMessage<>("plugin-1", "stage-status", "one"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin-1", "agent-status", "two"), 1000);
+        batches.add(new PluginNotificationMessage<>("plugin-2", "stage-status", "three"), 1000);
+
+        batches.flushAll();
+
+        assertThat(posted).containsExactlyInAnyOrder(
+                new PluginNotificationMessage<>("plugin-1", "stage-status", new ArrayList<>(asList("one"))),
+                new PluginNotificationMessage<>("plugin-1", "agent-status", new ArrayList<>(asList("two"))),
+                new PluginNotificationMessage<>("plugin-2", "stage-status", new ArrayList<>(asList("three"))));
+    }
+}
@@ -23,6 +23,8 @@ import com.thoughtworks.go.serverhealth.ServerHealthState;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
+
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -83,4 +85,20 @@ public class PluginNotificationMessageListenerTest {
         verify(notificationExtension).notify("pid", "request-name", message.getData());
     }
 
+    @Test
+    public void shouldRecordHowLongNotificationsWaitedBeforeBeingDelivered() {
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        PluginNotificationQueueStatistics statistics = new PluginNotificationQueueStatistics();
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, mock(ServerHealthService.class), statistics);
+
+        PluginNotificationMessage message = new PluginNotificationMessage<>("pid", "request-name", new ArrayList<>(asList("one", "two")), System.currentTimeMillis() - 60000);
+        when(notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData())).thenReturn(new Result());
+        listener.onMessage(message);
+
+        PluginNotificationQueueStatistics.QueueStatistics queueStatistics = statistics.statistics().get("pid");
+        assertThat(queueStatistics.getCount(), is(1L));
+        assertThat(queueStatistics.getNotificationCount(), is(2L));
+        assertThat(queueStatistics.getFailureCount(), is(0L));
+        assertThat(queueStatistics.getLastTimeInMillis() >= 60000, is(true));
+    }
 }
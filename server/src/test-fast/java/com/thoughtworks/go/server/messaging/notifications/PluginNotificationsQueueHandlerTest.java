@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.messaging.notifications;
 import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
+import com.thoughtworks.go.server.messaging.MessageSender;
 import com.thoughtworks.go.server.messaging.MessagingService;
 import com.thoughtworks.go.server.messaging.PluginAwareMessageQueue;
 import com.thoughtworks.go.server.messaging.activemq.JMSMessageListenerAdapter;
@@ -31,9 +32,16 @@ import org.mockito.Mock;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -79,6 +87,42 @@ public class PluginNotificationsQueueHandlerTest {
         assertThat(listenersForPlugin3.get(pluginId3).size(), is(2));
     }
 
+    @Test
+    public void shouldPostPendingBatchesOfAPluginWhenItIsUnloaded() {
+        MessageSender sender = batchingHandlerWithPluginLoaded("plugin-1");
+
+        handler.post(new PluginNotificationMessage<>("plugin-1", "stage-status", "one"), 1000);
+        verify(sender, never()).sendMessage(any(), eq(1000L));
+
+        handler.pluginUnLoaded(getPluginDescriptor("plugin-1"));
+
+        verify(sender).sendMessage(new PluginNotificationMessage<>("plugin-1", "stage-status", new ArrayList<>(asList("one"))), 1000L);
+    }
+
+    @Test
+    public void shouldPostPendingBatchesWhenTheServerShutsDown() {
+        MessageSender sender = batchingHandlerWithPluginLoaded("plugin-1");
+
+        handler.post(new PluginNotificationMessage<>("plugin-1", "stage-status", "one"), 1000);
+        handler.flushPendingBatches();
+
+        verify(sender).sendMessage(new PluginNotificationMessage<>("plugin-1", "stage-status", new ArrayList<>(asList("one"))), 1000L);
+    }
+
+    private MessageSender batchingHandlerWithPluginLoaded(String pluginId) {
+        MessageSender sender = mock(MessageSender.class);
+        when(messagingService.createQueueSender(anyString())).thenReturn(sender);
+        when(messagingService.addQueueListener(anyString(), any())).thenReturn(mock(JMSMessageListenerAdapter.class));
+        when(systemEnvironment.getNotificationPluginBatchSize()).thenReturn(3);
+        when(systemEnvironment.getNotificationPluginBatchIntervalInMillis()).thenReturn(60000L);
+        when(systemEnvironment.getNotificationListenerCountForPlugin(pluginId)).thenReturn(1);
+        when(notificationExtension.canHandlePlugin(pluginId)).thenReturn(true);
+        when(notificationExtension.supportsBatchNotifications(pluginId)).thenReturn(true);
+        handler = new PluginNotificationsQueueHandler(messagingService, notificationExtension, pluginManager, systemEnvironment, serverHealthService);
+        handler.pluginLoaded(getPluginDescriptor(pluginId));
+        return sender;
+    }
+
     private GoPluginDescriptor getPluginDescriptor(String pluginId) {
         return GoPluginDescriptor.builder().id(pluginId).build();
     }
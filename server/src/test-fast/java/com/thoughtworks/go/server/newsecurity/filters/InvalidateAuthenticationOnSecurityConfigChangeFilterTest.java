@@ -30,6 +30,7 @@ import com.thoughtworks.go.server.security.userdetail.GoUserPrinciple;
 import com.thoughtworks.go.server.service.AuthorizationExtensionCacheService;
 import com.thoughtworks.go.server.service.GoConfigService;
 import com.thoughtworks.go.server.service.PluginRoleService;
+import com.thoughtworks.go.server.service.VerifiedAccessTokenCache;
 import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TestingClock;
 import org.junit.jupiter.api.BeforeEach;
@@ -57,6 +58,8 @@ class InvalidateAuthenticationOnSecurityConfigChangeFilterTest {
     private PluginRoleService pluginRoleService;
     @Mock
     private AuthorizationExtensionCacheService cacheService;
+    @Mock
+    private VerifiedAccessTokenCache verifiedAccessTokenCache;
 
     @Captor
     private ArgumentCaptor<ConfigChangedListener> configChangedListenerArgumentCaptor;
@@ -82,11 +85,11 @@ class InvalidateAuthenticationOnSecurityConfigChangeFilterTest {
         cruiseConfig = new BasicCruiseConfig();
         GoConfigMother.enableSecurityWithPasswordFilePlugin(cruiseConfig);
 
-        filter = new InvalidateAuthenticationOnSecurityConfigChangeFilter(goConfigService, clock, cacheService, pluginRoleService);
+        filter = new InvalidateAuthenticationOnSecurityConfigChangeFilter(goConfigService, clock, cacheService, pluginRoleService, verifiedAccessTokenCache);
         filter.initialize();
         filter.onPluginRoleChange();
         filter.onConfigChange(new Cloner().deepClone(cruiseConfig));
-        reset(cacheService);
+        reset(cacheService, verifiedAccessTokenCache);
     }
 
     @Test
@@ -127,6 +130,7 @@ class InvalidateAuthenticationOnSecurityConfigChangeFilterTest {
         assertThat(request.getSession(false)).isSameAs(originalSession);
         assertThat(request.getSession(false).getAttribute(SECURITY_CONFIG_LAST_CHANGE)).isEqualTo(timeBeforeConfigChange);
         verifyZeroInteractions(cacheService);
+        verifyZeroInteractions(verifiedAccessTokenCache);
     }
 
     @Test
@@ -152,6 +156,7 @@ class InvalidateAuthenticationOnSecurityConfigChangeFilterTest {
         assertThat(SessionUtils.getAuthenticationToken(request).isAuthenticated(clock, systemEnvironment)).isFalse();
         assertThat(request.getSession(false)).isSameAs(originalSession);
         verify(cacheService, times(1)).invalidateCache();
+        verify(verifiedAccessTokenCache, times(1)).invalidateAll();
     }
 
     @Test
@@ -15,11 +15,13 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.google.common.base.Ticker;
 import com.thoughtworks.go.config.exceptions.EntityType;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.domain.AccessToken;
 import com.thoughtworks.go.server.dao.AccessTokenDao;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.exceptions.RevokedAccessTokenException;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
 import com.thoughtworks.go.util.Clock;
 import com.thoughtworks.go.util.TestingClock;
@@ -36,6 +38,7 @@ import java.util.Map;
 import static com.thoughtworks.go.helper.AccessTokenMother.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -53,7 +56,7 @@ class AccessTokenServiceTest {
     @BeforeEach
     void setUp() {
         initMocks(this);
-        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService);
+        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService, new VerifiedAccessTokenCache(10, 60, Ticker.systemTicker()));
         result = new HttpLocalizedOperationResult();
 
         username = "Bob";
@@ -115,6 +118,50 @@ class AccessTokenServiceTest {
         verify(accessTokenDao, never()).loadForAdminUser(anyLong());
     }
 
+    @Test
+    void shouldNotLookUpAnAccessTokenAgainOnceItIsVerified() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser(username);
+        when(accessTokenDao.findAccessTokenBySaltId(token.getSaltId())).thenReturn(token);
+
+        assertThat(accessTokenService.findByAccessToken(token.getDisplayValue())).isSameAs(token);
+        assertThat(accessTokenService.findByAccessToken(token.getDisplayValue())).isSameAs(token);
+
+        verify(accessTokenDao, times(1)).findAccessTokenBySaltId(token.getSaltId());
+    }
+
+    @Test
+    void shouldLookUpAnAccessTokenAgainOnceItIsRevoked() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser(username);
+        token.setId(42);
+        when(accessTokenDao.findAccessTokenBySaltId(token.getSaltId())).thenReturn(token);
+        when(accessTokenDao.loadNotDeletedTokenForUser(42, username)).thenReturn(token);
+
+        accessTokenService.findByAccessToken(token.getDisplayValue());
+        accessTokenService.revokeAccessToken(42, username, "no longer used");
+
+        assertThatThrownBy(() -> accessTokenService.findByAccessToken(token.getDisplayValue()))
+                .isInstanceOf(RevokedAccessTokenException.class);
+        verify(accessTokenDao, times(2)).findAccessTokenBySaltId(token.getSaltId());
+    }
+
+    @Test
+    void shouldNotCacheAnAccessTokenWhichIsRevokedWhileItIsBeingLookedUp() {
+        AccessToken.AccessTokenWithDisplayValue tokenAsLookedUp = randomAccessTokenForUser(username);
+        tokenAsLookedUp.setId(42);
+        AccessToken.AccessTokenWithDisplayValue tokenToRevoke = randomAccessTokenForUser(username);
+        tokenToRevoke.setId(42);
+        when(accessTokenDao.loadNotDeletedTokenForUser(42, username)).thenReturn(tokenToRevoke);
+        when(accessTokenDao.findAccessTokenBySaltId(tokenAsLookedUp.getSaltId())).thenAnswer(invocation -> {
+            accessTokenService.revokeAccessToken(42, username, "revoked during lookup");
+            return tokenAsLookedUp;
+        });
+
+        accessTokenService.findByAccessToken(tokenAsLookedUp.getDisplayValue());
+        accessTokenService.findByAccessToken(tokenAsLookedUp.getDisplayValue());
+
+        verify(accessTokenDao, times(2)).findAccessTokenBySaltId(tokenAsLookedUp.getSaltId());
+    }
+
     @Test
     void shouldMakeACallToSQLDaoForFetchingAllAccessTokensBelongingToAUser() {
         accessTokenService.findAllTokensForUser(username, AccessTokenFilter.all);
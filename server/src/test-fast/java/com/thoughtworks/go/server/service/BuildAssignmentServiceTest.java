@@ -46,6 +46,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.thoughtworks.go.server.service.BuildAssignmentService.GO_AGENT_RESOURCES;
 import static com.thoughtworks.go.server.service.BuildAssignmentService.GO_PIPELINE_GROUP_NAME;
@@ -382,6 +384,81 @@ class BuildAssignmentServiceTest {
             inOrder.verify(jobStatusTopic).post(new JobStatusMessage(jobPlan1.getIdentifier(), JobState.Completed, "agent_uuid"));
         }
 
+        @Test
+        void shouldResolveSecretsWithoutHoldingUpAssignmentOfWorkToOtherAgents() {
+            final PipelineConfig pipelineConfig = PipelineConfigMother.pipelineConfig(UUID.randomUUID().toString());
+            pipelineConfig.get(0).getJobs().add(JobConfigMother.jobWithNoResourceRequirement());
+            final AgentInstance agentInstance = mock(AgentInstance.class);
+            final Pipeline pipeline = mock(Pipeline.class);
+            final JobPlan jobPlan1 = getJobPlan(pipelineConfig.getName(), pipelineConfig.get(0).name(), pipelineConfig.get(0).getJobs().last());
+
+            when(agentInstance.isRegistered()).thenReturn(true);
+            when(agentInstance.getUuid()).thenReturn("agent_uuid");
+            when(agentInstance.getAgent()).thenReturn(mock(Agent.class));
+            when(agentInstance.firstMatching(anyList())).thenReturn(jobPlan1);
+            when(pipeline.getBuildCause()).thenReturn(BuildCause.createNeverRun());
+            when(environmentConfigService.filterJobsByAgent(any(), any())).thenReturn(singletonList(jobPlan1));
+            when(scheduledPipelineLoader.pipelineWithPasswordAwareBuildCauseByBuildId(anyLong())).thenReturn(pipeline);
+            when(scheduleService.updateAssignedInfo(anyString(), any())).thenReturn(false);
+            when(goConfigService.artifactStores()).thenReturn(new ArtifactStores());
+            AtomicBoolean assignmentLockWasFree = new AtomicBoolean();
+            doAnswer(invocation -> {
+                Thread otherAgent = new Thread(() -> {
+                    synchronized (buildAssignmentService) {
+                        assignmentLockWasFree.set(true);
+                    }
+                });
+                otherAgent.start();
+                otherAgent.join(TimeUnit.SECONDS.toMillis(5));
+                return invocation.getArgument(0);
+            }).when(secretParamResolver).resolve(any(BuildAssignment.class));
+
+            assertThat(buildAssignmentService.assignWorkToAgent(agentInstance)).isInstanceOf(BuildWork.class);
+
+            assertThat(assignmentLockWasFree).isTrue();
+            InOrder inOrder = inOrder(scheduleService, secretParamResolver, agentService);
+            inOrder.verify(scheduleService).updateAssignedInfo("agent_uuid", jobPlan1);
+            inOrder.verify(secretParamResolver).resolve(any(BuildAssignment.class));
+            inOrder.verify(agentService).building(eq("agent_uuid"), any(AgentBuildingInfo.class));
+        }
+
+        @Test
+        void shouldFailTheAlreadyAssignedJobAndNotMarkTheAgentAsBuildingIfSecretsResolutionFails() {
+            final PipelineConfig pipelineConfig = PipelineConfigMother.pipelineConfig(UUID.randomUUID().toString());
+            pipelineConfig.get(0).getJobs().add(JobConfigMother.jobWithNoResourceRequirement());
+            final AgentInstance agentInstance = mock(AgentInstance.class);
+            final Pipeline pipeline = mock(Pipeline.class);
+            final JobPlan jobPlan1 = getJobPlan(pipelineConfig.getName(), pipelineConfig.get(0).name(), pipelineConfig.get(0).getJobs().last());
+            JobInstance jobInstance = mock(JobInstance.class);
+
+            when(agentInstance.isRegistered()).thenReturn(true);
+            when(agentInstance.getUuid()).thenReturn("agent_uuid");
+            when(agentInstance.firstMatching(anyList())).thenReturn(jobPlan1);
+            when(pipeline.getBuildCause()).thenReturn(BuildCause.createNeverRun());
+            when(environmentConfigService.filterJobsByAgent(any(), any())).thenReturn(singletonList(jobPlan1));
+            when(scheduledPipelineLoader.pipelineWithPasswordAwareBuildCauseByBuildId(anyLong())).thenReturn(pipeline);
+            when(scheduleService.updateAssignedInfo(anyString(), any())).thenReturn(false);
+            when(goConfigService.artifactStores()).thenReturn(new ArtifactStores());
+            when(jobInstanceService.buildById(jobPlan1.getJobId())).thenReturn(jobInstance);
+            when(jobInstance.getState()).thenReturn(JobState.Completed);
+            doThrow(new SecretResolutionFailureException("Failed resolving params for keys: 'key1'"))
+                    .when(secretParamResolver).resolve(any(BuildAssignment.class));
+
+            assertThatCode(() -> buildAssignmentService.assignWorkToAgent(agentInstance))
+                    .isInstanceOf(SecretResolutionFailureException.class);
+
+            InOrder inOrder = inOrder(scheduleService, secretParamResolver, jobStatusTopic);
+            inOrder.verify(scheduleService).updateAssignedInfo("agent_uuid", jobPlan1);
+            inOrder.verify(secretParamResolver).resolve(any(BuildAssignment.class));
+            inOrder.verify(scheduleService).failJob(jobInstance);
+            inOrder.verify(jobStatusTopic).post(new JobStatusMessage(jobPlan1.getIdentifier(), JobState.Completed, "agent_uuid"));
+            verify(agentService, never()).building(anyString(), any());
+            assertThat(buildAssignmentService.jobPlans()).doesNotContain(jobPlan1);
+
+            when(agentInstance.firstMatching(anyList())).thenReturn(null);
+            assertThat(buildAssignmentService.assignWorkToAgent(agentInstance)).isEqualTo(BuildAssignmentService.NO_WORK);
+        }
+
         @Test
         void shouldFailJobIfEnvironmentVariableInEnvironmentConfigCanNotReferToSecretConfig() throws Exception {
             final PipelineConfig pipelineConfig = PipelineConfigMother.pipelineConfig(UUID.randomUUID().toString());
@@ -40,6 +40,7 @@ import com.thoughtworks.go.server.dao.JobInstanceSqlMapDao;
 import com.thoughtworks.go.server.domain.ElasticAgentMetadata;
 import com.thoughtworks.go.server.messaging.elasticagents.CreateAgentMessage;
 import com.thoughtworks.go.server.messaging.elasticagents.CreateAgentQueueHandler;
+import com.thoughtworks.go.server.messaging.elasticagents.PendingAgentCreations;
 import com.thoughtworks.go.server.messaging.elasticagents.ServerPingMessage;
 import com.thoughtworks.go.server.messaging.elasticagents.ServerPingQueueHandler;
 import com.thoughtworks.go.serverhealth.HealthStateLevel;
@@ -121,7 +122,8 @@ class ElasticAgentPluginServiceTest {
         jobInstanceSqlMapDao = mock(JobInstanceSqlMapDao.class);
         service = new ElasticAgentPluginService(pluginManager, registry, agentService, environmentConfigService,
                 createAgentQueue, serverPingQueue, goConfigService, timeProvider, serverHealthService, elasticAgentMetadataStore,
-                clusterProfilesService, jobInstanceSqlMapDao, scheduleService, consoleService, ephemeralAutoRegisterKeyService);
+                clusterProfilesService, jobInstanceSqlMapDao, scheduleService, consoleService, ephemeralAutoRegisterKeyService,
+                new PendingAgentCreations(2, System::currentTimeMillis));
         when(goConfigService.serverConfig()).thenReturn(GoConfigMother.configWithAutoRegisterKey(autoRegisterKey).server());
     }
 
@@ -238,6 +240,23 @@ class ElasticAgentPluginServiceTest {
         assertThat(createAgentMessage.configuration()).isEqualTo(plan1.getElasticProfile().getConfigurationAsMap(true));
     }
 
+    @Test
+    void shouldHoldBackCreateAgentRequestsOnceEnoughAreOutstandingForTheSameProfiles() {
+        JobPlan plan1 = plan(1, "docker");
+        JobPlan plan2 = plan(2, "docker");
+        JobPlan plan3 = plan(3, "docker");
+        when(goConfigService.elasticJobStarvationThreshold()).thenReturn(60000L);
+        ArgumentCaptor<CreateAgentMessage> captor = ArgumentCaptor.forClass(CreateAgentMessage.class);
+
+        service.createAgentsFor(new ArrayList<>(), asList(plan1, plan2, plan3));
+        service.createAgentsFor(asList(plan1, plan2, plan3), asList(plan1, plan2, plan3));
+
+        verify(createAgentQueue, times(2)).post(captor.capture(), anyLong());
+        assertThat(captor.getAllValues()).extracting(CreateAgentMessage::jobIdentifier)
+                .doesNotHaveDuplicates()
+                .hasSize(2);
+    }
+
     @Test
     void shouldReportMissingElasticPlugin() {
         JobPlan plan1 = plan(1, "missing");
@@ -200,6 +200,21 @@ public class EntityHashingServiceTest {
         verifyNoMoreInteractions(goCache);
     }
 
+    @Test
+    void invalidatesETagsOfEachPartOfAMergedEnvironmentWhenItChanges() {
+        EntityHashingService.MergeEnvironmentConfigListener listener = service.new MergeEnvironmentConfigListener();
+        BasicEnvironmentConfig local = new BasicEnvironmentConfig(new CaseInsensitiveString("Env"));
+        BasicEnvironmentConfig remote = new BasicEnvironmentConfig(new CaseInsensitiveString("Env"));
+        MergeEnvironmentConfig merged = new MergeEnvironmentConfig(local, remote);
+
+        assertTrue(listener.shouldCareAbout(merged));
+        assertFalse(service.new EnvironmentConfigListener().shouldCareAbout(merged));
+
+        listener.onEntityConfigChange(merged);
+
+        verify(goCache, times(2)).remove(ETAG_CACHE_KEY, "com.thoughtworks.go.config.BasicEnvironmentConfig.env");
+    }
+
     @Test
     void invalidatesArtifactConfigETagsFromCacheOnConfigChange() {
         EntityHashingService.ArtifactConfigChangeListener artifactConfigChangeListener = service.new ArtifactConfigChangeListener();
@@ -277,6 +277,45 @@ public class GoDashboardServiceTest {
         assertThat(pipelineGroups.get(0).pipelines(), not(contains("pipeline2")));
     }
 
+    @Test
+    public void allPipelineGroupsForDashboard_shouldShareThePipelineGroupsOfUsersWhoCanViewTheSameGroups() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1", "group1");
+        addPipelinesToCache(pipeline1);
+
+        List<GoDashboardPipelineGroup> groupsOfUser1 = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+        List<GoDashboardPipelineGroup> groupsOfUser2 = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user2"));
+
+        assertThat(groupsOfUser1.size(), is(1));
+        assertThat(groupsOfUser2.get(0), is(sameInstance(groupsOfUser1.get(0))));
+    }
+
+    @Test
+    public void allPipelineGroupsForDashboard_shouldShowTheLatestStatusOfPipelinesWhenTheirGroupsHaveNotChanged() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        addPipelinesToCache(pipeline("pipeline1", "group1"));
+        allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+
+        GoDashboardPipeline updatedPipeline1 = pipeline("pipeline1", "group1");
+        addPipelinesToCache(updatedPipeline1);
+        List<GoDashboardPipelineGroup> pipelineGroups = allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1"));
+
+        assertThat(pipelineGroups.size(), is(1));
+        assertThat(pipelineGroups.get(0).allPipelines(), contains(updatedPipeline1));
+    }
+
+    @Test
+    public void allPipelineGroupsForDashboard_shouldReloadPermissionsWhenTheLayoutOfTheCacheChanges() {
+        configMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1A", "job1A1");
+        addPipelinesToCache(pipeline("pipeline1", "group1"));
+        assertThat(allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1")).size(), is(1));
+
+        addPipelinesToCache(pipeline("pipeline1", "group1", new Permissions(NoOne.INSTANCE, NoOne.INSTANCE, NoOne.INSTANCE, NoOnePermission.INSTANCE)));
+        when(cache.layoutVersion()).thenReturn(1L);
+
+        assertThat(allPipelineGroupsForDashboard(Filters.WILDCARD_FILTER, new Username("user1")).size(), is(0));
+    }
+
     @Test
     public void allEnvironmentsForDashboard_shouldNotListPipelinesExistingInConfigButNotInCache() {
         configMother.addPipelineWithGroup(config, "group1", "pipeline2", "stage1A", "job1A1");
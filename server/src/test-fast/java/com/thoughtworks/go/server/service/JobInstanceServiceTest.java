@@ -313,7 +313,22 @@ public class JobInstanceServiceTest {
         Pagination pagination = Pagination.pageStartingAt(1, 1, 1);
         jobService.findJobHistoryPage("pipeline", "stage", "job", pagination, "looser", new HttpOperationResult());
 
-        verify(jobInstanceDao).findJobHistoryPage("pipeline", "stage", "job", pagination.getPageSize(), pagination.getOffset());
+        verify(jobInstanceDao).findJobHistoryPage("pipeline", "stage", "job", pagination.getPageSize(), pagination.getOffset(), null);
+    }
+
+    @Test
+    public void shouldHandThePageBoundaryToTheDAO_findJobHistoryPage() {
+        when(cruiseConfig.hasPipelineNamed(new CaseInsensitiveString("pipeline"))).thenReturn(true);
+        when(goConfigService.currentCruiseConfig()).thenReturn(cruiseConfig);
+        when(securityService.hasViewPermissionForPipeline(Username.valueOf("looser"), "pipeline")).thenReturn(true);
+
+        final JobInstanceService jobService = new JobInstanceService(jobInstanceDao, topic, jobStatusCache,
+            transactionTemplate, transactionSynchronizationManager, null, null, goConfigService, securityService, serverHealthService);
+
+        Pagination pagination = Pagination.pageByNumber(3, 30, 10, 42L);
+        jobService.findJobHistoryPage("pipeline", "stage", "job", pagination, "looser", new HttpOperationResult());
+
+        verify(jobInstanceDao).findJobHistoryPage("pipeline", "stage", "job", 10, 20, 42L);
     }
 
     @Test
@@ -121,7 +121,7 @@ class PipelineHistoryServiceTest {
         String groupName = "some-pipeline-group";
 
         PipelineInstanceModel pipeline = PipelineInstanceModel.createPipeline(pipelineName, -1, "1.0", BuildCause.createManualForced(), new StageInstanceModels());
-        when(pipelineDao.loadHistory(pipelineName, 1, 0)).thenReturn(createPipelineInstanceModels(pipeline));
+        when(pipelineDao.loadHistory(pipelineName, Pagination.ONE_ITEM)).thenReturn(createPipelineInstanceModels(pipeline));
         when(schedulingCheckerService.canManuallyTrigger(pipelineName, username)).thenReturn(false);
         when(securityService.hasViewPermissionForPipeline(username, pipelineName)).thenReturn(true);
         when(securityService.hasOperatePermissionForPipeline(username.getUsername(), pipelineName)).thenReturn(true);
@@ -158,7 +158,7 @@ class PipelineHistoryServiceTest {
 
     private void stubForNonActivePipeline(Username username, CruiseConfig cruiseConfig, String pipelineName, boolean operatePermission, boolean canTrigger, PipelineInstanceModel pipeline) {
         stubPermisssionsForActivePipeline(username, cruiseConfig, pipelineName, operatePermission, canTrigger);
-        when(pipelineDao.loadHistory(pipelineName, 1, 0)).thenReturn(createPipelineInstanceModels(pipeline));
+        when(pipelineDao.loadHistory(pipelineName, Pagination.ONE_ITEM)).thenReturn(createPipelineInstanceModels(pipeline));
     }
 
     private void stubPermisssionsForActivePipeline(Username username, CruiseConfig cruiseConfig, String pipelineName, boolean operatePermission, boolean canTrigger) {
@@ -197,7 +197,7 @@ class PipelineHistoryServiceTest {
         );
         for (String pipeline : new String[]{"pipeline1", "pipeline2", "pipeline3", "pipeline4", "non-operatable-pipeline"}) {
             stubPermisssionsForActivePipeline(foo, cruiseConfig, pipeline, true, true);
-            when(pipelineDao.loadHistory(pipeline, 1, 0)).thenReturn(createPipelineInstanceModels());
+            when(pipelineDao.loadHistory(pipeline, Pagination.ONE_ITEM)).thenReturn(createPipelineInstanceModels());
         }
         when(pipelineDao.loadActivePipelines()).thenReturn(activePipelineInstances);
 
@@ -460,7 +460,7 @@ class PipelineHistoryServiceTest {
         when(securityService.hasViewPermissionForPipeline(noAccessUserName, pipelineName)).thenReturn(false);
         when(securityService.hasViewPermissionForPipeline(withAccessUserName, pipelineName)).thenReturn(true);
 
-        when(pipelineDao.loadHistory(pipelineName, 10, 0)).thenReturn(PipelineInstanceModels.createPipelineInstanceModels());
+        when(pipelineDao.loadHistory(pipelineName, Pagination.pageFor(0, 1, 10))).thenReturn(PipelineInstanceModels.createPipelineInstanceModels());
 
         HttpOperationResult result = new HttpOperationResult();
         PipelineInstanceModels pipelineInstanceModels = pipelineHistoryService.loadMinimalData(pipelineName, Pagination.pageFor(0, 1, 10), noAccessUserName, result);
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.google.common.base.Ticker;
+import com.thoughtworks.go.config.SecretConfig;
+import com.thoughtworks.go.plugin.domain.secrets.Secret;
+import com.thoughtworks.go.security.CryptoException;
+import com.thoughtworks.go.security.GoCipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.thoughtworks.go.domain.packagerepository.ConfigurationPropertyMother.create;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ResolvedSecretsCacheTest {
+    private final FakeTicker ticker = new FakeTicker();
+    private final SecretConfig secretConfig = new SecretConfig("secrets", "cd.go.file", create("SecretsFilePath", false, "/secrets.json"));
+    private GoCipher goCipher;
+    private ResolvedSecretsCache cache;
+
+    @BeforeEach
+    void setUp() throws CryptoException {
+        goCipher = mock(GoCipher.class);
+        when(goCipher.encrypt(anyString())).thenAnswer(invocation -> "encrypted:" + invocation.getArgument(0));
+        when(goCipher.decrypt(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).substring("encrypted:".length()));
+        cache = new ResolvedSecretsCache(10, 60, ticker, goCipher);
+    }
+
+    @Test
+    void shouldHoldSecretsEncryptedAndHandThemBackDecrypted() throws CryptoException {
+        cache.put(secretConfig, new Secret("password", "s3cr3t"));
+
+        assertThat(cache.get(secretConfig, "password")).isEqualTo(new Secret("password", "s3cr3t"));
+        assertThat(cache.get(secretConfig, "username")).isNull();
+        ArgumentCaptor<String> decrypted = ArgumentCaptor.forClass(String.class);
+        verify(goCipher).decrypt(decrypted.capture());
+        assertThat(decrypted.getValue()).isEqualTo("encrypted:s3cr3t");
+    }
+
+    @Test
+    void shouldForgetSecretsOnceTheTimeoutHasPassed() {
+        cache.put(secretConfig, new Secret("password", "s3cr3t"));
+
+        ticker.advance(59, TimeUnit.SECONDS);
+        assertThat(cache.get(secretConfig, "password")).isNotNull();
+
+        ticker.advance(2, TimeUnit.SECONDS);
+        assertThat(cache.get(secretConfig, "password")).isNull();
+    }
+
+    @Test
+    void shouldNotCacheAnythingWhenNoTimeoutIsConfigured() {
+        ResolvedSecretsCache disabled = new ResolvedSecretsCache(10, 0, ticker, goCipher);
+
+        disabled.put(secretConfig, new Secret("password", "s3cr3t"));
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.get(secretConfig, "password")).isNull();
+        verifyZeroInteractions(goCipher);
+    }
+
+    @Test
+    void shouldNotUseSecretsLookedUpWithASecretConfigWhichHasSinceChanged() {
+        cache.put(secretConfig, new Secret("password", "s3cr3t"));
+
+        SecretConfig changed = new SecretConfig("secrets", "cd.go.file", create("SecretsFilePath", false, "/other-secrets.json"));
+
+        assertThat(cache.get(changed, "password")).isNull();
+        assertThat(cache.get(new SecretConfig("secrets", "cd.go.file", create("SecretsFilePath", false, "/secrets.json")), "password")).isNotNull();
+    }
+
+    @Test
+    void shouldLookUpASecretAgainWhenItsCachedValueCannotBeDecrypted() throws CryptoException {
+        cache.put(secretConfig, new Secret("password", "s3cr3t"));
+        when(goCipher.decrypt(anyString())).thenThrow(new CryptoException("bad key"));
+
+        assertThat(cache.get(secretConfig, "password")).isNull();
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(long time, TimeUnit timeUnit) {
+            nanos.addAndGet(timeUnit.toNanos(time));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
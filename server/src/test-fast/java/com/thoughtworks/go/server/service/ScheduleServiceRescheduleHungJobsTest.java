@@ -28,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
 
 import static org.mockito.Mockito.*;
 
@@ -61,25 +62,25 @@ public class ScheduleServiceRescheduleHungJobsTest {
     public void shouldRescheduleHungBuildForDeadAgent() {
         final JobInstance jobInstance = JobInstanceMother.assigned("dev");
         when(agentService.findRegisteredAgents()).thenReturn(activities());
-        when(jobInstanceService.findHungJobs(Arrays.asList("uuid1", "uuid2"))).thenReturn(new JobInstances(jobInstance));
+        when(jobInstanceService.findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2")))).thenReturn(new JobInstances(jobInstance));
         scheduleService.rescheduleHungJobs();
         verify(agentService).findRegisteredAgents();
-        verify(jobInstanceService).findHungJobs(Arrays.asList("uuid1", "uuid2"));
+        verify(jobInstanceService).findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2")));
     }
 
     @Test
     public void shouldNotRescheduleHungBuildsWhenNone() {
         when(agentService.findRegisteredAgents()).thenReturn(activities());
-        when(jobInstanceService.findHungJobs(Arrays.asList("uuid1", "uuid2"))).thenReturn(new JobInstances());
+        when(jobInstanceService.findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2")))).thenReturn(new JobInstances());
         scheduleService.rescheduleHungJobs();
         verify(agentService).findRegisteredAgents();
-        verify(jobInstanceService).findHungJobs(Arrays.asList("uuid1", "uuid2"));
+        verify(jobInstanceService).findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2")));
     }
 
     @Test
     public void shouldNotifyConsoleActivityMonitorToCancelUnresponsiveJobs() {
         when(agentService.findRegisteredAgents()).thenReturn(activities());
-        when(jobInstanceService.findHungJobs(Arrays.asList("uuid1", "uuid2"))).thenReturn(new JobInstances());
+        when(jobInstanceService.findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2")))).thenReturn(new JobInstances());
         scheduleService.rescheduleHungJobs();
     }
 
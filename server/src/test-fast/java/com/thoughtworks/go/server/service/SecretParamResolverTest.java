@@ -25,11 +25,13 @@ import com.thoughtworks.go.domain.builder.CommandBuilder;
 import com.thoughtworks.go.domain.builder.NullBuilder;
 import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.helper.GoConfigMother;
+import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
 import com.thoughtworks.go.plugin.access.secrets.SecretsExtension;
 import com.thoughtworks.go.plugin.domain.secrets.Secret;
 import com.thoughtworks.go.remote.work.BuildAssignment;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.util.command.EnvironmentVariableContext;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,11 @@ import org.mockito.Mock;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.thoughtworks.go.helper.MaterialsMother.gitMaterial;
 import static java.util.Arrays.asList;
@@ -55,13 +62,22 @@ class SecretParamResolverTest {
     private GoConfigService goConfigService;
     @Mock
     private RulesService rulesService;
+    @Mock
+    private ResolvedSecretsCache resolvedSecretsCache;
+    private ExecutorService lookupExecutor;
     private SecretParamResolver secretParamResolver;
 
     @BeforeEach
     void setUp() {
         initMocks(this);
 
-        secretParamResolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService);
+        lookupExecutor = Executors.newCachedThreadPool();
+        secretParamResolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService, resolvedSecretsCache, pluginId -> lookupExecutor, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupExecutor.shutdownNow();
     }
 
     @Nested
@@ -235,6 +251,120 @@ class SecretParamResolverTest {
         assertThat(allSecretParams.get(1).getValue()).isEqualTo("some-username");
     }
 
+    @Test
+    void shouldFailResolvingSecretsWhenPluginDoesNotRespondInTime() {
+        final SecretParams allSecretParams = new SecretParams(new SecretParam("secret_config_id_1", "username"));
+        final SecretConfig fileBasedSecretConfig = new SecretConfig("secret_config_id_1", "cd.go.file");
+        when(goConfigService.cruiseConfig()).thenReturn(GoConfigMother.configWithSecretConfig(fileBasedSecretConfig));
+        when(secretsExtension.lookupSecrets(fileBasedSecretConfig.getPluginId(), fileBasedSecretConfig, singleton("username")))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(10000);
+                    return singletonList(new Secret("username", "some-username"));
+                });
+
+        SecretParamResolver resolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService, resolvedSecretsCache, pluginId -> lookupExecutor, 100);
+
+        assertThatCode(() -> resolver.resolve(allSecretParams))
+                .isInstanceOf(SecretResolutionFailureException.class)
+                .hasMessageContaining("looking up secrets using secret config `secret_config_id_1`");
+        assertThat(allSecretParams.get(0).getValue()).isNull();
+    }
+
+    @Test
+    void shouldLeaveALookupWhichTimedOutToFinishWithoutInterruptingThePlugin() throws Exception {
+        final SecretParams allSecretParams = new SecretParams(new SecretParam("secret_config_id_1", "username"));
+        final SecretConfig fileBasedSecretConfig = new SecretConfig("secret_config_id_1", "cd.go.file");
+        when(goConfigService.cruiseConfig()).thenReturn(GoConfigMother.configWithSecretConfig(fileBasedSecretConfig));
+        CountDownLatch pluginAnswers = new CountDownLatch(1);
+        CountDownLatch pluginReturned = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(secretsExtension.lookupSecrets(fileBasedSecretConfig.getPluginId(), fileBasedSecretConfig, singleton("username")))
+                .thenAnswer(invocation -> {
+                    try {
+                        pluginAnswers.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                    pluginReturned.countDown();
+                    return singletonList(new Secret("username", "some-username"));
+                });
+
+        SecretParamResolver resolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService, resolvedSecretsCache, pluginId -> lookupExecutor, 100);
+
+        assertThatCode(() -> resolver.resolve(allSecretParams)).isInstanceOf(SecretResolutionFailureException.class);
+        pluginAnswers.countDown();
+        assertThat(pluginReturned.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted.get()).isFalse();
+        assertThat(allSecretParams.get(0).getValue()).isNull();
+    }
+
+    @Test
+    void shouldKeepLookingUpSecretsOfOtherPluginsWhileAPluginHangs() {
+        final SecretConfig hangingSecretConfig = new SecretConfig("hanging", "cd.go.hanging");
+        final SecretConfig fileBasedSecretConfig = new SecretConfig("secret_config_id_1", "cd.go.file");
+        when(goConfigService.cruiseConfig()).thenReturn(GoConfigMother.configWithSecretConfig(hangingSecretConfig, fileBasedSecretConfig));
+        CountDownLatch pluginAnswers = new CountDownLatch(1);
+        when(secretsExtension.lookupSecrets(hangingSecretConfig.getPluginId(), hangingSecretConfig, singleton("username")))
+                .thenAnswer(invocation -> {
+                    pluginAnswers.await(10, TimeUnit.SECONDS);
+                    return singletonList(new Secret("username", "some-username"));
+                });
+        when(secretsExtension.lookupSecrets(fileBasedSecretConfig.getPluginId(), fileBasedSecretConfig, singleton("password")))
+                .thenReturn(singletonList(new Secret("password", "some-password")));
+
+        SecretParamResolver resolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService, resolvedSecretsCache,
+                pluginId -> SecretParamResolver.lookupExecutor(pluginId, 1, 1), 100);
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertThatCode(() -> resolver.resolve(new SecretParams(new SecretParam("hanging", "username"))))
+                        .isInstanceOf(SecretResolutionFailureException.class);
+            }
+            assertThatCode(() -> resolver.resolve(new SecretParams(new SecretParam("hanging", "username"))))
+                    .isInstanceOf(SecretResolutionFailureException.class)
+                    .hasMessageContaining("Too many secret lookups are waiting for plugin `cd.go.hanging`");
+
+            SecretParams otherPluginSecretParams = new SecretParams(new SecretParam("secret_config_id_1", "password"));
+            resolver.resolve(otherPluginSecretParams);
+            assertThat(otherPluginSecretParams.get(0).getValue()).isEqualTo("some-password");
+        } finally {
+            pluginAnswers.countDown();
+        }
+    }
+
+    @Test
+    void shouldOnlyLookupSecretsWhichAreNotCached() {
+        final SecretParams allSecretParams = new SecretParams(
+                new SecretParam("secret_config_id_1", "username"),
+                new SecretParam("secret_config_id_1", "password")
+        );
+        final SecretConfig fileBasedSecretConfig = new SecretConfig("secret_config_id_1", "cd.go.file");
+        when(goConfigService.cruiseConfig()).thenReturn(GoConfigMother.configWithSecretConfig(fileBasedSecretConfig));
+        when(resolvedSecretsCache.isEnabled()).thenReturn(true);
+        when(resolvedSecretsCache.get(fileBasedSecretConfig, "username")).thenReturn(new Secret("username", "cached-username"));
+        when(secretsExtension.lookupSecrets(fileBasedSecretConfig.getPluginId(), fileBasedSecretConfig, singleton("password")))
+                .thenReturn(singletonList(new Secret("password", "some-password")));
+
+        secretParamResolver.resolve(allSecretParams);
+
+        assertThat(allSecretParams.get(0).getValue()).isEqualTo("cached-username");
+        assertThat(allSecretParams.get(1).getValue()).isEqualTo("some-password");
+        verify(resolvedSecretsCache).put(fileBasedSecretConfig, new Secret("password", "some-password"));
+    }
+
+    @Test
+    void shouldNotLookupSecretsWhenAllAreCached() {
+        final SecretParams allSecretParams = new SecretParams(new SecretParam("secret_config_id_1", "username"));
+        final SecretConfig fileBasedSecretConfig = new SecretConfig("secret_config_id_1", "cd.go.file");
+        when(goConfigService.cruiseConfig()).thenReturn(GoConfigMother.configWithSecretConfig(fileBasedSecretConfig));
+        when(resolvedSecretsCache.isEnabled()).thenReturn(true);
+        when(resolvedSecretsCache.get(fileBasedSecretConfig, "username")).thenReturn(new Secret("username", "cached-username"));
+
+        secretParamResolver.resolve(allSecretParams);
+
+        assertThat(allSecretParams.get(0).getValue()).isEqualTo("cached-username");
+        verifyZeroInteractions(secretsExtension);
+    }
+
     private JobPlan defaultJobPlan(EnvironmentVariables variables, EnvironmentVariables triggerVariables) {
         JobIdentifier identifier = new JobIdentifier("Up42", 1, "1", "test", "1", "unit_test", 123L);
         return new DefaultJobPlan(new Resources(), new ArrayList<>(), -1, identifier, null,
@@ -619,6 +619,52 @@ public class ValueStreamMapServiceTest {
         verify(runStagesPopulator).apply(ArgumentMatchers.any(ValueStreamMap.class));
     }
 
+    @Test
+    public void shouldLoadTheBuildCausesOfEachLevelUpstreamTogether() {
+        /*
+         * git---> a ---> b1 ---> c
+         *         |              ^
+         *         +----> b2 -----+
+         * **/
+
+        GitMaterial git = new GitMaterial("git");
+        MaterialConfig gitConfig = git.config();
+        Map<String, BuildCause> buildCauses = new HashMap<>();
+        buildCauses.put("c", createBuildCause(asList("b1", "b2"), new ArrayList<>()));
+        buildCauses.put("b1", createBuildCause(asList("a"), new ArrayList<>()));
+        buildCauses.put("b2", createBuildCause(asList("a"), new ArrayList<>()));
+        buildCauses.put("a", createBuildCause(new ArrayList<>(), asList(git)));
+        setupExistenceOfPipelines("a", "b1", "b2", "c");
+        setupViewPermissionForPipelines("a", "b1", "b2", "c");
+
+        when(pipelineService.buildCauseFor("c", 1)).thenReturn(buildCauses.get("c"));
+        when(pipelineService.buildCausesFor(any())).thenAnswer(invocation -> {
+            Map<PipelineIdentifier, BuildCause> found = new HashMap<>();
+            for (PipelineIdentifier pipelineIdentifier : (Collection<PipelineIdentifier>) invocation.getArgument(0)) {
+                found.put(pipelineIdentifier, buildCauses.get(pipelineIdentifier.getName()));
+            }
+            return found;
+        });
+
+        PipelineConfig aConfig = PipelineConfigMother.pipelineConfig("a", new MaterialConfigs(gitConfig));
+        PipelineConfig b1Config = PipelineConfigMother.pipelineConfig("b1", new MaterialConfigs(new DependencyMaterialConfig(aConfig.name(), aConfig.getFirstStageConfig().name())));
+        PipelineConfig b2Config = PipelineConfigMother.pipelineConfig("b2", new MaterialConfigs(new DependencyMaterialConfig(aConfig.name(), aConfig.getFirstStageConfig().name())));
+        PipelineConfig cConfig = PipelineConfigMother.pipelineConfig("c",
+                new MaterialConfigs(new DependencyMaterialConfig(b1Config.name(), b1Config.getFirstStageConfig().name()), new DependencyMaterialConfig(b2Config.name(), b2Config.getFirstStageConfig().name())));
+        when(goConfigService.currentCruiseConfig()).thenReturn(new BasicCruiseConfig(new BasicPipelineConfigs(aConfig, b1Config, b2Config, cConfig)));
+        when(pipelineService.findPipelineByNameAndCounter("c", 1)).thenReturn(new Pipeline("c", "LABEL-C", buildCauses.get("c"), new EnvironmentVariables()));
+
+        ValueStreamMapPresentationModel graph = valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("c"), 1, user, result);
+
+        VSMTestHelper.assertNodeHasRevisions(graph, new CaseInsensitiveString("a"), new PipelineRevision("a", 1, "LABEL-a-1"));
+        VSMTestHelper.assertNodeHasRevisions(graph, new CaseInsensitiveString("b1"), new PipelineRevision("b1", 1, "LABEL-b1-1"));
+        VSMTestHelper.assertNodeHasRevisions(graph, new CaseInsensitiveString("b2"), new PipelineRevision("b2", 1, "LABEL-b2-1"));
+        verify(pipelineService).buildCausesFor(new HashSet<>(asList(new PipelineIdentifier("b1", 1), new PipelineIdentifier("b2", 1))));
+        verify(pipelineService).buildCausesFor(new HashSet<>(asList(new PipelineIdentifier("a", 1))));
+        verify(pipelineService, times(2)).buildCausesFor(any());
+        verify(pipelineService, times(1)).buildCauseFor(anyString(), anyInt());
+    }
+
     @Test
     public void shouldPopulateAllMaterialRevisionsThatCausedPipelineRun() {
         /*
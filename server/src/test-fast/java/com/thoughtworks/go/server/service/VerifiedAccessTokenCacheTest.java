@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.google.common.base.Ticker;
+import com.thoughtworks.go.domain.AccessToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.thoughtworks.go.helper.AccessTokenMother.randomAccessTokenForUser;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedAccessTokenCacheTest {
+    private final FakeTicker ticker = new FakeTicker();
+    private VerifiedAccessTokenCache cache;
+    private AccessToken.AccessTokenWithDisplayValue token;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedAccessTokenCache(2, 60, ticker);
+        token = randomAccessTokenForUser("bob");
+        token.setId(1);
+    }
+
+    @Test
+    void shouldReturnVerifiedTokenForThePresentedToken() {
+        cache.put(token.getDisplayValue(), token, cache.revocationVersion());
+
+        assertThat(cache.get(token.getDisplayValue())).isSameAs(token);
+        assertThat(cache.get(token.getDisplayValue().toUpperCase())).isNull();
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetTokensAfterTimeout() {
+        cache.put(token.getDisplayValue(), token, cache.revocationVersion());
+
+        ticker.advance(61, TimeUnit.SECONDS);
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    @Test
+    void shouldHoldABoundedNumberOfTokens() {
+        for (int i = 0; i < 5; i++) {
+            AccessToken.AccessTokenWithDisplayValue other = randomAccessTokenForUser("bob");
+            cache.put(other.getDisplayValue(), other, cache.revocationVersion());
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldInvalidateTokenById() {
+        cache.put(token.getDisplayValue(), token, cache.revocationVersion());
+
+        cache.invalidate(1);
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    @Test
+    void shouldInvalidateTokensOfUsers() {
+        cache.put(token.getDisplayValue(), token, cache.revocationVersion());
+
+        cache.invalidate(singletonList("BOB"));
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    @Test
+    void shouldNotCacheATokenWhichWasLookedUpBeforeAnInvalidation() {
+        long revocationVersionBeforeLookup = cache.revocationVersion();
+
+        cache.invalidate(1);
+        cache.put(token.getDisplayValue(), token, revocationVersionBeforeLookup);
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(long time, TimeUnit timeUnit) {
+            nanos.addAndGet(timeUnit.toNanos(time));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
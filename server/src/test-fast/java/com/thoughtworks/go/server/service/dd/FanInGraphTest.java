@@ -30,10 +30,13 @@ import com.thoughtworks.go.helper.PipelineConfigMother;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.thoughtworks.go.helper.MaterialConfigsMother.git;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class FanInGraphTest {
@@ -59,4 +62,29 @@ public class FanInGraphTest {
         assertThat(scmMaterialUrls.contains("giturl"), is(true));
         assertThat(scmMaterialUrls.contains("hgurl"), is(true));
     }
+
+    @Test
+    public void shouldShareTheTopologyOfAPipelineForTheSameConfig() throws Exception {
+        GitMaterialConfig git = git("giturl", "dest");
+        HgMaterialConfig hg = hg("hgurl", "dest");
+        PipelineConfig p1 = PipelineConfigMother.pipelineConfig("p1", new MaterialConfigs(git));
+        DependencyMaterialConfig p1Dep = new DependencyMaterialConfig(p1.name(), p1.get(0).name());
+        PipelineConfig p2 = PipelineConfigMother.pipelineConfig("p2", new MaterialConfigs(p1Dep, hg));
+        CruiseConfig cruiseConfig = new BasicCruiseConfig(new BasicPipelineConfigs(p1, p2));
+        FanInGraphTopologies topologies = new FanInGraphTopologies();
+
+        FanInGraphTopology topology = topologies.topologyOf(cruiseConfig, p2.name());
+
+        assertThat(topologies.topologyOf(cruiseConfig, p2.name()), is(sameInstance(topology)));
+        assertThat(topology.pipelineScmDepMap().get(p1Dep), is(Collections.singleton(git)));
+        assertThat(topology.pipelineScmDepMap().get(new DependencyMaterialConfig(p2.name(), p2.get(0).name())).size(), is(2));
+
+        FanInGraph oneGraph = new FanInGraph(topology, p2.name(), null, null, null, null);
+        FanInGraph anotherGraph = new FanInGraph(topology, p2.name(), null, null, null, null);
+        assertThat(oneGraph.getScmMaterials().size(), is(2));
+        assertThat(anotherGraph.getScmMaterials().size(), is(2));
+
+        CruiseConfig changedConfig = new BasicCruiseConfig(new BasicPipelineConfigs(p1, p2));
+        assertThat(topologies.topologyOf(changedConfig, p2.name()), is(not(sameInstance(topology))));
+    }
 }
@@ -120,4 +120,40 @@ public class ElasticAgentRequestProcessorV1Test {
         verify(agentService, times(1)).findElasticAgent("foo", "cd.go.example.plugin");
         verifyNoMoreInteractions(agentService);
     }
+
+    @Test
+    public void shouldReuseTheListAgentsResponseWhileThePluginsAgentsAreUnchanged() {
+        ElasticAgentProcessorConverterV1 converter = spy(new ElasticAgentProcessorConverterV1());
+        processor = new ElasticAgentRequestProcessorV1(agentService, converter);
+        LinkedMultiValueMap<String, ElasticAgentMetadata> allAgents = new LinkedMultiValueMap<>();
+        allAgents.put("cd.go.example.plugin", asList(new ElasticAgentMetadata("foo", "bar", "cd.go.example.plugin", AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled)));
+        LinkedMultiValueMap<String, ElasticAgentMetadata> changedAgents = new LinkedMultiValueMap<>();
+        changedAgents.put("cd.go.example.plugin", asList(new ElasticAgentMetadata("foo", "bar", "cd.go.example.plugin", AgentRuntimeStatus.Building, AgentConfigStatus.Enabled)));
+        when(agentService.allElasticAgents()).thenReturn(allAgents, allAgents, changedAgents);
+        when(request.api()).thenReturn(REQUEST_SERVER_LIST_AGENTS);
+
+        processor.process(pluginDescriptor, request);
+        GoApiResponse unchanged = processor.process(pluginDescriptor, request);
+        GoApiResponse changed = processor.process(pluginDescriptor, request);
+
+        verify(converter, times(2)).listAgentsResponseBody(any());
+        assertThatJson("[{\"agent_id\":\"bar\",\"agent_state\":\"Idle\",\"build_state\":\"Idle\",\"config_state\":\"Enabled\"}]").isEqualTo(unchanged.responseBody());
+        assertThatJson("[{\"agent_id\":\"bar\",\"agent_state\":\"Building\",\"build_state\":\"Building\",\"config_state\":\"Enabled\"}]").isEqualTo(changed.responseBody());
+    }
+
+    @Test
+    public void shouldForgetTheListAgentsResponseOfAPluginOnceItIsUnloaded() {
+        ElasticAgentProcessorConverterV1 converter = spy(new ElasticAgentProcessorConverterV1());
+        processor = new ElasticAgentRequestProcessorV1(agentService, converter);
+        LinkedMultiValueMap<String, ElasticAgentMetadata> allAgents = new LinkedMultiValueMap<>();
+        allAgents.put("cd.go.example.plugin", asList(new ElasticAgentMetadata("foo", "bar", "cd.go.example.plugin", AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled)));
+        when(agentService.allElasticAgents()).thenReturn(allAgents);
+        when(request.api()).thenReturn(REQUEST_SERVER_LIST_AGENTS);
+
+        processor.process(pluginDescriptor, request);
+        processor.pluginUnLoaded(pluginDescriptor);
+        processor.process(pluginDescriptor, request);
+
+        verify(converter, times(2)).listAgentsResponseBody(any());
+    }
 }
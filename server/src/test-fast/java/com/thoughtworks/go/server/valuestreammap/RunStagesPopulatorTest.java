@@ -17,6 +17,7 @@ package com.thoughtworks.go.server.valuestreammap;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.PipelineIdentifier;
 import com.thoughtworks.go.domain.Stage;
 import com.thoughtworks.go.domain.Stages;
 import com.thoughtworks.go.domain.valuestreammap.SCMDependencyNode;
@@ -30,11 +31,10 @@ import com.thoughtworks.go.server.dao.StageDao;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.*;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
 
 public class RunStagesPopulatorTest {
     private RunStagesPopulator runStagesPopulator;
@@ -43,6 +43,13 @@ public class RunStagesPopulatorTest {
     @Before
     public void setup() {
         stageDao = mock(StageDao.class);
+        when(stageDao.findAllStagesFor(anyList())).thenAnswer(invocation -> {
+            Map<PipelineIdentifier, Stages> stagesOfInstances = new HashMap<>();
+            for (PipelineIdentifier instance : (List<PipelineIdentifier>) invocation.getArguments()[0]) {
+                stagesOfInstances.put(instance, stageDao.findAllStagesFor(instance.getName(), instance.getCounter()));
+            }
+            return stagesOfInstances;
+        });
         runStagesPopulator = new RunStagesPopulator(stageDao);
     }
 
@@ -80,6 +87,7 @@ public class RunStagesPopulatorTest {
         VSMTestHelper.assertStageDetailsOf(graph, p1, "2", stagesForP1_2);
         VSMTestHelper.assertStageDetailsOf(graph, p2, "1", stagesForP2_1);
         VSMTestHelper.assertStageDetailsOf(graph, p3, "1", stagesForP3_1);
+        verify(stageDao, times(1)).findAllStagesFor(anyList());
     }
 
     @Test
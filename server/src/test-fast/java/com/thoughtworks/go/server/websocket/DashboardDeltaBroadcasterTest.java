@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.Everyone;
+import com.thoughtworks.go.helper.PipelineConfigMother;
+import com.thoughtworks.go.presentation.pipelinehistory.PipelineModel;
+import com.thoughtworks.go.server.dashboard.*;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import com.thoughtworks.go.server.service.GoDashboardService;
+import com.thoughtworks.go.util.SystemTimeClock;
+import com.thoughtworks.go.util.TestingClock;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static com.thoughtworks.go.domain.PipelinePauseInfo.notPaused;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DashboardDeltaBroadcasterTest {
+    private static final Permissions EVERYONE = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+    private static final long SEND_TIMEOUT = 1000L;
+
+    private final TimeStampBasedCounter counter = new TimeStampBasedCounter(new SystemTimeClock());
+    private final Username bob = new Username(new CaseInsensitiveString("bob"));
+    private final Username alice = new Username(new CaseInsensitiveString("alice"));
+    private final DashboardFilter filter = mock(DashboardFilter.class);
+    private final DashboardDeltaRenderer renderer = mock(DashboardDeltaRenderer.class);
+    private final SocketHealthService socketHealthService = mock(SocketHealthService.class);
+    private GoDashboardCache cache;
+    private GoDashboardService goDashboardService;
+    private TestingClock clock;
+    private DashboardDeltaBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        cache = mock(GoDashboardCache.class);
+        goDashboardService = mock(GoDashboardService.class);
+        clock = new TestingClock();
+        when(cache.allEntries()).thenReturn(new GoDashboardPipelines(new HashMap<>(), counter));
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true);
+        when(goDashboardService.allEnvironmentsForDashboard(any(), any())).thenReturn(emptyList());
+        when(renderer.render(any(), any())).thenReturn("changes");
+        showPipeline("pipeline1");
+        broadcaster = new DashboardDeltaBroadcaster(cache, goDashboardService, newDirectExecutorService(), clock, SEND_TIMEOUT);
+    }
+
+    @Test
+    void shouldWorkOutEachUsersDashboardOnceWhenSendingToAllSockets() {
+        connect(bob, clientWhichReadsEverything());
+        connect(bob, clientWhichReadsEverything());
+        connect(alice, clientWhichReadsEverything());
+        clearInvocations(goDashboardService);
+
+        broadcaster.cacheUpdated(cache.allEntries());
+
+        verify(goDashboardService).allPipelineGroupsForDashboard(filter, bob);
+        verify(goDashboardService).allPipelineGroupsForDashboard(filter, alice);
+        verify(goDashboardService).allEnvironmentsForDashboard(filter, bob);
+        verify(goDashboardService).allEnvironmentsForDashboard(filter, alice);
+    }
+
+    @Test
+    void shouldKeepSendingToOtherClientsWhileOneClientHasNotReadItsLastMessage() {
+        RemoteEndpoint slowClient = mock(RemoteEndpoint.class);
+        RemoteEndpoint fastClient = clientWhichReadsEverything();
+        connect(bob, slowClient);
+        connect(bob, fastClient);
+
+        showPipeline("pipeline1");
+        broadcaster.cacheUpdated(cache.allEntries());
+
+        verify(slowClient, times(1)).sendString(anyString(), any(WriteCallback.class));
+        verify(fastClient, times(2)).sendString(anyString(), any(WriteCallback.class));
+    }
+
+    @Test
+    void shouldSendTheLatestChangesOnceTheClientHasReadItsLastMessage() {
+        RemoteEndpoint client = mock(RemoteEndpoint.class);
+        connect(bob, client);
+        ArgumentCaptor<WriteCallback> callback = ArgumentCaptor.forClass(WriteCallback.class);
+        verify(client).sendString(anyString(), callback.capture());
+
+        showPipeline("pipeline1");
+        broadcaster.cacheUpdated(cache.allEntries());
+        broadcaster.cacheUpdated(cache.allEntries());
+        verify(client, times(1)).sendString(anyString(), any(WriteCallback.class));
+
+        callback.getValue().writeSuccess();
+        verify(client, times(2)).sendString(anyString(), any(WriteCallback.class));
+    }
+
+    @Test
+    void shouldCloseSocketsWhichHaveNotReadTheirLastMessageWithinTheSendTimeout() {
+        Session session = connect(bob, mock(RemoteEndpoint.class));
+
+        clock.addMillis((int) SEND_TIMEOUT);
+        broadcaster.cacheUpdated(cache.allEntries());
+        verify(session, never()).close(anyInt(), any());
+
+        clock.addMillis(1);
+        broadcaster.cacheUpdated(cache.allEntries());
+        verify(session).close(StatusCode.NORMAL, null);
+    }
+
+    @Test
+    void shouldCloseSocketsWhenAMessageCouldNotBeSent() {
+        RemoteEndpoint client = mock(RemoteEndpoint.class);
+        Session session = connect(bob, client);
+        ArgumentCaptor<WriteCallback> callback = ArgumentCaptor.forClass(WriteCallback.class);
+        verify(client).sendString(anyString(), callback.capture());
+
+        callback.getValue().writeFailed(new RuntimeException("broken pipe"));
+
+        verify(session).close(StatusCode.SERVER_ERROR, "broken pipe");
+        verify(socketHealthService).deregister(any(DashboardSocket.class));
+    }
+
+    private Session connect(Username username, RemoteEndpoint client) {
+        Session session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getRemote()).thenReturn(client);
+        new DashboardSocket(new DashboardSubscription(username, filter, "etag"), renderer, broadcaster, socketHealthService).onConnect(session);
+        return session;
+    }
+
+    private RemoteEndpoint clientWhichReadsEverything() {
+        RemoteEndpoint client = mock(RemoteEndpoint.class);
+        doAnswer(invocation -> {
+            invocation.<WriteCallback>getArgument(1).writeSuccess();
+            return null;
+        }).when(client).sendString(anyString(), any(WriteCallback.class));
+        return client;
+    }
+
+    private void showPipeline(String name) {
+        GoDashboardPipelineGroup group = new GoDashboardPipelineGroup("group1", EVERYONE, true);
+        group.addPipeline(new GoDashboardPipeline(new PipelineModel(name, false, false, notPaused()), EVERYONE, "group1", counter, PipelineConfigMother.pipelineConfig(name)));
+        when(goDashboardService.allPipelineGroupsForDashboard(any(), any())).thenReturn(singletonList(group));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.Everyone;
+import com.thoughtworks.go.helper.PipelineConfigMother;
+import com.thoughtworks.go.presentation.pipelinehistory.PipelineModel;
+import com.thoughtworks.go.server.dashboard.*;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import com.thoughtworks.go.server.service.GoDashboardService;
+import com.thoughtworks.go.util.SystemTimeClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.thoughtworks.go.domain.PipelinePauseInfo.notPaused;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardSubscriptionTest {
+    private static final Permissions EVERYONE = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+
+    private final TimeStampBasedCounter counter = new TimeStampBasedCounter(new SystemTimeClock());
+    private final Username username = new Username(new CaseInsensitiveString("bob"));
+    private final DashboardFilter filter = mock(DashboardFilter.class);
+    private GoDashboardService goDashboardService;
+    private DashboardSubscription subscription;
+
+    @BeforeEach
+    void setUp() {
+        goDashboardService = mock(GoDashboardService.class);
+        when(goDashboardService.allEnvironmentsForDashboard(filter, username)).thenReturn(emptyList());
+        subscription = new DashboardSubscription(username, filter, "personalization-etag");
+    }
+
+    @Test
+    void shouldSendASnapshotOfEverythingVisibleTheFirstTime() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2");
+        showGroup(pipeline1, pipeline2);
+
+        DashboardDelta delta = subscription.changesSince(new DashboardViews(goDashboardService), 42L);
+
+        assertThat(delta.isSnapshot()).isTrue();
+        assertThat(delta.getSequenceNumber()).isEqualTo(42L);
+        assertThat(delta.getPersonalizationEtag()).isEqualTo("personalization-etag");
+        assertThat(delta.getChangedPipelines()).containsExactly(pipeline1, pipeline2);
+        assertThat(delta.getRemovedPipelines()).isEmpty();
+    }
+
+    @Test
+    void shouldSendNothingWhenNothingVisibleHasChanged() {
+        showGroup(pipeline("pipeline1"));
+        subscription.changesSince(new DashboardViews(goDashboardService), 1L);
+
+        assertThat(subscription.changesSince(new DashboardViews(goDashboardService), 2L)).isNull();
+    }
+
+    @Test
+    void shouldSendOnlyThePipelinesWhichChangedSinceTheLastMessage() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        showGroup(pipeline1, pipeline("pipeline2"));
+        subscription.changesSince(new DashboardViews(goDashboardService), 1L);
+
+        GoDashboardPipeline updatedPipeline2 = pipeline("pipeline2");
+        showGroup(pipeline1, updatedPipeline2);
+        DashboardDelta delta = subscription.changesSince(new DashboardViews(goDashboardService), 2L);
+
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.getSequenceNumber()).isEqualTo(2L);
+        assertThat(delta.getChangedPipelines()).containsExactly(updatedPipeline2);
+        assertThat(delta.getRemovedPipelines()).isEmpty();
+    }
+
+    @Test
+    void shouldTellAboutPipelinesWhichAreNoLongerVisible() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        showGroup(pipeline1, pipeline("pipeline2"));
+        subscription.changesSince(new DashboardViews(goDashboardService), 1L);
+
+        showGroup(pipeline1);
+        DashboardDelta delta = subscription.changesSince(new DashboardViews(goDashboardService), 2L);
+
+        assertThat(delta.getChangedPipelines()).isEmpty();
+        assertThat(delta.getRemovedPipelines()).containsExactly("pipeline2");
+    }
+
+    @Test
+    void shouldSendTheGroupsWhenOnlyTheirLayoutChanged() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2");
+        showGroups(group("group1", pipeline1, pipeline2));
+        subscription.changesSince(new DashboardViews(goDashboardService), 1L);
+
+        showGroups(group("group1", pipeline1), group("group2", pipeline2));
+        DashboardDelta delta = subscription.changesSince(new DashboardViews(goDashboardService), 2L);
+
+        assertThat(delta.getChangedPipelines()).isEmpty();
+        assertThat(delta.getRemovedPipelines()).isEmpty();
+        assertThat(delta.getPipelineGroups()).extracting(DashboardGroup::name).containsExactly("group1", "group2");
+    }
+
+    private void showGroup(GoDashboardPipeline... pipelines) {
+        showGroups(group("group1", pipelines));
+    }
+
+    private void showGroups(GoDashboardPipelineGroup... groups) {
+        List<GoDashboardPipelineGroup> pipelineGroups = asList(groups);
+        when(goDashboardService.allPipelineGroupsForDashboard(filter, username)).thenReturn(pipelineGroups);
+    }
+
+    private GoDashboardPipelineGroup group(String name, GoDashboardPipeline... pipelines) {
+        GoDashboardPipelineGroup group = new GoDashboardPipelineGroup(name, EVERYONE, true);
+        for (GoDashboardPipeline pipeline : pipelines) {
+            group.addPipeline(pipeline);
+        }
+        return group;
+    }
+
+    private GoDashboardPipeline pipeline(String name) {
+        return new GoDashboardPipeline(new PipelineModel(name, false, false, notPaused()), EVERYONE, "group1", counter, PipelineConfigMother.pipelineConfig(name));
+    }
+}
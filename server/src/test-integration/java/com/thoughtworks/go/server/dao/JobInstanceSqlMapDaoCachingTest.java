@@ -32,6 +32,7 @@ import java.util.*;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -101,16 +102,16 @@ public class JobInstanceSqlMapDaoCachingTest {
         List<JobPlan> expectedPlans = new ArrayList<JobPlan>() {{
             add(firstJob);
         }};
-        when(mockTemplate.queryForObject("scheduledPlan", arguments("id", 1L).asMap())).thenReturn(firstJob);
-        when(mockTemplate.queryForObject("scheduledPlan", arguments("id", 2L).asMap())).thenReturn(null);
+        when(mockTemplate.queryForList("scheduledPlans", arguments("ids", Arrays.asList(1L, 2L)).asMap())).thenReturn(Arrays.asList(firstJob));
 
         jobInstanceDao.setSqlMapClientTemplate(mockTemplate);
 
         List<JobPlan> plans = jobInstanceDao.orderedScheduledBuilds();
 
         assertThat(plans, is(expectedPlans));
+        assertThat(goCache.get(jobInstanceDao.cacheKeyForJobPlan(2L)), is(nullValue()));
 
-        verify(mockTemplate, times(2)).queryForObject(eq("scheduledPlan"), any());
+        verify(mockTemplate, times(1)).queryForList(eq("scheduledPlans"), any());
         verify(mockTemplate, times(1)).queryForList(eq("scheduledPlanIds"));
     }
 
@@ -124,8 +125,7 @@ public class JobInstanceSqlMapDaoCachingTest {
             add(firstJob);
             add(secondJob);
         }};
-        when(mockTemplate.queryForObject("scheduledPlan", arguments("id", 1L).asMap())).thenReturn(firstJob);
-        when(mockTemplate.queryForObject("scheduledPlan", arguments("id", 2L).asMap())).thenReturn(secondJob);
+        when(mockTemplate.queryForList("scheduledPlans", arguments("ids", Arrays.asList(1L, 2L)).asMap())).thenReturn(Arrays.asList(secondJob, firstJob));
 
         jobInstanceDao.setSqlMapClientTemplate(mockTemplate);
         jobInstanceDao.orderedScheduledBuilds();
@@ -134,7 +134,7 @@ public class JobInstanceSqlMapDaoCachingTest {
 
         assertThat(plans, is(expectedPlans));
 
-        verify(mockTemplate, times(2)).queryForObject(eq("scheduledPlan"), any());
+        verify(mockTemplate, times(1)).queryForList(eq("scheduledPlans"), any());
         verify(mockTemplate, times(2)).queryForList(eq("scheduledPlanIds"));
     }
 
@@ -146,7 +146,7 @@ public class JobInstanceSqlMapDaoCachingTest {
         List<JobPlan> expectedPlans = new ArrayList<JobPlan>() {{
             add(firstJob);
         }};
-        when(mockTemplate.queryForObject("scheduledPlan", arguments("id", 1L).asMap())).thenReturn(firstJob);
+        when(mockTemplate.queryForList("scheduledPlans", arguments("ids", Arrays.asList(1L)).asMap())).thenReturn(Arrays.asList(firstJob));
 
         jobInstanceDao.setSqlMapClientTemplate(mockTemplate);
         jobInstanceDao.orderedScheduledBuilds();//populate the cache
@@ -158,7 +158,7 @@ public class JobInstanceSqlMapDaoCachingTest {
 
         assertThat(plans, is(expectedPlans));
 
-        verify(mockTemplate, times(2)).queryForObject("scheduledPlan", arguments("id", 1L).asMap());//because the cache is cleared
+        verify(mockTemplate, times(2)).queryForList("scheduledPlans", arguments("ids", Arrays.asList(1L)).asMap());//because the cache is cleared
         verify(mockTemplate, times(2)).queryForList(eq("scheduledPlanIds"));
     }
 
@@ -621,6 +621,45 @@ public class JobInstanceSqlMapDaoIntegrationTest {
         assertJobHistoryCorrectness(instances, JOB_NAME);
     }
 
+    @Test
+    public void shouldNotPageOverJobsOfTheSameNameInOtherPipelines() throws Exception {
+        Pipeline otherPipeline = PipelineMother.passedPipelineInstance(PIPELINE_NAME + "2", STAGE_NAME, JOB_NAME);
+        dbHelper.savePipelineWithStagesAndMaterials(otherPipeline);
+        for (int i = 0; i < 3; i++) {
+            dbHelper.savePipelineWithStagesAndMaterials(PipelineMother.passedPipelineInstance(PIPELINE_NAME, STAGE_NAME, JOB_NAME));
+        }
+
+        int total = jobInstanceDao.getJobHistoryCount(PIPELINE_NAME, STAGE_NAME, JOB_NAME);
+        JobInstances firstPage = jobInstanceDao.findJobHistoryPage(PIPELINE_NAME, STAGE_NAME, JOB_NAME, 2, 0);
+        JobInstances lastPage = jobInstanceDao.findJobHistoryPage(PIPELINE_NAME, STAGE_NAME, JOB_NAME, 2, total - 1);
+
+        assertThat(firstPage.size(), is(2));
+        assertThat(firstPage.get(0).getId() > firstPage.get(1).getId(), is(true));
+        assertThat(lastPage.size(), is(1));
+        assertThat(lastPage.get(0).getId() < firstPage.get(1).getId(), is(true));
+        for (JobInstance instance : firstPage) {
+            assertThat(instance.getIdentifier().getPipelineName(), is(PIPELINE_NAME));
+        }
+        assertThat(lastPage.get(0).getIdentifier().getPipelineName(), is(PIPELINE_NAME));
+        assertThat(jobInstanceDao.getJobHistoryCount(otherPipeline.getName(), STAGE_NAME, JOB_NAME), is(1));
+    }
+
+    @Test
+    public void shouldSeekToTheJobsOlderThanTheBoundaryOfAPage() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            dbHelper.savePipelineWithStagesAndMaterials(PipelineMother.passedPipelineInstance(PIPELINE_NAME, STAGE_NAME, JOB_NAME));
+        }
+        JobInstances firstPage = jobInstanceDao.findJobHistoryPage(PIPELINE_NAME, STAGE_NAME, JOB_NAME, 2, 0);
+        JobInstances secondPage = jobInstanceDao.findJobHistoryPage(PIPELINE_NAME, STAGE_NAME, JOB_NAME, 2, 2);
+
+        JobInstances soughtPage = jobInstanceDao.findJobHistoryPage(PIPELINE_NAME, STAGE_NAME, JOB_NAME, 2, 2, firstPage.get(1).getId());
+
+        assertThat(soughtPage.size(), is(2));
+        assertThat(soughtPage.get(0).getId(), is(secondPage.get(0).getId()));
+        assertThat(soughtPage.get(1).getId(), is(secondPage.get(1).getId()));
+        assertJobHistoryCorrectness(soughtPage, JOB_NAME);
+    }
+
     private void assertJobHistoryCorrectness(JobInstances instances, String jobName) {
         for (JobInstance instance : instances) {
             assertThat(instance.getIdentifier().getBuildName(), is(jobName));
@@ -958,7 +997,7 @@ public class JobInstanceSqlMapDaoIntegrationTest {
         buildingJob3.setAgentUuid("uuid3");
         jobInstanceDao.save(stageId, buildingJob3);
 
-        List<String> liveAgentIds = new ArrayList<String>() {
+        Set<String> liveAgentIds = new HashSet<String>() {
             {
                 add("uuid1");
                 add("uuid2");
@@ -971,6 +1010,24 @@ public class JobInstanceSqlMapDaoIntegrationTest {
         assertThat(reloaded.getIdentifier(), is(jobIdentifier(buildingJob3)));
     }
 
+    @Test
+    public void shouldFindHungJobsAmongCachedActiveJobsWhenTheirAgentIsNoLongerLive() {
+        JobInstance buildingJob = building(projectOne, new Date(1));
+        buildingJob.setAgentUuid("uuid1");
+        jobInstanceDao.save(stageId, buildingJob);
+
+        JobInstance scheduledJob = scheduled("project2");
+        jobInstanceDao.save(stageId, scheduledJob);
+
+        jobInstanceDao.activeJobs();//populate the cache
+        assertThat(jobInstanceDao.findHungJobs(new HashSet<>(Arrays.asList("uuid1", "uuid2"))).size(), is(0));
+
+        JobInstances hungJobs = jobInstanceDao.findHungJobs(new HashSet<>(Collections.singletonList("uuid2")));
+
+        assertThat(hungJobs.size(), is(1));
+        assertThat(hungJobs.get(0), hasSameId(buildingJob));
+    }
+
 
     @Test
     public void shouldIgnore() {
@@ -49,6 +49,7 @@ import com.thoughtworks.go.server.service.PipelinePauseService;
 import com.thoughtworks.go.server.service.ScheduleService;
 import com.thoughtworks.go.server.service.ScheduleTestUtil;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
+import com.thoughtworks.go.server.util.Pagination;
 import com.thoughtworks.go.util.GoConfigFileHelper;
 import com.thoughtworks.go.util.GoConstants;
 import com.thoughtworks.go.util.TestingClock;
@@ -1198,6 +1199,25 @@ public class PipelineSqlMapDaoIntegrationTest {
         assertThat(pipelineDao.getPageNumberForCounter("some-pipeline", pipeline3.getCounter(), 10), is(1));
     }
 
+    @Test
+    public void shouldSeekThePageOfHistoryHavingTheInstancesSkippedToByOffset() throws Exception {
+        PipelineConfig mingleConfig = PipelineMother.twoBuildPlansWithResourcesAndMaterials("some-pipeline", "dev");
+        Pipeline pipeline1 = schedulePipelineWithStages(mingleConfig);
+        Pipeline pipeline2 = schedulePipelineWithStages(mingleConfig);
+        Pipeline pipeline3 = schedulePipelineWithStages(mingleConfig);
+        schedulePipelineWithStages(mingleConfig);
+        schedulePipelineWithStages(mingleConfig);
+
+        PipelineInstanceModels secondPage = pipelineDao.loadHistory("some-pipeline", Pagination.pageByNumber(2, 5, 2));
+        assertThat(secondPage.size(), is(2));
+        assertThat(secondPage.get(0).getId(), is(pipeline3.getId()));
+        assertThat(secondPage.get(1).getId(), is(pipeline2.getId()));
+
+        PipelineInstanceModels lastPage = pipelineDao.loadHistory("some-pipeline", Pagination.pageByNumber(3, 5, 2));
+        assertThat(lastPage.size(), is(1));
+        assertThat(lastPage.get(0).getId(), is(pipeline1.getId()));
+    }
+
     @Test
     public void shouldPauseExistingPipeline() throws Exception {
         PipelineConfig mingleConfig = PipelineMother.twoBuildPlansWithResourcesAndMaterials("some-pipeline", "dev");
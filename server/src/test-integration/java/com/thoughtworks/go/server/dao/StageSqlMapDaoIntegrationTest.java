@@ -59,6 +59,7 @@ import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.domain.PersistentObject.NOT_PERSISTED;
 import static com.thoughtworks.go.helper.PipelineMother.custom;
@@ -69,6 +70,7 @@ import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -223,6 +225,26 @@ public class StageSqlMapDaoIntegrationTest {
         assertStagesFound(stages, 5, CaseInsensitiveString.str(mingleConfig.first().name()));
     }
 
+    @Test
+    public void shouldSeekStageInstancesForChartFromTheBoundaryOfAPage() {
+        mingleConfig.add(StageConfigMother.custom("new-stage", "job-1"));
+        for (int i = 0; i < 10; i++) {
+            Pipeline completed = dbHelper.schedulePipelineWithAllStages(mingleConfig, ModificationsMother.modifySomeFiles(mingleConfig));
+            dbHelper.pass(completed);
+        }
+        String pipelineName = mingleConfig.name().toString();
+        String stageName = mingleConfig.first().name().toString();
+
+        List<Stage> firstPage = stageDao.findStageHistoryForChart(pipelineName, stageName, 5, 0);
+        List<Long> idsOnFirstPage = firstPage.stream().map(Stage::getId).collect(Collectors.toList());
+        Map<Integer, Long> boundaries = stageDao.findStageHistoryForChartPageBoundaries(pipelineName, stageName, Pagination.pageByNumber(1, 10, 5), idsOnFirstPage);
+        assertThat(boundaries).containsOnly(entry(2, firstPage.get(4).getId()));
+
+        List<Stage> secondPage = stageDao.findStageHistoryForChart(pipelineName, stageName, 5, 5, boundaries.get(2));
+        assertThat(secondPage.get(0).getIdentifier().getPipelineCounter()).isEqualTo(5);
+        assertStagesFound(secondPage, 5, stageName);
+    }
+
     @Test
     public void shouldNotIncludeStageWithJobRerunWhileGettingLastStageInstances() throws Exception {
         configHelper.addPipeline(mingleConfig);
@@ -1352,6 +1374,47 @@ public class StageSqlMapDaoIntegrationTest {
         assertThat(stages).isEqualTo(asList(stage, pipelineStages.get(0), pipelineStages.get(1), pipelineStages.get(2)));
     }
 
+    @Test
+    public void shouldReturnAllTheStagesOfManyPipelineInstancesTogether() {
+        StageConfig first = StageConfigMother.custom("first", "job1");
+        StageConfig second = StageConfigMother.custom("second", "job1");
+        Pipeline pipeline = dbHelper.newPipelineWithAllStagesPassed(PipelineConfigMother.pipelineConfig("pipeline", first, second));
+        Pipeline anotherPipeline = dbHelper.newPipelineWithAllStagesPassed(PipelineConfigMother.pipelineConfig("another-pipeline", first));
+        PipelineIdentifier instance = new PipelineIdentifier("pipeline", pipeline.getCounter(), pipeline.getLabel());
+        PipelineIdentifier anotherInstance = new PipelineIdentifier("another-pipeline", anotherPipeline.getCounter(), anotherPipeline.getLabel());
+        PipelineIdentifier missingInstance = new PipelineIdentifier("pipeline", pipeline.getCounter() + 1, "missing");
+
+        Map<PipelineIdentifier, Stages> stages = stageDao.findAllStagesFor(asList(instance, anotherInstance, missingInstance));
+
+        assertThat(stages.get(instance)).isEqualTo(stageDao.findAllStagesFor("pipeline", pipeline.getCounter()));
+        assertThat(stages.get(instance).size()).isEqualTo(2);
+        assertThat(stages.get(anotherInstance)).isEqualTo(stageDao.findAllStagesFor("another-pipeline", anotherPipeline.getCounter()));
+        assertThat(stages.get(anotherInstance).size()).isEqualTo(1);
+        assertThat(stages.get(missingInstance).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldLoadStagesOfPipelineInstancesNotInTheCacheInOneQuery() {
+        SqlMapClientTemplate mockTemplate = mock(SqlMapClientTemplate.class);
+        stageDao.setSqlMapClientTemplate(mockTemplate);
+
+        Stage stage1 = StageMother.createPassedStage("pipeline", 1, "first", 1, "job", new Date());
+        Stage stage2 = StageMother.createPassedStage("pipeline", 2, "first", 1, "job", new Date());
+        PipelineIdentifier instance1 = stage1.getIdentifier().pipelineIdentifier();
+        PipelineIdentifier instance2 = stage2.getIdentifier().pipelineIdentifier();
+        when(mockTemplate.queryForList(eq("getStagesByPipelineInstances"), any())).thenReturn((List) asList(stage2, stage1));
+
+        Map<PipelineIdentifier, Stages> actual = stageDao.findAllStagesFor(asList(instance1, instance2));
+        assertThat(actual.get(instance1)).isEqualTo(new Stages(stage1));
+        assertThat(actual.get(instance2)).isEqualTo(new Stages(stage2));
+        actual = stageDao.findAllStagesFor(asList(instance1, instance2)); //Should return from cache
+        assertThat(actual.get(instance1)).isEqualTo(new Stages(stage1));
+        assertThat(stageDao.findAllStagesFor("pipeline", 2)).isEqualTo(new Stages(stage2));
+
+        verify(mockTemplate, times(1)).queryForList(eq("getStagesByPipelineInstances"), any());
+        verify(mockTemplate, never()).queryForList(eq("getStagesByPipelineNameAndCounter"), any());
+    }
+
     @Test
     public void shouldCacheAllStagesForAPipelineInstance() {
         SqlMapClientTemplate mockTemplate = mock(SqlMapClientTemplate.class);
@@ -1500,6 +1563,28 @@ public class StageSqlMapDaoIntegrationTest {
         assertThat(bottomOfFirstPage.getIdentifier().getPipelineCounter()).isEqualTo(2);
     }
 
+    @Test
+    public void shouldSeekTheStageHistoryPageFromItsBoundary() throws Exception {
+        HgMaterial hg = new HgMaterial("url", null);
+        String[] hg_revs = {"h1"};
+        scheduleUtil.checkinInOrder(hg, hg_revs);
+        String pipelineName = "p1";
+        String stageName = "stage_name";
+        ScheduleTestUtil.AddedPipeline p1 = scheduleUtil.saveConfigWith(pipelineName, stageName, scheduleUtil.m(hg));
+        for (int i = 0; i < 11; i++) {
+            scheduleUtil.runAndPass(p1, "h1");
+        }
+
+        StageHistoryPage firstPage = stageDao.findStageHistoryPageByNumber(pipelineName, stageName, 1, 10);
+        Long boundaryOfSecondPage = firstPage.getPagination().getBoundaryIdOf(2);
+        assertThat(boundaryOfSecondPage).isEqualTo(firstPage.getStages().get(9).getId());
+
+        StageHistoryPage secondPage = stageDao.findStageHistoryPageByNumber(pipelineName, stageName, 2, 10, boundaryOfSecondPage);
+        assertThat(secondPage.getStages().size()).isEqualTo(1);
+        assertThat(secondPage.getStages().get(0).getIdentifier().getPipelineCounter()).isEqualTo(1);
+        assertThat(secondPage.getPagination().getBoundaryId()).isEqualTo(boundaryOfSecondPage);
+    }
+
     @Test
     public void shouldReturnNullStageHistoryEntryWhenGettingHistoryForPage1() throws Exception {
         HgMaterial hg = new HgMaterial("url", null);
@@ -1633,6 +1633,47 @@ public class MaterialRepositoryIntegrationTest {
         assertModificationAreEqual(matchingMods.get(1), mods.get(1));
     }
 
+    @Test
+    public void shouldSearchModificationsThroughTheSearchIndexOnceItIsBuilt() {
+        MaterialRepository indexedRepo = new MaterialRepository(sessionFactory, goCache, 2, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        indexedRepo.setSearchIndexExecutor(Runnable::run);
+        GitMaterial material = MaterialsMother.gitMaterial("http://example.com/indexed_gocd");
+        Modifications mods = saveModifications(material, 5).getModifications(material);
+        MaterialInstance materialInstance = mods.get(0).getMaterialInstance();
+        long materialId = materialInstance.getId();
+
+        assertThat(indexedRepo.findMatchingModifications(materialId, "comment", FeedModifier.Latest, 0, 10).size(), is(5));
+
+        Modification later = new Modification(MOD_USER, "A later comment", EMAIL_ADDRESS, new Date(), "Rev: 5");
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                indexedRepo.saveModification(materialInstance, later);
+            }
+        });
+
+        List<Modification> latest = indexedRepo.findMatchingModifications(materialId, "COMMENT", FeedModifier.Latest, 0, 10);
+        assertThat(latest.size(), is(6));
+        assertModificationAreEqual(latest.get(0), later);
+        assertModificationAreEqual(latest.get(5), mods.get(4));
+
+        List<Modification> after = indexedRepo.findMatchingModifications(materialId, "comment", FeedModifier.After, mods.get(2).getId(), 10);
+        assertThat(after.size(), is(2));
+        assertModificationAreEqual(after.get(0), mods.get(3));
+        assertModificationAreEqual(after.get(1), mods.get(4));
+
+        List<Modification> before = indexedRepo.findMatchingModifications(materialId, "comment", FeedModifier.Before, mods.get(2).getId(), 2);
+        assertThat(before.size(), is(2));
+        assertModificationAreEqual(before.get(0), later);
+        assertModificationAreEqual(before.get(1), mods.get(0));
+
+        assertThat(indexedRepo.findMatchingModifications(materialId, "later", FeedModifier.Latest, 0, 10).size(), is(1));
+        PipelineRunIdInfo info = indexedRepo.getOldestAndLatestModificationId(materialId, "comment");
+        assertThat(info.getLatestRunId(), is(later.getId()));
+        assertThat(info.getOldestRunId(), is(mods.get(4).getId()));
+        assertThat(indexedRepo.getOldestAndLatestModificationId(materialId, "no such comment"), is(nullValue()));
+    }
+
     private MaterialRevisions saveModifications(Material material, int count) {
         MaterialRevisions materialRevisions = new MaterialRevisions();
         List<Modification> mods = new ArrayList<>();
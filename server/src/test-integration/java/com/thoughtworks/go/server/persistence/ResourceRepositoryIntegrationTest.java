@@ -32,7 +32,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static com.thoughtworks.go.helper.ModificationsMother.modifySomeFiles;
 import static com.thoughtworks.go.util.GoConstants.DEFAULT_APPROVED_BY;
@@ -108,6 +110,26 @@ public class ResourceRepositoryIntegrationTest {
         assertThat(resources.get(0), is(savedResource));
     }
 
+    @Test
+    public void shouldLoadSavedResourcesOfManyJobsTogether() {
+        // Arrange
+        JobInstance firstJobInstance = jobInstanceDao.save(stageId, new JobInstance(JOB_NAME));
+        JobInstance secondJobInstance = jobInstanceDao.save(stageId, new JobInstance(OTHER_JOB_NAME));
+        JobInstance jobInstanceWithoutResources = jobInstanceDao.save(stageId, new JobInstance(JOB_NAME + "1"));
+        Resource firstResource = resourceRepository.saveCopyOf(firstJobInstance.getId(), new Resource("linux"));
+        Resource secondResource = resourceRepository.saveCopyOf(firstJobInstance.getId(), new Resource("java"));
+        Resource resourceOfSecondJob = resourceRepository.saveCopyOf(secondJobInstance.getId(), new Resource("windows"));
+
+        // Act
+        Map<Long, Resources> resources = resourceRepository.findByBuildIds(Arrays.asList(firstJobInstance.getId(), secondJobInstance.getId(), jobInstanceWithoutResources.getId()));
+
+        // Assert
+        assertThat(resources.size(), is(2));
+        assertThat(resources.get(firstJobInstance.getId()), contains(firstResource, secondResource));
+        assertThat(resources.get(secondJobInstance.getId()), contains(resourceOfSecondJob));
+        assertThat(resourceRepository.findByBuildIds(Collections.emptyList()).isEmpty(), is(true));
+    }
+
     @Test
     public void shouldSaveACopyOfAResource() {
         // Arrange
@@ -29,10 +29,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
-import java.util.TreeSet;
 
 import static com.thoughtworks.go.util.DataStructureUtils.a;
 import static org.hamcrest.Matchers.is;
@@ -52,7 +52,7 @@ public class FailedBuildHistoryCacheSweeperTest {
     private PipelineTimelineEntry newlyAddedEntry;
     private PipelineTimelineEntry entryBeforeNew;
     private PipelineTimelineEntry entryAfterNew;
-    private TreeSet<PipelineTimelineEntry> timeline;
+    private List<PipelineTimelineEntry> timeline;
 
     @Before
     public void setUp() {
@@ -61,10 +61,7 @@ public class FailedBuildHistoryCacheSweeperTest {
         newlyAddedEntry = new PipelineTimelineEntry("cruise", 100, 10, modificationTimes, 5.0);
         entryBeforeNew = new PipelineTimelineEntry("cruise", 98, 9, modificationTimes, 4.0);
         entryAfterNew = new PipelineTimelineEntry("cruise", 99, 11, modificationTimes, 6.0);
-        timeline = new TreeSet<>();
-        timeline.add(entryBeforeNew);
-        timeline.add(entryAfterNew);
-        timeline.add(newlyAddedEntry);
+        timeline = Arrays.asList(entryBeforeNew, newlyAddedEntry, entryAfterNew);
     }
 
     @Test
@@ -22,6 +22,7 @@ import com.thoughtworks.go.config.GoConfigDao;
 import com.thoughtworks.go.config.materials.git.GitMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.PipelineIdentifier;
 import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.domain.valuestreammap.Node;
 import com.thoughtworks.go.domain.valuestreammap.PipelineDependencyNode;
@@ -47,6 +48,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(locations = {
         "classpath:/applicationContext-global.xml",
@@ -274,6 +279,52 @@ public class DownstreamInstancePopulatorIntegrationTest {
 		assertThat(nodep6.revisions().size(), is(0));
 	}
 
+    @Test
+    public void shouldLoadTheInstancesOfEachLevelOfTheGraphTogether() {
+
+        /*
+            g1 -> P -> P2 -> P4 --> P5
+                     \    /
+                       P3
+        */
+
+        ValueStreamMap valueStreamMap = new ValueStreamMap(new CaseInsensitiveString("p"), new PipelineRevision("p", 1, "1"));
+        Node nodep2 = valueStreamMap.addDownstreamNode(new PipelineDependencyNode(new CaseInsensitiveString("p2"), "p2"), new CaseInsensitiveString("p"));
+        Node nodep3 = valueStreamMap.addDownstreamNode(new PipelineDependencyNode(new CaseInsensitiveString("p3"), "p3"), new CaseInsensitiveString("p"));
+        Node nodep4 = valueStreamMap.addDownstreamNode(new PipelineDependencyNode(new CaseInsensitiveString("p4"), "p4"), new CaseInsensitiveString("p2"));
+        valueStreamMap.addDownstreamNode(new PipelineDependencyNode(new CaseInsensitiveString("p4"), "p4"), new CaseInsensitiveString("p3"));
+        Node nodep5 = valueStreamMap.addDownstreamNode(new PipelineDependencyNode(new CaseInsensitiveString("p5"), "p5"), new CaseInsensitiveString("p4"));
+
+        GitMaterial g1 = u.wf(new GitMaterial("g1"), "folder3");
+        u.checkinInOrder(g1, "g_1");
+
+        ScheduleTestUtil.AddedPipeline p = u.saveConfigWith("p", u.m(g1));
+        ScheduleTestUtil.AddedPipeline p2 = u.saveConfigWith("p2", u.m(p));
+        ScheduleTestUtil.AddedPipeline p3 = u.saveConfigWith("p3", u.m(p));
+        ScheduleTestUtil.AddedPipeline p4 = u.saveConfigWith("p4", u.m(p2), u.m(p3));
+        ScheduleTestUtil.AddedPipeline p5 = u.saveConfigWith("p5", u.m(p4));
+
+        String p_1 = u.runAndPass(p, "g_1");
+        String p2_1 = u.runAndPass(p2, p_1);
+        String p2_2 = u.runAndPass(p2, p_1);
+        String p3_1 = u.runAndPass(p3, p_1);
+        String p4_1 = u.runAndPass(p4, p2_1, p3_1);
+        String p4_2 = u.runAndPass(p4, p2_2, p3_1);
+        u.runAndPass(p5, p4_1);
+        u.runAndPass(p5, p4_2);
+        goCache.clear();
+
+        PipelineDao countingPipelineDao = mock(PipelineDao.class, delegatesTo(pipelineDao));
+        new DownstreamInstancePopulator(countingPipelineDao).apply(valueStreamMap);
+
+        assertInstances(nodep2, "p2", 1, 2);
+        assertInstances(nodep3, "p3", 1);
+        assertInstances(nodep4, "p4", 1, 2);
+        assertInstances(nodep5, "p5", 1, 2);
+        verify(countingPipelineDao, times(3)).getPipelineInstancesTriggeredWithDependencyMaterials(any());
+        verify(countingPipelineDao, never()).getPipelineInstancesTriggeredWithDependencyMaterial(anyString(), any(PipelineIdentifier.class));
+    }
+
     private void assertInstances(Node node, String pipelineName, Integer... pipelineCounters) {
         List<Revision> revisions = node.revisions();
         assertThat(revisions.size(), is(pipelineCounters.length));